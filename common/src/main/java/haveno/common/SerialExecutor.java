@@ -0,0 +1,237 @@
+/*
+ * This file is part of Haveno.
+ *
+ * Haveno is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Haveno is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Haveno. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package haveno.common;
+
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+
+import javax.annotation.Nullable;
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Executes the submitted tasks one after another in submission order on a shared carrier executor.
+ * Unlike a single thread executor it does not own a thread, so an idle SerialExecutor does not cost a thread.
+ * Keeps metrics about the queue depth, the task latency and the currently running task.
+ * The optional idle listener is called on the carrier thread after the queue was drained, so the owner can drop
+ * executors which are not used anymore.
+ */
+@Slf4j
+public class SerialExecutor {
+    private static final long LONG_RUNNING_TASK_MS = TimeUnit.MINUTES.toMillis(1);
+
+    private final String id;
+    private final Executor carrier;
+    @Nullable
+    private final Consumer<SerialExecutor> idleListener;
+
+    // Guarded by this
+    private final Queue<QueuedTask> queue = new ArrayDeque<>();
+    private boolean running;
+    private boolean shutDown;
+    private long completedTasks;
+    private long totalLatencyMs;
+    private long maxLatencyMs;
+    private long maxRunDurationMs;
+
+    @Nullable
+    private volatile Thread currentThread;
+    private volatile long currentTaskStartTime;
+
+    public SerialExecutor(String id, Executor carrier) {
+        this(id, carrier, null);
+    }
+
+    public SerialExecutor(String id, Executor carrier, @Nullable Consumer<SerialExecutor> idleListener) {
+        this.id = id;
+        this.carrier = carrier;
+        this.idleListener = idleListener;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public Future<?> submit(Runnable command) {
+        FutureTask<?> future = new FutureTask<>(command, null);
+        boolean startDrain;
+        synchronized (this) {
+            if (shutDown) {
+                throw new RejectedExecutionException("SerialExecutor " + id + " is shut down");
+            }
+            queue.add(new QueuedTask(future, System.currentTimeMillis()));
+            startDrain = !running;
+            running = true;
+        }
+        if (startDrain) {
+            try {
+                carrier.execute(this::drain);
+            } catch (RejectedExecutionException e) {
+                synchronized (this) {
+                    queue.clear();
+                    running = false;
+                    notifyAll();
+                }
+                onIdle();
+                throw e;
+            }
+        }
+        return future;
+    }
+
+    public boolean isCurrentThread(Thread thread) {
+        return thread == currentThread;
+    }
+
+    /**
+     * @return true if no task is queued or running.
+     */
+    public synchronized boolean isIdle() {
+        return !running && queue.isEmpty();
+    }
+
+    /**
+     * Rejects new tasks and waits until the queued tasks are completed. If that does not happen within the
+     * timeout the queued tasks get cancelled and the running task gets interrupted.
+     */
+    public void shutDown(long timeoutMs) throws InterruptedException {
+        synchronized (this) {
+            shutDown = true;
+        }
+        // Waiting for ourselves would never complete
+        if (isCurrentThread(Thread.currentThread())) {
+            return;
+        }
+        if (!awaitTermination(timeoutMs)) {
+            shutDownNow();
+        }
+    }
+
+    public synchronized Metrics getMetrics() {
+        long runningTaskMs = currentThread == null ? 0 : System.currentTimeMillis() - currentTaskStartTime;
+        return new Metrics(id,
+                queue.size(),
+                completedTasks,
+                completedTasks == 0 ? 0 : totalLatencyMs / completedTasks,
+                maxLatencyMs,
+                maxRunDurationMs,
+                runningTaskMs);
+    }
+
+    private synchronized boolean awaitTermination(long timeoutMs) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + Math.min(timeoutMs, Long.MAX_VALUE / 2);
+        while (running) {
+            long remaining = deadline - System.currentTimeMillis();
+            if (remaining <= 0) {
+                return false;
+            }
+            wait(remaining);
+        }
+        return true;
+    }
+
+    private void shutDownNow() {
+        synchronized (this) {
+            queue.forEach(queuedTask -> queuedTask.future.cancel(false));
+            queue.clear();
+        }
+        Thread thread = currentThread;
+        if (thread != null) {
+            thread.interrupt();
+        }
+    }
+
+    private void drain() {
+        while (true) {
+            QueuedTask queuedTask;
+            synchronized (this) {
+                queuedTask = queue.poll();
+                if (queuedTask == null) {
+                    running = false;
+                    notifyAll();
+                    break;
+                }
+            }
+
+            currentTaskStartTime = System.currentTimeMillis();
+            currentThread = Thread.currentThread();
+            try {
+                queuedTask.future.run();
+            } finally {
+                currentThread = null;
+                // Clear a possible interrupt from shutDownNow so it does not leak into the next task of the carrier
+                Thread.interrupted();
+                onTaskCompleted(queuedTask);
+            }
+        }
+        onIdle();
+    }
+
+    private void onIdle() {
+        if (idleListener == null) return;
+        try {
+            idleListener.accept(this);
+        } catch (Exception e) {
+            log.warn("Idle listener of thread id {} failed", id, e);
+        }
+    }
+
+    private void onTaskCompleted(QueuedTask queuedTask) {
+        long now = System.currentTimeMillis();
+        long runDuration = now - currentTaskStartTime;
+        long latency = now - queuedTask.submitTime;
+        synchronized (this) {
+            completedTasks++;
+            totalLatencyMs += latency;
+            maxLatencyMs = Math.max(maxLatencyMs, latency);
+            maxRunDurationMs = Math.max(maxRunDurationMs, runDuration);
+        }
+        if (runDuration > LONG_RUNNING_TASK_MS) {
+            log.warn("Task of thread id {} ran for {} sec. Queued tasks: {}", id, runDuration / 1000d, getMetrics().getQueueDepth());
+        }
+    }
+
+    private static class QueuedTask {
+        private final FutureTask<?> future;
+        private final long submitTime;
+
+        QueuedTask(FutureTask<?> future, long submitTime) {
+            this.future = future;
+            this.submitTime = submitTime;
+        }
+    }
+
+    @Value
+    public static class Metrics {
+        String id;
+        int queueDepth;
+        long completedTasks;
+        // Time from submitting a task until it completed
+        long avgLatencyMs;
+        long maxLatencyMs;
+        long maxRunDurationMs;
+        // Run duration of the current task, 0 if idle
+        long runningTaskMs;
+    }
+}
@@ -16,49 +16,101 @@
  */
 
 package haveno.common;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import lombok.extern.slf4j.Slf4j;
+
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
 
+@Slf4j
 public class ThreadUtils {
-    
-    private static final Map<String, ExecutorService> EXECUTORS = new HashMap<>();
-    private static final Map<String, Thread> THREADS = new HashMap<>();
+
+    private static final Map<String, SerialExecutor> EXECUTORS = new HashMap<>();
     private static final int POOL_SIZE = 10;
     private static final ExecutorService POOL = Executors.newFixedThreadPool(POOL_SIZE);
 
+    // Carrier threads for the serial executors only. The pool is bounded: once all carrier threads are busy further
+    // tasks wait in the queue. If the queue is full as well the task runs on a new thread, so it is never rejected.
+    // Idle carrier threads terminate, so idle thread ids do not hold a thread.
+    private static final int CARRIER_POOL_SIZE = 256;
+    private static final int CARRIER_QUEUE_CAPACITY = 10000;
+    private static final ThreadPoolExecutor CARRIER_POOL = createCarrierPool();
+
+    // Threads for the workers of awaited tasks. Awaited tasks often await other tasks, so a bounded pool could
+    // deadlock once all its threads wait for tasks queued behind them. The concurrency is limited per call instead.
+    private static final ExecutorService AWAIT_POOL = Executors.newCachedThreadPool(new ThreadFactoryBuilder()
+            .setNameFormat("ThreadUtils-await-%d")
+            .setDaemon(true)
+            .build());
+
+    private static ThreadPoolExecutor createCarrierPool() {
+        ThreadPoolExecutor pool = new ThreadPoolExecutor(CARRIER_POOL_SIZE, CARRIER_POOL_SIZE,
+                60, TimeUnit.SECONDS, new ArrayBlockingQueue<>(CARRIER_QUEUE_CAPACITY), new ThreadFactoryBuilder()
+                        .setNameFormat("ThreadUtils-carrier-%d")
+                        .setDaemon(true)
+                        .build(),
+                (task, executor) -> {
+                    log.error("ThreadUtils carrier pool is exhausted, running task on a new thread. Active threads: {}, queued tasks: {}",
+                            executor.getActiveCount(), executor.getQueue().size());
+                    Thread thread = new Thread(task, "ThreadUtils-overflow");
+                    thread.setDaemon(true);
+                    thread.start();
+                });
+        pool.allowCoreThreadTimeOut(true);
+        return pool;
+    }
+
     /**
      * Execute the given command in a thread with the given id.
+     * Commands with the same thread id are executed one after another in submission order.
+     * The executor of a thread id is dropped once it has no more queued commands.
+     * If the thread id is being shut down the command is not executed and the returned future is cancelled.
      * 
      * @param command the command to execute
      * @param threadId the thread id
      */
     public static Future<?> execute(Runnable command, String threadId) {
         synchronized (EXECUTORS) {
-            if (!EXECUTORS.containsKey(threadId)) EXECUTORS.put(threadId, Executors.newFixedThreadPool(1));
-            return EXECUTORS.get(threadId).submit(() -> {
-                synchronized (THREADS) {
-                    THREADS.put(threadId, Thread.currentThread());
-                }
-                command.run();
-            });
+            try {
+                return EXECUTORS.computeIfAbsent(threadId, id -> new SerialExecutor(id, CARRIER_POOL, ThreadUtils::removeIfIdle)).submit(command);
+            } catch (RejectedExecutionException e) {
+                log.warn("Command for thread id {} was rejected: {}", threadId, e.getMessage());
+                FutureTask<?> future = new FutureTask<>(command, null);
+                future.cancel(false);
+                return future;
+            }
         }
     }
 
     /**
      * Awaits execution of the given command, but does not throw its exception.
+     * If called from the thread with the given id the command is executed directly as it would never get executed
+     * otherwise.
      * 
      * @param command the command to execute
      * @param threadId the thread id
      */
     public static void await(Runnable command, String threadId) {
+        if (isCurrentThread(Thread.currentThread(), threadId)) {
+            command.run();
+            return;
+        }
         try {
             execute(command, threadId).get();
         } catch (Exception e) {
@@ -72,16 +124,14 @@ public class ThreadUtils {
 
     public static void shutDown(String threadId, Long timeoutMs) {
         if (timeoutMs == null) timeoutMs = Long.MAX_VALUE;
-        ExecutorService pool = null;
+        SerialExecutor executor;
         synchronized (EXECUTORS) {
-            pool = EXECUTORS.get(threadId);
+            executor = EXECUTORS.get(threadId);
         }
-        if (pool == null) return; // thread not found
-        pool.shutdown();
+        if (executor == null) return; // thread not found
         try {
-            if (!pool.awaitTermination(timeoutMs, TimeUnit.MILLISECONDS)) pool.shutdownNow();
+            executor.shutDown(timeoutMs);
         } catch (InterruptedException e) {
-            pool.shutdownNow();
             throw new RuntimeException(e);
         } finally {
             remove(threadId);
@@ -92,9 +142,23 @@ public class ThreadUtils {
         synchronized (EXECUTORS) {
             EXECUTORS.remove(threadId);
         }
-        synchronized (THREADS) {
-            THREADS.remove(threadId);
+    }
+
+    private static void removeIfIdle(SerialExecutor executor) {
+        synchronized (EXECUTORS) {
+            if (executor.isIdle()) EXECUTORS.remove(executor.getId(), executor);
+        }
+    }
+
+    /**
+     * @return The metrics of the executors for all thread ids with queued or running commands.
+     */
+    public static List<SerialExecutor.Metrics> getExecutorMetrics() {
+        List<SerialExecutor> executors;
+        synchronized (EXECUTORS) {
+            executors = new ArrayList<>(EXECUTORS.values());
         }
+        return executors.stream().map(SerialExecutor::getMetrics).collect(Collectors.toList());
     }
 
     // TODO: consolidate and cleanup apis
@@ -125,26 +189,42 @@ public class ThreadUtils {
         return awaitTasks(tasks, maxConcurrency, null);
     }
 
+    /**
+     * Runs the given tasks with at most maxConcurrency tasks at the same time and awaits their completion.
+     * At most maxConcurrency worker threads are used, so no threads are created for tasks waiting for their turn.
+     * The workers do not share a bounded pool with other callers, so nested calls cannot starve each other.
+     */
     public static List<Future<?>> awaitTasks(Collection<Runnable> tasks, int maxConcurrency, Long timeoutMs) {
         if (timeoutMs == null) timeoutMs = Long.MAX_VALUE;
         if (tasks.isEmpty()) return new ArrayList<>();
-        ExecutorService executorService = Executors.newFixedThreadPool(tasks.size());
+        List<Future<?>> futures = new ArrayList<>();
+        Queue<FutureTask<?>> pending = new ConcurrentLinkedQueue<>();
+        for (Runnable task : tasks) {
+            FutureTask<?> future = new FutureTask<>(task, null);
+            futures.add(future);
+            pending.add(future);
+        }
+        Runnable worker = () -> {
+            FutureTask<?> future;
+            while ((future = pending.poll()) != null) future.run();
+        };
+        int numWorkers = Math.max(1, Math.min(maxConcurrency, tasks.size()));
         try {
-            List<Future<?>> futures = new ArrayList<>();
-            for (Runnable task : tasks) futures.add(executorService.submit(task, null));
+            for (int i = 0; i < numWorkers; i++) AWAIT_POOL.execute(worker);
             for (Future<?> future : futures) future.get(timeoutMs, TimeUnit.MILLISECONDS);
             return futures;
         } catch (Exception e) {
             throw new RuntimeException(e);
         } finally {
-            executorService.shutdownNow();
+            pending.clear();
+            for (Future<?> future : futures) future.cancel(true);
         }
     }
 
     private static boolean isCurrentThread(Thread thread, String threadId) {
-        synchronized (THREADS) {
-            if (!THREADS.containsKey(threadId)) return false;
-            return thread == THREADS.get(threadId);
+        synchronized (EXECUTORS) {
+            SerialExecutor executor = EXECUTORS.get(threadId);
+            return executor != null && executor.isCurrentThread(thread);
         }
     }
 }
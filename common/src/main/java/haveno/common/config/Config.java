@@ -94,6 +94,7 @@ public class Config {
     public static final String MSG_THROTTLE_PER_10_SEC = "msgThrottlePer10Sec";
     public static final String SEND_MSG_THROTTLE_TRIGGER = "sendMsgThrottleTrigger";
     public static final String SEND_MSG_THROTTLE_SLEEP = "sendMsgThrottleSleep";
+    public static final String NETWORK_ENGINE = "networkEngine";
     public static final String IGNORE_LOCAL_XMR_NODE = "ignoreLocalXmrNode";
     public static final String BITCOIN_REGTEST_HOST = "bitcoinRegtestHost";
     public static final String XMR_NODE = "xmrNode";
@@ -145,6 +146,11 @@ public class Config {
         ON
     }
 
+    public enum NetworkEngine {
+        PLATFORM_THREADS,
+        VIRTUAL_THREADS
+    }
+
     // Options supported on cmd line and in the config file
     public final String appName;
     public final File userDataDir;
@@ -185,6 +191,7 @@ public class Config {
     public final int msgThrottlePer10Sec;
     public final int sendMsgThrottleTrigger;
     public final int sendMsgThrottleSleep;
+    public final NetworkEngine networkEngine;
     public final String xmrNode;
     public final String xmrNodeUsername;
     public final String xmrNodePassword;
@@ -513,6 +520,15 @@ public class Config {
                         .ofType(int.class)
                         .defaultsTo(50); // Pause in ms to sleep if we get too many messages to send
 
+        //noinspection rawtypes
+        ArgumentAcceptingOptionSpec<Enum> networkEngineOpt =
+                parser.accepts(NETWORK_ENGINE, "Threads used for the P2P network connections, one of: " +
+                                "platform_threads or virtual_threads. Virtual threads are recommended for seed nodes.")
+                        .withRequiredArg()
+                        .ofType(NetworkEngine.class)
+                        .withValuesConvertedBy(new EnumValueConverter(NetworkEngine.class))
+                        .defaultsTo(NetworkEngine.PLATFORM_THREADS);
+
         ArgumentAcceptingOptionSpec<String> xmrNodeOpt =
                 parser.accepts(XMR_NODE, "URI of custom Monero node to use")
                         .withRequiredArg()
@@ -706,6 +722,7 @@ public class Config {
             this.msgThrottlePer10Sec = options.valueOf(msgThrottlePer10SecOpt);
             this.sendMsgThrottleTrigger = options.valueOf(sendMsgThrottleTriggerOpt);
             this.sendMsgThrottleSleep = options.valueOf(sendMsgThrottleSleepOpt);
+            this.networkEngine = (NetworkEngine) options.valueOf(networkEngineOpt);
             this.xmrNode = options.valueOf(xmrNodeOpt);
             this.xmrNodeUsername = options.valueOf(xmrNodeUsernameOpt);
             this.xmrNodePassword = options.valueOf(xmrNodePasswordOpt);
@@ -21,6 +21,7 @@ import haveno.common.util.Hex;
 import haveno.common.util.Utilities;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.security.InvalidKeyException;
 import java.security.KeyFactory;
 import java.security.KeyPair;
@@ -157,6 +158,25 @@ public class Encryption {
         return encrypt(getPayloadWithHmac(payload, secretKey), secretKey);
     }
 
+    /**
+     * Returns a stream producing the same output as encryptPayloadWithHmac for the payload written to it, without
+     * the need to keep the whole payload in memory. HmacEncryptingOutputStream.finish must be called after the
+     * payload was written.
+     */
+    public static HmacEncryptingOutputStream getHmacEncryptingOutputStream(OutputStream outputStream,
+                                                                          SecretKey secretKey) throws CryptoException {
+        try {
+            Cipher cipher = Cipher.getInstance(SYM_CIPHER);
+            cipher.init(Cipher.ENCRYPT_MODE, secretKey);
+            Mac mac = Mac.getInstance(HMAC);
+            mac.init(secretKey);
+            return new HmacEncryptingOutputStream(outputStream, cipher, mac);
+        } catch (Throwable e) {
+            log.error("error in getHmacEncryptingOutputStream", e);
+            throw new CryptoException(e);
+        }
+    }
+
     public static byte[] decryptPayloadWithHmac(byte[] encryptedPayloadWithHmac, SecretKey secretKey) throws CryptoException {
         byte[] payloadWithHmac = decrypt(encryptedPayloadWithHmac, secretKey);
         String payloadWithHmacAsHex = Hex.encode(payloadWithHmac);
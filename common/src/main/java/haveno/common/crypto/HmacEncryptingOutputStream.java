@@ -0,0 +1,88 @@
+/*
+ * This file is part of Haveno.
+ *
+ * Haveno is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Haveno is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Haveno. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package haveno.common.crypto;
+
+import javax.crypto.Cipher;
+import javax.crypto.Mac;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.security.GeneralSecurityException;
+
+/**
+ * Encrypts the payload written to it together with its hmac while writing, see
+ * Encryption.getHmacEncryptingOutputStream. Does not close the underlying stream, so the caller can sync it to disk.
+ */
+public final class HmacEncryptingOutputStream extends OutputStream {
+    private final OutputStream outputStream;
+    private final Cipher cipher;
+    private final Mac mac;
+    private boolean finished;
+
+    HmacEncryptingOutputStream(OutputStream outputStream, Cipher cipher, Mac mac) {
+        this.outputStream = outputStream;
+        this.cipher = cipher;
+        this.mac = mac;
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        write(new byte[]{(byte) b}, 0, 1);
+    }
+
+    @Override
+    public void write(byte[] bytes, int offset, int length) throws IOException {
+        if (finished) {
+            throw new IOException("Stream is already finished");
+        }
+        mac.update(bytes, offset, length);
+        writeEncrypted(cipher.update(bytes, offset, length));
+    }
+
+    /**
+     * Appends the hmac of the payload and writes the remaining encrypted bytes.
+     */
+    public void finish() throws IOException {
+        if (finished) {
+            return;
+        }
+        finished = true;
+        writeEncrypted(cipher.update(mac.doFinal()));
+        try {
+            writeEncrypted(cipher.doFinal());
+        } catch (GeneralSecurityException e) {
+            throw new IOException(e);
+        }
+        outputStream.flush();
+    }
+
+    @Override
+    public void flush() throws IOException {
+        outputStream.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        finish();
+    }
+
+    private void writeEncrypted(byte[] encrypted) throws IOException {
+        if (encrypted != null && encrypted.length > 0) {
+            outputStream.write(encrypted);
+        }
+    }
+}
@@ -26,23 +26,30 @@ import haveno.common.app.DevEnv;
 import haveno.common.config.Config;
 import haveno.common.crypto.CryptoException;
 import haveno.common.crypto.Encryption;
+import haveno.common.crypto.HmacEncryptingOutputStream;
 import haveno.common.crypto.KeyRing;
 import haveno.common.file.CorruptedStorageFileHandler;
 import haveno.common.file.FileUtil;
 import haveno.common.handlers.ResultHandler;
 import haveno.common.proto.persistable.PersistableEnvelope;
 import haveno.common.proto.persistable.PersistenceProtoResolver;
+import haveno.common.proto.persistable.SegmentedPersistableEnvelope;
 import haveno.common.util.GcUtil;
 import static haveno.common.util.Preconditions.checkDir;
 import haveno.common.util.SingleThreadExecutorUtils;
+import java.io.BufferedOutputStream;
 import java.io.ByteArrayInputStream;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.nio.file.Path;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.TimeUnit;
@@ -66,6 +73,9 @@ import lombok.extern.slf4j.Slf4j;
  * previously we wasted a lot of resources as way too many threads have been created without doing actual work as well
  * the write operations got triggered way too often specially for the very frequent changes at SequenceNumberMap
  *
+ * For a {@link SegmentedPersistableEnvelope} we only append the changed segments to a {@link SegmentLog} and write
+ * the whole envelope only if the log got too large. This keeps the cost of persisting a change of a single trade
+ * independent of the number of trades.
  *
  * @param <T>   The type of the {@link PersistableEnvelope} to be written or read from disk
  */
@@ -79,6 +89,7 @@ public class PersistenceManager<T extends PersistableEnvelope> {
     public static final Map<String, PersistenceManager<?>> ALL_PERSISTENCE_MANAGERS = new HashMap<>();
     private static boolean flushAtShutdownCalled;
     private static final AtomicBoolean allServicesInitialized = new AtomicBoolean(false);
+    private static final int WRITE_BUFFER_SIZE = 64 * 1024;
 
     public static void onAllServicesInitialized() {
         allServicesInitialized.set(true);
@@ -216,6 +227,7 @@ public class PersistenceManager<T extends PersistableEnvelope> {
     ///////////////////////////////////////////////////////////////////////////////////////////
 
     private final File dir;
+    @Getter
     private final PersistenceProtoResolver persistenceProtoResolver;
     private final CorruptedStorageFileHandler corruptedStorageFileHandler;
     @Nullable
@@ -229,6 +241,8 @@ public class PersistenceManager<T extends PersistableEnvelope> {
     @Nullable
     private Timer timer;
     private ExecutorService writeToDiskExecutor;
+    @Nullable
+    private SegmentLog segmentLog;
     public final AtomicBoolean initCalled = new AtomicBoolean(false);
     public final AtomicBoolean readCalled = new AtomicBoolean(false);
 
@@ -283,6 +297,9 @@ public class PersistenceManager<T extends PersistableEnvelope> {
         this.fileName = fileName;
         this.source = source;
         storageFile = new File(dir, fileName);
+        if (persistable instanceof SegmentedPersistableEnvelope) {
+            segmentLog = new SegmentLog(new File(dir, fileName + "_log"), keyRing);
+        }
         ALL_PERSISTENCE_MANAGERS.put(fileName, this);
     }
 
@@ -368,18 +385,26 @@ public class PersistenceManager<T extends PersistableEnvelope> {
         long ts = System.currentTimeMillis();
         try (FileInputStream fileInputStream = new FileInputStream(storageFile)) {
             protobuf.PersistableEnvelope proto;
+            byte[] fileBytes = fileInputStream.readAllBytes();
             if (keyRing != null) {
-                byte[] encryptedBytes = fileInputStream.readAllBytes();
                 try {
-                    byte[] decryptedBytes = Encryption.decryptPayloadWithHmac(encryptedBytes, keyRing.getSymmetricKey());
+                    byte[] decryptedBytes = Encryption.decryptPayloadWithHmac(fileBytes, keyRing.getSymmetricKey());
                     proto = protobuf.PersistableEnvelope.parseFrom(decryptedBytes);
                 } catch (CryptoException ce) {
                     log.warn("Expected encrypted persisted file, attempting to getPersisted without decryption");
-                    ByteArrayInputStream bs = new ByteArrayInputStream(encryptedBytes);
+                    ByteArrayInputStream bs = new ByteArrayInputStream(fileBytes);
                     proto = protobuf.PersistableEnvelope.parseDelimitedFrom(bs);
                 }
             } else {
-                proto = protobuf.PersistableEnvelope.parseDelimitedFrom(fileInputStream);
+                proto = protobuf.PersistableEnvelope.parseDelimitedFrom(new ByteArrayInputStream(fileBytes));
+            }
+
+            if (segmentLog != null && fileName.equals(this.fileName)) {
+                SegmentedPersistableEnvelope segmentedPersistable = (SegmentedPersistableEnvelope) persistable;
+                LinkedHashMap<String, byte[]> segments = segmentLog.replay(fileBytes, segmentedPersistable.toSegments(proto));
+                if (segments != null) {
+                    proto = segmentedPersistable.fromSegments(segments.values());
+                }
             }
 
             //noinspection unchecked
@@ -409,6 +434,22 @@ public class PersistenceManager<T extends PersistableEnvelope> {
     ///////////////////////////////////////////////////////////////////////////////////////////
 
     public void requestPersistence() {
+        // We do not know what changed, so all segments need to be persisted
+        if (persistable instanceof SegmentedPersistableEnvelope) {
+            ((SegmentedPersistableEnvelope) persistable).markAllSegmentsChanged();
+        }
+        requestPersistenceOfChanges();
+    }
+
+    /**
+     * Like {@link #requestPersistence()} but for a {@link SegmentedPersistableEnvelope} only the segments which got
+     * marked as changed and new segments get persisted.
+     */
+    public void requestSegmentPersistence() {
+        requestPersistenceOfChanges();
+    }
+
+    private void requestPersistenceOfChanges() {
         if (flushAtShutdownCalled) {
             log.warn("We have started the shut down routine already. We ignore that requestPersistence call.");
             try {
@@ -455,16 +496,41 @@ public class PersistenceManager<T extends PersistableEnvelope> {
         try {
             // The serialisation is done on the user thread to avoid threading issue with potential mutations of the
             // persistable object. Keeping it on the user thread we are in a synchronize model.
-            protobuf.PersistableEnvelope serialized = (protobuf.PersistableEnvelope) persistable.toPersistableMessage();
-
             // For the write to disk task we use a thread. We do not have any issues anymore if the persistable objects
             // gets mutated while the thread is running as we have serialized it already and do not operate on the
             // reference to the persistable object.
-            getWriteToDiskExecutor().execute(() -> writeToDisk(serialized, completeHandler, force));
+            // If the persistable provides a snapshot which is not affected by later mutations we only take the
+            // snapshot on the user thread and serialize it on the write thread while streaming it to disk.
+            if (segmentLog != null) {
+                SegmentedPersistableEnvelope segmentedPersistable = (SegmentedPersistableEnvelope) persistable;
+                if (segmentLog.requiresCompaction()) {
+                    // Only a new snapshot requires to serialize all segments
+                    LinkedHashMap<String, byte[]> segments = segmentedPersistable.toPersistableSegments();
+                    long serializeDuration = System.currentTimeMillis() - ts;
+                    getWriteToDiskExecutor().execute(() -> writeToDisk(() -> segmentedPersistable.fromSegments(segments.values()),
+                            segments, 0, serializeDuration, completeHandler, force));
+                } else {
+                    SegmentedPersistableEnvelope.SegmentChanges changes = segmentedPersistable.toChangedSegments(segmentLog::isPersistedSegment);
+                    long serializeDuration = System.currentTimeMillis() - ts;
+                    getWriteToDiskExecutor().execute(() -> writeSegmentsToDisk(changes, serializeDuration, completeHandler, force));
+                }
+            } else {
+                PersistableEnvelope snapshot = persistable.toPersistableSnapshot();
+                if (snapshot != null) {
+                    long snapshotDuration = System.currentTimeMillis() - ts;
+                    getWriteToDiskExecutor().execute(() -> writeToDisk(() -> (protobuf.PersistableEnvelope) snapshot.toPersistableMessage(),
+                            null, snapshotDuration, 0, completeHandler, force));
+                } else {
+                    protobuf.PersistableEnvelope serialized = (protobuf.PersistableEnvelope) persistable.toPersistableMessage();
+                    long serializeDuration = System.currentTimeMillis() - ts;
+                    getWriteToDiskExecutor().execute(() -> writeToDisk(() -> serialized,
+                            null, 0, serializeDuration, completeHandler, force));
+                }
+            }
 
             long duration = System.currentTimeMillis() - ts;
             if (duration > 100) {
-                log.info("Serializing {} took {} msec", fileName, duration);
+                log.info("Serializing {} on the user thread took {} msec", fileName, duration);
             }
         } catch (Throwable e) {
             log.error("Error in saveToFile toProtoMessage: {}, {}", persistable.getClass().getSimpleName(), fileName);
@@ -473,27 +539,95 @@ public class PersistenceManager<T extends PersistableEnvelope> {
         }
     }
 
-    private void writeToDisk(protobuf.PersistableEnvelope serialized, @Nullable Runnable completeHandler, boolean force) {
+    private void writeSegmentsToDisk(SegmentedPersistableEnvelope.SegmentChanges changes,
+                                     long serializeDuration,
+                                     @Nullable Runnable completeHandler,
+                                     boolean force) {
+        if (!isWriteToDiskPermitted(completeHandler, force)) {
+            // The changes did not get persisted
+            ((SegmentedPersistableEnvelope) persistable).markAllSegmentsChanged();
+            return;
+        }
+
+        long ts = System.currentTimeMillis();
+        boolean failed = false;
+        try {
+            checkNotNull(segmentLog).append(changes.getIds(), changes.getChangedSegments());
+        } catch (Throwable t) {
+            // The segment log requires a compaction now, which persists all segments at the next write
+            failed = true;
+            ((SegmentedPersistableEnvelope) persistable).markAllSegmentsChanged();
+            log.error("Error at appending to segment log, storageFile={}", fileName, t);
+        } finally {
+            long duration = System.currentTimeMillis() - ts;
+            if (duration + serializeDuration > 100) {
+                log.info("Appending {} changed segments of {} completed in {} msec (serialize={} msec)",
+                        changes.getChangedSegments().size(), fileName, duration, serializeDuration);
+            }
+            persistenceRequested = failed;
+            if (completeHandler != null) {
+                UserThread.execute(completeHandler);
+            }
+        }
+    }
+
+    private boolean isWriteToDiskPermitted(@Nullable Runnable completeHandler, boolean force) {
         if (!allServicesInitialized.get() && !force) {
             log.warn("Application has not completed start up yet so we do not permit writing data to disk.");
             if (completeHandler != null) {
                 UserThread.execute(completeHandler);
             }
-            return;
+            return false;
         }
         if (keyRing != null && !keyRing.isUnlocked()) {
             log.warn("Account is not open, ignoring writeToDisk.");
             if (completeHandler != null) {
                 UserThread.execute(completeHandler);
             }
+            return false;
+        }
+        return true;
+    }
+
+    @FunctionalInterface
+    private interface Serializer {
+        protobuf.PersistableEnvelope serialize() throws Exception;
+    }
+
+    /**
+     * Serializes the envelope and streams it to a temp file, encrypting it on the fly if we have a keyRing, and
+     * replaces the storage file with it.
+     *
+     * @param serializer         Provides the serialized envelope. Called on the write thread.
+     * @param segments           The segments of a SegmentedPersistableEnvelope to set as new base of the segment log
+     *                           after a successful write, null for other envelopes.
+     * @param snapshotDuration   Time spent for taking the snapshot on the user thread, used for logging.
+     * @param serializeDuration  Time spent for serializing on the user thread, used for logging.
+     */
+    private void writeToDisk(Serializer serializer,
+                             @Nullable LinkedHashMap<String, byte[]> segments,
+                             long snapshotDuration,
+                             long serializeDuration,
+                             @Nullable Runnable completeHandler,
+                             boolean force) {
+        if (!isWriteToDiskPermitted(completeHandler, force)) {
+            if (segments != null) {
+                ((SegmentedPersistableEnvelope) persistable).markAllSegmentsChanged();
+            }
             return;
         }
 
         long ts = System.currentTimeMillis();
+        long writeDuration = 0;
+        long syncDuration = 0;
+        long fileSize = 0;
         File tempFile = null;
         FileOutputStream fileOutputStream = null;
 
         try {
+            protobuf.PersistableEnvelope serialized = serializer.serialize();
+            serializeDuration += System.currentTimeMillis() - ts;
+
             // Before we write we backup existing file
             FileUtil.rollingBackup(dir, fileName, source.getNumMaxBackupFiles());
 
@@ -508,17 +642,29 @@ public class PersistenceManager<T extends PersistableEnvelope> {
 
             fileOutputStream = new FileOutputStream(tempFile);
 
+            // We stream the bytes to disk so that we do not need to keep the serialized and the encrypted copy of
+            // large envelopes in memory. The encryption happens while writing, so both get measured together.
+            long writeTs = System.currentTimeMillis();
+            MessageDigest messageDigest = MessageDigest.getInstance("SHA-256");
+            OutputStream outputStream = new DigestOutputStream(new BufferedOutputStream(fileOutputStream, WRITE_BUFFER_SIZE),
+                    messageDigest);
             if (keyRing != null) {
-                byte[] encryptedBytes = Encryption.encryptPayloadWithHmac(serialized.toByteArray(), keyRing.getSymmetricKey());
-                fileOutputStream.write(encryptedBytes);
+                HmacEncryptingOutputStream encryptingOutputStream =
+                        Encryption.getHmacEncryptingOutputStream(outputStream, keyRing.getSymmetricKey());
+                serialized.writeTo(encryptingOutputStream);
+                encryptingOutputStream.finish();
             } else {
-                serialized.writeDelimitedTo(fileOutputStream);
+                serialized.writeDelimitedTo(outputStream);
             }
+            outputStream.flush();
+            writeDuration = System.currentTimeMillis() - writeTs;
 
             // Attempt to force the bits to hit the disk. In reality the OS or hard disk itself may still decide
             // to not write through to physical media for at least a few seconds, but this is the best we can do.
-            fileOutputStream.flush();
+            long syncTs = System.currentTimeMillis();
             fileOutputStream.getFD().sync();
+            syncDuration = System.currentTimeMillis() - syncTs;
+            fileSize = fileOutputStream.getChannel().size();
 
             // Close resources before replacing file with temp file because otherwise it causes problems on windows
             // when rename temp file
@@ -526,9 +672,16 @@ public class PersistenceManager<T extends PersistableEnvelope> {
 
             FileUtil.renameFile(tempFile, storageFile);
             usedTempFilePath = tempFile.toPath();
+
+            if (segments != null) {
+                checkNotNull(segmentLog).onSnapshotWritten(messageDigest.digest(), fileSize, segments);
+            }
         } catch (Throwable t) {
             // If an error occurred, don't attempt to reuse this path again, in case temp file cleanup fails.
             usedTempFilePath = null;
+            if (segments != null) {
+                ((SegmentedPersistableEnvelope) persistable).markAllSegmentsChanged();
+            }
             log.error("Error at saveToFile, storageFile={}", fileName, t);
         } finally {
             if (tempFile != null && tempFile.exists()) {
@@ -547,9 +700,16 @@ public class PersistenceManager<T extends PersistableEnvelope> {
                 e.printStackTrace();
                 log.error("Cannot close resources." + e.getMessage());
             }
-            long duration = System.currentTimeMillis() - ts;
+            long duration = System.currentTimeMillis() - ts + snapshotDuration;
+            String timings = "snapshot=" + snapshotDuration +
+                    " msec, serialize=" + serializeDuration +
+                    " msec, encryptAndWrite=" + writeDuration +
+                    " msec, fsync=" + syncDuration +
+                    " msec, size=" + fileSize + " bytes";
             if (duration > 100) {
-                log.info("Writing the serialized {} completed in {} msec", fileName, duration);
+                log.info("Writing {} completed in {} msec ({})", fileName, duration, timings);
+            } else {
+                log.debug("Writing {} completed in {} msec ({})", fileName, duration, timings);
             }
             persistenceRequested = false;
             if (completeHandler != null) {
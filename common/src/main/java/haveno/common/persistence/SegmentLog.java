@@ -0,0 +1,287 @@
+/*
+ * This file is part of Haveno.
+ *
+ * Haveno is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Haveno is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Haveno. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package haveno.common.persistence;
+
+import com.google.common.hash.HashCode;
+import com.google.common.hash.Hashing;
+import haveno.common.crypto.CryptoException;
+import haveno.common.crypto.Encryption;
+import haveno.common.crypto.Hash;
+import haveno.common.crypto.KeyRing;
+import lombok.extern.slf4j.Slf4j;
+
+import javax.annotation.Nullable;
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Append-only log of the changes of a SegmentedPersistableEnvelope since its last snapshot.
+ * Each record of the log is encrypted like the snapshot. The first record contains the hash of the snapshot the log
+ * is based on, so a log which does not belong to the snapshot (e.g. if deleting the log after writing a new snapshot
+ * failed) gets ignored. Each following record contains the ordered ids of all segments and the changed segments.
+ * A partially written last record gets ignored at reading, so a crash during a write loses only that write.
+ * If the log becomes larger than the snapshot we write a new snapshot and delete the log (compaction).
+ */
+@Slf4j
+class SegmentLog {
+    private static final long MIN_LOG_SIZE_FOR_COMPACTION = 1024 * 1024;
+    private static final int MAX_RECORD_SIZE = 100 * 1024 * 1024;
+
+    private final File logFile;
+    @Nullable
+    private final KeyRing keyRing;
+
+    // State of the data on disk
+    @Nullable
+    private byte[] snapshotHash;
+    private long snapshotSize;
+    private long logSize;
+    private boolean compactionRequired;
+    private List<String> persistedIds = new ArrayList<>();
+    private Map<String, HashCode> persistedSegmentHashes = new HashMap<>();
+
+    SegmentLog(File logFile, @Nullable KeyRing keyRing) {
+        this.logFile = logFile;
+        this.keyRing = keyRing;
+    }
+
+    /**
+     * Applies the log to the segments of the snapshot.
+     *
+     * @param snapshotBytes    The content of the snapshot file.
+     * @param snapshotSegments The segments of the snapshot.
+     * @return The segments including the changes of the log or null if the log did not contain any changes.
+     */
+    @Nullable
+    synchronized LinkedHashMap<String, byte[]> replay(byte[] snapshotBytes, LinkedHashMap<String, byte[]> snapshotSegments) {
+        onSnapshot(Hash.getSha256Hash(snapshotBytes), snapshotBytes.length, snapshotSegments);
+        if (!logFile.exists()) {
+            return null;
+        }
+
+        LinkedHashMap<String, byte[]> segments = new LinkedHashMap<>(snapshotSegments);
+        int numRecords = 0;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(logFile)))) {
+            byte[] header = readRecord(in);
+            if (header == null || !Arrays.equals(header, snapshotHash)) {
+                log.warn("{} does not belong to the current snapshot. We ignore it.", logFile.getName());
+                compactionRequired = true;
+                return null;
+            }
+            byte[] record;
+            while ((record = readRecord(in)) != null) {
+                segments = applyRecord(record, segments);
+                numRecords++;
+            }
+            logSize = logFile.length();
+        } catch (IOException | CryptoException e) {
+            // Expected if we got interrupted while writing the last record
+            log.warn("Reading {} failed after {} records. We use the data up to the last complete record. {}",
+                    logFile.getName(), numRecords, e.toString());
+            compactionRequired = true;
+        }
+        if (numRecords == 0) {
+            return null;
+        }
+        setPersistedSegments(segments);
+        log.info("Applied {} records of {}", numRecords, logFile.getName());
+        return segments;
+    }
+
+    synchronized boolean requiresCompaction() {
+        return compactionRequired || snapshotHash == null || logSize > Math.max(MIN_LOG_SIZE_FOR_COMPACTION, snapshotSize);
+    }
+
+    /**
+     * @param snapshotHash The SHA-256 hash of the written snapshot file.
+     * @param snapshotSize The size of the written snapshot file.
+     */
+    synchronized void onSnapshotWritten(byte[] snapshotHash, long snapshotSize, LinkedHashMap<String, byte[]> segments) {
+        onSnapshot(snapshotHash, snapshotSize, segments);
+        if (logFile.exists() && !logFile.delete()) {
+            // Not critical as the log does not match the hash of the new snapshot
+            log.warn("Deleting {} failed", logFile.getName());
+        }
+    }
+
+    synchronized boolean isPersistedSegment(String id) {
+        return persistedSegmentHashes.containsKey(id);
+    }
+
+    /**
+     * Appends the segments which differ from the persisted ones to the log.
+     */
+    synchronized void append(LinkedHashMap<String, byte[]> segments) throws IOException, CryptoException {
+        append(new ArrayList<>(segments.keySet()), segments);
+    }
+
+    /**
+     * Appends the segments which differ from the persisted ones to the log.
+     *
+     * @param ids      The ids of all segments in order.
+     * @param segments The segments which might have changed. All other segments must be persisted already.
+     */
+    synchronized void append(List<String> ids, LinkedHashMap<String, byte[]> segments) throws IOException, CryptoException {
+        Set<String> idSet = new HashSet<>(ids);
+        Map<String, HashCode> segmentHashes = new HashMap<>();
+        for (String id : ids) {
+            if (!segments.containsKey(id)) {
+                HashCode persistedHash = persistedSegmentHashes.get(id);
+                if (persistedHash == null) {
+                    // We would not be able to replay that record
+                    compactionRequired = true;
+                    throw new IOException("Segment " + id + " is neither changed nor persisted");
+                }
+                segmentHashes.put(id, persistedHash);
+            }
+        }
+        LinkedHashMap<String, byte[]> changedSegments = new LinkedHashMap<>();
+        segments.forEach((id, bytes) -> {
+            if (!idSet.contains(id)) {
+                return;
+            }
+            HashCode hash = getHash(bytes);
+            segmentHashes.put(id, hash);
+            if (!hash.equals(persistedSegmentHashes.get(id))) {
+                changedSegments.put(id, bytes);
+            }
+        });
+        if (changedSegments.isEmpty() && ids.equals(persistedIds)) {
+            return;
+        }
+
+        boolean isNewLog = logSize == 0;
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        if (isNewLog) {
+            writeRecord(buffer, snapshotHash);
+        }
+        writeRecord(buffer, serializeRecord(ids, changedSegments));
+        try (FileOutputStream out = new FileOutputStream(logFile, !isNewLog)) {
+            out.write(buffer.toByteArray());
+            out.flush();
+            out.getFD().sync();
+        } catch (IOException e) {
+            // The log might end with a partial record now, so we must not append to it anymore
+            compactionRequired = true;
+            throw e;
+        }
+        logSize += buffer.size();
+        persistedIds = new ArrayList<>(ids);
+        persistedSegmentHashes = segmentHashes;
+    }
+
+    private void onSnapshot(byte[] snapshotHash, long snapshotSize, LinkedHashMap<String, byte[]> segments) {
+        this.snapshotHash = snapshotHash;
+        this.snapshotSize = snapshotSize;
+        logSize = 0;
+        compactionRequired = false;
+        setPersistedSegments(segments);
+    }
+
+    private void setPersistedSegments(LinkedHashMap<String, byte[]> segments) {
+        persistedIds = new ArrayList<>(segments.keySet());
+        persistedSegmentHashes = new HashMap<>();
+        segments.forEach((id, bytes) -> persistedSegmentHashes.put(id, getHash(bytes)));
+    }
+
+    private static HashCode getHash(byte[] bytes) {
+        return Hashing.murmur3_128().hashBytes(bytes);
+    }
+
+    private static byte[] serializeRecord(List<String> ids, LinkedHashMap<String, byte[]> changedSegments) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeInt(ids.size());
+        for (String id : ids) {
+            out.writeUTF(id);
+        }
+        out.writeInt(changedSegments.size());
+        for (Map.Entry<String, byte[]> entry : changedSegments.entrySet()) {
+            out.writeUTF(entry.getKey());
+            out.writeInt(entry.getValue().length);
+            out.write(entry.getValue());
+        }
+        out.flush();
+        return bytes.toByteArray();
+    }
+
+    private static LinkedHashMap<String, byte[]> applyRecord(byte[] record, LinkedHashMap<String, byte[]> segments) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(record));
+        int numIds = in.readInt();
+        List<String> ids = new ArrayList<>(numIds);
+        for (int i = 0; i < numIds; i++) {
+            ids.add(in.readUTF());
+        }
+        int numChangedSegments = in.readInt();
+        Map<String, byte[]> changedSegments = new HashMap<>();
+        for (int i = 0; i < numChangedSegments; i++) {
+            String id = in.readUTF();
+            byte[] bytes = new byte[in.readInt()];
+            in.readFully(bytes);
+            changedSegments.put(id, bytes);
+        }
+
+        LinkedHashMap<String, byte[]> result = new LinkedHashMap<>();
+        for (String id : ids) {
+            byte[] bytes = changedSegments.containsKey(id) ? changedSegments.get(id) : segments.get(id);
+            if (bytes == null) {
+                throw new IOException("Missing segment " + id);
+            }
+            result.put(id, bytes);
+        }
+        return result;
+    }
+
+    private void writeRecord(ByteArrayOutputStream buffer, byte[] record) throws IOException, CryptoException {
+        byte[] bytes = keyRing != null ? Encryption.encryptPayloadWithHmac(record, keyRing.getSymmetricKey()) : record;
+        DataOutputStream out = new DataOutputStream(buffer);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+        out.flush();
+    }
+
+    @Nullable
+    private byte[] readRecord(DataInputStream in) throws IOException, CryptoException {
+        int firstByte = in.read();
+        if (firstByte < 0) {
+            return null;
+        }
+        int length = (firstByte << 24) | (in.readUnsignedByte() << 16) | (in.readUnsignedByte() << 8) | in.readUnsignedByte();
+        if (length < 0 || length > MAX_RECORD_SIZE) {
+            throw new IOException("Invalid record length " + length);
+        }
+        byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return keyRing != null ? Encryption.decryptPayloadWithHmac(bytes, keyRing.getSymmetricKey()) : bytes;
+    }
+}
@@ -17,10 +17,15 @@
 
 package haveno.common.proto.network;
 
+import com.google.protobuf.CodedOutputStream;
 import com.google.protobuf.Message;
 import haveno.common.Envelope;
 import lombok.EqualsAndHashCode;
 
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
 import static com.google.common.base.Preconditions.checkArgument;
 
 @EqualsAndHashCode
@@ -28,6 +33,12 @@ public abstract class NetworkEnvelope implements Envelope {
 
     protected final String messageVersion;
 
+    // Transient fields are not part of equals and hashCode
+    @Nullable
+    private transient volatile protobuf.NetworkEnvelope cachedProtoNetworkEnvelope;
+    @Nullable
+    private transient volatile byte[] cachedDelimitedByteArray;
+
 
     ///////////////////////////////////////////////////////////////////////////////////////////
     // PROTO BUFFER
@@ -50,6 +61,54 @@ public abstract class NetworkEnvelope implements Envelope {
         return getNetworkEnvelopeBuilder().build();
     }
 
+    /**
+     * Immutable envelopes which are sent unchanged to multiple peers (e.g. broadcast messages) can override this
+     * to get their serialized form cached at the first send.
+     */
+    protected boolean isSerializationCacheable() {
+        return false;
+    }
+
+    public protobuf.NetworkEnvelope toCachedProtoNetworkEnvelope() {
+        if (!isSerializationCacheable()) {
+            return toProtoNetworkEnvelope();
+        }
+        protobuf.NetworkEnvelope proto = cachedProtoNetworkEnvelope;
+        if (proto == null) {
+            proto = toProtoNetworkEnvelope();
+            cachedProtoNetworkEnvelope = proto;
+        }
+        return proto;
+    }
+
+    /**
+     * @return The length delimited wire format of the envelope as written by protobuf.NetworkEnvelope.writeDelimitedTo.
+     */
+    public byte[] toDelimitedByteArray() {
+        byte[] bytes = cachedDelimitedByteArray;
+        if (bytes == null) {
+            bytes = toDelimitedByteArray(toCachedProtoNetworkEnvelope());
+            if (isSerializationCacheable()) {
+                cachedDelimitedByteArray = bytes;
+            }
+        }
+        return bytes;
+    }
+
+    private static byte[] toDelimitedByteArray(protobuf.NetworkEnvelope proto) {
+        int serializedSize = proto.getSerializedSize();
+        byte[] bytes = new byte[CodedOutputStream.computeUInt32SizeNoTag(serializedSize) + serializedSize];
+        CodedOutputStream codedOutputStream = CodedOutputStream.newInstance(bytes);
+        try {
+            codedOutputStream.writeUInt32NoTag(serializedSize);
+            proto.writeTo(codedOutputStream);
+            codedOutputStream.checkNoSpaceLeft();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Serializing to a byte array threw an IOException", e);
+        }
+        return bytes;
+    }
+
     ///////////////////////////////////////////////////////////////////////////////////////////
     // API
     ///////////////////////////////////////////////////////////////////////////////////////////
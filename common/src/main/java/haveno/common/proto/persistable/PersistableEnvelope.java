@@ -20,6 +20,8 @@ package haveno.common.proto.persistable;
 import com.google.protobuf.Message;
 import haveno.common.Envelope;
 
+import javax.annotation.Nullable;
+
 /**
  * Interface for the outside envelope object persisted to disk.
  */
@@ -29,6 +31,17 @@ public interface PersistableEnvelope extends Envelope {
         return toProtoMessage();
     }
 
+    /**
+     * Called on the user thread before persisting. Envelopes which can provide a view of their data which is not
+     * affected by later mutations (e.g. a shallow copy of a list of immutable elements, or the envelope itself if it
+     * consists only of concurrent collections of immutable elements) return it here, so it gets serialized on the
+     * write thread. If null is returned we serialize on the user thread.
+     */
+    @Nullable
+    default PersistableEnvelope toPersistableSnapshot() {
+        return null;
+    }
+
     default String getDefaultStorageFileName() {
         return this.getClass().getSimpleName();
     }
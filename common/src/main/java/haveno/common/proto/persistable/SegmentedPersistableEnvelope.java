@@ -0,0 +1,76 @@
+/*
+ * This file is part of Haveno.
+ *
+ * Haveno is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Haveno is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Haveno. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package haveno.common.proto.persistable;
+
+import com.google.protobuf.InvalidProtocolBufferException;
+import lombok.Value;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.function.Predicate;
+
+/**
+ * A PersistableEnvelope consisting of independent segments, e.g. the elements of a list. The PersistenceManager
+ * persists those envelopes as a snapshot plus a log of the changed segments, so a change of one segment does not
+ * require to rewrite all the data.
+ *
+ * Envelopes track which segments changed since the last persist, so only those get serialized. The whole envelope
+ * only gets serialized for a new snapshot.
+ */
+public interface SegmentedPersistableEnvelope extends PersistableEnvelope {
+
+    /**
+     * Splits the serialized envelope into its serialized segments.
+     *
+     * @return The serialized segments by their unique id in the order of the envelope.
+     */
+    LinkedHashMap<String, byte[]> toSegments(protobuf.PersistableEnvelope proto);
+
+    /**
+     * Builds the serialized envelope from its serialized segments.
+     */
+    protobuf.PersistableEnvelope fromSegments(Collection<byte[]> segments) throws InvalidProtocolBufferException;
+
+    /**
+     * Serializes all segments. Clears the changed segments as all of them get persisted.
+     */
+    default LinkedHashMap<String, byte[]> toPersistableSegments() {
+        return toSegments((protobuf.PersistableEnvelope) toPersistableMessage());
+    }
+
+    /**
+     * Serializes the segments which changed since the last call and the segments which are not persisted yet.
+     * The ids need to match the ids of {@link #toSegments(protobuf.PersistableEnvelope)}.
+     *
+     * @param isPersistedSegment Tells if a segment with the given id is already persisted.
+     */
+    SegmentChanges toChangedSegments(Predicate<String> isPersistedSegment);
+
+    /**
+     * Marks all segments as changed, e.g. if it is not known which segments changed or if persisting failed.
+     */
+    void markAllSegmentsChanged();
+
+    @Value
+    class SegmentChanges {
+        // The ids of all segments in the order of the envelope
+        List<String> ids;
+        LinkedHashMap<String, byte[]> changedSegments;
+    }
+}
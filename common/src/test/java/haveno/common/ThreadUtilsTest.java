@@ -0,0 +1,163 @@
+/*
+ * This file is part of Haveno.
+ *
+ * Haveno is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Haveno is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Haveno. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package haveno.common;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ThreadUtilsTest {
+
+    @Test
+    public void execute_keepsOrderPerThreadId() throws Exception {
+        String threadId = "ThreadUtilsTest.execute";
+        List<Integer> results = Collections.synchronizedList(new ArrayList<>());
+        // keep the executor busy until all commands are queued, so it is not dropped in between
+        CountDownLatch queued = new CountDownLatch(1);
+        ThreadUtils.execute(() -> {
+            try {
+                queued.await();
+            } catch (InterruptedException e) {
+                throw new RuntimeException(e);
+            }
+        }, threadId);
+        for (int i = 0; i < 100; i++) {
+            int value = i;
+            ThreadUtils.execute(() -> results.add(value), threadId);
+        }
+        // the executor is only kept while it has queued or running commands, so read its metrics from a command
+        AtomicReference<SerialExecutor.Metrics> metrics = new AtomicReference<>();
+        Future<?> metricsFuture = ThreadUtils.execute(() -> metrics.set(ThreadUtils.getExecutorMetrics().stream()
+                .filter(e -> e.getId().equals(threadId))
+                .findAny()
+                .orElseThrow()), threadId);
+        queued.countDown();
+        metricsFuture.get();
+
+        for (int i = 0; i < 100; i++) {
+            assertEquals(i, results.get(i));
+        }
+        assertEquals(101, metrics.get().getCompletedTasks());
+        assertEquals(0, metrics.get().getQueueDepth());
+        ThreadUtils.shutDown(threadId);
+    }
+
+    @Test
+    public void execute_removesIdleExecutor() throws Exception {
+        String threadId = "ThreadUtilsTest.idle";
+        ThreadUtils.execute(() -> {}, threadId).get();
+
+        long deadline = System.currentTimeMillis() + 5000;
+        while (hasExecutor(threadId) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertFalse(hasExecutor(threadId));
+
+        // a new executor is created for the next command
+        AtomicInteger counter = new AtomicInteger();
+        ThreadUtils.await(counter::incrementAndGet, threadId);
+        assertEquals(1, counter.get());
+    }
+
+    @Test
+    public void await_fromSameThreadId() {
+        String threadId = "ThreadUtils.await";
+        AtomicInteger counter = new AtomicInteger();
+        ThreadUtils.await(() -> ThreadUtils.await(counter::incrementAndGet, threadId), threadId);
+        assertEquals(1, counter.get());
+        ThreadUtils.shutDown(threadId);
+    }
+
+    @Test
+    public void awaitTasks_limitsConcurrency() {
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        List<Runnable> tasks = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            tasks.add(() -> {
+                maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                try {
+                    Thread.sleep(5);
+                } catch (InterruptedException e) {
+                    throw new RuntimeException(e);
+                }
+                running.decrementAndGet();
+            });
+        }
+        assertEquals(20, ThreadUtils.awaitTasks(tasks, 3).size());
+        assertTrue(maxRunning.get() <= 3);
+    }
+
+    @Test
+    public void awaitTasks_nestedCallsDoNotStarve() {
+        // more concurrent outer tasks than carrier threads, each waiting for all others and for a nested call
+        int numTasks = 300;
+        CountDownLatch allRunning = new CountDownLatch(numTasks);
+        AtomicInteger nestedCompleted = new AtomicInteger();
+        List<Runnable> tasks = new ArrayList<>();
+        for (int i = 0; i < numTasks; i++) {
+            tasks.add(() -> {
+                allRunning.countDown();
+                try {
+                    if (!allRunning.await(30, TimeUnit.SECONDS)) throw new IllegalStateException("Tasks did not run concurrently");
+                } catch (InterruptedException e) {
+                    throw new RuntimeException(e);
+                }
+                ThreadUtils.awaitTask(nestedCompleted::incrementAndGet);
+            });
+        }
+        ThreadUtils.awaitTasks(tasks, numTasks, 60000L);
+        assertEquals(numTasks, nestedCompleted.get());
+    }
+
+    @Test
+    public void execute_doesNotThrowWhileShuttingDown() throws Exception {
+        String threadId = "ThreadUtilsTest.shutDown";
+        AtomicReference<Future<?>> rejected = new AtomicReference<>();
+        AtomicReference<Thread> shutDownThread = new AtomicReference<>();
+        ThreadUtils.await(() -> {
+            // the shut down waits for this command to complete, so the thread id stays in shut down state meanwhile
+            shutDownThread.set(new Thread(() -> ThreadUtils.shutDown(threadId)));
+            shutDownThread.get().start();
+            long deadline = System.currentTimeMillis() + 5000;
+            while (rejected.get() == null && System.currentTimeMillis() < deadline) {
+                Future<?> future = ThreadUtils.execute(() -> {}, threadId);
+                if (future.isCancelled()) rejected.set(future);
+            }
+        }, threadId);
+        shutDownThread.get().join();
+
+        assertNotNull(rejected.get());
+    }
+
+    private static boolean hasExecutor(String threadId) {
+        return ThreadUtils.getExecutorMetrics().stream().anyMatch(e -> e.getId().equals(threadId));
+    }
+}
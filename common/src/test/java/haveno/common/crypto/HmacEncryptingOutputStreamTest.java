@@ -0,0 +1,79 @@
+/*
+ * This file is part of Haveno.
+ *
+ * Haveno is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Haveno is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Haveno. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package haveno.common.crypto;
+
+import org.junit.jupiter.api.Test;
+
+import javax.crypto.SecretKey;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class HmacEncryptingOutputStreamTest {
+    private final SecretKey secretKey = Encryption.generateSecretKey(256);
+
+    @Test
+    public void write_producesSameOutputAsEncryptPayloadWithHmac() throws Exception {
+        byte[] payload = new byte[100_003];
+        new Random(1).nextBytes(payload);
+
+        byte[] streamed = encryptStreamed(payload);
+
+        assertArrayEquals(Encryption.encryptPayloadWithHmac(payload, secretKey), streamed);
+        assertArrayEquals(payload, Encryption.decryptPayloadWithHmac(streamed, secretKey));
+    }
+
+    @Test
+    public void write_handlesEmptyPayload() throws Exception {
+        byte[] streamed = encryptStreamed(new byte[0]);
+
+        assertArrayEquals(Encryption.encryptPayloadWithHmac(new byte[0], secretKey), streamed);
+        assertArrayEquals(new byte[0], Encryption.decryptPayloadWithHmac(streamed, secretKey));
+    }
+
+    @Test
+    public void write_failsAfterFinish() throws Exception {
+        HmacEncryptingOutputStream stream = Encryption.getHmacEncryptingOutputStream(new ByteArrayOutputStream(), secretKey);
+        stream.finish();
+        assertThrows(IOException.class, () -> stream.write(1));
+    }
+
+    // write in chunks of varying size, including single bytes, to cover the cipher's internal buffering
+    private byte[] encryptStreamed(byte[] payload) throws Exception {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        HmacEncryptingOutputStream stream = Encryption.getHmacEncryptingOutputStream(outputStream, secretKey);
+        int offset = 0;
+        int chunkSize = 1;
+        while (offset < payload.length) {
+            int length = Math.min(chunkSize, payload.length - offset);
+            if (length == 1) {
+                stream.write(payload[offset]);
+            } else {
+                stream.write(payload, offset, length);
+            }
+            offset += length;
+            chunkSize = chunkSize * 3 % 8191 + 1;
+        }
+        stream.finish();
+        return outputStream.toByteArray();
+    }
+}
@@ -0,0 +1,144 @@
+/*
+ * This file is part of Haveno.
+ *
+ * Haveno is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Haveno is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Haveno. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package haveno.common.persistence;
+
+import com.google.protobuf.Message;
+import haveno.common.Payload;
+import haveno.common.crypto.KeyRing;
+import haveno.common.crypto.KeyStorage;
+import haveno.common.file.CorruptedStorageFileHandler;
+import haveno.common.proto.persistable.PersistableEnvelope;
+import haveno.common.proto.persistable.PersistablePayload;
+import haveno.common.proto.persistable.PersistenceProtoResolver;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.annotation.Nullable;
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class PersistenceManagerTest {
+    @TempDir
+    File dir;
+
+    @AfterEach
+    public void tearDown() {
+        PersistenceManager.reset();
+    }
+
+    @Test
+    public void persistNow_streamsEncryptedFileWhichCanBeRead() throws Exception {
+        KeyRing keyRing = new KeyRing(new KeyStorage(dir), null, true);
+        assertTrue(keyRing.isUnlocked());
+        assertRoundTrip(keyRing, new TestEnvelope(getPath(), false));
+    }
+
+    @Test
+    public void persistNow_streamsSnapshotWhichCanBeRead() throws Exception {
+        KeyRing keyRing = new KeyRing(new KeyStorage(dir), null, true);
+        assertRoundTrip(keyRing, new TestEnvelope(getPath(), true));
+    }
+
+    @Test
+    public void persistNow_streamsUnencryptedFileWhichCanBeRead() throws Exception {
+        assertRoundTrip(null, new TestEnvelope(getPath(), false));
+    }
+
+    private void assertRoundTrip(@Nullable KeyRing keyRing, TestEnvelope envelope) throws Exception {
+        PersistenceManager.onAllServicesInitialized();
+        PersistenceManager<TestEnvelope> persistenceManager = new PersistenceManager<>(dir, new TestResolver(),
+                new CorruptedStorageFileHandler(), keyRing);
+        persistenceManager.initialize(envelope, PersistenceManager.Source.PRIVATE);
+        CountDownLatch latch = new CountDownLatch(1);
+        persistenceManager.persistNow(latch::countDown);
+        assertTrue(latch.await(10, TimeUnit.SECONDS));
+        persistenceManager.shutdown();
+
+        PersistenceManager<TestEnvelope> readingPersistenceManager = new PersistenceManager<>(dir, new TestResolver(),
+                new CorruptedStorageFileHandler(), keyRing);
+        readingPersistenceManager.initialize(new TestEnvelope(List.of(), false), PersistenceManager.Source.PRIVATE);
+        TestEnvelope persisted = readingPersistenceManager.getPersisted();
+        readingPersistenceManager.shutdown();
+
+        assertNotNull(persisted);
+        assertEquals(envelope.path, persisted.path);
+    }
+
+    // large enough to span many cipher blocks and write buffers
+    private static List<String> getPath() {
+        List<String> path = new ArrayList<>();
+        for (int i = 0; i < 20_000; i++) {
+            path.add("element" + i);
+        }
+        return path;
+    }
+
+    private static class TestEnvelope implements PersistableEnvelope {
+        private final List<String> path;
+        private final boolean supportsSnapshot;
+
+        private TestEnvelope(List<String> path, boolean supportsSnapshot) {
+            this.path = List.copyOf(path);
+            this.supportsSnapshot = supportsSnapshot;
+        }
+
+        @Override
+        public Message toProtoMessage() {
+            return protobuf.PersistableEnvelope.newBuilder()
+                    .setNavigationPath(protobuf.NavigationPath.newBuilder().addAllPath(path))
+                    .build();
+        }
+
+        @Nullable
+        @Override
+        public PersistableEnvelope toPersistableSnapshot() {
+            return supportsSnapshot ? this : null;
+        }
+
+        @Override
+        public String getDefaultStorageFileName() {
+            return "TestEnvelope";
+        }
+    }
+
+    private static class TestResolver implements PersistenceProtoResolver {
+        @Override
+        public PersistableEnvelope fromProto(protobuf.PersistableEnvelope proto) {
+            return new TestEnvelope(proto.getNavigationPath().getPathList(), false);
+        }
+
+        @Override
+        public Payload fromProto(protobuf.PaymentAccountPayload proto) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public PersistablePayload fromProto(protobuf.PersistableNetworkPayload proto) {
+            throw new UnsupportedOperationException();
+        }
+    }
+}
@@ -0,0 +1,144 @@
+/*
+ * This file is part of Haveno.
+ *
+ * Haveno is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Haveno is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Haveno. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package haveno.common.persistence;
+
+import haveno.common.crypto.Hash;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class SegmentLogTest {
+    private static final byte[] SNAPSHOT = "snapshot".getBytes(StandardCharsets.UTF_8);
+
+    @TempDir
+    File dir;
+
+    @Test
+    public void replay_appliesChangesAndRemovals() throws Exception {
+        File logFile = new File(dir, "log");
+        SegmentLog segmentLog = new SegmentLog(logFile, null);
+        segmentLog.onSnapshotWritten(Hash.getSha256Hash(SNAPSHOT), SNAPSHOT.length, segments("a", "1", "b", "1", "c", "1"));
+        assertFalse(segmentLog.requiresCompaction());
+
+        segmentLog.append(segments("a", "1", "b", "2", "c", "1"));
+        long logSizeAfterFirstAppend = logFile.length();
+        segmentLog.append(segments("c", "1", "b", "2", "d", "1"));
+        // Unchanged data does not get written
+        segmentLog.append(segments("c", "1", "b", "2", "d", "1"));
+        assertTrue(logFile.length() > logSizeAfterFirstAppend);
+
+        SegmentLog replayedLog = new SegmentLog(logFile, null);
+        LinkedHashMap<String, byte[]> replayed = replayedLog.replay(SNAPSHOT, segments("a", "1", "b", "1", "c", "1"));
+        assertEquals(List.of("c=1", "b=2", "d=1"), toList(replayed));
+        assertFalse(replayedLog.requiresCompaction());
+    }
+
+    @Test
+    public void replay_ignoresPartialRecord() throws Exception {
+        File logFile = new File(dir, "log");
+        SegmentLog segmentLog = new SegmentLog(logFile, null);
+        segmentLog.onSnapshotWritten(Hash.getSha256Hash(SNAPSHOT), SNAPSHOT.length, segments("a", "1"));
+        segmentLog.append(segments("a", "2"));
+        long validLength = logFile.length();
+        segmentLog.append(segments("a", "3"));
+        try (RandomAccessFile file = new RandomAccessFile(logFile, "rw")) {
+            file.setLength(validLength + 5);
+        }
+
+        SegmentLog replayedLog = new SegmentLog(logFile, null);
+        LinkedHashMap<String, byte[]> replayed = replayedLog.replay(SNAPSHOT, segments("a", "1"));
+        assertEquals(List.of("a=2"), toList(replayed));
+        assertTrue(replayedLog.requiresCompaction());
+    }
+
+    @Test
+    public void replay_ignoresLogOfOtherSnapshot() throws Exception {
+        File logFile = new File(dir, "log");
+        SegmentLog segmentLog = new SegmentLog(logFile, null);
+        segmentLog.onSnapshotWritten(Hash.getSha256Hash(SNAPSHOT), SNAPSHOT.length, segments("a", "1"));
+        segmentLog.append(segments("a", "2"));
+
+        byte[] otherSnapshot = "other".getBytes(StandardCharsets.UTF_8);
+        SegmentLog replayedLog = new SegmentLog(logFile, null);
+        assertNull(replayedLog.replay(otherSnapshot, segments("a", "1")));
+        assertTrue(replayedLog.requiresCompaction());
+    }
+
+    @Test
+    public void append_keepsUnchangedPersistedSegments() throws Exception {
+        File logFile = new File(dir, "log");
+        SegmentLog segmentLog = new SegmentLog(logFile, null);
+        segmentLog.onSnapshotWritten(Hash.getSha256Hash(SNAPSHOT), SNAPSHOT.length, segments("a", "1", "b", "1"));
+        assertTrue(segmentLog.isPersistedSegment("a"));
+        assertFalse(segmentLog.isPersistedSegment("c"));
+        segmentLog.append(List.of("c", "a"), segments("c", "1"));
+
+        SegmentLog replayedLog = new SegmentLog(logFile, null);
+        LinkedHashMap<String, byte[]> replayed = replayedLog.replay(SNAPSHOT, segments("a", "1", "b", "1"));
+        assertEquals(List.of("c=1", "a=1"), toList(replayed));
+    }
+
+    @Test
+    public void append_failsForUnknownUnchangedSegment() throws Exception {
+        File logFile = new File(dir, "log");
+        SegmentLog segmentLog = new SegmentLog(logFile, null);
+        segmentLog.onSnapshotWritten(Hash.getSha256Hash(SNAPSHOT), SNAPSHOT.length, segments("a", "1"));
+        assertThrows(IOException.class, () -> segmentLog.append(List.of("a", "c"), new LinkedHashMap<>()));
+        assertTrue(segmentLog.requiresCompaction());
+    }
+
+    @Test
+    public void onSnapshotWritten_deletesLog() throws Exception {
+        File logFile = new File(dir, "log");
+        try (FileOutputStream out = new FileOutputStream(logFile)) {
+            out.write(1);
+        }
+        SegmentLog segmentLog = new SegmentLog(logFile, null);
+        assertTrue(segmentLog.requiresCompaction());
+        segmentLog.onSnapshotWritten(Hash.getSha256Hash(SNAPSHOT), SNAPSHOT.length, segments("a", "1"));
+        assertFalse(logFile.exists());
+    }
+
+    private static LinkedHashMap<String, byte[]> segments(String... idsAndValues) {
+        LinkedHashMap<String, byte[]> segments = new LinkedHashMap<>();
+        for (int i = 0; i < idsAndValues.length; i += 2) {
+            segments.put(idsAndValues[i], idsAndValues[i + 1].getBytes(StandardCharsets.UTF_8));
+        }
+        return segments;
+    }
+
+    private static List<String> toList(LinkedHashMap<String, byte[]> segments) {
+        return segments.entrySet().stream()
+                .map(e -> e.getKey() + "=" + new String(e.getValue(), StandardCharsets.UTF_8))
+                .collect(Collectors.toList());
+    }
+}
@@ -52,11 +52,13 @@ import haveno.core.user.User;
 import haveno.network.p2p.BootstrapListener;
 import haveno.network.p2p.P2PService;
 import haveno.network.p2p.storage.P2PDataStorage;
+import haveno.network.p2p.storage.payload.PersistableNetworkPayload;
 import haveno.network.p2p.storage.persistence.AppendOnlyDataStoreService;
 import java.math.BigInteger;
 import java.security.PublicKey;
 import java.time.Clock;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.Date;
 import java.util.GregorianCalendar;
 import java.util.HashMap;
@@ -137,11 +139,16 @@ public class AccountAgeWitnessService {
     @Getter
     private final AccountAgeWitnessUtils accountAgeWitnessUtils;
 
+    // Witnesses added after startup. The stored witnesses are looked up in storedAccountAgeWitnesses.
     private final Map<P2PDataStorage.ByteArray, AccountAgeWitness> accountAgeWitnessMap = new HashMap<>();
 
-    // The accountAgeWitnessMap is very large (70k items) and access is a bit expensive. We usually only access less
+    // Read-only view of the stored witnesses. We do not copy them as the historical data is memory-mapped and only
+    // decoded at lookups.
+    private Map<P2PDataStorage.ByteArray, PersistableNetworkPayload> storedAccountAgeWitnesses = Collections.emptyMap();
+
+    // The stored witnesses are very large (70k items) and access is a bit expensive. We usually only access less
     // than 100 items, those who have offers online. So we use a cache for a fast lookup and only if
-    // not found there we use the accountAgeWitnessMap and put then the new item into our cache.
+    // not found there we use the accountAgeWitnessMap or the stored witnesses and put then the new item into our cache.
     private final Map<P2PDataStorage.ByteArray, AccountAgeWitness> accountAgeWitnessCache = new ConcurrentHashMap<>();
 
 
@@ -190,10 +197,9 @@ public class AccountAgeWitnessService {
         });
 
         // At startup the P2PDataStorage initializes earlier, otherwise we get the listener called.
-        accountAgeWitnessStorageService.getMapOfAllData().values().stream()
-                .filter(e -> e instanceof AccountAgeWitness)
-                .map(e -> (AccountAgeWitness) e)
-                .forEach(this::addToMap);
+        synchronized (this) {
+            storedAccountAgeWitnesses = accountAgeWitnessStorageService.getMapOfAllData();
+        }
 
         if (p2PService.isBootstrapped()) {
             onBootStrapped();
@@ -255,7 +261,7 @@ public class AccountAgeWitnessService {
                 return;
             }
 
-            if (!accountAgeWitnessMap.containsKey(hash)) {
+            if (!accountAgeWitnessMap.containsKey(hash) && !storedAccountAgeWitnesses.containsKey(hash)) {
                 p2PService.addPersistableNetworkPayload(accountAgeWitness, false);
             }
         }
@@ -319,9 +325,14 @@ public class AccountAgeWitnessService {
                 return Optional.of(accountAgeWitnessCache.get(hashAsByteArray));
             }
 
-            if (accountAgeWitnessMap.containsKey(hashAsByteArray)) {
-                AccountAgeWitness accountAgeWitness = accountAgeWitnessMap.get(hashAsByteArray);
-
+            AccountAgeWitness accountAgeWitness = accountAgeWitnessMap.get(hashAsByteArray);
+            if (accountAgeWitness == null) {
+                PersistableNetworkPayload payload = storedAccountAgeWitnesses.get(hashAsByteArray);
+                if (payload instanceof AccountAgeWitness) {
+                    accountAgeWitness = (AccountAgeWitness) payload;
+                }
+            }
+            if (accountAgeWitness != null) {
                 // We add it to our fast lookup cache
                 accountAgeWitnessCache.put(hashAsByteArray, accountAgeWitness);
 
@@ -60,7 +60,11 @@ import haveno.core.support.dispute.Dispute;
 import haveno.core.support.dispute.DisputeResult;
 import haveno.core.support.messages.ChatMessage;
 import haveno.core.trade.Trade;
+import haveno.core.trade.TradeInitProgress;
 import haveno.core.trade.statistics.TradeStatistics3;
+import haveno.core.trade.statistics.CandleInterval;
+import haveno.core.trade.statistics.TradeStatisticsCandle;
+import haveno.core.trade.statistics.TradeStatisticsCandleService;
 import haveno.core.trade.statistics.TradeStatisticsManager;
 import haveno.core.xmr.XmrNodeSettings;
 import haveno.proto.grpc.NotificationMessage;
@@ -101,6 +105,7 @@ public class CoreApi {
     private final CoreTradesService coreTradesService;
     private final CoreWalletsService walletsService;
     private final TradeStatisticsManager tradeStatisticsManager;
+    private final TradeStatisticsCandleService tradeStatisticsCandleService;
     private final CoreNotificationService notificationService;
     private final XmrConnectionService xmrConnectionService;
     private final XmrLocalNode xmrLocalNode;
@@ -118,6 +123,7 @@ public class CoreApi {
                    CoreTradesService coreTradesService,
                    CoreWalletsService walletsService,
                    TradeStatisticsManager tradeStatisticsManager,
+                   TradeStatisticsCandleService tradeStatisticsCandleService,
                    CoreNotificationService notificationService,
                    XmrConnectionService xmrConnectionService,
                    XmrLocalNode xmrLocalNode) {
@@ -133,6 +139,7 @@ public class CoreApi {
         this.corePriceService = corePriceService;
         this.walletsService = walletsService;
         this.tradeStatisticsManager = tradeStatisticsManager;
+        this.tradeStatisticsCandleService = tradeStatisticsCandleService;
         this.notificationService = notificationService;
         this.xmrConnectionService = xmrConnectionService;
         this.xmrLocalNode = xmrLocalNode;
@@ -291,6 +298,10 @@ public class CoreApi {
         return walletsService.getXmrTxs();
     }
 
+    public CursorPage<MoneroTxWallet> getXmrTxs(long minHeight, String cursor, int limit) {
+        return walletsService.getXmrTxs(minHeight, cursor, limit);
+    }
+
     public MoneroTxWallet createXmrTx(List<MoneroDestination> destinations) {
         return walletsService.createXmrTx(destinations);
     }
@@ -335,6 +346,14 @@ public class CoreApi {
         return new ArrayList<>(tradeStatisticsManager.getObservableTradeStatisticsSet());
     }
 
+    public List<TradeStatisticsCandle> getTradeStatisticsCandles(String currencyCode,
+                                                                 CandleInterval interval,
+                                                                 long fromDate,
+                                                                 long toDate,
+                                                                 int maxCandles) {
+        return tradeStatisticsCandleService.getCandles(currencyCode, interval, fromDate, toDate, maxCandles);
+    }
+
     public int getNumConfirmationsForMostRecentTransaction(String addressString) {
         return walletsService.getNumConfirmationsForMostRecentTransaction(addressString);
     }
@@ -347,6 +366,10 @@ public class CoreApi {
         notificationService.addListener(listener);
     }
 
+    public void removeNotificationListener(NotificationListener listener) {
+        notificationService.removeListener(listener);
+    }
+
     public void sendNotification(NotificationMessage notification) {
         notificationService.sendNotification(notification);
     }
@@ -400,6 +423,15 @@ public class CoreApi {
         return coreOffersService.getOffers(direction, currencyCode);
     }
 
+    public CursorPage<Offer> getOffers(String direction,
+                                       String currencyCode,
+                                       String paymentMethodId,
+                                       long createdSince,
+                                       String cursor,
+                                       int limit) {
+        return coreOffersService.getOffers(direction, currencyCode, paymentMethodId, createdSince, cursor, limit);
+    }
+
     public List<OpenOffer> getMyOffers(String direction, String currencyCode) {
         return coreOffersService.getMyOffers(direction, currencyCode);
     }
@@ -520,6 +552,10 @@ public class CoreApi {
         return corePriceService.getMarketDepth(currencyCode);
     }
 
+    public MarketDepthInfo getMarketDepth(String currencyCode, int maxLevels) throws ExecutionException, InterruptedException, TimeoutException {
+        return corePriceService.getMarketDepth(currencyCode, maxLevels);
+    }
+
     ///////////////////////////////////////////////////////////////////////////////////////////
     // Trades
     ///////////////////////////////////////////////////////////////////////////////////////////
@@ -557,6 +593,14 @@ public class CoreApi {
         return coreTradesService.getTrades();
     }
 
+    public CursorPage<Trade> getTrades(String currencyCode, long updatedSince, String cursor, int limit) {
+        return coreTradesService.getTrades(currencyCode, updatedSince, cursor, limit);
+    }
+
+    public TradeInitProgress getTradeInitProgress() {
+        return coreTradesService.getTradeInitProgress();
+    }
+
     public String getTradeRole(String tradeId) {
         return coreTradesService.getTradeRole(tradeId);
     }
@@ -1,14 +1,18 @@
 package haveno.core.api;
 
 import com.google.inject.Singleton;
+import haveno.core.api.model.BalancesInfo;
+import haveno.core.api.model.MarketPriceInfo;
+import haveno.core.api.model.OfferInfo;
 import haveno.core.api.model.TradeInfo;
+import haveno.core.offer.Offer;
 import haveno.core.support.messages.ChatMessage;
 import haveno.core.trade.Trade;
 import haveno.proto.grpc.NotificationMessage;
 import haveno.proto.grpc.NotificationMessage.NotificationType;
-import java.util.Iterator;
-import java.util.LinkedList;
 import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Collectors;
 import lombok.NonNull;
 import lombok.extern.slf4j.Slf4j;
 
@@ -16,25 +20,29 @@ import lombok.extern.slf4j.Slf4j;
 @Slf4j
 public class CoreNotificationService {
 
-    private final Object lock = new Object();
-    private final List<NotificationListener> listeners = new LinkedList<>();
+    // Listeners must not block, e.g. gRPC listeners only enqueue the notifications for their stream
+    private final List<NotificationListener> listeners = new CopyOnWriteArrayList<>();
 
     public void addListener(@NonNull NotificationListener listener) {
-        synchronized (lock) {
-            listeners.add(listener);
-        }
+        listeners.add(listener);
+    }
+
+    public void removeListener(@NonNull NotificationListener listener) {
+        listeners.remove(listener);
+    }
+
+    // Allows to skip building notifications nobody would receive
+    public boolean hasListeners() {
+        return !listeners.isEmpty();
     }
 
     public void sendNotification(@NonNull NotificationMessage notification) {
-        synchronized (lock) {
-            for (Iterator<NotificationListener> iter = listeners.iterator(); iter.hasNext(); ) {
-                NotificationListener listener = iter.next();
-                try {
-                    listener.onMessage(notification);
-                } catch (RuntimeException e) {
-                    log.warn("Failed to send notification to listener {}: {}", listener, e.getMessage());
-                    iter.remove();
-                }
+        for (NotificationListener listener : listeners) {
+            try {
+                listener.onMessage(notification);
+            } catch (RuntimeException e) {
+                log.warn("Failed to send notification to listener {}: {}", listener, e.getMessage());
+                listeners.remove(listener);
             }
         }
     }
@@ -64,6 +72,32 @@ public class CoreNotificationService {
                 .build());
     }
 
+    public void sendOfferNotification(Offer offer, boolean isAdded) {
+        sendNotification(NotificationMessage.newBuilder()
+                .setType(isAdded ? NotificationType.OFFER_ADDED : NotificationType.OFFER_REMOVED)
+                .setTimestamp(System.currentTimeMillis())
+                .setOffer(OfferInfo.toOfferInfo(offer).toProtoMessage())
+                .build());
+    }
+
+    public void sendMarketPricesNotification(List<MarketPriceInfo> marketPrices) {
+        sendNotification(NotificationMessage.newBuilder()
+                .setType(NotificationType.MARKET_PRICES_UPDATE)
+                .setTimestamp(System.currentTimeMillis())
+                .addAllMarketPrices(marketPrices.stream()
+                        .map(MarketPriceInfo::toProtoMessage)
+                        .collect(Collectors.toList()))
+                .build());
+    }
+
+    public void sendBalancesNotification(BalancesInfo balances) {
+        sendNotification(NotificationMessage.newBuilder()
+                .setType(NotificationType.BALANCES_UPDATE)
+                .setTimestamp(System.currentTimeMillis())
+                .setBalances(balances.toProtoMessage())
+                .build());
+    }
+
     public void sendErrorNotification(String title, String errorMessage) {
         sendNotification(NotificationMessage.newBuilder()
                 .setType(NotificationType.ERROR)
@@ -63,7 +63,6 @@ import haveno.core.util.PriceUtil;
 import static java.lang.String.format;
 import java.math.BigDecimal;
 import java.math.BigInteger;
-import java.util.ArrayList;
 import java.util.Comparator;
 import static java.util.Comparator.comparing;
 import java.util.HashSet;
@@ -104,7 +103,8 @@ public class CoreOffersService {
                              OfferFilterService offerFilter,
                              OpenOfferManager openOfferManager,
                              OfferUtil offerUtil,
-                             User user) {
+                             User user,
+                             CoreNotificationService notificationService) {
         this.coreContext = coreContext;
         this.keyRing = keyRing;
         this.coreWalletsService = coreWalletsService;
@@ -113,32 +113,69 @@ public class CoreOffersService {
         this.offerFilter = offerFilter;
         this.openOfferManager = openOfferManager;
         this.user = user;
+
+        // Notify api clients about changes of the offer book so they do not need to poll
+        offerBookService.addOfferBookChangedListener(new OfferBookService.OfferBookChangedListener() {
+            @Override
+            public void onAdded(Offer offer) {
+                maybeSendOfferNotification(notificationService, offer, true);
+            }
+
+            @Override
+            public void onRemoved(Offer offer) {
+                maybeSendOfferNotification(notificationService, offer, false);
+            }
+        });
+    }
+
+    private void maybeSendOfferNotification(CoreNotificationService notificationService, Offer offer, boolean isAdded) {
+        if (!notificationService.hasListeners()) return;
+        try {
+            // Only notify the offers getOffers lists. A removed offer is not in the offer book anymore, so we cannot
+            // check if it got superseded by a newer offer with the same key image.
+            boolean isListed = isAdded ? isOfferAvailableToTake(offer) : isOfferAcceptedByFilter(offer);
+            if (isListed) notificationService.sendOfferNotification(offer, isAdded);
+        } catch (Exception e) {
+            log.warn("Failed to send offer notification for offer {}: {}", offer.getId(), e.toString());
+        }
     }
 
     // excludes my offers
     List<Offer> getOffers() {
-        List<Offer> offers = new ArrayList<>(offerBookService.getOffers()).stream()
-                .filter(o -> !o.isMyOffer(keyRing))
-                .filter(o -> {
-                    Result result = offerFilter.canTakeOffer(o, coreContext.isApiUser());
-                    return result.isValid() || result == Result.HAS_NO_PAYMENT_ACCOUNT_VALID_FOR_OFFER;
-                })
+        return offerBookService.getOffers().stream()
+                .filter(this::isOfferAvailableToTake)
                 .collect(Collectors.toList());
-        offers.removeAll(getOffersWithDuplicateKeyImages(offers));
-        return offers;
     }
 
     List<Offer> getOffers(String direction, String currencyCode) {
-        return getOffers().stream()
-                .filter(o -> offerMatchesDirectionAndCurrency(o, direction, currencyCode))
-                .sorted(priceComparator(direction))
+        OfferDirection offerDirection = toOfferDirection(direction);
+        boolean anyCurrency = currencyCode == null || currencyCode.isEmpty();
+        return offerBookService.getOffers(anyCurrency ? null : currencyCode,
+                        offerDirection,
+                        null,
+                        priceComparator(direction)).stream()
+                .filter(this::isOfferAvailableToTake)
+                .collect(Collectors.toList());
+    }
+
+    CursorPage<Offer> getOffers(String direction,
+                                String currencyCode,
+                                String paymentMethodId,
+                                long createdSince,
+                                String cursor,
+                                int limit) {
+        boolean anyPaymentMethod = paymentMethodId == null || paymentMethodId.isEmpty();
+        List<Offer> offers = getOffers(direction, currencyCode).stream()
+                .filter(offer -> anyPaymentMethod || offer.getPaymentMethod().getId().equals(paymentMethodId))
+                .filter(offer -> offer.getDate().getTime() >= createdSince)
                 .collect(Collectors.toList());
+        return CursorPage.of(offers, offer -> offer.getDate().getTime(), Offer::getId, cursor, limit);
     }
 
     Offer getOffer(String id) {
-        return getOffers().stream()
-                .filter(o -> o.getId().equals(id))
-                .findAny().orElseThrow(() ->
+        return offerBookService.getOfferById(id)
+                .filter(this::isOfferAvailableToTake)
+                .orElseThrow(() ->
                         new IllegalStateException(format("offer with id '%s' not found", id)));
     }
 
@@ -244,6 +281,32 @@ public class CoreOffersService {
 
     // -------------------------- PRIVATE HELPERS -----------------------------
 
+    // Returns null for an empty direction, which matches offers of both directions
+    private static OfferDirection toOfferDirection(String direction) {
+        if (direction == null) throw new IllegalArgumentException("invalid direction: null");
+        if (direction.isEmpty()) return null;
+        try {
+            return OfferDirection.valueOf(direction.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("invalid direction: " + direction);
+        }
+    }
+
+    private boolean isOfferAvailableToTake(Offer offer) {
+        if (!isOfferAcceptedByFilter(offer)) return false;
+
+        // Of the offers sharing a reserve tx key image only the newest one is listed, the older ones were
+        // re-funded or are stale. This used to depend on the iteration order of the offer book.
+        return !offerBookService.hasNewerOfferWithSameKeyImage(offer);
+    }
+
+    // excludes my offers and the offers rejected by the offer filter
+    private boolean isOfferAcceptedByFilter(Offer offer) {
+        if (offer.isMyOffer(keyRing)) return false;
+        Result result = offerFilter.canTakeOffer(offer, coreContext.isApiUser());
+        return result.isValid() || result == Result.HAS_NO_PAYMENT_ACCOUNT_VALID_FOR_OFFER;
+    }
+
     private Set<Offer> getOffersWithDuplicateKeyImages(List<Offer> offers) {
         Set<Offer> duplicateFundedOffers = new HashSet<Offer>();
         Set<String> seenKeyImages = new HashSet<String>();
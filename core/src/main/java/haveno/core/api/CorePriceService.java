@@ -41,13 +41,11 @@ import haveno.core.api.model.MarketDepthInfo;
 import haveno.core.api.model.MarketPriceInfo;
 import haveno.core.locale.CurrencyUtil;
 import haveno.core.monetary.Price;
-import haveno.core.offer.Offer;
-import haveno.core.offer.OfferBookService;
 import haveno.core.offer.OfferDirection;
+import haveno.core.offer.OrderBook;
+import haveno.core.offer.OrderBookService;
 import haveno.core.provider.price.PriceFeedService;
 import haveno.core.trade.HavenoUtils;
-import java.util.Comparator;
-import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeoutException;
@@ -60,12 +58,21 @@ import lombok.extern.slf4j.Slf4j;
 class CorePriceService {
 
     private final PriceFeedService priceFeedService;
-    private final OfferBookService offerBookService;
+    private final OrderBookService orderBookService;
 
     @Inject
-    public CorePriceService(PriceFeedService priceFeedService, OfferBookService offerBookService) {
+    public CorePriceService(PriceFeedService priceFeedService,
+                            OrderBookService orderBookService,
+                            CoreNotificationService notificationService) {
         this.priceFeedService = priceFeedService;
-        this.offerBookService = offerBookService;
+        this.orderBookService = orderBookService;
+
+        // Notify api clients about updated prices so they do not need to poll
+        priceFeedService.updateCounterProperty().addListener((observable, oldValue, newValue) -> {
+            if (notificationService.hasListeners()) {
+                notificationService.sendMarketPricesNotification(getCachedMarketPrices());
+            }
+        });
     }
 
     /**
@@ -91,69 +98,55 @@ class CorePriceService {
                 .collect(Collectors.toList());
     }
 
+    private List<MarketPriceInfo> getCachedMarketPrices() {
+        return priceFeedService.getMarketPrices().values().stream()
+                .map(marketPrice -> new MarketPriceInfo(marketPrice.getCurrencyCode(),
+                        mapPriceFeedServicePrice(marketPrice.getPrice(), marketPrice.getCurrencyCode())))
+                .collect(Collectors.toList());
+    }
+
     /**
      * @return Data for market depth chart
      */
-     public MarketDepthInfo getMarketDepth(String currencyCode) throws ExecutionException, InterruptedException, TimeoutException, IllegalArgumentException  {
-        if (priceFeedService.requestAllPrices().get(currencyCode.toUpperCase()) == null) throw new IllegalArgumentException("Currency not found: " + currencyCode) ;
-
-        // Offer price can be null (if price feed unavailable), thus a null-tolerant comparator is used.
-        Comparator<Offer> offerPriceComparator = Comparator.comparing(Offer::getPrice, Comparator.nullsLast(Comparator.naturalOrder()));
-
-        // Trading xmr-traditional is considered as buying/selling XMR, but trading xmr-crypto is
-        // considered as buying/selling crypto. Because of this, when viewing a xmr-crypto pair,
-        // the buy column is actually the sell column and vice versa. To maintain the expected
-        // ordering, we have to reverse the price comparator.
-        boolean isCrypto = CurrencyUtil.isCryptoCurrency(currencyCode);
-        if (isCrypto) offerPriceComparator = offerPriceComparator.reversed();
-
-        // Offer amounts are used for the secondary sort. They are sorted from high to low.
-        Comparator<Offer> offerAmountComparator = Comparator.comparing(Offer::getAmount).reversed();
-
-        var buyOfferSortComparator =
-                offerPriceComparator.reversed() // Buy offers, as opposed to sell offers, are primarily sorted from high price to low.
-                        .thenComparing(offerAmountComparator);
-        var sellOfferSortComparator =
-                offerPriceComparator
-                        .thenComparing(offerAmountComparator);
-        List<Offer> buyOffers = offerBookService.getOffersByCurrency(OfferDirection.BUY.name(), currencyCode).stream().sorted(buyOfferSortComparator).collect(Collectors.toList());
-        List<Offer> sellOffers = offerBookService.getOffersByCurrency(OfferDirection.SELL.name(), currencyCode).stream().sorted(sellOfferSortComparator).collect(Collectors.toList());
-
-        // Create buyer hashmap {key:price, value:count}, uses LinkedHashMap to maintain insertion order
-        double accumulatedAmount = 0;
-        LinkedHashMap<Double,Double> buyTM = new LinkedHashMap<Double,Double>();
-        for(Offer offer: buyOffers) {
-            Price price = offer.getPrice();
-            if (price != null) {
-                double amount = (double) offer.getAmount().longValueExact() / LongMath.pow(10, HavenoUtils.XMR_SMALLEST_UNIT_EXPONENT);
-                accumulatedAmount += amount;
-                double priceAsDouble = (double) price.getValue() / LongMath.pow(10, price.smallestUnitExponent());
-                buyTM.put(mapPriceFeedServicePrice(priceAsDouble, currencyCode), accumulatedAmount);
-            }
-        };
-
-        // Create buyer hashmap {key:price, value:count}, uses TreeMap to sort by key (asc)
-        accumulatedAmount = 0;
-        LinkedHashMap<Double,Double> sellTM = new LinkedHashMap<Double,Double>();
-        for(Offer offer: sellOffers){
-            Price price = offer.getPrice();
-            if (price != null) {
-                double amount = (double) offer.getAmount().longValueExact() / LongMath.pow(10, HavenoUtils.XMR_SMALLEST_UNIT_EXPONENT);
-                accumulatedAmount += amount;
-                double priceAsDouble = (double) price.getValue() / LongMath.pow(10, price.smallestUnitExponent());
-                sellTM.put(mapPriceFeedServicePrice(priceAsDouble, currencyCode), accumulatedAmount);
-            }
-        };
+    public MarketDepthInfo getMarketDepth(String currencyCode) throws ExecutionException, InterruptedException, TimeoutException, IllegalArgumentException {
+        return getMarketDepth(currencyCode, 0);
+    }
 
-        // Make array of buyPrices and buyDepth
-        Double[] buyDepth = buyTM.values().toArray(new Double[buyTM.size()]);
-        Double[] buyPrices = buyTM.keySet().toArray(new Double[buyTM.size()]);
+    /**
+     * @param maxLevels The max. number of price levels per side, 0 for all levels. 1 returns the top of the book.
+     * @return Data for market depth chart
+     */
+    public MarketDepthInfo getMarketDepth(String currencyCode, int maxLevels) throws ExecutionException, InterruptedException, TimeoutException, IllegalArgumentException {
+        // We only request the prices if the currency is not in the cache, as it waits for the next price update
+        if (priceFeedService.getMarketPrice(currencyCode.toUpperCase()) == null &&
+                priceFeedService.requestAllPrices().get(currencyCode.toUpperCase()) == null) {
+            throw new IllegalArgumentException("Currency not found: " + currencyCode);
+        }
 
-        // Make array of sellPrices and sellDepth
-        Double[] sellDepth = sellTM.values().toArray(new Double[sellTM.size()]);
-        Double[] sellPrices = sellTM.keySet().toArray(new Double[sellTM.size()]);
+        OrderBook orderBook = orderBookService.getOrderBook(currencyCode);
+        List<OrderBook.PriceLevel> buyLevels = orderBook.getLevels(OfferDirection.BUY, maxLevels);
+        List<OrderBook.PriceLevel> sellLevels = orderBook.getLevels(OfferDirection.SELL, maxLevels);
+        return new MarketDepthInfo(currencyCode,
+                getPrices(buyLevels, currencyCode),
+                getDepth(buyLevels),
+                getPrices(sellLevels, currencyCode),
+                getDepth(sellLevels));
+    }
+
+    private Double[] getPrices(List<OrderBook.PriceLevel> levels, String currencyCode) {
+        return levels.stream()
+                .map(level -> {
+                    Price price = level.getPrice();
+                    double priceAsDouble = (double) price.getValue() / LongMath.pow(10, price.smallestUnitExponent());
+                    return mapPriceFeedServicePrice(priceAsDouble, currencyCode);
+                })
+                .toArray(Double[]::new);
+    }
 
-        return new MarketDepthInfo(currencyCode, buyPrices, buyDepth, sellPrices, sellDepth);
+    private Double[] getDepth(List<OrderBook.PriceLevel> levels) {
+        return levels.stream()
+                .map(level -> (double) level.getCumulativeAmount() / LongMath.pow(10, HavenoUtils.XMR_SMALLEST_UNIT_EXPONENT))
+                .toArray(Double[]::new);
     }
 
     /**
@@ -49,6 +49,7 @@ import haveno.core.support.traderchat.TraderChatManager;
 import haveno.core.trade.ClosedTradableManager;
 import haveno.core.trade.Tradable;
 import haveno.core.trade.Trade;
+import haveno.core.trade.TradeInitProgress;
 import haveno.core.trade.TradeManager;
 import haveno.core.trade.TradeUtil;
 import haveno.core.trade.protocol.BuyerProtocol;
@@ -65,6 +66,7 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 import java.util.function.Consumer;
+import java.util.stream.Collectors;
 import lombok.extern.slf4j.Slf4j;
 import org.bitcoinj.core.Coin;
 
@@ -233,6 +235,19 @@ class CoreTradesService {
         return trades;
     }
 
+    CursorPage<Trade> getTrades(String currencyCode, long updatedSince, String cursor, int limit) {
+        boolean anyCurrency = currencyCode == null || currencyCode.isEmpty();
+        List<Trade> trades = getTrades().stream()
+                .filter(trade -> anyCurrency || trade.getOffer().getCurrencyCode().equalsIgnoreCase(currencyCode))
+                .filter(trade -> trade.getLastUpdateTime() >= updatedSince)
+                .collect(Collectors.toList());
+        return CursorPage.of(trades, trade -> trade.getDate().getTime(), Trade::getId, cursor, limit);
+    }
+
+    TradeInitProgress getTradeInitProgress() {
+        return tradeManager.getTradeInitProgress();
+    }
+
     List<ChatMessage> getChatMessages(String tradeId) {
         Trade trade;
         var tradeOptional = tradeManager.getOpenTrade(tradeId);
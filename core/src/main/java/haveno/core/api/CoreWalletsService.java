@@ -106,7 +106,8 @@ class CoreWalletsService {
                               BtcWalletService btcWalletService,
                               XmrWalletService xmrWalletService,
                               @Named(FormattingUtils.BTC_FORMATTER_KEY) CoinFormatter btcFormatter,
-                              Preferences preferences) {
+                              Preferences preferences,
+                              CoreNotificationService notificationService) {
         this.appStartupState = appStartupState;
         this.coreContext = coreContext;
         this.accountService = accountService;
@@ -116,6 +117,13 @@ class CoreWalletsService {
         this.btcWalletService = btcWalletService;
         this.xmrWalletService = xmrWalletService;
         this.btcFormatter = btcFormatter;
+
+        // Notify api clients about updated balances so they do not need to poll
+        balances.getUpdateCounter().addListener((observable, oldValue, newValue) -> {
+            if (notificationService.hasListeners() && balances.getAvailableBalance() != null) {
+                notificationService.sendBalancesNotification(new BalancesInfo(BtcBalanceInfo.EMPTY, balances.getBalances()));
+            }
+        });
     }
 
     @Nullable
@@ -161,6 +169,14 @@ class CoreWalletsService {
         return xmrWalletService.getTxs();
     }
 
+    // Unconfirmed txs are sorted last and are always included
+    CursorPage<MoneroTxWallet> getXmrTxs(long minHeight, String cursor, int limit) {
+        List<MoneroTxWallet> txs = getXmrTxs().stream()
+                .filter(tx -> tx.getHeight() == null || tx.getHeight() >= minHeight)
+                .collect(Collectors.toList());
+        return CursorPage.of(txs, tx -> tx.getHeight() == null ? Long.MAX_VALUE : tx.getHeight(), MoneroTxWallet::getHash, cursor, limit);
+    }
+
     MoneroTxWallet createXmrTx(List<MoneroDestination> destinations) {
         accountService.checkAccountOpen();
         verifyWalletsAreAvailable();
@@ -0,0 +1,86 @@
+/*
+ * This file is part of Haveno.
+ *
+ * Haveno is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Haveno is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Haveno. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package haveno.core.api;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.ToLongFunction;
+import lombok.Value;
+
+/**
+ * A page of API results. Items are paged by a cursor made of the time and id of the last returned item, so pages stay
+ * consistent while items are added or removed between requests.
+ */
+@Value
+public class CursorPage<T> {
+    List<T> items;
+    String nextCursor; // empty if there are no more items
+
+    /**
+     * Returns the items following the given cursor sorted by time and id, or all items in their given order if
+     * no cursor and no limit is set.
+     *
+     * @param cursor the next cursor of the previous page, empty for the first page
+     * @param limit the max. number of items, 0 for no limit
+     */
+    public static <T> CursorPage<T> of(Collection<T> items,
+                                       ToLongFunction<T> timeOf,
+                                       Function<T, String> idOf,
+                                       String cursor,
+                                       int limit) {
+        if (limit < 0) throw new IllegalArgumentException("limit must not be negative");
+        boolean hasCursor = cursor != null && !cursor.isEmpty();
+        if (!hasCursor && limit == 0) return new CursorPage<>(new ArrayList<>(items), "");
+
+        Comparator<T> comparator = Comparator.comparingLong(timeOf).thenComparing(idOf);
+        List<T> sorted = new ArrayList<>(items);
+        sorted.sort(comparator);
+
+        int fromIndex = 0;
+        if (hasCursor) {
+            int separatorIndex = cursor.indexOf(':');
+            long cursorTime;
+            try {
+                cursorTime = Long.parseLong(cursor.substring(0, Math.max(separatorIndex, 0)));
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("invalid cursor '" + cursor + "'");
+            }
+            String cursorId = cursor.substring(separatorIndex + 1);
+            while (fromIndex < sorted.size() && isAtOrBefore(sorted.get(fromIndex), cursorTime, cursorId, timeOf, idOf)) {
+                fromIndex++;
+            }
+        }
+        int toIndex = limit == 0 ? sorted.size() : (int) Math.min(sorted.size(), (long) fromIndex + limit);
+        List<T> page = new ArrayList<>(sorted.subList(fromIndex, toIndex));
+        String nextCursor = toIndex < sorted.size() && !page.isEmpty() ? toCursor(page.get(page.size() - 1), timeOf, idOf) : "";
+        return new CursorPage<>(page, nextCursor);
+    }
+
+    private static <T> boolean isAtOrBefore(T item, long cursorTime, String cursorId, ToLongFunction<T> timeOf, Function<T, String> idOf) {
+        long time = timeOf.applyAsLong(item);
+        return time < cursorTime || (time == cursorTime && idOf.apply(item).compareTo(cursorId) <= 0);
+    }
+
+    private static <T> String toCursor(T item, ToLongFunction<T> timeOf, Function<T, String> idOf) {
+        return timeOf.applyAsLong(item) + ":" + idOf.apply(item);
+    }
+}
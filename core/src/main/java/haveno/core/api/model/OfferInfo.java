@@ -140,6 +140,27 @@ public class OfferInfo implements Payload {
                 .build();
     }
 
+    /**
+     * Returns a compact projection of the offer for clients polling the offer book. It only contains the fields
+     * needed to list and select offers.
+     */
+    public static haveno.proto.grpc.OfferInfo toCompactProtoMessage(Offer offer) {
+        return haveno.proto.grpc.OfferInfo.newBuilder()
+                .setId(offer.getId())
+                .setDirection(offer.getDirection().name())
+                .setPrice(reformatMarketPrice(requireNonNull(offer.getPrice()).toPlainString(), offer.getCurrencyCode()))
+                .setUseMarketBasedPrice(offer.isUseMarketBasedPrice())
+                .setMarketPriceMarginPct(exactMultiply(offer.getMarketPriceMarginPct(), 100))
+                .setAmount(offer.getAmount().longValueExact())
+                .setMinAmount(offer.getMinAmount().longValueExact())
+                .setPaymentMethodId(offer.getPaymentMethod().getId())
+                .setBaseCurrencyCode(offer.getBaseCurrencyCode())
+                .setCounterCurrencyCode(offer.getCounterCurrencyCode())
+                .setDate(offer.getDate().getTime())
+                .setState(offer.getState().name())
+                .build();
+    }
+
     private static OfferInfoBuilder getBuilder(Offer offer) {
         // OfferInfo protos are passed to API client, and some field
         // values are converted to displayable, unambiguous form.
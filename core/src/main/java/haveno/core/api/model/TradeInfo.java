@@ -207,6 +207,30 @@ public class TradeInfo implements Payload {
                 .build();
     }
 
+    /**
+     * Returns a compact projection of the trade for clients polling their trades. It contains the amounts and the
+     * state of the trade but no contract, fees or payout details.
+     */
+    public static haveno.proto.grpc.TradeInfo toCompactProtoMessage(Trade trade) {
+        return haveno.proto.grpc.TradeInfo.newBuilder()
+                .setOffer(OfferInfo.toCompactProtoMessage(trade.getOffer()))
+                .setTradeId(trade.getId())
+                .setShortId(trade.getShortId())
+                .setDate(trade.getDate().getTime())
+                .setAmount(trade.getAmount().longValueExact())
+                .setPrice(toPreciseTradePrice.apply(trade))
+                .setTradeVolume(toRoundedVolume.apply(trade))
+                .setState(trade.getState().name())
+                .setPhase(trade.getPhase().name())
+                .setPeriodState(trade.getPeriodState().name())
+                .setPayoutState(trade.getPayoutState().name())
+                .setDisputeState(trade.getDisputeState().name())
+                .setIsPaymentSent(trade.isPaymentSent())
+                .setIsPaymentReceived(trade.isPaymentReceived())
+                .setIsCompleted(trade.isCompleted())
+                .build();
+    }
+
     ///////////////////////////////////////////////////////////////////////////////////////////
     // PROTO BUFFER
     ///////////////////////////////////////////////////////////////////////////////////////////
@@ -65,6 +65,19 @@ public class XmrTx implements Payload {
         return builder.build();
     }
 
+    // Compact projection without the transfers and the metadata
+    public static XmrTx toCompactXmrTx(MoneroTxWallet tx) {
+        Long timestamp = tx.getBlock() == null ? null : tx.getBlock().getTimestamp();
+        XmrTxBuilder builder = new XmrTxBuilder()
+                .withHash(tx.getHash())
+                .withFee(tx.getFee())
+                .withIsConfirmed(tx.isConfirmed())
+                .withIsLocked(tx.isLocked());
+        Optional.ofNullable(tx.getHeight()).ifPresent(e -> builder.withHeight(tx.getHeight()));
+        Optional.ofNullable(timestamp).ifPresent(e -> builder.withTimestamp(timestamp));
+        return builder.build();
+    }
+
     ///////////////////////////////////////////////////////////////////////////////////////////
     // PROTO BUFFER
     ///////////////////////////////////////////////////////////////////////////////////////////
@@ -56,6 +56,7 @@ import haveno.core.trade.TradeManager;
 import haveno.core.trade.statistics.TradeStatisticsManager;
 import haveno.core.xmr.setup.WalletsSetup;
 import haveno.core.xmr.wallet.BtcWalletService;
+import haveno.core.xmr.wallet.XmrKeyImageStatusService;
 import haveno.core.xmr.wallet.XmrWalletService;
 import haveno.network.p2p.NodeAddress;
 import haveno.network.p2p.P2PService;
@@ -139,6 +140,7 @@ public abstract class ExecutableForAppWithP2p extends HavenoExecutable {
 
                     // shut down offer book service
                     injector.getInstance(OfferBookService.class).shutDown();
+                    injector.getInstance(XmrKeyImageStatusService.class).shutDown();
 
                     // shut down p2p service
                     injector.getInstance(P2PService.class).shutDown(() -> {
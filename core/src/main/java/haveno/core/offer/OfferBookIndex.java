@@ -0,0 +1,174 @@
+/*
+ * This file is part of Haveno.
+ *
+ * Haveno is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Haveno is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Haveno. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package haveno.core.offer;
+
+import lombok.Value;
+
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Index of the offers in the offer book, updated incrementally when offers are added or removed from the P2P network.
+ * The offers are grouped by market (currency code, direction and payment method) so queries only visit the offers of
+ * the requested markets. The index holds one Offer instance per offer id. These instances are only used for
+ * lookups and sorting and must not be handed out to code which mutates the offer state.
+ *
+ * We do not keep the offers sorted by price as the price of offers using a market based price changes with the
+ * market price. Instead we sort the offers of the requested markets at query time.
+ */
+final class OfferBookIndex {
+    private static final Comparator<Offer> NEWEST_FIRST = Comparator.comparingLong((Offer offer) -> offer.getDate().getTime())
+            .reversed()
+            .thenComparing(Offer::getId);
+
+    @Value
+    static class MarketKey {
+        String currencyCode;
+        OfferDirection direction;
+        String paymentMethodId;
+
+        static MarketKey of(Offer offer) {
+            return new MarketKey(offer.getCurrencyCode().toUpperCase(), offer.getDirection(), offer.getPaymentMethodId());
+        }
+
+        boolean matches(@Nullable String currencyCode,
+                        @Nullable OfferDirection direction,
+                        @Nullable String paymentMethodId) {
+            return (currencyCode == null || this.currencyCode.equalsIgnoreCase(currencyCode)) &&
+                    (direction == null || this.direction == direction) &&
+                    (paymentMethodId == null || this.paymentMethodId.equals(paymentMethodId));
+        }
+    }
+
+    private final Map<String, Offer> offersById = new ConcurrentHashMap<>();
+    private final Map<MarketKey, Map<String, Offer>> offersByMarket = new ConcurrentHashMap<>();
+    private final Map<String, Set<String>> offerIdsByKeyImage = new ConcurrentHashMap<>();
+
+    /**
+     * Adds the offer. An existing offer with the same id gets replaced.
+     */
+    synchronized void add(Offer offer) {
+        remove(offer.getId());
+        offersById.put(offer.getId(), offer);
+        offersByMarket.computeIfAbsent(MarketKey.of(offer), key -> new ConcurrentHashMap<>()).put(offer.getId(), offer);
+        getKeyImages(offer).forEach(keyImage ->
+                offerIdsByKeyImage.computeIfAbsent(keyImage, key -> ConcurrentHashMap.newKeySet()).add(offer.getId()));
+    }
+
+    /**
+     * @return The removed offer or null if there was no offer with that id.
+     */
+    @Nullable
+    synchronized Offer remove(String offerId) {
+        Offer offer = offersById.remove(offerId);
+        if (offer == null) {
+            return null;
+        }
+        MarketKey marketKey = MarketKey.of(offer);
+        Map<String, Offer> marketOffers = offersByMarket.get(marketKey);
+        if (marketOffers != null) {
+            marketOffers.remove(offerId);
+            if (marketOffers.isEmpty()) {
+                offersByMarket.remove(marketKey);
+            }
+        }
+        getKeyImages(offer).forEach(keyImage -> {
+            Set<String> offerIds = offerIdsByKeyImage.get(keyImage);
+            if (offerIds != null) {
+                offerIds.remove(offerId);
+                if (offerIds.isEmpty()) {
+                    offerIdsByKeyImage.remove(keyImage);
+                }
+            }
+        });
+        return offer;
+    }
+
+    @Nullable
+    Offer get(String offerId) {
+        return offersById.get(offerId);
+    }
+
+    Collection<Offer> getAll() {
+        return Collections.unmodifiableCollection(offersById.values());
+    }
+
+    List<Offer> getOffersByKeyImage(String keyImage) {
+        Set<String> offerIds = offerIdsByKeyImage.getOrDefault(keyImage, Set.of());
+        return offerIds.stream()
+                .map(offersById::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Returns true if another offer uses one of the key images of the reserve tx of the given offer and is newer.
+     * Only the newest of such offers can be valid. Offers with the same date are ordered by id, so exactly one
+     * offer per key image is considered the newest, independent of the order the offers were added.
+     */
+    boolean hasNewerOfferWithSameKeyImage(Offer offer) {
+        for (String keyImage : getKeyImages(offer)) {
+            for (Offer other : getOffersByKeyImage(keyImage)) {
+                if (!other.getId().equals(offer.getId()) && NEWEST_FIRST.compare(other, offer) < 0) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    int size() {
+        return offersById.size();
+    }
+
+    /**
+     * Returns the offers of the markets matching the given filters, where null matches any value.
+     *
+     * @param comparator Sorts the result if not null.
+     */
+    List<Offer> getOffers(@Nullable String currencyCode,
+                          @Nullable OfferDirection direction,
+                          @Nullable String paymentMethodId,
+                          @Nullable Comparator<Offer> comparator) {
+        List<Offer> offers = new ArrayList<>();
+        offersByMarket.forEach((marketKey, marketOffers) -> {
+            if (marketKey.matches(currencyCode, direction, paymentMethodId)) {
+                offers.addAll(marketOffers.values());
+            }
+        });
+        if (comparator != null) {
+            offers.sort(comparator);
+        }
+        return offers;
+    }
+
+    private static List<String> getKeyImages(Offer offer) {
+        List<String> keyImages = offer.getOfferPayload().getReserveTxKeyImages();
+        return keyImages != null ? keyImages : List.of();
+    }
+}
@@ -41,31 +41,35 @@ import haveno.common.config.Config;
 import haveno.common.file.JsonFileManager;
 import haveno.common.handlers.ErrorMessageHandler;
 import haveno.common.handlers.ResultHandler;
-import haveno.core.api.XmrConnectionService;
 import haveno.core.filter.FilterManager;
 import haveno.core.locale.Res;
 import haveno.core.provider.price.PriceFeedService;
-import haveno.core.trade.HavenoUtils;
 import haveno.core.util.JsonUtil;
 import haveno.core.xmr.wallet.XmrKeyImageListener;
-import haveno.core.xmr.wallet.XmrKeyImagePoller;
+import haveno.core.xmr.wallet.XmrKeyImageStatusService;
 import haveno.network.p2p.BootstrapListener;
 import haveno.network.p2p.P2PService;
 import haveno.network.p2p.storage.HashMapChangedListener;
 import haveno.network.p2p.storage.payload.ProtectedStorageEntry;
 import java.io.File;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Comparator;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Optional;
 import java.util.stream.Collectors;
 import javax.annotation.Nullable;
 import monero.daemon.model.MoneroKeyImageSpentStatus;
 
 /**
  * Handles storage and retrieval of offers.
- * Uses an invalidation flag to only request the full offer map in case there was a change (anyone has added or removed an offer).
+ * The offers are kept in an {@link OfferBookIndex} which gets updated when offers are added or removed, so we do not
+ * need to scan the P2P data map at each request.
+ * Callers like the offer availability protocol or a new trade mutate the state of an Offer, so the offers of the
+ * index are never handed out. Callers and listeners get a new Offer instance created from the payload instead.
  */
 public class OfferBookService {
 
@@ -74,12 +78,10 @@ public class OfferBookService {
     private final List<OfferBookChangedListener> offerBookChangedListeners = new LinkedList<>();
     private final FilterManager filterManager;
     private final JsonFileManager jsonFileManager;
-    private final XmrConnectionService xmrConnectionService;
+    private final OfferBookIndex offerBookIndex = new OfferBookIndex();
 
-    // poll key images of offers
-    private XmrKeyImagePoller keyImagePoller;
-    private static final long KEY_IMAGE_REFRESH_PERIOD_MS_LOCAL = 20000; // 20 seconds
-    private static final long KEY_IMAGE_REFRESH_PERIOD_MS_REMOTE = 300000; // 5 minutes
+    private final XmrKeyImageStatusService keyImageStatusService;
+    private final XmrKeyImageListener keyImageListener;
 
     public interface OfferBookChangedListener {
         void onAdded(Offer offer);
@@ -95,21 +97,24 @@ public class OfferBookService {
     public OfferBookService(P2PService p2PService,
                             PriceFeedService priceFeedService,
                             FilterManager filterManager,
-                            XmrConnectionService xmrConnectionService,
+                            XmrKeyImageStatusService keyImageStatusService,
                             @Named(Config.STORAGE_DIR) File storageDir,
                             @Named(Config.DUMP_STATISTICS) boolean dumpStatistics) {
         this.p2PService = p2PService;
         this.priceFeedService = priceFeedService;
         this.filterManager = filterManager;
-        this.xmrConnectionService = xmrConnectionService;
+        this.keyImageStatusService = keyImageStatusService;
         jsonFileManager = new JsonFileManager(storageDir);
 
-        // listen for connection changes to monerod
-        xmrConnectionService.addConnectionListener((connection) -> {
-            maybeInitializeKeyImagePoller();
-            keyImagePoller.setDaemon(xmrConnectionService.getDaemon());
-            keyImagePoller.setRefreshPeriodMs(getKeyImageRefreshPeriodMs());
-        });
+        // handle when key images spent
+        keyImageListener = new XmrKeyImageListener() {
+            @Override
+            public void onSpentStatusChanged(Map<String, MoneroKeyImageSpentStatus> spentStatuses) {
+                for (String keyImage : spentStatuses.keySet()) {
+                    updateAffectedOffers(keyImage);
+                }
+            }
+        };
 
         // listen for offers
         p2PService.addHashSetChangedListener(new HashMapChangedListener() {
@@ -118,11 +123,9 @@ public class OfferBookService {
                     protectedStorageEntries.forEach(protectedStorageEntry -> {
                         if (protectedStorageEntry.getProtectedStoragePayload() instanceof OfferPayload) {
                             OfferPayload offerPayload = (OfferPayload) protectedStorageEntry.getProtectedStoragePayload();
-                            maybeInitializeKeyImagePoller();
-                            keyImagePoller.addKeyImages(offerPayload.getReserveTxKeyImages());
-                            Offer offer = new Offer(offerPayload);
-                            offer.setPriceFeedService(priceFeedService);
-                            setReservedFundsSpent(offer);
+                            keyImageStatusService.addKeyImages(keyImageListener, offerPayload.getReserveTxKeyImages());
+                            addToOfferBookIndex(offerPayload);
+                            Offer offer = createOffer(offerPayload);
                             synchronized (offerBookChangedListeners) {
                                 offerBookChangedListeners.forEach(listener -> listener.onAdded(offer));
                             }
@@ -135,11 +138,9 @@ public class OfferBookService {
                 protectedStorageEntries.forEach(protectedStorageEntry -> {
                     if (protectedStorageEntry.getProtectedStoragePayload() instanceof OfferPayload) {
                         OfferPayload offerPayload = (OfferPayload) protectedStorageEntry.getProtectedStoragePayload();
-                        maybeInitializeKeyImagePoller();
-                        keyImagePoller.removeKeyImages(offerPayload.getReserveTxKeyImages());
-                        Offer offer = new Offer(offerPayload);
-                        offer.setPriceFeedService(priceFeedService);
-                        setReservedFundsSpent(offer);
+                        keyImageStatusService.removeKeyImages(keyImageListener, offerPayload.getReserveTxKeyImages());
+                        offerBookIndex.remove(offerPayload.getId());
+                        Offer offer = createOffer(offerPayload);
                         synchronized (offerBookChangedListeners) {
                             offerBookChangedListeners.forEach(listener -> listener.onRemoved(offer));
                         }
@@ -148,6 +149,11 @@ public class OfferBookService {
             }
         });
 
+        // Offers added to the data map before our listener was registered
+        p2PService.getDataMap().values().stream()
+                .filter(data -> data.getProtectedStoragePayload() instanceof OfferPayload)
+                .forEach(data -> addToOfferBookIndex((OfferPayload) data.getProtectedStoragePayload()));
+
         if (dumpStatistics) {
             p2PService.addP2PServiceListener(new BootstrapListener() {
                 @Override
@@ -229,22 +235,35 @@ public class OfferBookService {
     }
 
     public List<Offer> getOffers() {
-        return p2PService.getDataMap().values().stream()
-                .filter(data -> data.getProtectedStoragePayload() instanceof OfferPayload)
-                .map(data -> {
-                    OfferPayload offerPayload = (OfferPayload) data.getProtectedStoragePayload();
-                    Offer offer = new Offer(offerPayload);
-                    offer.setPriceFeedService(priceFeedService);
-                    setReservedFundsSpent(offer);
-                    return offer;
-                })
-                .collect(Collectors.toList());
+        return copyOffers(offerBookIndex.getAll());
+    }
+
+    /**
+     * Returns the offers matching the given filters, where null matches any value.
+     *
+     * @param currencyCode    The currency code traded against XMR.
+     * @param comparator      Sorts the result if not null.
+     */
+    public List<Offer> getOffers(@Nullable String currencyCode,
+                                 @Nullable OfferDirection direction,
+                                 @Nullable String paymentMethodId,
+                                 @Nullable Comparator<Offer> comparator) {
+        return copyOffers(offerBookIndex.getOffers(currencyCode, direction, paymentMethodId, comparator));
     }
 
     public List<Offer> getOffersByCurrency(String direction, String currencyCode) {
-        return getOffers().stream()
-                .filter(o -> o.getOfferPayload().getBaseCurrencyCode().equalsIgnoreCase(currencyCode) && o.getDirection().name() == direction)
-                .collect(Collectors.toList());
+        return getOffers(currencyCode, OfferDirection.valueOf(direction), null, null);
+    }
+
+    public Optional<Offer> getOfferById(String offerId) {
+        return Optional.ofNullable(offerBookIndex.get(offerId)).map(offer -> createOffer(offer.getOfferPayload()));
+    }
+
+    /**
+     * Returns true if a newer offer in the offer book uses a key image of the reserve tx of the given offer.
+     */
+    public boolean hasNewerOfferWithSameKeyImage(Offer offer) {
+        return offerBookIndex.hasNewerOfferWithSameKeyImage(offer);
     }
 
     public void removeOfferAtShutDown(OfferPayload offerPayload) {
@@ -262,7 +281,7 @@ public class OfferBookService {
     }
 
     public void shutDown() {
-        if (keyImagePoller != null) keyImagePoller.clearKeyImages();
+        keyImageStatusService.removeListener(keyImageListener);
     }
 
 
@@ -270,53 +289,46 @@ public class OfferBookService {
     // Private
     ///////////////////////////////////////////////////////////////////////////////////////////
 
-    private synchronized void maybeInitializeKeyImagePoller() {
-        if (keyImagePoller != null) return;
-        keyImagePoller = new XmrKeyImagePoller(xmrConnectionService.getDaemon(), getKeyImageRefreshPeriodMs());
-
-        // handle when key images spent
-        keyImagePoller.addListener(new XmrKeyImageListener() {
-            @Override
-            public void onSpentStatusChanged(Map<String, MoneroKeyImageSpentStatus> spentStatuses) {
-                for (String keyImage : spentStatuses.keySet()) {
-                    updateAffectedOffers(keyImage);
-                }
-            }
-        });
+    private void addToOfferBookIndex(OfferPayload offerPayload) {
+        Offer offer = new Offer(offerPayload);
+        offer.setPriceFeedService(priceFeedService);
+        offerBookIndex.add(offer);
+    }
 
-        // first poll after 20s
-        // TODO: remove?
-        new Thread(() -> {
-            HavenoUtils.waitFor(20000);
-            keyImagePoller.poll();
-        }).start();
+    private List<Offer> copyOffers(Collection<Offer> offers) {
+        List<Offer> copies = new ArrayList<>(offers.size());
+        for (Offer offer : offers) {
+            copies.add(createOffer(offer.getOfferPayload()));
+        }
+        return copies;
     }
 
-    private long getKeyImageRefreshPeriodMs() {
-        return xmrConnectionService.isConnectionLocal() ? KEY_IMAGE_REFRESH_PERIOD_MS_LOCAL : KEY_IMAGE_REFRESH_PERIOD_MS_REMOTE;
+    private Offer createOffer(OfferPayload offerPayload) {
+        Offer offer = new Offer(offerPayload);
+        offer.setPriceFeedService(priceFeedService);
+        setReservedFundsSpent(offer);
+        return offer;
     }
 
     private void updateAffectedOffers(String keyImage) {
-        for (Offer offer : getOffers()) {
-            if (offer.getOfferPayload().getReserveTxKeyImages().contains(keyImage)) {
-                synchronized (offerBookChangedListeners) {
-                    offerBookChangedListeners.forEach(listener -> {
-
-                        // notify off thread to avoid deadlocking
-                        new Thread(() -> {
-                            listener.onRemoved(offer);
-                            listener.onAdded(offer);
-                        }).start();
-                    });
-                }
+        for (Offer indexedOffer : offerBookIndex.getOffersByKeyImage(keyImage)) {
+            Offer offer = createOffer(indexedOffer.getOfferPayload());
+            synchronized (offerBookChangedListeners) {
+                offerBookChangedListeners.forEach(listener -> {
+
+                    // notify off thread to avoid deadlocking
+                    new Thread(() -> {
+                        listener.onRemoved(offer);
+                        listener.onAdded(offer);
+                    }).start();
+                });
             }
         }
     }
 
     private void setReservedFundsSpent(Offer offer) {
-        if (keyImagePoller == null) return;
         for (String keyImage : offer.getOfferPayload().getReserveTxKeyImages()) {
-            if (Boolean.TRUE.equals(keyImagePoller.isSpent(keyImage))) {
+            if (Boolean.TRUE.equals(keyImageStatusService.isSpent(keyImage))) {
                 offer.setReservedFundsSpent(true);
             }
         }
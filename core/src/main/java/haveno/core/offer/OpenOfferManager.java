@@ -79,7 +79,7 @@ import haveno.core.util.Validator;
 import haveno.core.xmr.model.XmrAddressEntry;
 import haveno.core.xmr.wallet.BtcWalletService;
 import haveno.core.xmr.wallet.XmrKeyImageListener;
-import haveno.core.xmr.wallet.XmrKeyImagePoller;
+import haveno.core.xmr.wallet.XmrKeyImageStatusService;
 import haveno.core.xmr.wallet.TradeWalletService;
 import haveno.core.xmr.wallet.XmrWalletService;
 import haveno.network.p2p.AckMessage;
@@ -165,10 +165,9 @@ public class OpenOfferManager implements PeerManager.Listener, DecryptedDirectMe
     private final AccountAgeWitnessService accountAgeWitnessService;
 
     // poll key images of signed offers
-    private XmrKeyImagePoller signedOfferKeyImagePoller;
+    private final XmrKeyImageStatusService keyImageStatusService;
+    private final XmrKeyImageListener signedOfferKeyImageListener;
     private static final long SHUTDOWN_TIMEOUT_MS = 60000;
-    private static final long KEY_IMAGE_REFRESH_PERIOD_MS_LOCAL = 20000; // 20 seconds
-    private static final long KEY_IMAGE_REFRESH_PERIOD_MS_REMOTE = 300000; // 5 minutes
 
     private Object processOffersLock = new Object(); // lock for processing offers
 
@@ -183,6 +182,7 @@ public class OpenOfferManager implements PeerManager.Listener, DecryptedDirectMe
                             User user,
                             P2PService p2PService,
                             XmrConnectionService xmrConnectionService,
+                            XmrKeyImageStatusService keyImageStatusService,
                             BtcWalletService btcWalletService,
                             XmrWalletService xmrWalletService,
                             TradeWalletService tradeWalletService,
@@ -203,6 +203,7 @@ public class OpenOfferManager implements PeerManager.Listener, DecryptedDirectMe
         this.user = user;
         this.p2PService = p2PService;
         this.xmrConnectionService = xmrConnectionService;
+        this.keyImageStatusService = keyImageStatusService;
         this.btcWalletService = btcWalletService;
         this.xmrWalletService = xmrWalletService;
         this.tradeWalletService = tradeWalletService;
@@ -223,8 +224,17 @@ public class OpenOfferManager implements PeerManager.Listener, DecryptedDirectMe
         this.persistenceManager.initialize(openOffers, "OpenOffers", PersistenceManager.Source.PRIVATE);
         this.signedOfferPersistenceManager.initialize(signedOffers, "SignedOffers", PersistenceManager.Source.PRIVATE); // arbitrator stores reserve tx for signed offers
 
-        // listen for connection changes to monerod
-        xmrConnectionService.addConnectionListener((connection) -> maybeInitializeKeyImagePoller());
+        // handle when key images of signed offers confirmed spent
+        signedOfferKeyImageListener = new XmrKeyImageListener() {
+            @Override
+            public void onSpentStatusChanged(Map<String, MoneroKeyImageSpentStatus> spentStatuses) {
+                for (Entry<String, MoneroKeyImageSpentStatus> entry : spentStatuses.entrySet()) {
+                    if (entry.getValue() == MoneroKeyImageSpentStatus.CONFIRMED) {
+                        removeSignedOffers(entry.getKey());
+                    }
+                }
+            }
+        };
 
         // close open offer if reserved funds spent
         offerBookService.addOfferBookChangedListener(new OfferBookChangedListener() {
@@ -263,34 +273,6 @@ public class OpenOfferManager implements PeerManager.Listener, DecryptedDirectMe
                 completeHandler);
     }
 
-    private synchronized void maybeInitializeKeyImagePoller() {
-        if (signedOfferKeyImagePoller != null) return;
-        signedOfferKeyImagePoller = new XmrKeyImagePoller(xmrConnectionService.getDaemon(), getKeyImageRefreshPeriodMs());
-
-        // handle when key images confirmed spent
-        signedOfferKeyImagePoller.addListener(new XmrKeyImageListener() {
-            @Override
-            public void onSpentStatusChanged(Map<String, MoneroKeyImageSpentStatus> spentStatuses) {
-                for (Entry<String, MoneroKeyImageSpentStatus> entry : spentStatuses.entrySet()) {
-                    if (entry.getValue() == MoneroKeyImageSpentStatus.CONFIRMED) {
-                        removeSignedOffers(entry.getKey());
-                    }
-                }
-            }
-        });
-
-        // first poll in 5s
-        // TODO: remove?
-        new Thread(() -> {
-            HavenoUtils.waitFor(5000);
-            signedOfferKeyImagePoller.poll();
-        }).start();
-    }
-
-    private long getKeyImageRefreshPeriodMs() {
-        return xmrConnectionService.isConnectionLocal() ? KEY_IMAGE_REFRESH_PERIOD_MS_LOCAL : KEY_IMAGE_REFRESH_PERIOD_MS_REMOTE;
-    }
-
     public void onAllServicesInitialized() {
         p2PService.addDecryptedDirectMessageListener(this);
 
@@ -325,7 +307,7 @@ public class OpenOfferManager implements PeerManager.Listener, DecryptedDirectMe
         stopped = true;
         p2PService.getPeerManager().removeListener(this);
         p2PService.removeDecryptedDirectMessageListener(this);
-        if (signedOfferKeyImagePoller != null) signedOfferKeyImagePoller.clearKeyImages();
+        keyImageStatusService.removeListener(signedOfferKeyImageListener);
 
         stopPeriodicRefreshOffersTimer();
         stopPeriodicRepublishOffersTimer();
@@ -485,12 +467,9 @@ public class OpenOfferManager implements PeerManager.Listener, DecryptedDirectMe
                     }
                 });
 
-                // initialize key image poller for signed offers
-                maybeInitializeKeyImagePoller();
-
                 // poll spent status of key images
                 for (SignedOffer signedOffer : signedOffers.getList()) {
-                    signedOfferKeyImagePoller.addKeyImages(signedOffer.getReserveTxKeyImages());
+                    keyImageStatusService.addKeyImages(signedOfferKeyImageListener, signedOffer.getReserveTxKeyImages());
                 }
             }, THREAD_ID);
         });
@@ -832,7 +811,7 @@ public class OpenOfferManager implements PeerManager.Listener, DecryptedDirectMe
 
             // add new signed offer
             signedOffers.add(signedOffer);
-            signedOfferKeyImagePoller.addKeyImages(signedOffer.getReserveTxKeyImages());
+            keyImageStatusService.addKeyImages(signedOfferKeyImageListener, signedOffer.getReserveTxKeyImages());
         }
     }
 
@@ -840,7 +819,7 @@ public class OpenOfferManager implements PeerManager.Listener, DecryptedDirectMe
         log.info("Removing SignedOffer for offer {}", signedOffer.getOfferId());
         synchronized (signedOffers) {
             signedOffers.remove(signedOffer);
-            signedOfferKeyImagePoller.removeKeyImages(signedOffer.getReserveTxKeyImages());
+            keyImageStatusService.removeKeyImages(signedOfferKeyImageListener, signedOffer.getReserveTxKeyImages());
         }
     }
 
@@ -0,0 +1,216 @@
+/*
+ * This file is part of Haveno.
+ *
+ * Haveno is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Haveno is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Haveno. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package haveno.core.offer;
+
+import haveno.core.locale.CurrencyUtil;
+import haveno.core.monetary.Price;
+import lombok.Getter;
+import lombok.Value;
+
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+/**
+ * Order book of a single currency with the offers aggregated by price level. Each side is ordered best price first,
+ * so buy offers with the highest and sell offers with the lowest price come first. As the price of crypto offers is
+ * inverted, the order is reversed for crypto currencies.
+ *
+ * The book is updated incrementally when offers are added or removed and when the market price changes, which only
+ * affects offers using a market based price. Snapshots of the levels are created lazily and cached until the next
+ * change, so polling the depth of an unchanged book is cheap.
+ */
+public final class OrderBook {
+
+    @Value
+    public static class PriceLevel {
+        Price price;
+        // Sum of the offer amounts at this price in atomic units
+        long amount;
+        int numOffers;
+        // Sum of the offer amounts of this and all better price levels in atomic units
+        long cumulativeAmount;
+    }
+
+    private static class MutableLevel {
+        private final Price price;
+        private long amount;
+        private int numOffers;
+
+        private MutableLevel(Price price) {
+            this.price = price;
+        }
+    }
+
+    private static class Entry {
+        private final Offer offer;
+        @Nullable
+        private Price price;
+
+        private Entry(Offer offer) {
+            this.offer = offer;
+        }
+    }
+
+    @Getter
+    private final String currencyCode;
+    private final Map<String, Entry> entriesByOfferId = new HashMap<>();
+    private final NavigableMap<Long, MutableLevel> buyLevels;
+    private final NavigableMap<Long, MutableLevel> sellLevels;
+    @Nullable
+    private List<PriceLevel> buySnapshot;
+    @Nullable
+    private List<PriceLevel> sellSnapshot;
+
+    OrderBook(String currencyCode) {
+        this.currencyCode = currencyCode;
+        boolean isCrypto = CurrencyUtil.isCryptoCurrency(currencyCode);
+        Comparator<Long> ascending = Comparator.naturalOrder();
+        buyLevels = new TreeMap<>(isCrypto ? ascending : ascending.reversed());
+        sellLevels = new TreeMap<>(isCrypto ? ascending.reversed() : ascending);
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // API
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Adds the offer. An existing offer with the same id gets replaced.
+     */
+    synchronized void add(Offer offer) {
+        remove(offer.getId());
+        Entry entry = new Entry(offer);
+        entriesByOfferId.put(offer.getId(), entry);
+        addToLevel(entry);
+    }
+
+    synchronized void remove(String offerId) {
+        Entry entry = entriesByOfferId.remove(offerId);
+        if (entry != null) {
+            removeFromLevel(entry);
+        }
+    }
+
+    /**
+     * Recalculates the prices of the offers using a market based price.
+     */
+    synchronized void onMarketPriceChanged() {
+        entriesByOfferId.values().stream()
+                .filter(entry -> entry.offer.isUseMarketBasedPrice())
+                .forEach(entry -> {
+                    Price price = entry.offer.getPrice();
+                    if (price == null ? entry.price != null : !price.equals(entry.price)) {
+                        removeFromLevel(entry);
+                        addToLevel(entry);
+                    }
+                });
+    }
+
+    synchronized boolean isEmpty() {
+        return entriesByOfferId.isEmpty();
+    }
+
+    /**
+     * @param maxLevels The max. number of levels to return, 0 for all levels.
+     * @return The price levels of the given side, best price first.
+     */
+    public synchronized List<PriceLevel> getLevels(OfferDirection direction, int maxLevels) {
+        List<PriceLevel> levels;
+        if (direction == OfferDirection.BUY) {
+            if (buySnapshot == null) buySnapshot = createSnapshot(buyLevels);
+            levels = buySnapshot;
+        } else {
+            if (sellSnapshot == null) sellSnapshot = createSnapshot(sellLevels);
+            levels = sellSnapshot;
+        }
+        return maxLevels > 0 && maxLevels < levels.size() ? levels.subList(0, maxLevels) : levels;
+    }
+
+    /**
+     * @return The best price level of the given side or null if there are no offers with a price.
+     */
+    @Nullable
+    public PriceLevel getTopOfBook(OfferDirection direction) {
+        List<PriceLevel> levels = getLevels(direction, 1);
+        return levels.isEmpty() ? null : levels.get(0);
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Private
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    // Offers without a price (market based price without a price feed) are not part of any level
+    private void addToLevel(Entry entry) {
+        entry.price = entry.offer.getPrice();
+        if (entry.price == null) {
+            return;
+        }
+        NavigableMap<Long, MutableLevel> levels = getLevels(entry.offer.getDirection());
+        MutableLevel level = levels.computeIfAbsent(entry.price.getValue(), value -> new MutableLevel(entry.price));
+        level.amount += entry.offer.getAmount().longValueExact();
+        level.numOffers++;
+        invalidateSnapshot(entry.offer.getDirection());
+    }
+
+    private void removeFromLevel(Entry entry) {
+        if (entry.price == null) {
+            return;
+        }
+        NavigableMap<Long, MutableLevel> levels = getLevels(entry.offer.getDirection());
+        MutableLevel level = levels.get(entry.price.getValue());
+        if (level != null) {
+            level.amount -= entry.offer.getAmount().longValueExact();
+            if (--level.numOffers == 0) {
+                levels.remove(entry.price.getValue());
+            }
+        }
+        entry.price = null;
+        invalidateSnapshot(entry.offer.getDirection());
+    }
+
+    private NavigableMap<Long, MutableLevel> getLevels(OfferDirection direction) {
+        return direction == OfferDirection.BUY ? buyLevels : sellLevels;
+    }
+
+    private void invalidateSnapshot(OfferDirection direction) {
+        if (direction == OfferDirection.BUY) {
+            buySnapshot = null;
+        } else {
+            sellSnapshot = null;
+        }
+    }
+
+    private static List<PriceLevel> createSnapshot(NavigableMap<Long, MutableLevel> levels) {
+        List<PriceLevel> snapshot = new ArrayList<>(levels.size());
+        long cumulativeAmount = 0;
+        for (MutableLevel level : levels.values()) {
+            cumulativeAmount += level.amount;
+            snapshot.add(new PriceLevel(level.price, level.amount, level.numOffers, cumulativeAmount));
+        }
+        return Collections.unmodifiableList(snapshot);
+    }
+}
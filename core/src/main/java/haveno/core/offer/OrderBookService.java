@@ -0,0 +1,105 @@
+/*
+ * This file is part of Haveno.
+ *
+ * Haveno is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Haveno is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Haveno. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package haveno.core.offer;
+
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import haveno.core.provider.price.PriceFeedService;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Maintains an {@link OrderBook} per currency, updated incrementally from the offer book and the price feed.
+ */
+@Slf4j
+@Singleton
+public class OrderBookService {
+    private final OfferBookService offerBookService;
+    private final Map<String, OrderBook> orderBooks = new ConcurrentHashMap<>();
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Constructor
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    @Inject
+    public OrderBookService(OfferBookService offerBookService, PriceFeedService priceFeedService) {
+        this.offerBookService = offerBookService;
+
+        // We register the listener before adding the existing offers so we do not miss any change. Both add and
+        // remove are synchronized so a removal cannot be overwritten by adding the existing offers.
+        offerBookService.addOfferBookChangedListener(new OfferBookService.OfferBookChangedListener() {
+            @Override
+            public void onAdded(Offer offer) {
+                add(offer);
+            }
+
+            @Override
+            public void onRemoved(Offer offer) {
+                remove(offer);
+            }
+        });
+        synchronized (this) {
+            offerBookService.getOffers().forEach(this::add);
+        }
+
+        priceFeedService.updateCounterProperty().addListener((observable, oldValue, newValue) ->
+                orderBooks.values().forEach(OrderBook::onMarketPriceChanged));
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // API
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    /**
+     * @return The order book of the given currency, which is empty if there are no offers.
+     */
+    public OrderBook getOrderBook(String currencyCode) {
+        OrderBook orderBook = orderBooks.get(currencyCode.toUpperCase());
+        return orderBook != null ? orderBook : new OrderBook(currencyCode.toUpperCase());
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Private
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    private synchronized void add(Offer offer) {
+        // Updated offers are re-added off the thread which removes offers from the offer book. The offer book removes
+        // an offer before notifying us, so we must not add an offer which is not in the offer book anymore.
+        if (!offerBookService.getOfferById(offer.getId()).isPresent()) {
+            return;
+        }
+        orderBooks.computeIfAbsent(offer.getCurrencyCode().toUpperCase(), OrderBook::new).add(offer);
+    }
+
+    private synchronized void remove(Offer offer) {
+        String currencyCode = offer.getCurrencyCode().toUpperCase();
+        OrderBook orderBook = orderBooks.get(currencyCode);
+        if (orderBook != null) {
+            orderBook.remove(offer.getId());
+            if (orderBook.isEmpty()) {
+                orderBooks.remove(currencyCode);
+            }
+        }
+    }
+}
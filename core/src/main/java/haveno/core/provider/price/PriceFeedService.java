@@ -48,14 +48,10 @@ import org.jetbrains.annotations.NotNull;
 
 import javax.annotation.Nullable;
 import java.time.Instant;
-import java.util.ArrayList;
-import java.util.Comparator;
 import java.util.Date;
 import java.util.HashMap;
-import java.util.List;
 import java.util.Map;
 import java.util.Random;
-import java.util.Set;
 import java.util.concurrent.CancellationException;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutionException;
@@ -295,6 +291,13 @@ public class PriceFeedService {
         }
     }
 
+    // Returns a copy of the currently known prices without requesting them
+    public Map<String, MarketPrice> getMarketPrices() {
+        synchronized (cache) {
+            return new HashMap<>(cache);
+        }
+    }
+
     private void setHavenoMarketPrice(String currencyCode, Price price) {
         UserThread.execute(() -> {
             synchronized (cache) {
@@ -344,28 +347,8 @@ public class PriceFeedService {
         return new Date(epochInMillisAtLastRequest);
     }
 
-    public void applyLatestHavenoMarketPrice(Set<TradeStatistics3> tradeStatisticsSet) {
-        // takes about 10 ms for 5000 items
-        Map<String, List<TradeStatistics3>> mapByCurrencyCode = new HashMap<>();
-        tradeStatisticsSet.forEach(e -> {
-            List<TradeStatistics3> list;
-            String currencyCode = e.getCurrency();
-            if (mapByCurrencyCode.containsKey(currencyCode)) {
-                list = mapByCurrencyCode.get(currencyCode);
-            } else {
-                list = new ArrayList<>();
-                mapByCurrencyCode.put(currencyCode, list);
-            }
-            list.add(e);
-        });
-
-        mapByCurrencyCode.values().stream()
-                .filter(list -> !list.isEmpty())
-                .forEach(list -> {
-                    list.sort(Comparator.comparing(TradeStatistics3::getDate));
-                    TradeStatistics3 tradeStatistics = list.get(list.size() - 1);
-                    setHavenoMarketPrice(tradeStatistics.getCurrency(), tradeStatistics.getTradePrice());
-                });
+    public void applyLatestHavenoMarketPrice(TradeStatistics3 latestTradeStatistics) {
+        setHavenoMarketPrice(latestTradeStatistics.getCurrency(), latestTradeStatistics.getTradePrice());
     }
 
     /**
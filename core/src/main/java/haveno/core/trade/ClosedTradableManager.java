@@ -163,7 +163,8 @@ public class ClosedTradableManager implements PersistedDataHost {
                 .filter(e -> e instanceof Trade)
                 .map(e -> (Trade) e)
                 .filter(e -> canTradeHaveSensitiveDataCleared(e.getId()))
-                .forEach(Trade::maybeClearSensitiveData);
+                .filter(Trade::maybeClearSensitiveData)
+                .forEach(closedTradables::markChanged);
             requestPersistence();
         }
     }
@@ -224,8 +225,17 @@ public class ClosedTradableManager implements PersistedDataHost {
         return tradable instanceof MakerTrade || tradable.getOffer().isMyOffer(keyRing);
     }
 
+    /**
+     * Requests persistence of a changed closed tradable.
+     */
+    public void requestPersistence(Tradable tradable) {
+        closedTradables.markChanged(tradable);
+        persistenceManager.requestSegmentPersistence();
+    }
+
+    // Changed tradables get marked, so we only need to persist those and the added ones
     private void requestPersistence() {
-        persistenceManager.requestPersistence();
+        persistenceManager.requestSegmentPersistence();
     }
 
     public void removeTrade(Trade trade) {
@@ -36,6 +36,7 @@ import haveno.core.support.dispute.arbitration.arbitrator.Arbitrator;
 import haveno.core.trade.messages.PaymentReceivedMessage;
 import haveno.core.trade.messages.PaymentSentMessage;
 import haveno.core.util.JsonUtil;
+import haveno.core.xmr.wallet.XmrDaemonRequestScheduler;
 import haveno.core.xmr.wallet.XmrWalletService;
 import haveno.network.p2p.NodeAddress;
 import java.math.BigDecimal;
@@ -77,15 +78,16 @@ public class HavenoUtils {
     public static final double TAKER_FEE_PCT = 0.0075; // 0.75%
     public static final double PENALTY_FEE_PCT = 0.02; // 2%
 
-    // synchronize requests to the daemon
-    private static boolean SYNC_DAEMON_REQUESTS = true; // sync long requests to daemon (e.g. refresh, update pool)
-    private static boolean SYNC_WALLET_REQUESTS = false; // additionally sync wallet functions to daemon (e.g. create txs)
-    private static Object DAEMON_LOCK = new Object();
-    public static Object getDaemonLock() {
-        return SYNC_DAEMON_REQUESTS ? DAEMON_LOCK : new Object();
+    // schedule long requests to the daemon (e.g. refresh, update pool)
+    private static final int MAX_CONCURRENT_DAEMON_REQUESTS = 3;
+    private static final XmrDaemonRequestScheduler DAEMON_REQUEST_SCHEDULER = new XmrDaemonRequestScheduler(MAX_CONCURRENT_DAEMON_REQUESTS);
+    public static XmrDaemonRequestScheduler getDaemonRequestScheduler() {
+        return DAEMON_REQUEST_SCHEDULER;
     }
+    private static boolean SYNC_WALLET_REQUESTS = false; // sync wallet functions with each other (e.g. create txs)
+    private static final Object WALLET_FUNCTION_LOCK = new Object();
     public static Object getWalletFunctionLock() {
-        return SYNC_WALLET_REQUESTS ? getDaemonLock() : new Object();
+        return SYNC_WALLET_REQUESTS ? WALLET_FUNCTION_LOCK : new Object();
     }
 
     // non-configurable
@@ -17,21 +17,35 @@
 
 package haveno.core.trade;
 
+import com.google.protobuf.InvalidProtocolBufferException;
 import com.google.protobuf.Message;
 import haveno.common.proto.ProtoUtil;
 import haveno.common.proto.ProtobufferRuntimeException;
 import haveno.common.proto.persistable.PersistableListAsObservable;
+import haveno.common.proto.persistable.SegmentedPersistableEnvelope;
 import haveno.core.offer.OpenOffer;
 import haveno.core.proto.CoreProtoResolver;
 import haveno.core.xmr.wallet.XmrWalletService;
 import lombok.extern.slf4j.Slf4j;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Set;
+import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
 @Slf4j
-public final class TradableList<T extends Tradable> extends PersistableListAsObservable<T> {
+public final class TradableList<T extends Tradable> extends PersistableListAsObservable<T> implements SegmentedPersistableEnvelope {
+
+    // Tradables which changed since the last persist. Compared by identity as trades do not override equals.
+    private final Set<T> changedTradables = Collections.newSetFromMap(new IdentityHashMap<>());
+    // Set if we do not know which tradables changed, e.g. after reading
+    private volatile boolean allChanged = true;
 
     ///////////////////////////////////////////////////////////////////////////////////////////
     // Constructor
@@ -41,6 +55,36 @@ public final class TradableList<T extends Tradable> extends PersistableListAsObs
     }
 
 
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // API
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Marks the tradable as changed, so it gets serialized at the next persist.
+     */
+    public void markChanged(T tradable) {
+        synchronized (changedTradables) {
+            changedTradables.add(tradable);
+        }
+    }
+
+    @Override
+    public boolean add(T item) {
+        boolean added = super.add(item);
+        // The tradable might have been persisted with different content before it got removed
+        if (added) {
+            markChanged(item);
+        }
+        return added;
+    }
+
+    @Override
+    public void setAll(Collection<T> collection) {
+        super.setAll(collection);
+        allChanged = true;
+    }
+
+
     ///////////////////////////////////////////////////////////////////////////////////////////
     // PROTO BUFFER
     ///////////////////////////////////////////////////////////////////////////////////////////
@@ -59,6 +103,128 @@ public final class TradableList<T extends Tradable> extends PersistableListAsObs
         }
     }
 
+    // Each tradable is a segment, so a change of a trade only requires to persist that trade
+    @Override
+    public LinkedHashMap<String, byte[]> toSegments(protobuf.PersistableEnvelope proto) {
+        LinkedHashMap<String, byte[]> segments = new LinkedHashMap<>();
+        for (protobuf.Tradable tradable : proto.getTradableList().getTradableList()) {
+            segments.put(getUniqueSegmentId(getSegmentId(tradable), segments.keySet()), tradable.toByteArray());
+        }
+        return segments;
+    }
+
+    @Override
+    public LinkedHashMap<String, byte[]> toPersistableSegments() {
+        // Cleared before serializing, so changes during serializing are persisted next time
+        clearChanges();
+        return toSegments((protobuf.PersistableEnvelope) toPersistableMessage());
+    }
+
+    @Override
+    public SegmentChanges toChangedSegments(Predicate<String> isPersistedSegment) {
+        boolean all = allChanged;
+        Set<T> changed = clearChanges();
+        synchronized (getList()) {
+            List<String> ids = new ArrayList<>(getList().size());
+            Set<String> usedIds = new HashSet<>();
+            LinkedHashMap<String, byte[]> changedSegments = new LinkedHashMap<>();
+            for (T tradable : getList()) {
+                String id = getUniqueSegmentId(getSegmentType(tradable) + "_" + tradable.getId(), usedIds);
+                usedIds.add(id);
+                ids.add(id);
+                if (all || changed.contains(tradable) || !isPersistedSegment.test(id)) {
+                    changedSegments.put(id, tradable.toProtoMessage().toByteArray());
+                }
+            }
+            return new SegmentChanges(ids, changedSegments);
+        }
+    }
+
+    @Override
+    public void markAllSegmentsChanged() {
+        allChanged = true;
+    }
+
+    private Set<T> clearChanges() {
+        allChanged = false;
+        synchronized (changedTradables) {
+            Set<T> changed = Collections.newSetFromMap(new IdentityHashMap<>());
+            changed.addAll(changedTradables);
+            changedTradables.clear();
+            return changed;
+        }
+    }
+
+    // Ids are expected to be unique but we must not lose a tradable in case they are not
+    private static String getUniqueSegmentId(String segmentId, Set<String> usedIds) {
+        String uniqueSegmentId = segmentId;
+        for (int i = 1; usedIds.contains(uniqueSegmentId); i++) {
+            uniqueSegmentId = segmentId + "#" + i;
+        }
+        return uniqueSegmentId;
+    }
+
+    // Must match the message case of the serialized tradable
+    private static String getSegmentType(Tradable tradable) {
+        protobuf.Tradable.MessageCase messageCase;
+        if (tradable instanceof OpenOffer) {
+            messageCase = protobuf.Tradable.MessageCase.OPEN_OFFER;
+        } else if (tradable instanceof BuyerAsMakerTrade) {
+            messageCase = protobuf.Tradable.MessageCase.BUYER_AS_MAKER_TRADE;
+        } else if (tradable instanceof BuyerAsTakerTrade) {
+            messageCase = protobuf.Tradable.MessageCase.BUYER_AS_TAKER_TRADE;
+        } else if (tradable instanceof SellerAsMakerTrade) {
+            messageCase = protobuf.Tradable.MessageCase.SELLER_AS_MAKER_TRADE;
+        } else if (tradable instanceof SellerAsTakerTrade) {
+            messageCase = protobuf.Tradable.MessageCase.SELLER_AS_TAKER_TRADE;
+        } else if (tradable instanceof ArbitratorTrade) {
+            messageCase = protobuf.Tradable.MessageCase.ARBITRATOR_TRADE;
+        } else {
+            throw new ProtobufferRuntimeException("Unknown tradable " + tradable.getClass().getSimpleName());
+        }
+        return messageCase.name();
+    }
+
+    @Override
+    public protobuf.PersistableEnvelope fromSegments(Collection<byte[]> segments) throws InvalidProtocolBufferException {
+        protobuf.TradableList.Builder builder = protobuf.TradableList.newBuilder();
+        for (byte[] segment : segments) {
+            builder.addTradable(protobuf.Tradable.parseFrom(segment));
+        }
+        return protobuf.PersistableEnvelope.newBuilder().setTradableList(builder).build();
+    }
+
+    private static String getSegmentId(protobuf.Tradable tradable) {
+        String id;
+        switch (tradable.getMessageCase()) {
+            case OPEN_OFFER:
+                id = tradable.getOpenOffer().getOffer().getOfferPayload().getId();
+                break;
+            case SIGNED_OFFER:
+                id = tradable.getSignedOffer().getOfferId();
+                break;
+            case BUYER_AS_MAKER_TRADE:
+                id = tradable.getBuyerAsMakerTrade().getTrade().getOffer().getOfferPayload().getId();
+                break;
+            case BUYER_AS_TAKER_TRADE:
+                id = tradable.getBuyerAsTakerTrade().getTrade().getOffer().getOfferPayload().getId();
+                break;
+            case SELLER_AS_MAKER_TRADE:
+                id = tradable.getSellerAsMakerTrade().getTrade().getOffer().getOfferPayload().getId();
+                break;
+            case SELLER_AS_TAKER_TRADE:
+                id = tradable.getSellerAsTakerTrade().getTrade().getOffer().getOfferPayload().getId();
+                break;
+            case ARBITRATOR_TRADE:
+                id = tradable.getArbitratorTrade().getTrade().getOffer().getOfferPayload().getId();
+                break;
+            default:
+                throw new ProtobufferRuntimeException("Unknown messageCase. tradable.getMessageCase() = " +
+                        tradable.getMessageCase());
+        }
+        return tradable.getMessageCase().name() + "_" + id;
+    }
+
     public static TradableList<Tradable> fromProto(protobuf.TradableList proto,
                                                    CoreProtoResolver coreProtoResolver,
                                                    XmrWalletService xmrWalletService) {
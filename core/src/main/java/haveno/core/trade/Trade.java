@@ -69,7 +69,10 @@ import haveno.core.trade.protocol.TradeProtocol;
 import haveno.core.trade.statistics.TradeStatistics3;
 import haveno.core.util.VolumeUtil;
 import haveno.core.xmr.model.XmrAddressEntry;
+import haveno.core.xmr.wallet.XmrDaemonRequestScheduler;
+import haveno.core.xmr.wallet.XmrDaemonRequestScheduler.Priority;
 import haveno.core.xmr.wallet.XmrWalletService;
+import haveno.core.xmr.wallet.XmrWalletSyncCoordinator;
 import haveno.network.p2p.AckMessage;
 import haveno.network.p2p.NodeAddress;
 import haveno.network.p2p.P2PService;
@@ -93,7 +96,6 @@ import lombok.Getter;
 import lombok.Setter;
 import lombok.extern.slf4j.Slf4j;
 import monero.common.MoneroRpcConnection;
-import monero.common.TaskLooper;
 import monero.daemon.MoneroDaemon;
 import monero.daemon.model.MoneroKeyImage;
 import monero.daemon.model.MoneroTx;
@@ -123,6 +125,7 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Date;
 import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.concurrent.ThreadLocalRandom;
 import java.util.stream.Collectors;
@@ -423,12 +426,11 @@ public abstract class Trade implements Tradable, Model {
     transient private Subscription tradePhaseSubscription;
     transient private Subscription payoutStateSubscription;
     transient private Subscription disputeStateSubscription;
-    transient private TaskLooper pollLooper;
+    transient private XmrWalletSyncCoordinator.Participant syncParticipant;
     transient private Long pollPeriodMs;
     transient private Long pollNormalStartTimeMs;
 
     public static final long DEFER_PUBLISH_MS = 25000; // 25 seconds
-    private static final long IDLE_SYNC_PERIOD_MS = 1680000; // 28 minutes (monero's default connection timeout is 30 minutes on a local connection, so beyond this the wallets will disconnect)
     private static final long MAX_REPROCESS_DELAY_SECONDS = 7200; // max delay to reprocess messages (once per 2 hours)
 
     //  Mutable
@@ -439,6 +441,11 @@ public abstract class Trade implements Tradable, Model {
     transient private boolean isShutDownStarted;
     @Getter
     transient private boolean isShutDown;
+    // Time of the last change of a field exposed by TradeInfo, used by the API to only return updated trades.
+    // Changes which request persistence of the trade update it. Changes which are not persisted, like the ones of the
+    // wallet polling, need to call markUpdated. It is not persisted, so all trades count as updated after a restart.
+    @Getter
+    transient private volatile long lastUpdateTime = System.currentTimeMillis();
 
     // Added in v1.2.0
     transient private ObjectProperty<BigInteger> tradeAmountProperty;
@@ -770,7 +777,15 @@ public abstract class Trade implements Tradable, Model {
     }
 
     public void requestPersistence() {
-        if (processModel.getTradeManager() != null) processModel.getTradeManager().requestPersistence();
+        markUpdated();
+        if (processModel.getTradeManager() != null) processModel.getTradeManager().requestPersistence(this);
+    }
+
+    /**
+     * Marks the trade as updated for API clients which only request trades updated since a given time.
+     */
+    public void markUpdated() {
+        lastUpdateTime = System.currentTimeMillis();
     }
 
     public TradeProtocol getProtocol() {
@@ -880,8 +895,8 @@ public abstract class Trade implements Tradable, Model {
     }
 
     public void importMultisigHex() {
-        synchronized (walletLock) {
-            synchronized (HavenoUtils.getDaemonLock()) { // lock on daemon because import calls full refresh
+        try (XmrDaemonRequestScheduler.Permit permit = HavenoUtils.getDaemonRequestScheduler().acquire(Priority.HIGH, getId())) { // schedule on daemon because import calls full refresh, acquire before lock to not block others while queued
+            synchronized (walletLock) {
                 for (int i = 0; i < TradeProtocol.MAX_ATTEMPTS; i++) {
                     try {
                         doImportMultisigHex();
@@ -994,7 +1009,7 @@ public abstract class Trade implements Tradable, Model {
 
                     // check for balance
                     if (wallet.getBalance().compareTo(BigInteger.ZERO) > 0) {
-                        synchronized (HavenoUtils.getDaemonLock()) {
+                        try (XmrDaemonRequestScheduler.Permit permit = HavenoUtils.getDaemonRequestScheduler().acquire(Priority.NORMAL, getId())) {
                             log.warn("Rescanning spent outputs for {} {}", getClass().getSimpleName(), getId());
                             wallet.rescanSpent();
                             if (wallet.getBalance().compareTo(BigInteger.ZERO) > 0) {
@@ -1133,6 +1148,7 @@ public abstract class Trade implements Tradable, Model {
         getSeller().setPayoutTxFee(payoutTxFeeSplit);
         getSeller().setPayoutAmount(HavenoUtils.getDestination(sellerPayoutAddress, payoutTx).getAmount());
         getSelf().setUpdatedMultisigHex(wallet.exportMultisigHex());
+        markUpdated();
         return payoutTx;
     }
 
@@ -1359,14 +1375,19 @@ public abstract class Trade implements Tradable, Model {
         }
     }
 
-    public void maybeClearSensitiveData() {
+    /**
+     * @return true if sensitive data got cleared.
+     */
+    public boolean maybeClearSensitiveData() {
         String change = "";
         if (removeAllChatMessages()) {
             change += "chat messages;";
         }
         if (change.length() > 0) {
             log.info("cleared sensitive data from {} of trade {}", change, getShortId());
+            return true;
         }
+        return false;
     }
 
     public void onShutDownStarted() {
@@ -1658,6 +1679,7 @@ public abstract class Trade implements Tradable, Model {
         }
 
         this.disputeState = disputeState;
+        markUpdated();
         UserThread.execute(() -> {
             disputeStateProperty.set(disputeState);
         });
@@ -1683,11 +1705,13 @@ public abstract class Trade implements Tradable, Model {
 
     public void setPeriodState(TradePeriodState tradePeriodState) {
         this.periodState = tradePeriodState;
+        markUpdated();
         tradePeriodStateProperty.set(tradePeriodState);
     }
 
     public void setAmount(BigInteger tradeAmount) {
         this.amount = tradeAmount.longValueExact();
+        markUpdated();
         getAmountProperty().set(getAmount());
         getVolumeProperty().set(getVolume());
     }
@@ -1700,6 +1724,7 @@ public abstract class Trade implements Tradable, Model {
         payoutTxFee = payoutTx.getFee().longValueExact();
         payoutTxId = payoutTx.getHash();
         if ("".equals(payoutTxId)) payoutTxId = null; // tx id is empty until signed
+        markUpdated();
 
         // set payout tx id in dispute(s)
         for (Dispute dispute : getDisputes()) dispute.setDisputePayoutTxId(payoutTxId);
@@ -1739,6 +1764,7 @@ public abstract class Trade implements Tradable, Model {
 
     public void setPayoutTxFee(BigInteger payoutTxFee) {
         this.payoutTxFee = payoutTxFee.longValueExact();
+        markUpdated();
     }
 
     public BigInteger getPayoutTxFee() {
@@ -2311,15 +2337,12 @@ public abstract class Trade implements Tradable, Model {
             if (this.isShutDownStarted) return;
             if (this.pollPeriodMs != null && this.pollPeriodMs == pollPeriodMs) return;
             this.pollPeriodMs = pollPeriodMs;
-            if (isPollInProgress()) {
-                stopPolling();
-                startPolling();
-            }
+            if (isPollInProgress()) xmrWalletService.getWalletSyncCoordinator().requestPoll(syncParticipant); // poll with new period
         }
     }
 
     private long getPollPeriod() {
-        if (isIdling()) return IDLE_SYNC_PERIOD_MS;
+        if (isIdling()) return XmrWalletSyncCoordinator.IDLE_POLL_PERIOD_MS;
         return xmrConnectionService.getRefreshPeriodMs();
     }
 
@@ -2328,26 +2351,63 @@ public abstract class Trade implements Tradable, Model {
             if (isShutDownStarted || isPollInProgress()) return;
             updatePollPeriod();
             log.info("Starting to poll wallet for {} {}", getClass().getSimpleName(), getId());
-            pollLooper = new TaskLooper(() -> pollWallet());
-            pollLooper.start(pollPeriodMs);
+
+            // poll on new blocks with other trade wallets
+            syncParticipant = new XmrWalletSyncCoordinator.Participant() {
+                @Override
+                public boolean isPollRequired() {
+                    return Trade.this.isPollRequired();
+                }
+
+                @Override
+                public boolean isIdling() {
+                    return Trade.this.isIdling();
+                }
+
+                @Override
+                public boolean isPoolWatched() {
+                    return Trade.this.isPoolWatched();
+                }
+
+                @Override
+                public void poll() {
+                    pollWallet();
+                }
+            };
+            xmrWalletService.getWalletSyncCoordinator().register(syncParticipant);
         }
     }
 
     private void stopPolling() {
         synchronized (walletLock) {
             if (isPollInProgress()) {
-                pollLooper.stop();
-                pollLooper = null;
+                xmrWalletService.getWalletSyncCoordinator().unregister(syncParticipant);
+                syncParticipant = null;
             }
         }
     }
     
     private boolean isPollInProgress() {
         synchronized (walletLock) {
-            return pollLooper != null;
+            return syncParticipant != null;
         }
     }
 
+    private boolean isPollRequired() {
+        if (isPayoutUnlocked()) return false;
+        return processModel.getMaker().getDepositTxHash() != null && processModel.getTaker().getDepositTxHash() != null && isDepositRequested();
+    }
+
+    // txs in the pool are relevant until the deposits or expected payout are seen
+    private boolean isPoolWatched() {
+        if (!isDepositsUnlocked()) return !isDepositsConfirmed() && (getMaker().getDepositTx() == null || getTaker().getDepositTx() == null);
+        return isPayoutExpected() && !isPayoutConfirmed();
+    }
+
+    private boolean isPayoutExpected() {
+        return isPaymentReceived() || hasPaymentReceivedMessage() || hasDisputeClosedMessage() || disputeState.ordinal() >= DisputeState.ARBITRATOR_SENT_DISPUTE_CLOSED_MSG.ordinal();
+    }
+
     private void pollWallet() {
         if (pollInProgress) return;
         doPollWallet();
@@ -2381,8 +2441,8 @@ public abstract class Trade implements Tradable, Model {
                     List<MoneroTxWallet> txs;
                     if (!updatePool) txs = wallet.getTxs(query);
                     else {
-                        synchronized (walletLock) {
-                            synchronized (HavenoUtils.getDaemonLock()) {
+                        try (XmrDaemonRequestScheduler.Permit permit = HavenoUtils.getDaemonRequestScheduler().acquire(Priority.HIGH, getId())) { // acquire before lock to not block others while queued
+                            synchronized (walletLock) {
                                 txs = wallet.getTxs(query);
                             }
                         }
@@ -2397,6 +2457,7 @@ public abstract class Trade implements Tradable, Model {
                         BigInteger sellerSecurityDeposit = ((MoneroTxWallet) getSeller().getDepositTx()).getIncomingAmount().subtract(getAmount());
                         getBuyer().setSecurityDeposit(buyerSecurityDeposit);
                         getSeller().setSecurityDeposit(sellerSecurityDeposit);
+                        markUpdated();
                     }
 
                     // check for deposit txs confirmation
@@ -2412,7 +2473,7 @@ public abstract class Trade implements Tradable, Model {
                 if (isDepositsUnlocked()) {
 
                     // determine if payout tx expected
-                    boolean isPayoutExpected = isPaymentReceived() || hasPaymentReceivedMessage() || hasDisputeClosedMessage() || disputeState.ordinal() >= DisputeState.ARBITRATOR_SENT_DISPUTE_CLOSED_MSG.ordinal();
+                    boolean isPayoutExpected = isPayoutExpected();
 
                     // sync wallet if payout expected or payout is published
                     if (isPayoutExpected || isPayoutPublished()) syncWalletIfBehind();
@@ -2433,8 +2494,8 @@ public abstract class Trade implements Tradable, Model {
                     List<MoneroTxWallet> txs = null;
                     if (!updatePool) txs = wallet.getTxs(query);
                     else {
-                        synchronized (walletLock) {
-                            synchronized (HavenoUtils.getDaemonLock()) {
+                        try (XmrDaemonRequestScheduler.Permit permit = HavenoUtils.getDaemonRequestScheduler().acquire(Priority.HIGH, getId())) { // acquire before lock to not block others while queued
+                            synchronized (walletLock) {
                                 txs = wallet.getTxs(query);
                             }
                         }
@@ -2485,7 +2546,7 @@ public abstract class Trade implements Tradable, Model {
     private void syncWalletIfBehind() {
         if (isWalletBehind()) {
             synchronized (walletLock) {
-                xmrWalletService.syncWallet(wallet);
+                xmrWalletService.syncWallet(wallet, getId());
                 walletHeight.set(wallet.getHeight());
             }
         }
@@ -2497,12 +2558,18 @@ public abstract class Trade implements Tradable, Model {
 
     private void setDepositTxs(List<MoneroTxWallet> txs) {
         for (MoneroTxWallet tx : txs) {
-            if (tx.getHash().equals(getMaker().getDepositTxHash())) getMaker().setDepositTx(tx);
-            if (tx.getHash().equals(getTaker().getDepositTxHash())) getTaker().setDepositTx(tx);
+            if (tx.getHash().equals(getMaker().getDepositTxHash())) setDepositTx(getMaker(), tx);
+            if (tx.getHash().equals(getTaker().getDepositTxHash())) setDepositTx(getTaker(), tx);
         }
         depositTxsUpdateCounter.set(depositTxsUpdateCounter.get() + 1);
     }
 
+    private void setDepositTx(TradePeer peer, MoneroTxWallet tx) {
+        MoneroTxWallet previousTx = peer.getDepositTx();
+        peer.setDepositTx(tx);
+        if (previousTx == null || !Objects.equals(previousTx.getNumConfirmations(), tx.getNumConfirmations())) markUpdated();
+    }
+
     private void forceRestartTradeWallet() {
         if (isShutDownStarted || restartInProgress) return;
         log.warn("Force restarting trade wallet for {} {}", getClass().getSimpleName(), getId());
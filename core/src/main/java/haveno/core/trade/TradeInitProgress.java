@@ -0,0 +1,122 @@
+/*
+ * This file is part of Haveno.
+ *
+ * Haveno is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Haveno is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Haveno. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package haveno.core.trade;
+
+import lombok.Value;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Tracks the progress and per-trade timings of initializing persisted trades on startup.
+ */
+public class TradeInitProgress {
+
+    /**
+     * Order in which persisted trades are initialized, most urgent first.
+     */
+    public enum Priority {
+        DISPUTED,
+        PAYMENT_SENT,
+        DEPOSIT_PENDING,
+        ACTIVE,
+        IDLE;
+
+        public static Priority of(Trade trade) {
+            if (trade.isPayoutPublished()) return IDLE;
+            if (trade.getDisputeState().isArbitrated() && !trade.getDisputeState().isClosed()) return DISPUTED;
+            if (trade.isPaymentSent()) return PAYMENT_SENT;
+            if (trade.isDepositRequested() && !trade.isDepositsUnlocked()) return DEPOSIT_PENDING;
+            return trade.isIdling() ? IDLE : ACTIVE;
+        }
+    }
+
+    @Value
+    public static class TradeInitTiming {
+        String tradeId;
+        Priority priority;
+        long startTime;
+        long durationMs; // -1 while initializing
+        String error;
+    }
+
+    private long startTime;
+    // Keyed by the trade uid, as persisted trades can share the same trade id
+    private final Map<String, TradeInitTiming> timings = new LinkedHashMap<>();
+    private int numTrades;
+    private int numInitialized;
+    private int numFailed;
+    private boolean isComplete;
+
+    public synchronized void onInitStarted() {
+        startTime = System.currentTimeMillis();
+    }
+
+    public synchronized void setNumTrades(int numTrades) {
+        this.numTrades = numTrades;
+    }
+
+    public synchronized void onStarted(Trade trade, Priority priority) {
+        timings.put(trade.getUid(), new TradeInitTiming(trade.getId(), priority, System.currentTimeMillis(), -1, null));
+    }
+
+    public synchronized void onCompleted(Trade trade, Exception error) {
+        TradeInitTiming started = timings.get(trade.getUid());
+        if (started == null) return;
+        if (error == null) numInitialized++;
+        else numFailed++;
+        timings.put(trade.getUid(), new TradeInitTiming(trade.getId(),
+                started.getPriority(),
+                started.getStartTime(),
+                System.currentTimeMillis() - started.getStartTime(),
+                error == null ? null : error.getMessage()));
+    }
+
+    public synchronized void setComplete() {
+        isComplete = true;
+    }
+
+    public synchronized int getNumTrades() {
+        return numTrades;
+    }
+
+    public synchronized int getNumInitialized() {
+        return numInitialized;
+    }
+
+    public synchronized int getNumFailed() {
+        return numFailed;
+    }
+
+    public synchronized boolean isComplete() {
+        return isComplete;
+    }
+
+    /**
+     * @return The time the initialization of the persisted trades started or 0 if it did not start yet.
+     */
+    public synchronized long getStartTime() {
+        return startTime;
+    }
+
+    public synchronized List<TradeInitTiming> getTimings() {
+        return new ArrayList<>(timings.values());
+    }
+}
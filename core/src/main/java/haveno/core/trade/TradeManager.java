@@ -118,6 +118,7 @@ import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Consumer;
 import java.util.stream.Collectors;
@@ -172,6 +173,8 @@ public class TradeManager implements PersistedDataHost, DecryptedDirectMessageLi
     private final TradableList<Trade> tradableList = new TradableList<>();
     @Getter
     private final BooleanProperty persistedTradesInitialized = new SimpleBooleanProperty();
+    private final TradeInitProgress tradeInitProgress = new TradeInitProgress();
+    private static final int INIT_PERSISTED_TRADES_MAX_CONCURRENCY = 10;
     @Getter
     private final LongProperty numPendingTrades = new SimpleLongProperty();
     private final ReferralIdService referralIdService;
@@ -427,30 +430,36 @@ public class TradeManager implements PersistedDataHost, DecryptedDirectMessageLi
 
     private void initPersistedTrades() {
         log.info("Initializing persisted trades");
+        tradeInitProgress.onInitStarted();
 
         // initialize off main thread
         new Thread(() -> {
 
-            // get all trades
-            List<Trade> trades = getAllTrades();
+            // get all trades, skipping duplicate uids
+            List<Trade> trades = new ArrayList<Trade>();
+            Set<String> uids = new HashSet<String>();
+            for (Trade trade : getAllTrades()) {
+                if (!uids.add(trade.getUid())) {
+                    log.warn("Found trade with duplicate uid, skipping. That should never happen. {} {}, uid={}", trade.getClass().getSimpleName(), trade.getId(), trade.getUid());
+                    continue;
+                }
+                trades.add(trade);
+            }
+
+            // initialize most urgent trades first
+            Map<Trade, TradeInitProgress.Priority> priorities = new HashMap<Trade, TradeInitProgress.Priority>();
+            for (Trade trade : trades) priorities.put(trade, TradeInitProgress.Priority.of(trade));
+            trades.sort(Comparator.comparing(priorities::get));
+            tradeInitProgress.setNumTrades(trades.size());
 
             // initialize trades in parallel
-            int threadPoolSize = 10;
-            Set<Runnable> tasks = new HashSet<Runnable>();
-            Set<String> uids = new HashSet<String>();
-            Set<Trade> tradesToSkip = new HashSet<Trade>();
-            Set<Trade> uninitializedTrades = new HashSet<Trade>();
+            List<Runnable> tasks = new ArrayList<Runnable>();
+            Set<Trade> uninitializedTrades = ConcurrentHashMap.newKeySet();
             for (Trade trade : trades) {
                 tasks.add(() -> {
+                    tradeInitProgress.onStarted(trade, priorities.get(trade));
                     try {
 
-                        // check for duplicate uid
-                        if (!uids.add(trade.getUid())) {
-                            log.warn("Found trade with duplicate uid, skipping. That should never happen. {} {}, uid={}", trade.getClass().getSimpleName(), trade.getId(), trade.getUid());
-                            tradesToSkip.add(trade);
-                            return;
-                        }
-
                         // initialize trade
                         initPersistedTrade(trade);
 
@@ -458,7 +467,9 @@ public class TradeManager implements PersistedDataHost, DecryptedDirectMessageLi
                         if (getOpenTradeByUid(trade.getUid()).isPresent() && !trade.isDepositsPublished()) {
                             uninitializedTrades.add(trade);
                         }
+                        tradeInitProgress.onCompleted(trade, null);
                     } catch (Exception e) {
+                        tradeInitProgress.onCompleted(trade, e);
                         if (!isShutDownStarted) {
                             e.printStackTrace();
                             log.warn("Error initializing {} {}: {}", trade.getClass().getSimpleName(), trade.getId(), e.getMessage());
@@ -467,13 +478,11 @@ public class TradeManager implements PersistedDataHost, DecryptedDirectMessageLi
                     }
                 });
             };
-            ThreadUtils.awaitTasks(tasks, threadPoolSize);
-            log.info("Done initializing persisted trades");
+            ThreadUtils.awaitTasks(tasks, INIT_PERSISTED_TRADES_MAX_CONCURRENCY);
+            tradeInitProgress.setComplete();
+            log.info("Done initializing {} persisted trades in {} ms", trades.size(), System.currentTimeMillis() - tradeInitProgress.getStartTime());
             if (isShutDownStarted) return;
 
-            // remove skipped trades
-            trades.removeAll(tradesToSkip);
-
             // sync idle trades once in background after active trades
             for (Trade trade : trades) {
                 if (trade.isIdling()) ThreadUtils.submitToPool(() -> trade.syncAndPollWallet());
@@ -537,6 +546,23 @@ public class TradeManager implements PersistedDataHost, DecryptedDirectMessageLi
         persistenceManager.requestPersistence();
     }
 
+    /**
+     * Requests persistence of the given trade only, so the other trades do not need to get serialized.
+     */
+    public void requestPersistence(Trade trade) {
+        trade.markUpdated();
+        if (tradableList.contains(trade)) {
+            tradableList.markChanged(trade);
+            persistenceManager.requestSegmentPersistence();
+        } else if (closedTradableManager.getObservableList().contains(trade)) {
+            closedTradableManager.requestPersistence(trade);
+        } else if (failedTradesManager.getObservableList().contains(trade)) {
+            failedTradesManager.requestPersistence(trade);
+        } else {
+            persistenceManager.requestSegmentPersistence();
+        }
+    }
+
     private void handleInitTradeRequest(InitTradeRequest request, NodeAddress sender) {
         log.info("Received InitTradeRequest from {} with tradeId {} and uid {}", sender, request.getOfferId(), request.getUid());
 
@@ -628,12 +654,7 @@ public class TradeManager implements PersistedDataHost, DecryptedDirectMessageLi
             }
 
             // get offer associated with trade
-            Offer offer = null;
-            for (Offer anOffer : offerBookService.getOffers()) {
-                if (anOffer.getId().equals(request.getOfferId())) {
-                    offer = anOffer;
-                }
-            }
+            Offer offer = offerBookService.getOfferById(request.getOfferId()).orElse(null);
             if (offer == null) {
                 log.warn("Ignoring InitTradeRequest to arbitrator because offer is not on the books, tradeId={}, sender={}", request.getOfferId(), sender);
                 return;
@@ -1232,6 +1253,10 @@ public class TradeManager implements PersistedDataHost, DecryptedDirectMessageLi
         return persistedTradesInitialized;
     }
 
+    public TradeInitProgress getTradeInitProgress() {
+        return tradeInitProgress;
+    }
+
     public boolean isMyOffer(Offer offer) {
         return offer.isMyOffer(keyRing);
     }
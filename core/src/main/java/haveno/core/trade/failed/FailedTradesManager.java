@@ -154,7 +154,16 @@ public class FailedTradesManager implements PersistedDataHost {
         return blockingTrades.toString();
     }
 
+    /**
+     * Requests persistence of a changed failed trade.
+     */
+    public void requestPersistence(Trade trade) {
+        failedTrades.markChanged(trade);
+        persistenceManager.requestSegmentPersistence();
+    }
+
+    // We only add or remove trades, which does not change the persisted trades
     private void requestPersistence() {
-        persistenceManager.requestPersistence();
+        persistenceManager.requestSegmentPersistence();
     }
 }
@@ -106,13 +106,13 @@ public class FluentProtocol {
         NodeAddress peer = condition.getPeer();
         if (peer != null) {
             tradeProtocol.processModel.setTempTradePeerNodeAddress(peer); // TODO (woodser): node has multiple peers (arbitrator and maker or taker), but fluent protocol assumes only one
-            tradeProtocol.processModel.getTradeManager().requestPersistence();
+            tradeProtocol.processModel.getTradeManager().requestPersistence(tradeProtocol.trade);
         }
 
         TradeMessage message = condition.getMessage();
         if (message != null) {
             tradeProtocol.processModel.setTradeMessage(message);
-            tradeProtocol.processModel.getTradeManager().requestPersistence();
+            tradeProtocol.processModel.getTradeManager().requestPersistence(tradeProtocol.trade);
         }
 
         TradeTaskRunner taskRunner = setup.getTaskRunner(peer, message, condition.getEvent());
@@ -573,7 +573,7 @@ public abstract class TradeProtocol implements DecryptedDirectMessageListener, D
                             },
                             errorMessage -> {
                                 log.warn("Error processing payment received message: " + errorMessage);
-                                processModel.getTradeManager().requestPersistence();
+                                processModel.getTradeManager().requestPersistence(trade);
 
                                 // schedule to reprocess message unless deleted
                                 if (trade.getSeller().getPaymentReceivedMessage() != null) {
@@ -654,7 +654,7 @@ public abstract class TradeProtocol implements DecryptedDirectMessageListener, D
             if (trade.getTradePeer(sender) == trade.getSeller()) {
                 processModel.setPaymentSentAckMessage(ackMessage);
                 trade.setStateIfValidTransitionTo(Trade.State.SELLER_RECEIVED_PAYMENT_SENT_MSG);
-                processModel.getTradeManager().requestPersistence();
+                processModel.getTradeManager().requestPersistence(trade);
             } else if (trade.getTradePeer(sender) == trade.getArbitrator()) {
                 processModel.setPaymentSentAckMessageArbitrator(ackMessage);
             } else if (!ackMessage.isSuccess()) {
@@ -686,7 +686,7 @@ public abstract class TradeProtocol implements DecryptedDirectMessageListener, D
             // set trade state on deposit request nack
             if (ackMessage.getSourceMsgClassName().equals(DepositRequest.class.getSimpleName())) {
                 trade.setStateIfValidTransitionTo(Trade.State.PUBLISH_DEPOSIT_TX_REQUEST_FAILED);
-                processModel.getTradeManager().requestPersistence();
+                processModel.getTradeManager().requestPersistence(trade);
             }
 
             handleError(ackMessage.getErrorMessage());
@@ -832,7 +832,7 @@ public abstract class TradeProtocol implements DecryptedDirectMessageListener, D
         stopTimeout();
         log.error(errorMessage);
         trade.setErrorMessage(errorMessage);
-        processModel.getTradeManager().requestPersistence();
+        processModel.getTradeManager().requestPersistence(trade);
         if (errorMessageHandler != null) errorMessageHandler.handleErrorMessage(errorMessage);
         errorMessageHandler = null;
         unlatchTrade();
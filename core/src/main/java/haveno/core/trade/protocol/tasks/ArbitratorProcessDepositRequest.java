@@ -61,7 +61,7 @@ public class ArbitratorProcessDepositRequest extends TradeTask {
 
             // update trade state
             trade.setStateIfValidTransitionTo(Trade.State.SAW_ARRIVED_PUBLISH_DEPOSIT_TX_REQUEST);
-            processModel.getTradeManager().requestPersistence();
+            processModel.getTradeManager().requestPersistence(trade);
 
             // process request
             processDepositRequest();
@@ -72,7 +72,7 @@ public class ArbitratorProcessDepositRequest extends TradeTask {
             trade.setStateIfValidTransitionTo(Trade.State.PUBLISH_DEPOSIT_TX_REQUEST_FAILED);
             failed(t);
         }
-        processModel.getTradeManager().requestPersistence();
+        processModel.getTradeManager().requestPersistence(trade);
     }
 
     private void processDepositRequest() {
@@ -128,7 +128,7 @@ public class ArbitratorProcessDepositRequest extends TradeTask {
         trader.setDepositTxHex(request.getDepositTxHex());
         trader.setDepositTxKey(request.getDepositTxKey());
         if (request.getPaymentAccountKey() != null) trader.setPaymentAccountKey(request.getPaymentAccountKey());
-        processModel.getTradeManager().requestPersistence();
+        processModel.getTradeManager().requestPersistence(trade);
 
         // relay deposit txs when both available
         MoneroDaemon daemon = trade.getXmrWalletService().getDaemon();
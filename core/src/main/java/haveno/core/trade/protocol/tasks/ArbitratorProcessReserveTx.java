@@ -85,7 +85,7 @@ public class ArbitratorProcessReserveTx extends TradeTask {
             trader.setReserveTxKey(request.getReserveTxKey());
 
             // persist trade
-            processModel.getTradeManager().requestPersistence();
+            processModel.getTradeManager().requestPersistence(trade);
             complete();
         } catch (Throwable t) {
             failed(t);
@@ -144,25 +144,25 @@ public abstract class BuyerSendPaymentSentMessage extends SendMailboxMessageTask
     protected void setStateSent() {
         if (trade.getState().ordinal() < Trade.State.BUYER_SENT_PAYMENT_SENT_MSG.ordinal()) trade.setStateIfValidTransitionTo(Trade.State.BUYER_SENT_PAYMENT_SENT_MSG);
         tryToSendAgainLater();
-        processModel.getTradeManager().requestPersistence();
+        processModel.getTradeManager().requestPersistence(trade);
     }
 
     @Override
     protected void setStateArrived() {
         trade.setStateIfValidTransitionTo(Trade.State.BUYER_SAW_ARRIVED_PAYMENT_SENT_MSG);
-        processModel.getTradeManager().requestPersistence();
+        processModel.getTradeManager().requestPersistence(trade);
     }
 
     @Override
     protected void setStateStoredInMailbox() {
         trade.setStateIfValidTransitionTo(Trade.State.BUYER_STORED_IN_MAILBOX_PAYMENT_SENT_MSG);
-        processModel.getTradeManager().requestPersistence();
+        processModel.getTradeManager().requestPersistence(trade);
     }
 
     @Override
     protected void setStateFault() {
         trade.setStateIfValidTransitionTo(Trade.State.BUYER_SEND_FAILED_PAYMENT_SENT_MSG);
-        processModel.getTradeManager().requestPersistence();
+        processModel.getTradeManager().requestPersistence(trade);
     }
 
     private void cleanup() {
@@ -205,7 +205,7 @@ public abstract class BuyerSendPaymentSentMessage extends SendMailboxMessageTask
     private void onMessageStateChange(MessageState newValue) {
         if (newValue == MessageState.ACKNOWLEDGED) {
             trade.setStateIfValidTransitionTo(Trade.State.SELLER_RECEIVED_PAYMENT_SENT_MSG);
-            processModel.getTradeManager().requestPersistence();
+            processModel.getTradeManager().requestPersistence(trade);
             cleanup();
         }
     }
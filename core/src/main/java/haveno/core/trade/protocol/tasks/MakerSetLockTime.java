@@ -44,7 +44,7 @@ public class MakerSetLockTime extends TradeTask {
             log.info("lockTime={}, delay={}", lockTime, delay);
             trade.setLockTime(lockTime);
 
-            processModel.getTradeManager().requestPersistence();
+            processModel.getTradeManager().requestPersistence(trade);
 
             complete();
         } catch (Throwable t) {
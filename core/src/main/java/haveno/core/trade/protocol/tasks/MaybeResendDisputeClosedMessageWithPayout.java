@@ -79,7 +79,7 @@ public class MaybeResendDisputeClosedMessageWithPayout extends TradeTask {
     }
 
     private void completeAux() {
-        processModel.getTradeManager().requestPersistence();
+        processModel.getTradeManager().requestPersistence(trade);
         complete();
     }
 }
@@ -200,7 +200,7 @@ public class MaybeSendSignContractRequest extends TradeTask {
     private void completeAux() {
         trade.setState(State.CONTRACT_SIGNATURE_REQUESTED);
         trade.addInitProgressStep();
-        processModel.getTradeManager().requestPersistence();
+        processModel.getTradeManager().requestPersistence(trade);
         complete();
     }
 
@@ -52,7 +52,7 @@ public class ProcessDepositResponse extends TradeTask {
 
           // set success state
           trade.setStateIfValidTransitionTo(Trade.State.ARBITRATOR_PUBLISHED_DEPOSIT_TXS);
-          processModel.getTradeManager().requestPersistence();
+          processModel.getTradeManager().requestPersistence(trade);
 
           // update balances
           trade.getXmrWalletService().updateBalanceListeners();
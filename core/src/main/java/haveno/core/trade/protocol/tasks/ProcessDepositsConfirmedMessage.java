@@ -73,7 +73,7 @@ public class ProcessDepositsConfirmedMessage extends TradeTask {
             });
 
             // persist
-            processModel.getTradeManager().requestPersistence();
+            processModel.getTradeManager().requestPersistence(trade);
             complete();
           } catch (Throwable t) {
               failed(t);
@@ -160,7 +160,7 @@ public class ProcessInitTradeRequest extends TradeTask {
 
             // persist trade
             trade.addInitProgressStep();
-            processModel.getTradeManager().requestPersistence();
+            processModel.getTradeManager().requestPersistence(trade);
             complete();
         } catch (Throwable t) {
             failed(t);
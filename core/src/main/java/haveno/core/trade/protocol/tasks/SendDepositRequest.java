@@ -88,7 +88,7 @@ public class SendDepositRequest extends TradeTask {
 
                 // update trade state
                 trade.setState(Trade.State.SENT_PUBLISH_DEPOSIT_TX_REQUEST);
-                processModel.getTradeManager().requestPersistence();
+                processModel.getTradeManager().requestPersistence(trade);
 
                 // send request to arbitrator
                 log.info("Sending {} to arbitrator {}; offerId={}; uid={}", request.getClass().getSimpleName(), trade.getArbitrator().getNodeAddress(), trade.getId(), request.getUid());
@@ -97,7 +97,7 @@ public class SendDepositRequest extends TradeTask {
                     public void onArrived() {
                         log.info("{} arrived: arbitrator={}; offerId={}; uid={}", request.getClass().getSimpleName(), trade.getArbitrator().getNodeAddress(), trade.getId(), request.getUid());
                         trade.setStateIfValidTransitionTo(Trade.State.SAW_ARRIVED_PUBLISH_DEPOSIT_TX_REQUEST);
-                        processModel.getTradeManager().requestPersistence();
+                        processModel.getTradeManager().requestPersistence(trade);
                         trade.addInitProgressStep();
                         complete();
                     }
@@ -77,7 +77,7 @@ public abstract class SendDepositsConfirmedMessage extends SendMailboxMessageTas
             // export multisig hex once
             if (trade.getSelf().getUpdatedMultisigHex() == null) {
                 trade.getSelf().setUpdatedMultisigHex(trade.getWallet().exportMultisigHex());
-                processModel.getTradeManager().requestPersistence();
+                processModel.getTradeManager().requestPersistence(trade);
             }
 
             // We do not use a real unique ID here as we want to be able to re-send the exact same message in case the
@@ -99,7 +99,7 @@ public abstract class SendDepositsConfirmedMessage extends SendMailboxMessageTas
     @Override
     protected void setStateSent() {
         tryToSendAgainLater();
-        processModel.getTradeManager().requestPersistence();
+        processModel.getTradeManager().requestPersistence(trade);
     }
 
     @Override
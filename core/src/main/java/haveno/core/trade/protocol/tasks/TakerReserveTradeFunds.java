@@ -104,7 +104,7 @@ public class TakerReserveTradeFunds extends TradeTask {
 
             // save process state
             processModel.setReserveTx(reserveTx); // TODO: remove this? how is it used?
-            processModel.getTradeManager().requestPersistence();
+            processModel.getTradeManager().requestPersistence(trade);
             trade.addInitProgressStep();
             complete();
         } catch (Throwable t) {
@@ -37,7 +37,7 @@ public abstract class TradeTask extends Task<Trade> {
 
     @Override
     protected void complete() {
-        processModel.getTradeManager().requestPersistence();
+        trade.requestPersistence();
 
         super.complete();
     }
@@ -45,7 +45,7 @@ public abstract class TradeTask extends Task<Trade> {
     @Override
     protected void failed() {
         trade.setErrorMessage(errorMessage);
-        processModel.getTradeManager().requestPersistence();
+        trade.requestPersistence();
 
         super.failed();
     }
@@ -54,7 +54,7 @@ public abstract class TradeTask extends Task<Trade> {
     protected void failed(String message) {
         appendToErrorMessage(message);
         trade.setErrorMessage(errorMessage);
-        processModel.getTradeManager().requestPersistence();
+        trade.requestPersistence();
 
         super.failed();
     }
@@ -64,7 +64,7 @@ public abstract class TradeTask extends Task<Trade> {
         t.printStackTrace();
         appendExceptionToErrorMessage(t);
         trade.setErrorMessage(errorMessage);
-        processModel.getTradeManager().requestPersistence();
+        trade.requestPersistence();
 
         super.failed();
     }
@@ -49,7 +49,7 @@ public class ProcessMediatedPayoutSignatureMessage extends TradeTask {
 
             trade.setMediationResultState(MediationResultState.RECEIVED_SIG_MSG);
 
-            processModel.getTradeManager().requestPersistence();
+            processModel.getTradeManager().requestPersistence(trade);
 
             complete();
         } catch (Throwable t) {
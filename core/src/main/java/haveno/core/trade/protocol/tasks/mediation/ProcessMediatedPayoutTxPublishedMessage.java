@@ -63,7 +63,7 @@ public class ProcessMediatedPayoutTxPublishedMessage extends TradeTask {
 //                log.info("We got the payout tx already set from BuyerSetupPayoutTxListener and do nothing here. trade ID={}", trade.getId());
 //            }
 //
-//            processModel.getTradeManager().requestPersistence();
+//            processModel.getTradeManager().requestPersistence(trade);
 //
 //            complete();
         } catch (Throwable t) {
@@ -57,7 +57,7 @@ public class SendMediatedPayoutSignatureMessage extends TradeTask {
                     message.getClass().getSimpleName(), peersNodeAddress, message.getOfferId(), message.getUid());
 
             trade.setMediationResultState(MediationResultState.SIG_MSG_SENT);
-            processModel.getTradeManager().requestPersistence();
+            processModel.getTradeManager().requestPersistence(trade);
             p2PService.getMailboxMessageService().sendEncryptedMailboxMessage(peersNodeAddress,
                     peersPubKeyRing,
                     message,
@@ -68,7 +68,7 @@ public class SendMediatedPayoutSignatureMessage extends TradeTask {
                                     message.getClass().getSimpleName(), peersNodeAddress, message.getOfferId(), message.getUid());
 
                             trade.setMediationResultState(MediationResultState.SIG_MSG_ARRIVED);
-                            processModel.getTradeManager().requestPersistence();
+                            processModel.getTradeManager().requestPersistence(trade);
                             complete();
                         }
 
@@ -78,7 +78,7 @@ public class SendMediatedPayoutSignatureMessage extends TradeTask {
                                     message.getClass().getSimpleName(), peersNodeAddress, message.getOfferId(), message.getUid());
 
                             trade.setMediationResultState(MediationResultState.SIG_MSG_IN_MAILBOX);
-                            processModel.getTradeManager().requestPersistence();
+                            processModel.getTradeManager().requestPersistence(trade);
                             complete();
                         }
 
@@ -88,7 +88,7 @@ public class SendMediatedPayoutSignatureMessage extends TradeTask {
                                     message.getClass().getSimpleName(), peersNodeAddress, message.getOfferId(), message.getUid(), errorMessage);
                             trade.setMediationResultState(MediationResultState.SIG_MSG_SEND_FAILED);
                             appendToErrorMessage("Sending message failed: message=" + message + "\nerrorMessage=" + errorMessage);
-                            processModel.getTradeManager().requestPersistence();
+                            processModel.getTradeManager().requestPersistence(trade);
                             failed(errorMessage);
                         }
                     }
@@ -0,0 +1,59 @@
+/*
+ * This file is part of Haveno.
+ *
+ * Haveno is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Haveno is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Haveno. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package haveno.core.trade.statistics;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+
+public enum CandleInterval {
+    YEAR,
+    MONTH,
+    WEEK,
+    DAY,
+    HOUR,
+    MINUTE_10;
+
+    public LocalDateTime getStartTime(LocalDateTime localDateTime) {
+        switch (this) {
+            case YEAR:
+                return localDateTime.withMonth(1).withDayOfYear(1).withHour(0).withMinute(0).withSecond(0).withNano(0);
+            case MONTH:
+                return localDateTime.withDayOfMonth(1).withHour(0).withMinute(0).withSecond(0).withNano(0);
+            case WEEK:
+                int dayOfWeek = localDateTime.getDayOfWeek().getValue();
+                LocalDateTime firstDayOfWeek = ChronoUnit.DAYS.addTo(localDateTime, 1 - dayOfWeek);
+                return firstDayOfWeek.withHour(0).withMinute(0).withSecond(0).withNano(0);
+            case DAY:
+                return localDateTime.withHour(0).withMinute(0).withSecond(0).withNano(0);
+            case HOUR:
+                return localDateTime.withMinute(0).withSecond(0).withNano(0);
+            case MINUTE_10:
+                return localDateTime.withMinute(localDateTime.getMinute() - localDateTime.getMinute() % 10).withSecond(0).withNano(0);
+            default:
+                return localDateTime;
+        }
+    }
+
+    public long getStartTime(long time, ZoneId zoneId) {
+        LocalDateTime localDateTime = Instant.ofEpochMilli(time).atZone(zoneId).toLocalDateTime();
+        return getStartTime(localDateTime).atZone(zoneId).toInstant().toEpochMilli();
+    }
+}
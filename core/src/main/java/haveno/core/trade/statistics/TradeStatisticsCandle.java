@@ -0,0 +1,40 @@
+/*
+ * This file is part of Haveno.
+ *
+ * Haveno is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Haveno is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Haveno. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package haveno.core.trade.statistics;
+
+import lombok.Value;
+
+/**
+ * Aggregated trade statistics of one currency within one CandleInterval starting at startTime.
+ * Prices are in the same unit as TradeStatistics3.getTradePrice, amounts in atomic units and volumes in the same
+ * unit as TradeStatistics3.getTradeVolume.
+ */
+@Value
+public class TradeStatisticsCandle {
+    long startTime;
+    long open;
+    long close;
+    long high;
+    long low;
+    long average;
+    long median;
+    long accumulatedAmount;
+    long accumulatedVolume;
+    long numTrades;
+}
@@ -0,0 +1,240 @@
+/*
+ * This file is part of Haveno.
+ *
+ * Haveno is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Haveno is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Haveno. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package haveno.core.trade.statistics;
+
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import haveno.common.util.MathUtils;
+import haveno.core.locale.CurrencyUtil;
+import haveno.core.monetary.CryptoMoney;
+import haveno.core.monetary.TraditionalMoney;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import javafx.collections.ObservableSet;
+import javafx.collections.SetChangeListener;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Keeps the OHLCV candles of all currencies for each CandleInterval. The candles are updated incrementally when
+ * trade statistics get added so that chart data and API requests do not need to aggregate the full set of trade
+ * statistics.
+ * Candle boundaries of days, weeks, months and years depend on the time zone. The candles are kept in UTC, which is
+ * what the API serves. Candles of another zone (e.g. the local zone of the desktop charts) get built on first
+ * request and are then updated incrementally as well.
+ */
+@Singleton
+@Slf4j
+public class TradeStatisticsCandleService {
+    public static final ZoneId ZONE_ID = ZoneOffset.UTC;
+
+    private final TradeStatisticsManager tradeStatisticsManager;
+    private final ObservableSet<TradeStatistics3> tradeStatisticsSet;
+    // Guarded by this
+    private final Map<ZoneId, Map<CandleInterval, Map<String, NavigableMap<Long, Bucket>>>> bucketsByZone = new HashMap<>();
+
+    @Inject
+    public TradeStatisticsCandleService(TradeStatisticsManager tradeStatisticsManager) {
+        this.tradeStatisticsManager = tradeStatisticsManager;
+        tradeStatisticsSet = tradeStatisticsManager.getObservableTradeStatisticsSet();
+
+        // Trade statistics are append only, so we only need to handle added elements
+        synchronized (tradeStatisticsSet) {
+            tradeStatisticsSet.addListener((SetChangeListener<TradeStatistics3>) change -> {
+                if (change.wasAdded()) {
+                    add(change.getElementAdded());
+                }
+            });
+            addZone(ZONE_ID);
+        }
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // API
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Returns the UTC candles of the given currency and interval which contain trades with fromDate <= date < toDate,
+     * sorted by start time.
+     */
+    public List<TradeStatisticsCandle> getCandles(String currencyCode, CandleInterval interval, long fromDate, long toDate) {
+        return getCandles(currencyCode, interval, fromDate, toDate, Integer.MAX_VALUE);
+    }
+
+    public List<TradeStatisticsCandle> getCandles(String currencyCode,
+                                                  CandleInterval interval,
+                                                  long fromDate,
+                                                  long toDate,
+                                                  int maxCandles) {
+        return getCandles(currencyCode, interval, fromDate, toDate, maxCandles, ZONE_ID);
+    }
+
+    /**
+     * Returns the candles with interval boundaries in the given zone.
+     */
+    public List<TradeStatisticsCandle> getCandles(String currencyCode,
+                                                  CandleInterval interval,
+                                                  long fromDate,
+                                                  long toDate,
+                                                  int maxCandles,
+                                                  ZoneId zoneId) {
+        // Makes sure the historical trade statistics got loaded, they get added to the candles by the set listener
+        tradeStatisticsManager.getObservableTradeStatisticsSet();
+        if (!hasZone(zoneId)) {
+            // Lock order is the set and then this, like for the set listener
+            synchronized (tradeStatisticsSet) {
+                addZone(zoneId);
+            }
+        }
+        synchronized (this) {
+            NavigableMap<Long, Bucket> buckets = bucketsByZone.get(zoneId).get(interval).get(currencyCode);
+            if (buckets == null || fromDate >= toDate || maxCandles <= 0) {
+                return Collections.emptyList();
+            }
+            boolean isCryptoCurrency = CurrencyUtil.isCryptoCurrency(currencyCode);
+            long fromStartTime = interval.getStartTime(fromDate, zoneId);
+            List<TradeStatisticsCandle> candles = new ArrayList<>();
+            for (Bucket bucket : buckets.subMap(fromStartTime, true, toDate, false).values()) {
+                if (candles.size() == maxCandles) {
+                    break;
+                }
+                candles.add(bucket.toCandle(isCryptoCurrency));
+            }
+            return candles;
+        }
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Private
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    private synchronized boolean hasZone(ZoneId zoneId) {
+        return bucketsByZone.containsKey(zoneId);
+    }
+
+    // Must be called while holding the lock of the trade statistics set so no element gets added meanwhile
+    private synchronized void addZone(ZoneId zoneId) {
+        if (bucketsByZone.containsKey(zoneId)) {
+            return;
+        }
+        Map<CandleInterval, Map<String, NavigableMap<Long, Bucket>>> bucketsByInterval = new EnumMap<>(CandleInterval.class);
+        for (CandleInterval interval : CandleInterval.values()) {
+            bucketsByInterval.put(interval, new HashMap<>());
+        }
+        bucketsByZone.put(zoneId, bucketsByInterval);
+        tradeStatisticsSet.forEach(tradeStatistics -> add(tradeStatistics, zoneId, bucketsByInterval));
+    }
+
+    private synchronized void add(TradeStatistics3 tradeStatistics) {
+        bucketsByZone.forEach((zoneId, bucketsByInterval) -> add(tradeStatistics, zoneId, bucketsByInterval));
+    }
+
+    private static void add(TradeStatistics3 tradeStatistics,
+                            ZoneId zoneId,
+                            Map<CandleInterval, Map<String, NavigableMap<Long, Bucket>>> bucketsByInterval) {
+        long date = tradeStatistics.getDateAsLong();
+        long price = tradeStatistics.getTradePrice().getValue();
+        long volume = tradeStatistics.getTradeVolume().getValue();
+        bucketsByInterval.forEach((interval, bucketsByCurrency) -> {
+            long startTime = interval.getStartTime(date, zoneId);
+            bucketsByCurrency.computeIfAbsent(tradeStatistics.getCurrency(), currencyCode -> new TreeMap<>())
+                    .computeIfAbsent(startTime, Bucket::new)
+                    .add(date, price, tradeStatistics.getAmount(), volume);
+        });
+    }
+
+    private static class Bucket {
+        private final long startTime;
+        private long openDate = Long.MAX_VALUE;
+        private long open;
+        private long closeDate = Long.MIN_VALUE;
+        private long close;
+        private long high;
+        private long low = Long.MAX_VALUE;
+        private long accumulatedAmount; // TODO: use BigInteger
+        private long accumulatedVolume;
+        // The prices are only sorted when the median gets computed. Most buckets hold only a few trades.
+        private long[] prices = new long[1];
+        private int numPrices;
+        private boolean isSorted = true;
+
+        Bucket(long startTime) {
+            this.startTime = startTime;
+        }
+
+        void add(long date, long price, long amount, long volume) {
+            if (date < openDate) {
+                openDate = date;
+                open = price;
+            }
+            if (date >= closeDate) {
+                closeDate = date;
+                close = price;
+            }
+            high = Math.max(high, price);
+            low = Math.min(low, price);
+            accumulatedAmount += amount;
+            accumulatedVolume += volume;
+            if (numPrices == prices.length) {
+                prices = Arrays.copyOf(prices, numPrices * 2);
+            }
+            if (numPrices > 0 && price < prices[numPrices - 1]) {
+                isSorted = false;
+            }
+            prices[numPrices++] = price;
+        }
+
+        TradeStatisticsCandle toCandle(boolean isCryptoCurrency) {
+            long average;
+            if (isCryptoCurrency) {
+                double accumulatedAmountAsDouble = MathUtils.scaleUpByPowerOf10((double) accumulatedAmount, 4 + CryptoMoney.SMALLEST_UNIT_EXPONENT);
+                average = MathUtils.roundDoubleToLong(accumulatedAmountAsDouble / accumulatedVolume);
+            } else {
+                double accumulatedVolumeAsDouble = MathUtils.scaleUpByPowerOf10((double) accumulatedVolume, 4 + TraditionalMoney.SMALLEST_UNIT_EXPONENT);
+                average = MathUtils.roundDoubleToLong(accumulatedVolumeAsDouble / accumulatedAmount);
+            }
+            return new TradeStatisticsCandle(startTime, open, close, high, low, average, getMedian(),
+                    accumulatedAmount, accumulatedVolume, numPrices);
+        }
+
+        private long getMedian() {
+            if (numPrices == 0) {
+                return 0;
+            }
+            if (!isSorted) {
+                Arrays.sort(prices, 0, numPrices);
+                isSorted = true;
+            }
+            int middle = numPrices / 2;
+            return numPrices % 2 == 1 ?
+                    prices[middle] :
+                    MathUtils.roundDoubleToLong((prices[middle - 1] + prices[middle]) / 2.0);
+        }
+    }
+}
@@ -0,0 +1,129 @@
+/*
+ * This file is part of Haveno.
+ *
+ * Haveno is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Haveno is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Haveno. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package haveno.core.trade.statistics;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import javax.annotation.Nullable;
+import lombok.Value;
+
+/**
+ * Index of the trade statistics by currency and date. Each currency keeps its trade statistics sorted by date so
+ * that time range queries and the lookup of the latest trade do not need to scan all trade statistics.
+ * Additionally the trade statistics are hashed by their lenient key (currency, amount, price and a time window of
+ * LENIENT_DUPLICATE_WINDOW_MS) which allows to detect lenient duplicates by looking up only the neighbouring windows.
+ */
+public class TradeStatisticsIndex {
+    static final long LENIENT_DUPLICATE_WINDOW_MS = 120000;
+
+    // Per currency the trade statistics by date. Trades with the same date are kept in a list.
+    private final Map<String, NavigableMap<Long, List<TradeStatistics3>>> tradeStatisticsByCurrency = new HashMap<>();
+    private final Map<LenientKey, List<TradeStatistics3>> tradeStatisticsByLenientKey = new HashMap<>();
+    private int size;
+
+    public synchronized boolean add(TradeStatistics3 tradeStatistics) {
+        List<TradeStatistics3> sameDate = tradeStatisticsByCurrency.computeIfAbsent(tradeStatistics.getCurrency(), currency -> new TreeMap<>())
+                .computeIfAbsent(tradeStatistics.getDateAsLong(), date -> new ArrayList<>(1));
+        if (sameDate.stream().anyMatch(e -> Arrays.equals(e.getHash(), tradeStatistics.getHash()))) {
+            return false;
+        }
+        sameDate.add(tradeStatistics);
+        tradeStatisticsByLenientKey.computeIfAbsent(LenientKey.of(tradeStatistics, 0), key -> new ArrayList<>(1))
+                .add(tradeStatistics);
+        size++;
+        return true;
+    }
+
+    /**
+     * Returns true if the index contains a trade statistics object with the same currency, amount and price which
+     * was traded less than LENIENT_DUPLICATE_WINDOW_MS apart from the given one.
+     */
+    public synchronized boolean hasLenientDuplicate(TradeStatistics3 tradeStatistics) {
+        // A lenient duplicate is always in the same or in one of the neighbouring time windows
+        for (int offset = -1; offset <= 1; offset++) {
+            List<TradeStatistics3> candidates = tradeStatisticsByLenientKey.get(LenientKey.of(tradeStatistics, offset));
+            if (candidates != null && candidates.stream().anyMatch(e -> isLenientDuplicate(tradeStatistics, e))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns the trade statistics of the given currency with fromDate <= date < toDate sorted by date.
+     */
+    public synchronized List<TradeStatistics3> getTradeStatistics(String currency, long fromDate, long toDate) {
+        NavigableMap<Long, List<TradeStatistics3>> byDate = tradeStatisticsByCurrency.get(currency);
+        if (byDate == null || fromDate >= toDate) {
+            return Collections.emptyList();
+        }
+        List<TradeStatistics3> result = new ArrayList<>();
+        byDate.subMap(fromDate, true, toDate, false).values().forEach(result::addAll);
+        return result;
+    }
+
+    @Nullable
+    public synchronized TradeStatistics3 getLatest(String currency) {
+        NavigableMap<Long, List<TradeStatistics3>> byDate = tradeStatisticsByCurrency.get(currency);
+        if (byDate == null || byDate.isEmpty()) {
+            return null;
+        }
+        List<TradeStatistics3> sameDate = byDate.lastEntry().getValue();
+        return sameDate.get(sameDate.size() - 1);
+    }
+
+    public synchronized Set<String> getCurrencies() {
+        return new HashSet<>(tradeStatisticsByCurrency.keySet());
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    static boolean isLenientDuplicate(TradeStatistics3 tradeStatistics1, TradeStatistics3 tradeStatistics2) {
+        boolean isWithinWindow = Math.abs(tradeStatistics1.getDateAsLong() - tradeStatistics2.getDateAsLong()) < LENIENT_DUPLICATE_WINDOW_MS;
+        return isWithinWindow &&
+                tradeStatistics1.getCurrency().equals(tradeStatistics2.getCurrency()) &&
+                tradeStatistics1.getAmount() == tradeStatistics2.getAmount() &&
+                tradeStatistics1.getPrice() == tradeStatistics2.getPrice();
+    }
+
+    @Value
+    private static class LenientKey {
+        String currency;
+        long amount;
+        long price;
+        long window;
+
+        static LenientKey of(TradeStatistics3 tradeStatistics, int windowOffset) {
+            return new LenientKey(tradeStatistics.getCurrency(),
+                    tradeStatistics.getAmount(),
+                    tradeStatistics.getPrice(),
+                    Math.floorDiv(tradeStatistics.getDateAsLong(), LENIENT_DUPLICATE_WINDOW_MS) + windowOffset);
+        }
+    }
+}
@@ -30,12 +30,15 @@ import haveno.core.trade.Trade;
 import haveno.core.util.JsonUtil;
 import haveno.network.p2p.P2PService;
 import haveno.network.p2p.storage.P2PDataStorage;
+import haveno.network.p2p.storage.payload.PersistableNetworkPayload;
 import haveno.network.p2p.storage.persistence.AppendOnlyDataStoreService;
 import java.io.File;
 import java.time.Instant;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Objects;
 import java.util.Set;
 import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
@@ -47,13 +50,20 @@ import lombok.extern.slf4j.Slf4j;
 @Singleton
 @Slf4j
 public class TradeStatisticsManager {
+    private static final Instant EARLY_TRADES_END = Instant.parse("2024-05-31T00:00:00Z");
+
     private final P2PService p2PService;
     private final PriceFeedService priceFeedService;
     private final TradeStatistics3StorageService tradeStatistics3StorageService;
     private final File storageDir;
     private final boolean dumpStatistics;
     private final ObservableSet<TradeStatistics3> observableTradeStatisticsSet = FXCollections.observableSet();
+    private final TradeStatisticsIndex tradeStatisticsIndex = new TradeStatisticsIndex();
+    private final TradeStatisticsIndex earlyTradeStatistics = new TradeStatisticsIndex();
     private JsonFileManager jsonFileManager;
+    // The historical trade statistics are only decoded on first access
+    private volatile boolean isInitialized;
+    private volatile boolean isHistoricalDataLoaded;
 
     @Inject
     public TradeStatisticsManager(P2PService p2PService,
@@ -87,64 +97,92 @@ public class TradeStatisticsManager {
                 }
                 synchronized (observableTradeStatisticsSet) {
                     observableTradeStatisticsSet.add(tradeStatistics);
-                    priceFeedService.applyLatestHavenoMarketPrice(observableTradeStatisticsSet);
+                    tradeStatisticsIndex.add(tradeStatistics);
+
+                    // only the price of the currency of the new trade can have changed
+                    if (tradeStatisticsIndex.getLatest(tradeStatistics.getCurrency()) == tradeStatistics) {
+                        priceFeedService.applyLatestHavenoMarketPrice(tradeStatistics);
+                    }
                 }
                 maybeDumpStatistics();
             }
         });
 
-        Set<TradeStatistics3> set = tradeStatistics3StorageService.getMapOfAllData().values().stream()
-                .filter(e -> e instanceof TradeStatistics3)
-                .map(e -> (TradeStatistics3) e)
-                .filter(TradeStatistics3::isValid)
-                .collect(Collectors.toSet());
-        
-
-        // remove duplicates in early trades due to bug
-        deduplicateEarlyTradeStatistics(set);
-
+        // The live data is decoded already. The historical data is kept in memory-mapped stores and only gets
+        // decoded when the trade statistics are accessed.
         synchronized (observableTradeStatisticsSet) {
-            observableTradeStatisticsSet.addAll(set);
-            priceFeedService.applyLatestHavenoMarketPrice(observableTradeStatisticsSet);
+            addStoredTradeStatistics(tradeStatistics3StorageService.getMapOfLiveData().values());
+            isInitialized = true;
         }
         maybeDumpStatistics();
     }
 
-    private void deduplicateEarlyTradeStatistics(Set<TradeStatistics3> set) {
-
-        // collect trades before May 31, 2024
-        Set<TradeStatistics3> tradesBeforeMay31_24 = set.stream()
-                .filter(e -> e.getDate().toInstant().isBefore(Instant.parse("2024-05-31T00:00:00Z")))
-                .collect(Collectors.toSet());
-
-        // collect duplicated trades
-        Set<TradeStatistics3> duplicated = new HashSet<TradeStatistics3>();
-        Set<TradeStatistics3> deduplicated = new HashSet<TradeStatistics3>();
-        for (TradeStatistics3 tradeStatistics : tradesBeforeMay31_24) {
-            if (hasLenientDuplicate(tradeStatistics, deduplicated)) duplicated.add(tradeStatistics);
-            else deduplicated.add(tradeStatistics);
+    private void maybeLoadHistoricalData() {
+        if (!isInitialized || isHistoricalDataLoaded) {
+            return;
+        }
+        synchronized (observableTradeStatisticsSet) {
+            if (isHistoricalDataLoaded) {
+                return;
+            }
+            isHistoricalDataLoaded = true;
+            long ts = System.currentTimeMillis();
+            int sizeBefore = observableTradeStatisticsSet.size();
+            tradeStatistics3StorageService.getHistoricalMapsByVersion().values()
+                    .forEach(map -> addStoredTradeStatistics(map.values()));
+            log.info("Loading {} historical trade statistics took {} ms",
+                    observableTradeStatisticsSet.size() - sizeBefore, System.currentTimeMillis() - ts);
         }
-
-        // remove duplicated trades
-        set.removeAll(duplicated);
     }
 
-    private boolean hasLenientDuplicate(TradeStatistics3 tradeStatistics, Set<TradeStatistics3> set) {
-        return set.stream().anyMatch(e -> isLenientDuplicate(tradeStatistics, e));
+    // Must be called while holding the lock of observableTradeStatisticsSet
+    private void addStoredTradeStatistics(Collection<PersistableNetworkPayload> payloads) {
+        // We iterate the stored data instead of copying it, so the payloads are decoded one at a time
+        Set<String> currencies = new HashSet<>();
+        for (PersistableNetworkPayload payload : payloads) {
+            if (!(payload instanceof TradeStatistics3)) {
+                continue;
+            }
+            TradeStatistics3 tradeStatistics = (TradeStatistics3) payload;
+            if (!tradeStatistics.isValid() || isDuplicatedEarlyTradeStatistics(tradeStatistics)) {
+                continue;
+            }
+            if (observableTradeStatisticsSet.add(tradeStatistics)) {
+                tradeStatisticsIndex.add(tradeStatistics);
+                currencies.add(tradeStatistics.getCurrency());
+            }
+        }
+        currencies.stream()
+                .map(tradeStatisticsIndex::getLatest)
+                .filter(Objects::nonNull)
+                .forEach(priceFeedService::applyLatestHavenoMarketPrice);
     }
 
-    private boolean isLenientDuplicate(TradeStatistics3 tradeStatistics1, TradeStatistics3 tradeStatistics2) {
-        boolean isWithin2Minutes = Math.abs(tradeStatistics1.getDate().getTime() - tradeStatistics2.getDate().getTime()) < 120000;
-        return isWithin2Minutes && 
-                tradeStatistics1.getCurrency().equals(tradeStatistics2.getCurrency()) &&
-                tradeStatistics1.getAmount() == tradeStatistics2.getAmount() && 
-                tradeStatistics1.getPrice() == tradeStatistics2.getPrice();
+    // remove duplicates in early trades (before May 31, 2024) due to bug
+    private boolean isDuplicatedEarlyTradeStatistics(TradeStatistics3 tradeStatistics) {
+        if (!tradeStatistics.getDate().toInstant().isBefore(EARLY_TRADES_END)) return false;
+        if (earlyTradeStatistics.hasLenientDuplicate(tradeStatistics)) return true;
+        earlyTradeStatistics.add(tradeStatistics);
+        return false;
     }
 
+    /**
+     * Returns all trade statistics. The historical trade statistics get decoded at the first call after
+     * onAllServicesInitialized.
+     */
     public ObservableSet<TradeStatistics3> getObservableTradeStatisticsSet() {
+        maybeLoadHistoricalData();
         return observableTradeStatisticsSet;
     }
 
+    /**
+     * Returns the trade statistics of the given currency with fromDate <= date < toDate sorted by date.
+     */
+    public List<TradeStatistics3> getTradeStatistics(String currency, long fromDate, long toDate) {
+        maybeLoadHistoricalData();
+        return tradeStatisticsIndex.getTradeStatistics(currency, fromDate, toDate);
+    }
+
     private void maybeDumpStatistics() {
         if (!dumpStatistics) {
             return;
@@ -166,7 +204,7 @@ public class TradeStatisticsManager {
             jsonFileManager.writeToDiscThreaded(JsonUtil.objectToJson(cryptoCurrencyList), "crypto_currency_list");
 
             Instant yearAgo = Instant.ofEpochSecond(Instant.now().getEpochSecond() - TimeUnit.DAYS.toSeconds(365));
-            Set<String> activeCurrencies = observableTradeStatisticsSet.stream()
+            Set<String> activeCurrencies = getObservableTradeStatisticsSet().stream()
                     .filter(e -> e.getDate().toInstant().isAfter(yearAgo))
                     .map(p -> p.getCurrency())
                     .collect(Collectors.toSet());
@@ -184,7 +222,7 @@ public class TradeStatisticsManager {
             jsonFileManager.writeToDiscThreaded(JsonUtil.objectToJson(activeCryptoCurrencyList), "active_crypto_currency_list");
         }
 
-        List<TradeStatisticsForJson> list = observableTradeStatisticsSet.stream()
+        List<TradeStatisticsForJson> list = getObservableTradeStatisticsSet().stream()
                 .map(TradeStatisticsForJson::new)
                 .sorted((o1, o2) -> (Long.compare(o2.tradeDate, o1.tradeDate)))
                 .collect(Collectors.toList());
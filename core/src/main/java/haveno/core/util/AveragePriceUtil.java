@@ -42,18 +42,12 @@ public class AveragePriceUtil {
                                                             int days) {
         double percentToTrim = Math.max(0, Math.min(49, preferences.getBsqAverageTrimThreshold() * 100));
         Date pastXDays = getPastDate(days);
-        List<TradeStatistics3> bsqAllTradePastXDays = tradeStatisticsManager.getObservableTradeStatisticsSet().stream()
-                .filter(e -> e.getCurrency().equals("BSQ"))
-                .filter(e -> e.getDate().after(pastXDays))
-                .collect(Collectors.toList());
+        List<TradeStatistics3> bsqAllTradePastXDays = tradeStatisticsManager.getTradeStatistics("BSQ", pastXDays.getTime() + 1, Long.MAX_VALUE);
         List<TradeStatistics3> bsqTradePastXDays = percentToTrim > 0 ?
                 removeOutliers(bsqAllTradePastXDays, percentToTrim) :
                 bsqAllTradePastXDays;
 
-        List<TradeStatistics3> usdAllTradePastXDays = tradeStatisticsManager.getObservableTradeStatisticsSet().stream()
-                .filter(e -> e.getCurrency().equals("USD"))
-                .filter(e -> e.getDate().after(pastXDays))
-                .collect(Collectors.toList());
+        List<TradeStatistics3> usdAllTradePastXDays = tradeStatisticsManager.getTradeStatistics("USD", pastXDays.getTime() + 1, Long.MAX_VALUE);
         List<TradeStatistics3> usdTradePastXDays = percentToTrim > 0 ?
                 removeOutliers(usdAllTradePastXDays, percentToTrim) :
                 usdAllTradePastXDays;
@@ -25,7 +25,14 @@ import haveno.common.proto.persistable.PersistableEnvelope;
 import haveno.common.proto.persistable.PersistedDataHost;
 import lombok.extern.slf4j.Slf4j;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArraySet;
 import java.util.stream.Collectors;
 
@@ -34,11 +41,18 @@ import java.util.stream.Collectors;
 /**
  * The AddressEntries was previously stored as list, now as hashSet. We still keep the old name to reflect the
  * associated protobuf message.
+ *
+ * Entries are indexed by offer ID and context, address, subaddress index and context, so lookups
+ * do not scan the set. Changes are synchronized on the list, while reads use the concurrent indexes.
  */
 @Slf4j
 public final class XmrAddressEntryList implements PersistableEnvelope, PersistedDataHost {
     transient private PersistenceManager<XmrAddressEntryList> persistenceManager;
     private final Set<XmrAddressEntry> entrySet = new CopyOnWriteArraySet<>();
+    transient private final Map<String, XmrAddressEntry> entriesByOfferIdAndContext = new ConcurrentHashMap<>();
+    transient private final Map<String, Set<XmrAddressEntry>> entriesByAddress = new ConcurrentHashMap<>();
+    transient private final Map<Integer, Set<XmrAddressEntry>> entriesBySubaddressIndex = new ConcurrentHashMap<>();
+    transient private final Map<XmrAddressEntry.Context, Set<XmrAddressEntry>> entriesByContext = new ConcurrentHashMap<>();
 
     @Inject
     public XmrAddressEntryList(PersistenceManager<XmrAddressEntryList> persistenceManager) {
@@ -50,8 +64,10 @@ public final class XmrAddressEntryList implements PersistableEnvelope, Persisted
     @Override
     public void readPersisted(Runnable completeHandler) {
         persistenceManager.readPersisted(persisted -> {
-            entrySet.clear();
-            entrySet.addAll(persisted.entrySet);
+            synchronized (this) {
+                clearEntries();
+                for (XmrAddressEntry entry : persisted.entrySet) addEntry(entry);
+            }
             completeHandler.run();
         },
         completeHandler);
@@ -63,13 +79,14 @@ public final class XmrAddressEntryList implements PersistableEnvelope, Persisted
     ///////////////////////////////////////////////////////////////////////////////////////////
 
     private XmrAddressEntryList(Set<XmrAddressEntry> entrySet) {
-        this.entrySet.addAll(entrySet);
+        for (XmrAddressEntry entry : entrySet) addEntry(entry);
     }
 
     public static XmrAddressEntryList fromProto(protobuf.XmrAddressEntryList proto) {
+        // We keep the persisted order, so of entries with the same offer ID and context always the first one is used
         Set<XmrAddressEntry> entrySet = proto.getXmrAddressEntryList().stream()
                 .map(XmrAddressEntry::fromProto)
-                .collect(Collectors.toSet());
+                .collect(Collectors.toCollection(LinkedHashSet::new));
         return new XmrAddressEntryList(entrySet);
     }
 
@@ -93,36 +110,50 @@ public final class XmrAddressEntryList implements PersistableEnvelope, Persisted
         return ImmutableList.copyOf(entrySet);
     }
 
-    public boolean addAddressEntry(XmrAddressEntry addressEntry) {
-        boolean entryWithSameOfferIdAndContextAlreadyExist = entrySet.stream().anyMatch(e -> {
-            if (addressEntry.getOfferId() != null) {
-                return addressEntry.getOfferId().equals(e.getOfferId()) && addressEntry.getContext() == e.getContext();
-            }
-            return false;
-        });
-        if (entryWithSameOfferIdAndContextAlreadyExist) {
+    public Optional<XmrAddressEntry> getAddressEntry(String offerId, XmrAddressEntry.Context context) {
+        return Optional.ofNullable(entriesByOfferIdAndContext.get(getOfferIdAndContextKey(offerId, context)));
+    }
+
+    public Optional<XmrAddressEntry> findAddressEntry(String address, XmrAddressEntry.Context context) {
+        return getEntries(entriesByAddress, address).stream().filter(e -> context == e.getContext()).findAny();
+    }
+
+    public List<XmrAddressEntry> getAddressEntriesForSubaddress(int subaddressIndex) {
+        return getEntries(entriesBySubaddressIndex, subaddressIndex);
+    }
+
+    public List<XmrAddressEntry> getAddressEntries(XmrAddressEntry.Context context) {
+        return getEntries(entriesByContext, context);
+    }
+
+    public boolean hasAddressEntry(String address) {
+        return entriesByAddress.containsKey(address);
+    }
+
+    public synchronized boolean addAddressEntry(XmrAddressEntry addressEntry) {
+        if (addressEntry.getOfferId() != null && entriesByOfferIdAndContext.containsKey(getOfferIdAndContextKey(addressEntry.getOfferId(), addressEntry.getContext()))) {
             throw new IllegalArgumentException("We have an address entry with the same offer ID and context. We do not add the new one. addressEntry=" + addressEntry);
         }
 
-        boolean setChangedByAdd = entrySet.add(addressEntry);
+        boolean setChangedByAdd = addEntry(addressEntry);
         if (setChangedByAdd) requestPersistence();
         return setChangedByAdd;
     }
 
-    public void swapToAvailable(XmrAddressEntry addressEntry) {
-        boolean setChangedByRemove = entrySet.remove(addressEntry);
-        boolean setChangedByAdd = entrySet.add(new XmrAddressEntry(addressEntry.getSubaddressIndex(), addressEntry.getAddressString(),
+    public synchronized void swapToAvailable(XmrAddressEntry addressEntry) {
+        boolean setChangedByRemove = removeEntry(addressEntry);
+        boolean setChangedByAdd = addEntry(new XmrAddressEntry(addressEntry.getSubaddressIndex(), addressEntry.getAddressString(),
                 XmrAddressEntry.Context.AVAILABLE));
         if (setChangedByRemove || setChangedByAdd) {
             requestPersistence();
         }
     }
 
-    public XmrAddressEntry swapAvailableToAddressEntryWithOfferId(XmrAddressEntry addressEntry,
+    public synchronized XmrAddressEntry swapAvailableToAddressEntryWithOfferId(XmrAddressEntry addressEntry,
                                                                XmrAddressEntry.Context context,
                                                                String offerId) {
         // remove old entry
-        boolean setChangedByRemove = entrySet.remove(addressEntry);
+        boolean setChangedByRemove = removeEntry(addressEntry);
 
         // add new entry
         final XmrAddressEntry newAddressEntry = new XmrAddressEntry(addressEntry.getSubaddressIndex(), addressEntry.getAddressString(), context, offerId, null);
@@ -130,7 +161,7 @@ public final class XmrAddressEntryList implements PersistableEnvelope, Persisted
         try {
             setChangedByAdd = addAddressEntry(newAddressEntry);
         } catch (Exception e) {
-            entrySet.add(addressEntry); // undo change if error
+            addEntry(addressEntry); // undo change if error
             throw e;
         }
         
@@ -140,8 +171,8 @@ public final class XmrAddressEntryList implements PersistableEnvelope, Persisted
         return newAddressEntry;
     }
 
-    public void clear() {
-        entrySet.clear();
+    public synchronized void clear() {
+        clearEntries();
         requestPersistence();
     }
 
@@ -149,6 +180,61 @@ public final class XmrAddressEntryList implements PersistableEnvelope, Persisted
         persistenceManager.requestPersistence();
     }
 
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Private
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    private boolean addEntry(XmrAddressEntry entry) {
+        if (entry.getOfferId() != null) {
+            XmrAddressEntry existingEntry = entriesByOfferIdAndContext.get(getOfferIdAndContextKey(entry.getOfferId(), entry.getContext()));
+            if (existingEntry != null && !existingEntry.equals(entry)) {
+                log.error("Multiple address entries exist with offer ID {} and context {}. That should never happen. " +
+                        "We keep the existing entry and do not add the new one. existingEntry={}, entry={}",
+                        entry.getOfferId(), entry.getContext(), existingEntry, entry);
+                return false;
+            }
+        }
+        if (!entrySet.add(entry)) return false;
+        if (entry.getOfferId() != null) entriesByOfferIdAndContext.put(getOfferIdAndContextKey(entry.getOfferId(), entry.getContext()), entry);
+        if (entry.getAddressString() != null) entriesByAddress.computeIfAbsent(entry.getAddressString(), key -> ConcurrentHashMap.newKeySet()).add(entry);
+        entriesBySubaddressIndex.computeIfAbsent(entry.getSubaddressIndex(), key -> ConcurrentHashMap.newKeySet()).add(entry);
+        entriesByContext.computeIfAbsent(entry.getContext(), key -> ConcurrentHashMap.newKeySet()).add(entry);
+        return true;
+    }
+
+    private boolean removeEntry(XmrAddressEntry entry) {
+        if (!entrySet.remove(entry)) return false;
+        if (entry.getOfferId() != null) entriesByOfferIdAndContext.remove(getOfferIdAndContextKey(entry.getOfferId(), entry.getContext()), entry);
+        if (entry.getAddressString() != null) removeFromIndex(entriesByAddress, entry.getAddressString(), entry);
+        removeFromIndex(entriesBySubaddressIndex, entry.getSubaddressIndex(), entry);
+        removeFromIndex(entriesByContext, entry.getContext(), entry);
+        return true;
+    }
+
+    private void clearEntries() {
+        entrySet.clear();
+        entriesByOfferIdAndContext.clear();
+        entriesByAddress.clear();
+        entriesBySubaddressIndex.clear();
+        entriesByContext.clear();
+    }
+
+    private static <K> void removeFromIndex(Map<K, Set<XmrAddressEntry>> index, K key, XmrAddressEntry entry) {
+        index.computeIfPresent(key, (k, entries) -> {
+            entries.remove(entry);
+            return entries.isEmpty() ? null : entries;
+        });
+    }
+
+    private static <K> List<XmrAddressEntry> getEntries(Map<K, Set<XmrAddressEntry>> index, K key) {
+        Set<XmrAddressEntry> entries = index.get(key);
+        return entries == null ? Collections.emptyList() : new ArrayList<>(entries);
+    }
+
+    private static String getOfferIdAndContextKey(String offerId, XmrAddressEntry.Context context) {
+        return offerId + ":" + context;
+    }
+
     @Override
     public String toString() {
         return "XmrAddressEntryList{" +
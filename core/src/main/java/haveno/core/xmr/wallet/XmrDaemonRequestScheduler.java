@@ -0,0 +1,231 @@
+/*
+ * This file is part of Haveno.
+ *
+ * Haveno is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Haveno is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Haveno. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package haveno.core.xmr.wallet;
+
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Schedules long running requests to the Monero daemon (e.g. wallet refresh, pool updates).
+ *
+ * At most maxConcurrency requests run at once. Waiting requests are granted by priority,
+ * and callers of the same priority take turns so one busy caller cannot starve the others.
+ * Waiting requests age by one priority level per agingMs, so lower priority requests are still
+ * granted under sustained load of higher priority requests.
+ * Permits are reentrant per thread, so nested requests of a caller holding a permit run immediately.
+ * Acquire permits before taking locks which other requesters need, so queued requests do not block them.
+ */
+@Slf4j
+public class XmrDaemonRequestScheduler {
+
+    public enum Priority {
+        HIGH,   // trade critical, e.g. deposit and payout confirmation, multisig import
+        NORMAL, // wallet sync
+        LOW     // background refresh of cached data
+    }
+
+    private static final long LOG_WAIT_THRESHOLD_MS = 30000;
+    private static final long DEFAULT_AGING_MS = 10000;
+
+    private final Map<Priority, LinkedHashMap<String, ArrayDeque<Request>>> queues = new EnumMap<>(Priority.class);
+    private final Map<Priority, WaitStats> waitStats = new EnumMap<>(Priority.class);
+    private final ThreadLocal<Integer> holdCount = ThreadLocal.withInitial(() -> 0);
+    private final long agingMs;
+    private int maxConcurrency;
+    private int numActive;
+
+    public XmrDaemonRequestScheduler(int maxConcurrency) {
+        this(maxConcurrency, DEFAULT_AGING_MS);
+    }
+
+    XmrDaemonRequestScheduler(int maxConcurrency, long agingMs) {
+        if (maxConcurrency < 1) throw new IllegalArgumentException("maxConcurrency must be at least 1");
+        if (agingMs < 1) throw new IllegalArgumentException("agingMs must be at least 1");
+        this.maxConcurrency = maxConcurrency;
+        this.agingMs = agingMs;
+        for (Priority priority : Priority.values()) {
+            queues.put(priority, new LinkedHashMap<>());
+            waitStats.put(priority, new WaitStats());
+        }
+    }
+
+    /**
+     * Block until the caller may send a request to the daemon.
+     *
+     * The returned permit must be closed when the request completes, e.g. with try-with-resources.
+     *
+     * @param priority - the priority of the request
+     * @param callerId - identifies the caller (e.g. the trade id) for fair ordering among callers
+     * @return the permit to close when done
+     */
+    public Permit acquire(Priority priority, String callerId) {
+        int held = holdCount.get();
+        if (held > 0) {
+            holdCount.set(held + 1);
+            return new Permit();
+        }
+        Request request = new Request(priority, System.currentTimeMillis());
+        synchronized (this) {
+            queues.get(priority).computeIfAbsent(callerId, id -> new ArrayDeque<>()).add(request);
+            dispatch();
+            boolean interrupted = false;
+            while (!request.granted) {
+                try {
+                    wait();
+                } catch (InterruptedException e) {
+                    interrupted = true; // keep waiting like a monitor would, restore flag after
+                }
+            }
+            if (interrupted) Thread.currentThread().interrupt();
+        }
+        long waitMs = System.currentTimeMillis() - request.enqueueTime;
+        if (waitMs > LOG_WAIT_THRESHOLD_MS) log.warn("Daemon request for {} waited {} ms with priority {}", callerId, waitMs, priority);
+        holdCount.set(1);
+        return new Permit();
+    }
+
+    public synchronized void setMaxConcurrency(int maxConcurrency) {
+        if (maxConcurrency < 1) throw new IllegalArgumentException("maxConcurrency must be at least 1");
+        this.maxConcurrency = maxConcurrency;
+        dispatch();
+    }
+
+    public synchronized int getMaxConcurrency() {
+        return maxConcurrency;
+    }
+
+    public synchronized int getNumActive() {
+        return numActive;
+    }
+
+    public synchronized List<Metrics> getMetrics() {
+        List<Metrics> metrics = new ArrayList<>();
+        for (Priority priority : Priority.values()) {
+            int numQueued = 0;
+            for (ArrayDeque<Request> callerQueue : queues.get(priority).values()) numQueued += callerQueue.size();
+            WaitStats stats = waitStats.get(priority);
+            metrics.add(new Metrics(priority, numQueued, stats.numGranted, stats.totalWaitMs, stats.maxWaitMs));
+        }
+        return metrics;
+    }
+
+    private synchronized void release() {
+        numActive--;
+        dispatch();
+    }
+
+    private void dispatch() {
+        boolean granted = false;
+        while (numActive < maxConcurrency) {
+            Request next = pollNext();
+            if (next == null) break;
+            next.granted = true;
+            numActive++;
+            granted = true;
+            waitStats.get(next.priority).record(System.currentTimeMillis() - next.enqueueTime);
+        }
+        if (granted) notifyAll();
+    }
+
+    // take the head request of the first caller in the queue with the highest aged priority and rotate that caller to the back
+    private Request pollNext() {
+        long now = System.currentTimeMillis();
+        LinkedHashMap<String, ArrayDeque<Request>> nextQueues = null;
+        long nextRank = Long.MAX_VALUE;
+        for (Priority priority : Priority.values()) {
+            LinkedHashMap<String, ArrayDeque<Request>> callerQueues = queues.get(priority);
+            if (callerQueues.isEmpty()) continue;
+            Request head = callerQueues.values().iterator().next().peek();
+            long rank = priority.ordinal() - (now - head.enqueueTime) / agingMs;
+            if (rank < nextRank) { // ties go to the higher priority
+                nextQueues = callerQueues;
+                nextRank = rank;
+            }
+        }
+        if (nextQueues == null) return null;
+        Iterator<Map.Entry<String, ArrayDeque<Request>>> iterator = nextQueues.entrySet().iterator();
+        Map.Entry<String, ArrayDeque<Request>> entry = iterator.next();
+        Request request = entry.getValue().poll();
+        iterator.remove();
+        if (!entry.getValue().isEmpty()) nextQueues.put(entry.getKey(), entry.getValue());
+        return request;
+    }
+
+    public class Permit implements AutoCloseable {
+        private boolean closed;
+
+        private Permit() {}
+
+        @Override
+        public void close() {
+            if (closed) return;
+            closed = true;
+            int held = holdCount.get() - 1;
+            if (held > 0) {
+                holdCount.set(held);
+                return;
+            }
+            holdCount.remove();
+            release();
+        }
+    }
+
+    @Value
+    public static class Metrics {
+        Priority priority;
+        int numQueued;
+        long numGranted;
+        long totalWaitMs;
+        long maxWaitMs;
+
+        public double getAverageWaitMs() {
+            return numGranted == 0 ? 0 : (double) totalWaitMs / numGranted;
+        }
+    }
+
+    private static class Request {
+        private final Priority priority;
+        private final long enqueueTime;
+        private boolean granted;
+
+        private Request(Priority priority, long enqueueTime) {
+            this.priority = priority;
+            this.enqueueTime = enqueueTime;
+        }
+    }
+
+    private static class WaitStats {
+        private long numGranted;
+        private long totalWaitMs;
+        private long maxWaitMs;
+
+        private void record(long waitMs) {
+            numGranted++;
+            totalWaitMs += waitMs;
+            maxWaitMs = Math.max(maxWaitMs, waitMs);
+        }
+    }
+}
@@ -0,0 +1,263 @@
+/*
+ * This file is part of Haveno.
+ *
+ * Haveno is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Haveno is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Haveno. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package haveno.core.xmr.wallet;
+
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import haveno.common.ThreadUtils;
+import haveno.core.api.XmrConnectionService;
+import lombok.extern.slf4j.Slf4j;
+import monero.common.TaskLooper;
+import monero.daemon.MoneroDaemon;
+import monero.daemon.model.MoneroKeyImageSpentStatus;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+/**
+ * Process-wide poller for the spent status of key images.
+ *
+ * Subscribers register the key images they are interested in. Key images shared by
+ * several subscribers are fetched once, all key images are fetched in chunked requests
+ * when a new block arrives, and each subscriber is only notified of changes to its own
+ * key images.
+ */
+@Slf4j
+@Singleton
+public class XmrKeyImageStatusService {
+
+    static final String THREAD_ID = XmrKeyImageStatusService.class.getSimpleName();
+    static final int MAX_KEY_IMAGES_PER_REQUEST = 1000;
+    private static final long LOCAL_POOL_REFRESH_PERIOD_MS = 20000; // 20 seconds
+
+    private final Supplier<MoneroDaemon> daemonSupplier;
+    private final Map<XmrKeyImageListener, Set<String>> subscriptions = new HashMap<>();
+    private final Map<String, Integer> refCounts = new LinkedHashMap<>();
+    private final Map<String, MoneroKeyImageSpentStatus> lastStatuses = new HashMap<>();
+    private final AtomicBoolean pollRequested = new AtomicBoolean(false);
+    private TaskLooper poolLooper;
+
+    @Inject
+    public XmrKeyImageStatusService(XmrConnectionService xmrConnectionService) {
+        this.daemonSupplier = xmrConnectionService::getDaemon;
+
+        // poll on new blocks and connection changes
+        xmrConnectionService.chainHeightProperty().addListener((observable, oldValue, newValue) -> requestPoll());
+        xmrConnectionService.addConnectionListener(connection -> {
+            updatePoolLooper(xmrConnectionService.isConnectionLocal());
+            requestPoll();
+        });
+    }
+
+    XmrKeyImageStatusService(Supplier<MoneroDaemon> daemonSupplier) {
+        this.daemonSupplier = daemonSupplier;
+    }
+
+    /**
+     * Subscribe the listener to changes of the given key images.
+     *
+     * Statuses already known for the key images are delivered to the listener as an
+     * initial change; unknown key images are fetched without waiting for the next block.
+     *
+     * @param listener - the listener to notify
+     * @param keyImages - key images to subscribe to
+     */
+    public void addKeyImages(XmrKeyImageListener listener, Collection<String> keyImages) {
+        Map<String, MoneroKeyImageSpentStatus> knownStatuses = new HashMap<>();
+        boolean hasUnknown = false;
+        synchronized (this) {
+            Set<String> subscribed = subscriptions.computeIfAbsent(listener, l -> new HashSet<>());
+            for (String keyImage : keyImages) {
+                if (!subscribed.add(keyImage)) continue;
+                refCounts.merge(keyImage, 1, Integer::sum);
+                MoneroKeyImageSpentStatus status = lastStatuses.get(keyImage);
+                if (status == null) hasUnknown = true;
+                else knownStatuses.put(keyImage, status);
+            }
+        }
+        if (!knownStatuses.isEmpty()) ThreadUtils.execute(() -> listener.onSpentStatusChanged(knownStatuses), THREAD_ID);
+        if (hasUnknown) requestPoll();
+    }
+
+    /**
+     * Unsubscribe the listener from changes of the given key images.
+     *
+     * @param listener - the subscribed listener
+     * @param keyImages - key images to unsubscribe from
+     */
+    public synchronized void removeKeyImages(XmrKeyImageListener listener, Collection<String> keyImages) {
+        Set<String> subscribed = subscriptions.get(listener);
+        if (subscribed == null) return;
+        for (String keyImage : keyImages) {
+            if (subscribed.remove(keyImage)) release(keyImage);
+        }
+        if (subscribed.isEmpty()) subscriptions.remove(listener);
+    }
+
+    /**
+     * Unsubscribe the listener from all of its key images.
+     *
+     * @param listener - the subscribed listener
+     */
+    public synchronized void removeListener(XmrKeyImageListener listener) {
+        Set<String> subscribed = subscriptions.remove(listener);
+        if (subscribed == null) return;
+        for (String keyImage : subscribed) release(keyImage);
+    }
+
+    /**
+     * Indicates if the given key image is spent.
+     *
+     * @param keyImage - the key image to check
+     * @return true if the key is spent, false if unspent, null if unknown
+     */
+    public synchronized Boolean isSpent(String keyImage) {
+        MoneroKeyImageSpentStatus status = lastStatuses.get(keyImage);
+        return status == null ? null : status != MoneroKeyImageSpentStatus.NOT_SPENT;
+    }
+
+    /**
+     * Get the last known spent status for the given key image.
+     *
+     * @param keyImage the key image to get the spent status for
+     * @return the last known spent status of the key image
+     */
+    public synchronized MoneroKeyImageSpentStatus getLastSpentStatus(String keyImage) {
+        return lastStatuses.get(keyImage);
+    }
+
+    public synchronized int getNumKeyImages() {
+        return refCounts.size();
+    }
+
+    public void shutDown() {
+        synchronized (this) {
+            if (poolLooper != null) poolLooper.stop();
+            subscriptions.clear();
+            refCounts.clear();
+            lastStatuses.clear();
+        }
+        ThreadUtils.shutDown(THREAD_ID);
+    }
+
+    /**
+     * Request a poll off the calling thread. Requests made while a poll is pending are coalesced.
+     */
+    public void requestPoll() {
+        if (!pollRequested.compareAndSet(false, true)) return;
+        ThreadUtils.execute(() -> {
+            pollRequested.set(false);
+            poll();
+        }, THREAD_ID);
+    }
+
+    /**
+     * Fetch the spent status of all subscribed key images and notify subscribers of changes.
+     */
+    public void poll() {
+        MoneroDaemon daemon = daemonSupplier.get();
+        if (daemon == null) {
+            log.warn("Cannot poll key images because daemon is null");
+            return;
+        }
+
+        // get distinct key images to fetch
+        List<String> keyImages;
+        synchronized (this) {
+            keyImages = new ArrayList<>(refCounts.keySet());
+        }
+        if (keyImages.isEmpty()) return;
+
+        // fetch spent statuses in chunks
+        Map<String, MoneroKeyImageSpentStatus> fetchedStatuses = new HashMap<>();
+        for (int start = 0; start < keyImages.size(); start += MAX_KEY_IMAGES_PER_REQUEST) {
+            List<String> chunk = keyImages.subList(start, Math.min(keyImages.size(), start + MAX_KEY_IMAGES_PER_REQUEST));
+            List<MoneroKeyImageSpentStatus> spentStatuses;
+            try {
+                spentStatuses = daemon.getKeyImageSpentStatuses(chunk);
+            } catch (Exception e) {
+                log.warn("Error polling spent status of key images: " + e.getMessage());
+                return;
+            }
+            if (spentStatuses == null || spentStatuses.size() != chunk.size()) {
+                log.warn("Expected {} key image spent statuses but got {}", chunk.size(), spentStatuses == null ? null : spentStatuses.size());
+                return;
+            }
+            for (int i = 0; i < chunk.size(); i++) fetchedStatuses.put(chunk.get(i), spentStatuses.get(i));
+        }
+
+        // collect changed statuses per subscriber
+        Map<XmrKeyImageListener, Map<String, MoneroKeyImageSpentStatus>> notifications = new HashMap<>();
+        synchronized (this) {
+            Map<String, MoneroKeyImageSpentStatus> changedStatuses = new HashMap<>();
+            for (Map.Entry<String, MoneroKeyImageSpentStatus> entry : fetchedStatuses.entrySet()) {
+                if (!refCounts.containsKey(entry.getKey())) continue; // unsubscribed while fetching
+                if (entry.getValue() != lastStatuses.put(entry.getKey(), entry.getValue())) changedStatuses.put(entry.getKey(), entry.getValue());
+            }
+            if (changedStatuses.isEmpty()) return;
+            for (Map.Entry<XmrKeyImageListener, Set<String>> subscription : subscriptions.entrySet()) {
+                Map<String, MoneroKeyImageSpentStatus> listenerChanges = new HashMap<>();
+                for (String keyImage : subscription.getValue()) {
+                    MoneroKeyImageSpentStatus status = changedStatuses.get(keyImage);
+                    if (status != null) listenerChanges.put(keyImage, status);
+                }
+                if (!listenerChanges.isEmpty()) notifications.put(subscription.getKey(), listenerChanges);
+            }
+        }
+
+        // announce changes
+        for (Map.Entry<XmrKeyImageListener, Map<String, MoneroKeyImageSpentStatus>> notification : notifications.entrySet()) {
+            try {
+                notification.getKey().onSpentStatusChanged(notification.getValue());
+            } catch (Exception e) {
+                log.warn("Error notifying key image listener: " + e.getMessage(), e);
+            }
+        }
+    }
+
+    private void release(String keyImage) {
+        Integer count = refCounts.get(keyImage);
+        if (count == null) return;
+        if (count > 1) refCounts.put(keyImage, count - 1);
+        else {
+            refCounts.remove(keyImage);
+            lastStatuses.remove(keyImage);
+        }
+    }
+
+    // a local daemon is cheap to query, so also poll between blocks to pick up spends in the tx pool
+    private synchronized void updatePoolLooper(boolean isConnectionLocal) {
+        if (isConnectionLocal) {
+            if (poolLooper == null) {
+                poolLooper = new TaskLooper(this::requestPoll);
+                poolLooper.start(LOCAL_POOL_REFRESH_PERIOD_MS);
+            }
+        } else if (poolLooper != null) {
+            poolLooper.stop();
+            poolLooper = null;
+        }
+    }
+}
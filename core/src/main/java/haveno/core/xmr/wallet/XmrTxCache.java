@@ -0,0 +1,164 @@
+/*
+ * This file is part of Haveno.
+ *
+ * Haveno is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Haveno is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Haveno. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package haveno.core.xmr.wallet;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+import monero.daemon.model.MoneroTx;
+
+/**
+ * Cache of txs fetched from the Monero daemon by hash.
+ *
+ * Only the hashes which are not cached get fetched, in a single request. Concurrent lookups of a hash which is
+ * already being fetched wait for that request instead of fetching it again, so threads verifying different txs
+ * do not block each other. Entries are evicted by size and by age, the max. age is read at each lookup as it
+ * depends on the current connection.
+ */
+@Slf4j
+public class XmrTxCache {
+    private static final int MAX_SIZE = 10000;
+    private static final long MAX_TTL_MS = TimeUnit.MINUTES.toMillis(10);
+
+    private final Function<List<String>, List<MoneroTx>> fetcher;
+    private final LongSupplier ttlMsSupplier;
+    private final Cache<String, CachedTx> cache = CacheBuilder.newBuilder()
+            .maximumSize(MAX_SIZE)
+            .expireAfterWrite(MAX_TTL_MS, TimeUnit.MILLISECONDS)
+            .build();
+    private final Map<String, CompletableFuture<Optional<MoneroTx>>> inFlightRequests = new ConcurrentHashMap<>();
+    private final AtomicLong numHits = new AtomicLong();
+    private final AtomicLong numMisses = new AtomicLong();
+    private final AtomicLong numCoalesced = new AtomicLong();
+
+    public XmrTxCache(Function<List<String>, List<MoneroTx>> fetcher, LongSupplier ttlMsSupplier) {
+        this.fetcher = fetcher;
+        this.ttlMsSupplier = ttlMsSupplier;
+    }
+
+    /**
+     * Returns the txs with the given hashes in the given order. Txs unknown to the daemon are omitted.
+     *
+     * @param useCache if false, all txs are fetched from the daemon and the cache gets updated
+     */
+    public List<MoneroTx> getTxs(List<String> txHashes, boolean useCache) {
+        Map<String, MoneroTx> txs = new HashMap<>();
+        Map<String, CompletableFuture<Optional<MoneroTx>>> ownRequests = new HashMap<>();
+        Map<String, CompletableFuture<Optional<MoneroTx>>> otherRequests = new HashMap<>();
+        long minTimestamp = System.currentTimeMillis() - Math.min(ttlMsSupplier.getAsLong(), MAX_TTL_MS);
+        for (String txHash : txHashes) {
+            if (txs.containsKey(txHash) || ownRequests.containsKey(txHash) || otherRequests.containsKey(txHash)) continue;
+            if (useCache) {
+                CachedTx cachedTx = cache.getIfPresent(txHash);
+                if (cachedTx != null && cachedTx.timestamp >= minTimestamp) {
+                    numHits.incrementAndGet();
+                    txs.put(txHash, cachedTx.tx);
+                    continue;
+                }
+            }
+            CompletableFuture<Optional<MoneroTx>> request = new CompletableFuture<>();
+            CompletableFuture<Optional<MoneroTx>> inFlightRequest = inFlightRequests.putIfAbsent(txHash, request);
+            if (inFlightRequest == null) {
+                numMisses.incrementAndGet();
+                ownRequests.put(txHash, request);
+            } else {
+                numCoalesced.incrementAndGet();
+                otherRequests.put(txHash, inFlightRequest);
+            }
+        }
+
+        if (!ownRequests.isEmpty()) fetch(ownRequests, txs);
+        otherRequests.forEach((txHash, request) -> {
+            try {
+                request.join().ifPresent(tx -> txs.put(txHash, tx));
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof RuntimeException) throw (RuntimeException) e.getCause();
+                throw e;
+            }
+        });
+
+        List<MoneroTx> result = new ArrayList<>();
+        for (String txHash : txHashes) {
+            MoneroTx tx = txs.get(txHash);
+            if (tx != null) result.add(tx);
+        }
+        return result;
+    }
+
+    public void invalidate(String txHash) {
+        cache.invalidate(txHash);
+    }
+
+    public Metrics getMetrics() {
+        return new Metrics(numHits.get(), numMisses.get(), numCoalesced.get(), cache.size());
+    }
+
+    private void fetch(Map<String, CompletableFuture<Optional<MoneroTx>>> requests, Map<String, MoneroTx> txs) {
+        try {
+            List<MoneroTx> fetchedTxs = fetcher.apply(new ArrayList<>(requests.keySet()));
+            long timestamp = System.currentTimeMillis();
+            for (MoneroTx tx : fetchedTxs) {
+                cache.put(tx.getHash(), new CachedTx(tx, timestamp));
+                txs.put(tx.getHash(), tx);
+            }
+            requests.forEach((txHash, request) -> request.complete(Optional.ofNullable(txs.get(txHash))));
+        } catch (RuntimeException | Error e) {
+            requests.values().forEach(request -> request.completeExceptionally(e));
+            throw e;
+        } finally {
+            requests.forEach(inFlightRequests::remove);
+        }
+    }
+
+    private static class CachedTx {
+        private final MoneroTx tx;
+        private final long timestamp;
+
+        CachedTx(MoneroTx tx, long timestamp) {
+            this.tx = tx;
+            this.timestamp = timestamp;
+        }
+    }
+
+    @Value
+    public static class Metrics {
+        long numHits;
+        long numMisses;
+        long numCoalesced;
+        long size;
+
+        public double getHitRate() {
+            long numLookups = numHits + numMisses + numCoalesced;
+            return numLookups == 0 ? 0 : (double) (numHits + numCoalesced) / numLookups;
+        }
+    }
+}
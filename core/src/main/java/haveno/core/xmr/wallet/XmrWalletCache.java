@@ -0,0 +1,227 @@
+/*
+ * This file is part of Haveno.
+ *
+ * Haveno is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Haveno is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Haveno. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package haveno.core.xmr.wallet;
+
+import monero.wallet.MoneroWallet;
+import monero.wallet.model.MoneroOutputQuery;
+import monero.wallet.model.MoneroOutputWallet;
+import monero.wallet.model.MoneroSubaddress;
+import monero.wallet.model.MoneroTxQuery;
+import monero.wallet.model.MoneroTxWallet;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Incrementally updated cache of a wallet's txs, outputs and subaddresses.
+ *
+ * Txs are keyed by hash and outputs by key image. A refresh only fetches unconfirmed txs,
+ * txs confirmed since the last refresh and the unspent outputs, and applies height deltas
+ * to the confirmations of cached txs. Everything is fetched again once per reconciliation
+ * period to pick up anything the incremental updates missed.
+ */
+public class XmrWalletCache {
+
+    public static final long FULL_RECONCILIATION_PERIOD_MS = 1800000; // 30 minutes
+    private static final int REFETCH_NUM_BLOCKS = XmrWalletService.NUM_BLOCKS_UNLOCK; // refetch txs which might have unlocked or been reorged since the last refresh
+
+    private final LinkedHashMap<String, MoneroTxWallet> txs = new LinkedHashMap<>();
+    private final LinkedHashMap<String, MoneroOutputWallet> outputs = new LinkedHashMap<>();
+    private final Map<Integer, MoneroSubaddress> subaddresses = new LinkedHashMap<>();
+    private Long lastTxsHeight;
+    private Long lastFullTxsTimestamp;
+    private Long lastFullOutputsTimestamp;
+    private boolean isSubaddressesCached;
+
+    /**
+     * Update the cached txs from the wallet.
+     *
+     * @param wallet - the wallet to fetch txs from
+     * @param height - the current height of the wallet
+     */
+    public void refreshTxs(MoneroWallet wallet, long height) {
+        Long lastTxsHeight;
+        boolean isFull;
+        synchronized (this) {
+            lastTxsHeight = this.lastTxsHeight;
+            isFull = isFullReconciliationDue(lastFullTxsTimestamp) || lastTxsHeight == null;
+        }
+
+        // fetch all txs
+        if (isFull) {
+            List<MoneroTxWallet> fetchedTxs = wallet.getTxs(new MoneroTxQuery().setIncludeOutputs(true)); // fetches from pool
+            synchronized (this) {
+                txs.clear();
+                for (MoneroTxWallet tx : fetchedTxs) txs.put(tx.getHash(), tx);
+                this.lastTxsHeight = height;
+                lastFullTxsTimestamp = System.currentTimeMillis();
+            }
+            return;
+        }
+
+        // fetch unconfirmed txs and txs confirmed since the last refresh
+        List<MoneroTxWallet> unconfirmedTxs = wallet.getTxs(new MoneroTxQuery().setIncludeOutputs(true).setIsConfirmed(false)); // fetches from pool
+        List<MoneroTxWallet> recentTxs = wallet.getTxs(new MoneroTxQuery().setIncludeOutputs(true).setMinHeight(Math.max(0, lastTxsHeight - REFETCH_NUM_BLOCKS)));
+        synchronized (this) {
+            applyTxs(unconfirmedTxs, recentTxs, height);
+            this.lastTxsHeight = height;
+        }
+    }
+
+    /**
+     * Add a tx created by this wallet, e.g. after relaying it.
+     *
+     * @param tx - the tx to add
+     */
+    public synchronized void addTx(MoneroTxWallet tx) {
+        txs.put(tx.getHash(), tx);
+    }
+
+    public synchronized boolean isTxsCached() {
+        return lastTxsHeight != null;
+    }
+
+    public synchronized List<MoneroTxWallet> getTxs() {
+        return new ArrayList<>(txs.values());
+    }
+
+    /**
+     * Update the cached outputs from the wallet.
+     *
+     * @param wallet - the wallet to fetch outputs from
+     */
+    public void refreshOutputs(MoneroWallet wallet) {
+        boolean isFull;
+        synchronized (this) {
+            isFull = isFullReconciliationDue(lastFullOutputsTimestamp);
+        }
+
+        // fetch all outputs
+        if (isFull) {
+            List<MoneroOutputWallet> fetchedOutputs = wallet.getOutputs();
+            synchronized (this) {
+                outputs.clear();
+                for (MoneroOutputWallet output : fetchedOutputs) outputs.put(getKey(output), output);
+                lastFullOutputsTimestamp = System.currentTimeMillis();
+            }
+            return;
+        }
+
+        // fetch unspent outputs, any other cached output has been spent
+        List<MoneroOutputWallet> unspentOutputs = wallet.getOutputs(new MoneroOutputQuery().setIsSpent(false));
+        synchronized (this) {
+            applyUnspentOutputs(unspentOutputs);
+        }
+    }
+
+    public synchronized List<MoneroOutputWallet> getOutputs() {
+        return new ArrayList<>(outputs.values());
+    }
+
+    /**
+     * Update the cached subaddresses and their balances from the wallet.
+     *
+     * @param wallet - the wallet to fetch subaddresses from
+     */
+    public void refreshSubaddresses(MoneroWallet wallet) {
+        List<MoneroSubaddress> fetchedSubaddresses = wallet.getSubaddresses(0);
+        synchronized (this) {
+            subaddresses.clear();
+            for (MoneroSubaddress subaddress : fetchedSubaddresses) subaddresses.put(subaddress.getIndex(), subaddress);
+            isSubaddressesCached = true;
+        }
+    }
+
+    /**
+     * Fetch the subaddresses again on the next refresh, e.g. after creating a subaddress.
+     */
+    public synchronized void invalidateSubaddresses() {
+        isSubaddressesCached = false;
+    }
+
+    public synchronized boolean isSubaddressesCached() {
+        return isSubaddressesCached;
+    }
+
+    public synchronized List<MoneroSubaddress> getSubaddresses() {
+        return new ArrayList<>(subaddresses.values());
+    }
+
+    public synchronized MoneroSubaddress getSubaddress(int subaddressIndex) {
+        return subaddresses.get(subaddressIndex);
+    }
+
+    /**
+     * Clear the cache, e.g. when the wallet is closed, so the next refresh fetches everything.
+     */
+    public synchronized void clear() {
+        txs.clear();
+        outputs.clear();
+        subaddresses.clear();
+        lastTxsHeight = null;
+        lastFullTxsTimestamp = null;
+        lastFullOutputsTimestamp = null;
+        isSubaddressesCached = false;
+    }
+
+    void applyTxs(List<MoneroTxWallet> unconfirmedTxs, List<MoneroTxWallet> recentTxs, long height) {
+        Set<String> fetchedHashes = new HashSet<>();
+        for (MoneroTxWallet tx : unconfirmedTxs) fetchedHashes.add(tx.getHash());
+        for (MoneroTxWallet tx : recentTxs) fetchedHashes.add(tx.getHash());
+
+        // remove unconfirmed txs which are no longer reported, e.g. dropped from the pool
+        Iterator<MoneroTxWallet> iterator = txs.values().iterator();
+        while (iterator.hasNext()) {
+            MoneroTxWallet tx = iterator.next();
+            if (!Boolean.TRUE.equals(tx.isConfirmed()) && !fetchedHashes.contains(tx.getHash())) iterator.remove();
+        }
+
+        // add or replace fetched txs
+        for (MoneroTxWallet tx : unconfirmedTxs) txs.put(tx.getHash(), tx);
+        for (MoneroTxWallet tx : recentTxs) txs.put(tx.getHash(), tx);
+
+        // apply height delta to confirmations of older txs
+        for (MoneroTxWallet tx : txs.values()) {
+            if (fetchedHashes.contains(tx.getHash()) || tx.getHeight() == null) continue;
+            tx.setNumConfirmations(Math.max(0, height - tx.getHeight()));
+        }
+    }
+
+    void applyUnspentOutputs(List<MoneroOutputWallet> unspentOutputs) {
+        Set<String> unspentKeys = new HashSet<>();
+        for (MoneroOutputWallet output : unspentOutputs) unspentKeys.add(getKey(output));
+        for (Map.Entry<String, MoneroOutputWallet> entry : outputs.entrySet()) {
+            if (!unspentKeys.contains(entry.getKey()) && !Boolean.TRUE.equals(entry.getValue().isSpent())) entry.getValue().setIsSpent(true);
+        }
+        for (MoneroOutputWallet output : unspentOutputs) outputs.put(getKey(output), output);
+    }
+
+    private static boolean isFullReconciliationDue(Long lastFullTimestamp) {
+        return lastFullTimestamp == null || System.currentTimeMillis() - lastFullTimestamp >= FULL_RECONCILIATION_PERIOD_MS;
+    }
+
+    private static String getKey(MoneroOutputWallet output) {
+        if (output.getKeyImage() != null && output.getKeyImage().getHex() != null) return output.getKeyImage().getHex();
+        return output.getTx().getHash() + ":" + output.getIndex(); // key image unknown, e.g. view only wallet
+    }
+}
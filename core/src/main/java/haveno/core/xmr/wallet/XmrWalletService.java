@@ -45,6 +45,7 @@ import haveno.core.xmr.model.XmrAddressEntryList;
 import haveno.core.xmr.setup.DownloadListener;
 import haveno.core.xmr.setup.MoneroWalletRpcManager;
 import haveno.core.xmr.setup.WalletsSetup;
+import haveno.core.xmr.wallet.XmrDaemonRequestScheduler.Priority;
 import java.io.File;
 import java.math.BigInteger;
 import java.time.LocalDate;
@@ -54,7 +55,6 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
@@ -156,7 +156,8 @@ public class XmrWalletService {
     private MoneroWallet wallet;
     public static final Object WALLET_LOCK = new Object();
     private boolean wasWalletSynced = false;
-    private final Map<String, Optional<MoneroTx>> txCache = new HashMap<String, Optional<MoneroTx>>();
+    private final XmrTxCache txCache = new XmrTxCache(this::fetchDaemonTxs, () -> xmrConnectionService.getRefreshPeriodMs());
+    private final XmrWalletSyncCoordinator walletSyncCoordinator;
     private boolean isClosingWallet = false;
     private boolean isShutDownStarted = false;
     private ExecutorService syncWalletThreadPool = Executors.newFixedThreadPool(10); // TODO: adjust based on connection type
@@ -172,9 +173,7 @@ public class XmrWalletService {
     private Long cachedHeight;
     private BigInteger cachedBalance;
     private BigInteger cachedAvailableBalance = null;
-    private List<MoneroSubaddress> cachedSubaddresses;
-    private List<MoneroOutputWallet> cachedOutputs;
-    private List<MoneroTxWallet> cachedTxs;
+    private final XmrWalletCache walletCache = new XmrWalletCache();
     private boolean runReconnectTestOnStartup = false; // test reconnecting on startup while syncing so the wallet is blocked
 
     @SuppressWarnings("unused")
@@ -198,6 +197,7 @@ public class XmrWalletService {
         this.rpcBindPort = rpcBindPort;
         this.useNativeXmrWallet = useNativeXmrWallet;
         this.xmrWalletFile = new File(walletDir, MONERO_WALLET_NAME);
+        this.walletSyncCoordinator = new XmrWalletSyncCoordinator(xmrConnectionService);
         HavenoUtils.xmrWalletService = this;
 
         // set monero logging
@@ -376,9 +376,12 @@ public class XmrWalletService {
 
     /**
      * Sync the given wallet in a thread pool with other wallets.
+     *
+     * @param wallet - the wallet to sync
+     * @param callerId - identifies the caller for fair scheduling of daemon requests
      */
-    public MoneroSyncResult syncWallet(MoneroWallet wallet) {
-        synchronized (HavenoUtils.getDaemonLock()) { // TODO: lock defeats purpose of thread pool
+    public MoneroSyncResult syncWallet(MoneroWallet wallet, String callerId) {
+        try (XmrDaemonRequestScheduler.Permit permit = HavenoUtils.getDaemonRequestScheduler().acquire(Priority.NORMAL, callerId)) {
             Callable<MoneroSyncResult> task = () -> {
                 return wallet.sync();
             };
@@ -457,7 +460,7 @@ public class XmrWalletService {
             synchronized (HavenoUtils.getWalletFunctionLock()) {
                 MoneroTxWallet tx = wallet.createTx(txConfig);
                 if (Boolean.TRUE.equals(txConfig.getRelay())) {
-                    cachedTxs.addFirst(tx);
+                    walletCache.addTx(tx);
                     cacheWalletInfo();
                     requestSaveMainWallet();
                 }
@@ -843,23 +846,7 @@ public class XmrWalletService {
     }
 
     public List<MoneroTx> getDaemonTxs(List<String> txHashes) {
-        synchronized (txCache) {
-
-            // fetch txs
-            if (getDaemon() == null) xmrConnectionService.verifyConnection(); // will throw
-            List<MoneroTx> txs = getDaemon().getTxs(txHashes, true);
-
-            // store to cache
-            for (MoneroTx tx : txs) txCache.put(tx.getHash(), Optional.of(tx));
-
-            // schedule txs to be removed from cache
-            UserThread.runAfter(() -> {
-                synchronized (txCache) {
-                    for (MoneroTx tx : txs) txCache.remove(tx.getHash());
-                }
-            }, xmrConnectionService.getRefreshPeriodMs() / 1000);
-            return txs;
-        }
+        return txCache.getTxs(txHashes, false);
     }
 
     public MoneroTx getDaemonTxWithCache(String txHash) {
@@ -868,25 +855,34 @@ public class XmrWalletService {
     }
 
     public List<MoneroTx> getDaemonTxsWithCache(List<String> txHashes) {
-        synchronized (txCache) {
-            try {
-                // get cached txs
-                List<MoneroTx> cachedTxs = new ArrayList<MoneroTx>();
-                List<String> uncachedTxHashes = new ArrayList<String>();
-                for (int i = 0; i < txHashes.size(); i++) {
-                    if (txCache.containsKey(txHashes.get(i))) cachedTxs.add(txCache.get(txHashes.get(i)).orElse(null));
-                    else uncachedTxHashes.add(txHashes.get(i));
-                }
-
-                // return txs from cache if available, otherwise fetch
-                return uncachedTxHashes.isEmpty() ? cachedTxs : getDaemonTxs(txHashes);
-            } catch (Exception e) {
-                if (!isShutDownStarted) throw e;
-                return null;
-            }
+        try {
+            return txCache.getTxs(txHashes, true);
+        } catch (Exception e) {
+            if (!isShutDownStarted) throw e;
+            return null;
         }
     }
 
+    public XmrTxCache.Metrics getTxCacheMetrics() {
+        return txCache.getMetrics();
+    }
+
+    public List<XmrDaemonRequestScheduler.Metrics> getDaemonRequestMetrics() {
+        return HavenoUtils.getDaemonRequestScheduler().getMetrics();
+    }
+
+    /**
+     * Get the coordinator which polls trade wallets on new blocks.
+     */
+    public XmrWalletSyncCoordinator getWalletSyncCoordinator() {
+        return walletSyncCoordinator;
+    }
+
+    private List<MoneroTx> fetchDaemonTxs(List<String> txHashes) {
+        if (getDaemon() == null) xmrConnectionService.verifyConnection(); // will throw
+        return getDaemon().getTxs(txHashes, true);
+    }
+
     public void onShutDownStarted() {
         log.info("XmrWalletService.onShutDownStarted()");
         this.isShutDownStarted = true;
@@ -912,6 +908,7 @@ public class XmrWalletService {
             synchronized (this) {
                 List<Runnable> shutDownThreads = new ArrayList<>();
                 shutDownThreads.add(() -> ThreadUtils.shutDown(THREAD_ID));
+                shutDownThreads.add(() -> walletSyncCoordinator.shutDown());
                 ThreadUtils.awaitTasks(shutDownThreads);
             }
 
@@ -962,6 +959,7 @@ public class XmrWalletService {
 
     private XmrAddressEntry getNewAddressEntryAux(String offerId, XmrAddressEntry.Context context) {
         MoneroSubaddress subaddress = wallet.createSubaddress(0);
+        walletCache.invalidateSubaddresses();
         XmrAddressEntry entry = new XmrAddressEntry(subaddress.getIndex(), subaddress.getAddress(), context, offerId, null);
         log.info("Add new XmrAddressEntry {}", entry);
         xmrAddressEntryList.addAddressEntry(entry);
@@ -981,19 +979,17 @@ public class XmrWalletService {
     }
 
     public synchronized XmrAddressEntry getOrCreateAddressEntry(String offerId, XmrAddressEntry.Context context) {
-        Optional<XmrAddressEntry> addressEntry = getAddressEntryListAsImmutableList().stream().filter(e -> offerId.equals(e.getOfferId())).filter(e -> context == e.getContext()).findAny();
+        Optional<XmrAddressEntry> addressEntry = getAddressEntry(offerId, context);
         if (addressEntry.isPresent()) return addressEntry.get();
         else return getNewAddressEntry(offerId, context);
     }
 
-    public synchronized Optional<XmrAddressEntry> getAddressEntry(String offerId, XmrAddressEntry.Context context) {
-        List<XmrAddressEntry> entries = getAddressEntryListAsImmutableList().stream().filter(e -> offerId.equals(e.getOfferId())).filter(e -> context == e.getContext()).collect(Collectors.toList());
-        if (entries.size() > 1) throw new RuntimeException("Multiple address entries exist with offer ID " + offerId + " and context " + context + ". That should never happen.");
-        return entries.isEmpty() ? Optional.empty() : Optional.of(entries.get(0));
+    public Optional<XmrAddressEntry> getAddressEntry(String offerId, XmrAddressEntry.Context context) {
+        return xmrAddressEntryList.getAddressEntry(offerId, context);
     }
 
     public synchronized void swapAddressEntryToAvailable(String offerId, XmrAddressEntry.Context context) {
-        Optional<XmrAddressEntry> addressEntryOptional = getAddressEntryListAsImmutableList().stream().filter(e -> offerId.equals(e.getOfferId())).filter(e -> context == e.getContext()).findAny();
+        Optional<XmrAddressEntry> addressEntryOptional = getAddressEntry(offerId, context);
         addressEntryOptional.ifPresent(e -> {
             log.info("swap addressEntry with address {} and offerId {} from context {} to available", e.getAddressString(), e.getOfferId(), context);
             xmrAddressEntryList.swapToAvailable(e);
@@ -1016,7 +1012,7 @@ public class XmrWalletService {
     }
 
     private Optional<XmrAddressEntry> findAddressEntry(String address, XmrAddressEntry.Context context) {
-        return getAddressEntryListAsImmutableList().stream().filter(e -> address.equals(e.getAddressString())).filter(e -> context == e.getContext()).findAny();
+        return xmrAddressEntryList.findAddressEntry(address, context);
     }
 
     public List<XmrAddressEntry> getAddressEntries() {
@@ -1024,27 +1020,23 @@ public class XmrWalletService {
     }
 
     public List<XmrAddressEntry> getAvailableAddressEntries() {
-        return getAddressEntryListAsImmutableList().stream().filter(addressEntry -> XmrAddressEntry.Context.AVAILABLE == addressEntry.getContext()).collect(Collectors.toList());
+        return getAddressEntries(XmrAddressEntry.Context.AVAILABLE);
     }
 
     public List<XmrAddressEntry> getAddressEntriesForOpenOffer() {
-        return getAddressEntryListAsImmutableList().stream()
-                .filter(addressEntry -> XmrAddressEntry.Context.OFFER_FUNDING == addressEntry.getContext())
-                .collect(Collectors.toList());
+        return getAddressEntries(XmrAddressEntry.Context.OFFER_FUNDING);
     }
 
     public List<XmrAddressEntry> getAddressEntriesForTrade() {
-        return getAddressEntryListAsImmutableList().stream()
-                .filter(addressEntry -> XmrAddressEntry.Context.TRADE_PAYOUT == addressEntry.getContext())
-                .collect(Collectors.toList());
+        return getAddressEntries(XmrAddressEntry.Context.TRADE_PAYOUT);
     }
 
     public List<XmrAddressEntry> getAddressEntries(XmrAddressEntry.Context context) {
-        return getAddressEntryListAsImmutableList().stream().filter(addressEntry -> context == addressEntry.getContext()).collect(Collectors.toList());
+        return xmrAddressEntryList.getAddressEntries(context);
     }
 
     public XmrAddressEntry getBaseAddressEntry() {
-        return getAddressEntryListAsImmutableList().stream().filter(e -> e.getContext() == XmrAddressEntry.Context.BASE_ADDRESS).findAny().orElse(null);
+        return getAddressEntries(XmrAddressEntry.Context.BASE_ADDRESS).stream().findAny().orElse(null);
     }
 
     public List<XmrAddressEntry> getFundedAvailableAddressEntries() {
@@ -1052,14 +1044,17 @@ public class XmrWalletService {
     }
 
     public List<XmrAddressEntry> getAddressEntryListAsImmutableList() {
-        for (MoneroSubaddress subaddress : cachedSubaddresses) {
-            boolean exists = xmrAddressEntryList.getAddressEntriesAsListImmutable().stream().filter(addressEntry -> addressEntry.getAddressString().equals(subaddress.getAddress())).findAny().isPresent();
-            if (!exists) {
+        addAddressEntriesForSubaddresses();
+        return xmrAddressEntryList.getAddressEntriesAsListImmutable();
+    }
+
+    private void addAddressEntriesForSubaddresses() {
+        for (MoneroSubaddress subaddress : walletCache.getSubaddresses()) {
+            if (!xmrAddressEntryList.hasAddressEntry(subaddress.getAddress())) {
                 XmrAddressEntry entry = new XmrAddressEntry(subaddress.getIndex(), subaddress.getAddress(), subaddress.getIndex() == 0 ? XmrAddressEntry.Context.BASE_ADDRESS : XmrAddressEntry.Context.AVAILABLE, null, null);
                 xmrAddressEntryList.addAddressEntry(entry);
             }
         }
-        return xmrAddressEntryList.getAddressEntriesAsListImmutable();
     }
 
     public List<XmrAddressEntry> getUnusedAddressEntries() {
@@ -1074,7 +1069,7 @@ public class XmrWalletService {
 
     public int getNumOutputsForSubaddress(int subaddressIndex) {
         int numUnspentOutputs = 0;
-        for (MoneroTxWallet tx : cachedTxs) {
+        for (MoneroTxWallet tx : walletCache.getTxs()) {
             //if (tx.getTransfers(new MoneroTransferQuery().setSubaddressIndex(subaddressIndex)).isEmpty()) continue; // TODO monero-project: transfers are occluded by transfers from/to same account, so this will return unused when used
             numUnspentOutputs += tx.getOutputsWallet(new MoneroOutputQuery().setAccountIndex(0).setSubaddressIndex(subaddressIndex)).size(); // TODO: monero-project does not provide outputs for unconfirmed txs
         }
@@ -1084,10 +1079,7 @@ public class XmrWalletService {
     }
 
     private MoneroSubaddress getSubaddress(int subaddressIndex) {
-        for (MoneroSubaddress subaddress : cachedSubaddresses) {
-            if (subaddress.getIndex() == subaddressIndex) return subaddress;
-        }
-        return null;
+        return walletCache.getSubaddress(subaddressIndex);
     }
 
     public int getNumTxsWithIncomingOutputs(int subaddressIndex) {
@@ -1102,7 +1094,7 @@ public class XmrWalletService {
 
     public List<MoneroTxWallet> getTxsWithIncomingOutputs(Integer subaddressIndex) {
         List<MoneroTxWallet> incomingTxs = new ArrayList<>();
-        for (MoneroTxWallet tx : cachedTxs) {
+        for (MoneroTxWallet tx : walletCache.getTxs()) {
             boolean isIncoming = false;
             if (tx.getIncomingTransfers() != null) {
                 for (MoneroIncomingTransfer transfer : tx.getIncomingTransfers()) {
@@ -1205,11 +1197,11 @@ public class XmrWalletService {
     }
 
     public List<MoneroTxWallet> getTxs(MoneroTxQuery query) {
-        if (cachedTxs == null) {
+        if (!walletCache.isTxsCached()) {
             log.warn("Transactions not cached, fetching from wallet");
-            cachedTxs = wallet.getTxs(new MoneroTxQuery().setIncludeOutputs(true)); // fetches from pool
+            walletCache.refreshTxs(wallet, wallet.getHeight());
         }
-        return cachedTxs.stream().filter(tx -> query.meetsCriteria(tx)).collect(Collectors.toList());
+        return walletCache.getTxs().stream().filter(tx -> query.meetsCriteria(tx)).collect(Collectors.toList());
     }
 
     public List<MoneroTxWallet> getTxs(List<String> txIds) {
@@ -1230,12 +1222,12 @@ public class XmrWalletService {
     }
 
     public List<MoneroSubaddress> getSubaddresses() {
-        return cachedSubaddresses;
+        return walletCache.getSubaddresses();
     }
 
     public List<MoneroOutputWallet> getOutputs(MoneroOutputQuery query) {
         List<MoneroOutputWallet> filteredOutputs = new ArrayList<MoneroOutputWallet>();
-        for (MoneroOutputWallet output : cachedOutputs) {
+        for (MoneroOutputWallet output : walletCache.getOutputs()) {
             if (query == null || query.meetsCriteria(output)) filteredOutputs.add(output);
         }
         return filteredOutputs;
@@ -1726,6 +1718,7 @@ public class XmrWalletService {
                     isClosingWallet = true;
                     closeWallet(wallet, true);
                     wallet = null;
+                    walletCache.clear();
                 }
             } catch (Exception e) {
                 log.warn("Error closing main wallet: {}. Was Haveno stopped manually with ctrl+c?", e.getMessage());
@@ -1739,6 +1732,7 @@ public class XmrWalletService {
         stopPolling();
         stopSyncWithProgress();
         wallet = null;
+        walletCache.clear();
     }
 
     private void forceRestartMainWallet() {
@@ -1823,10 +1817,10 @@ public class XmrWalletService {
                 // fetch transactions from pool and store to cache
                 // TODO: ideally wallet should sync every poll and then avoid updating from pool on fetching txs?
                 if (updateTxs) {
-                    synchronized (WALLET_LOCK) { // avoid long fetch from blocking other operations
-                        synchronized (HavenoUtils.getDaemonLock()) {
+                    try (XmrDaemonRequestScheduler.Permit permit = HavenoUtils.getDaemonRequestScheduler().acquire(Priority.LOW, MONERO_WALLET_NAME)) { // acquire before lock to not block others while queued
+                        synchronized (WALLET_LOCK) { // avoid long fetch from blocking other operations
                             try {
-                                cachedTxs = wallet.getTxs(new MoneroTxQuery().setIncludeOutputs(true));
+                                walletCache.refreshTxs(wallet, walletHeight.get());
                                 lastPollSuccessTimestamp = System.currentTimeMillis();
                             } catch (Exception e) { // fetch from pool can fail
                                 if (!isShutDownStarted) {
@@ -1857,7 +1851,7 @@ public class XmrWalletService {
 
     private MoneroSyncResult syncMainWallet() {
         synchronized (WALLET_LOCK) {
-            MoneroSyncResult result = syncWallet(wallet);
+            MoneroSyncResult result = syncWallet(wallet, MONERO_WALLET_NAME);
             walletHeight.set(wallet.getHeight());
             return result;
         }
@@ -1887,8 +1881,14 @@ public class XmrWalletService {
         long height = wallet.getHeight();
         BigInteger balance = wallet.getBalance();
         BigInteger unlockedBalance = wallet.getUnlockedBalance();
-        cachedSubaddresses = wallet.getSubaddresses(0);
-        cachedOutputs = wallet.getOutputs();
+
+        // update subaddress balances if height or balances changed, and outputs incrementally
+        boolean isChanged = cachedHeight == null || height != cachedHeight || !balance.equals(cachedBalance) || !unlockedBalance.equals(cachedAvailableBalance);
+        if (isChanged || !walletCache.isSubaddressesCached()) {
+            walletCache.refreshSubaddresses(wallet);
+            addAddressEntriesForSubaddresses();
+        }
+        walletCache.refreshOutputs(wallet);
 
         // cache and notify changes
         if (cachedHeight == null) {
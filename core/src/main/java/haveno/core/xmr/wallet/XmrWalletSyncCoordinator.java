@@ -0,0 +1,202 @@
+/*
+ * This file is part of Haveno.
+ *
+ * Haveno is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Haveno is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Haveno. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package haveno.core.xmr.wallet;
+
+import haveno.common.ThreadUtils;
+import haveno.core.api.XmrConnectionService;
+import lombok.extern.slf4j.Slf4j;
+import monero.common.TaskLooper;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.LongSupplier;
+
+/**
+ * Coordinates polling of many wallets (e.g. trade wallets) from one place.
+ *
+ * Rounds run on each new block and every refresh period. A round only polls the
+ * participants which need it: every active participant on a new block, participants
+ * watching the tx pool on every round, and idling participants once per idle period
+ * to keep their connection alive. Due participants are polled in parallel with
+ * bounded concurrency.
+ */
+@Slf4j
+public class XmrWalletSyncCoordinator {
+
+    public static final long IDLE_POLL_PERIOD_MS = 1680000; // 28 minutes (monero's default connection timeout is 30 minutes on a local connection, so beyond this the wallets will disconnect)
+    static final String THREAD_ID = XmrWalletSyncCoordinator.class.getSimpleName();
+    private static final int MAX_CONCURRENT_POLLS = 10;
+
+    public interface Participant {
+
+        /**
+         * @return true if polling the wallet has anything to do
+         */
+        boolean isPollRequired();
+
+        /**
+         * @return true if the wallet only needs to be polled once per idle period
+         */
+        boolean isIdling();
+
+        /**
+         * @return true if txs in the pool are relevant, so the wallet is polled between blocks
+         */
+        boolean isPoolWatched();
+
+        void poll();
+    }
+
+    private final LongSupplier refreshPeriodMs;
+    private final Map<Participant, Long> lastPollTimes = new LinkedHashMap<>(); // null until first poll
+    private final AtomicBoolean roundRequested = new AtomicBoolean(false);
+    private final AtomicBoolean newBlockPending = new AtomicBoolean(false);
+    private TaskLooper looper;
+    private long looperPeriodMs;
+    private boolean isShutDown;
+
+    public XmrWalletSyncCoordinator(XmrConnectionService xmrConnectionService) {
+        this.refreshPeriodMs = xmrConnectionService::getRefreshPeriodMs;
+
+        // poll on new blocks and restart looper with new refresh period on connection changes
+        xmrConnectionService.chainHeightProperty().addListener((observable, oldValue, newValue) -> requestRound(true));
+        xmrConnectionService.addConnectionListener(connection -> updateLooper());
+    }
+
+    XmrWalletSyncCoordinator(LongSupplier refreshPeriodMs) {
+        this.refreshPeriodMs = refreshPeriodMs;
+    }
+
+    /**
+     * Register a participant and poll it right away if required.
+     *
+     * @param participant - the participant to poll
+     */
+    public void register(Participant participant) {
+        synchronized (this) {
+            if (isShutDown) return;
+            if (lastPollTimes.containsKey(participant)) return;
+            lastPollTimes.put(participant, null);
+            updateLooper();
+        }
+        requestPoll(participant);
+    }
+
+    public void unregister(Participant participant) {
+        synchronized (this) {
+            lastPollTimes.remove(participant);
+            updateLooper();
+        }
+    }
+
+    public synchronized boolean isRegistered(Participant participant) {
+        return lastPollTimes.containsKey(participant);
+    }
+
+    public synchronized int getNumParticipants() {
+        return lastPollTimes.size();
+    }
+
+    /**
+     * Poll the given participant off the calling thread without waiting for the next round.
+     *
+     * @param participant - the participant to poll
+     */
+    public void requestPoll(Participant participant) {
+        ThreadUtils.submitToPool(() -> {
+            if (participant.isPollRequired()) poll(participant, System.currentTimeMillis());
+        });
+    }
+
+    /**
+     * Request a round off the calling thread. Requests made while a round is pending are coalesced.
+     *
+     * @param isNewBlock - true if requested because of a new block
+     */
+    public void requestRound(boolean isNewBlock) {
+        if (isNewBlock) newBlockPending.set(true);
+        if (!roundRequested.compareAndSet(false, true)) return;
+        ThreadUtils.execute(() -> {
+            roundRequested.set(false);
+            runRound(newBlockPending.getAndSet(false));
+        }, THREAD_ID);
+    }
+
+    public void shutDown() {
+        synchronized (this) {
+            isShutDown = true;
+            lastPollTimes.clear();
+            updateLooper();
+        }
+        ThreadUtils.shutDown(THREAD_ID);
+    }
+
+    void runRound(boolean isNewBlock) {
+        long now = System.currentTimeMillis();
+        List<Runnable> tasks = new ArrayList<>();
+        for (Participant participant : getDueParticipants(isNewBlock, now)) {
+            tasks.add(() -> poll(participant, now));
+        }
+        if (!tasks.isEmpty()) ThreadUtils.awaitTasks(tasks, MAX_CONCURRENT_POLLS);
+    }
+
+    synchronized List<Participant> getDueParticipants(boolean isNewBlock, long now) {
+        List<Participant> due = new ArrayList<>();
+        for (Map.Entry<Participant, Long> entry : lastPollTimes.entrySet()) {
+            if (isDue(entry.getKey(), entry.getValue(), isNewBlock, now)) due.add(entry.getKey());
+        }
+        return due;
+    }
+
+    private static boolean isDue(Participant participant, Long lastPollTime, boolean isNewBlock, long now) {
+        if (!participant.isPollRequired()) return false;
+        if (lastPollTime == null) return true;
+        if (participant.isIdling()) return now - lastPollTime >= IDLE_POLL_PERIOD_MS;
+        return isNewBlock || participant.isPoolWatched();
+    }
+
+    private void poll(Participant participant, long now) {
+        synchronized (this) {
+            if (!lastPollTimes.containsKey(participant)) return;
+            lastPollTimes.put(participant, now);
+        }
+        try {
+            participant.poll();
+        } catch (Exception e) {
+            log.warn("Error polling wallet sync participant: {}", e.getMessage());
+        }
+    }
+
+    // run rounds every refresh period while there are participants
+    private synchronized void updateLooper() {
+        boolean enabled = !isShutDown && !lastPollTimes.isEmpty();
+        long periodMs = refreshPeriodMs.getAsLong();
+        if (looper != null && (!enabled || looperPeriodMs != periodMs)) {
+            looper.stop();
+            looper = null;
+        }
+        if (enabled && looper == null) {
+            looper = new TaskLooper(() -> requestRound(false));
+            looper.start(periodMs);
+            looperPeriodMs = periodMs;
+        }
+    }
+}
@@ -0,0 +1,57 @@
+/*
+ * This file is part of Haveno.
+ *
+ * Haveno is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Haveno is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Haveno. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package haveno.core.api;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class CursorPageTest {
+    private static final List<String> ITEMS = List.of("3:c", "1:b", "2:a", "1:a");
+
+    private static CursorPage<String> page(String cursor, int limit) {
+        return CursorPage.of(ITEMS, item -> Long.parseLong(item.split(":")[0]), item -> item.split(":")[1], cursor, limit);
+    }
+
+    @Test
+    public void of_withoutCursorAndLimit_keepsOrder() {
+        CursorPage<String> page = page("", 0);
+        assertEquals(ITEMS, page.getItems());
+        assertEquals("", page.getNextCursor());
+    }
+
+    @Test
+    public void of_pagesByTimeAndId() {
+        CursorPage<String> first = page("", 2);
+        assertEquals(List.of("1:a", "1:b"), first.getItems());
+        assertEquals("1:b", first.getNextCursor());
+
+        CursorPage<String> second = page(first.getNextCursor(), 2);
+        assertEquals(List.of("2:a", "3:c"), second.getItems());
+        assertEquals("", second.getNextCursor());
+    }
+
+    @Test
+    public void of_invalidCursor() {
+        assertThrows(IllegalArgumentException.class, () -> page("abc", 2));
+    }
+}
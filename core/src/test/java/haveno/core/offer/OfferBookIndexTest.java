@@ -0,0 +1,103 @@
+/*
+ * This file is part of Haveno.
+ *
+ * Haveno is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Haveno is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Haveno. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package haveno.core.offer;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static com.natpryce.makeiteasy.MakeItEasy.make;
+import static com.natpryce.makeiteasy.MakeItEasy.with;
+import static haveno.core.offer.OfferMaker.btcUsdOffer;
+import static haveno.core.offer.OfferMaker.counterCurrencyCode;
+import static haveno.core.offer.OfferMaker.date;
+import static haveno.core.offer.OfferMaker.direction;
+import static haveno.core.offer.OfferMaker.id;
+import static haveno.core.offer.OfferMaker.price;
+import static haveno.core.offer.OfferMaker.reserveTxKeyImages;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class OfferBookIndexTest {
+
+    @Test
+    public void getOffers_byMarket() {
+        OfferBookIndex index = new OfferBookIndex();
+        Offer usdBuy1 = make(btcUsdOffer.but(with(id, "1"), with(price, 200L)));
+        Offer usdBuy2 = make(btcUsdOffer.but(with(id, "2"), with(price, 100L)));
+        Offer usdSell = make(btcUsdOffer.but(with(id, "3"), with(direction, OfferDirection.SELL)));
+        Offer eurBuy = make(btcUsdOffer.but(with(id, "4"), with(counterCurrencyCode, "EUR")));
+        List.of(usdBuy1, usdBuy2, usdSell, eurBuy).forEach(index::add);
+
+        List<Offer> usdBuyOffers = index.getOffers("usd", OfferDirection.BUY, null,
+                Comparator.comparing(offer -> offer.getOfferPayload().getPrice()));
+        assertEquals(List.of(usdBuy2, usdBuy1), usdBuyOffers);
+        assertEquals(List.of(usdSell), index.getOffers("USD", OfferDirection.SELL, null, null));
+        assertEquals(List.of(eurBuy), index.getOffers("EUR", null, "SEPA", null));
+        assertTrue(index.getOffers(null, null, "OTHER", null).isEmpty());
+        assertEquals(4, index.getOffers(null, null, null, null).size());
+    }
+
+    @Test
+    public void add_replacesOfferWithSameId() {
+        OfferBookIndex index = new OfferBookIndex();
+        index.add(make(btcUsdOffer.but(with(id, "1"))));
+        Offer eurOffer = make(btcUsdOffer.but(with(id, "1"), with(counterCurrencyCode, "EUR")));
+        index.add(eurOffer);
+
+        assertEquals(1, index.size());
+        assertSame(eurOffer, index.get("1"));
+        assertTrue(index.getOffers("USD", null, null, null).isEmpty());
+
+        assertSame(eurOffer, index.remove("1"));
+        assertNull(index.remove("1"));
+        assertEquals(List.of(), index.getOffers(null, null, null, null).stream()
+                .map(Offer::getId)
+                .collect(Collectors.toList()));
+    }
+
+    @Test
+    public void hasNewerOfferWithSameKeyImage_onlyNewestOfferIsKept() {
+        OfferBookIndex index = new OfferBookIndex();
+        Offer oldest = make(btcUsdOffer.but(with(id, "1"), with(date, 1000L), with(reserveTxKeyImages, List.of("a", "b"))));
+        Offer newest = make(btcUsdOffer.but(with(id, "2"), with(date, 3000L), with(reserveTxKeyImages, List.of("b"))));
+        Offer sameDateA = make(btcUsdOffer.but(with(id, "3"), with(date, 2000L), with(reserveTxKeyImages, List.of("c"))));
+        Offer sameDateB = make(btcUsdOffer.but(with(id, "4"), with(date, 2000L), with(reserveTxKeyImages, List.of("c"))));
+        Offer unshared = make(btcUsdOffer.but(with(id, "5"), with(date, 500L), with(reserveTxKeyImages, List.of("d"))));
+        Offer withoutKeyImages = make(btcUsdOffer.but(with(id, "6")));
+        // the result must not depend on the order the offers are added
+        List.of(newest, sameDateB, unshared, oldest, withoutKeyImages, sameDateA).forEach(index::add);
+
+        assertTrue(index.hasNewerOfferWithSameKeyImage(oldest));
+        assertFalse(index.hasNewerOfferWithSameKeyImage(newest));
+        assertFalse(index.hasNewerOfferWithSameKeyImage(sameDateA));
+        assertTrue(index.hasNewerOfferWithSameKeyImage(sameDateB));
+        assertFalse(index.hasNewerOfferWithSameKeyImage(unshared));
+        assertFalse(index.hasNewerOfferWithSameKeyImage(withoutKeyImages));
+
+        // once the newest offer is removed the older one is listed again
+        index.remove("2");
+        assertFalse(index.hasNewerOfferWithSameKeyImage(oldest));
+    }
+}
@@ -21,6 +21,8 @@ import com.natpryce.makeiteasy.Instantiator;
 import com.natpryce.makeiteasy.Maker;
 import com.natpryce.makeiteasy.Property;
 
+import java.util.List;
+
 import static com.natpryce.makeiteasy.MakeItEasy.a;
 
 public class OfferMaker {
@@ -34,10 +36,12 @@ public class OfferMaker {
     public static final Property<Offer, Boolean> useMarketBasedPrice = new Property<>();
     public static final Property<Offer, Double> marketPriceMargin = new Property<>();
     public static final Property<Offer, String> id = new Property<>();
+    public static final Property<Offer, Long> date = new Property<>();
+    public static final Property<Offer, List<String>> reserveTxKeyImages = new Property<>();
 
     public static final Instantiator<Offer> Offer = lookup -> new Offer(
             new OfferPayload(lookup.valueOf(id, "1234"),
-                    0L,
+                    lookup.valueOf(date, 0L),
                     null,
                     null,
                     lookup.valueOf(direction, OfferDirection.BUY),
@@ -73,7 +77,7 @@ public class OfferMaker {
                     0,
                     null,
                     null,
-                    null));
+                    lookup.valueOf(reserveTxKeyImages, (List<String>) null)));
 
     public static final Maker<Offer> btcUsdOffer = a(Offer);
 }
@@ -9,6 +9,7 @@ import haveno.common.persistence.PersistenceManager;
 import haveno.core.api.CoreContext;
 import haveno.core.api.XmrConnectionService;
 import haveno.core.trade.TradableList;
+import haveno.core.xmr.wallet.XmrKeyImageStatusService;
 import haveno.network.p2p.P2PService;
 import haveno.network.p2p.peers.PeerManager;
 import org.junit.jupiter.api.AfterEach;
@@ -54,6 +55,7 @@ public class OpenOfferManagerTest {
         P2PService p2PService = mock(P2PService.class);
         OfferBookService offerBookService = mock(OfferBookService.class);
         XmrConnectionService xmrConnectionService = mock(XmrConnectionService.class);
+        XmrKeyImageStatusService keyImageStatusService = mock(XmrKeyImageStatusService.class);
 
         when(p2PService.getPeerManager()).thenReturn(mock(PeerManager.class));
 
@@ -62,6 +64,7 @@ public class OpenOfferManagerTest {
                 null,
                 p2PService,
                 xmrConnectionService,
+                keyImageStatusService,
                 null,
                 null,
                 null,
@@ -103,6 +106,7 @@ public class OpenOfferManagerTest {
         P2PService p2PService = mock(P2PService.class);
         OfferBookService offerBookService = mock(OfferBookService.class);
         XmrConnectionService xmrConnectionService = mock(XmrConnectionService.class);
+        XmrKeyImageStatusService keyImageStatusService = mock(XmrKeyImageStatusService.class);
         when(p2PService.getPeerManager()).thenReturn(mock(PeerManager.class));
 
         final OpenOfferManager manager = new OpenOfferManager(coreContext,
@@ -110,6 +114,7 @@ public class OpenOfferManagerTest {
                 null,
                 p2PService,
                 xmrConnectionService,
+                keyImageStatusService,
                 null,
                 null,
                 null,
@@ -143,6 +148,7 @@ public class OpenOfferManagerTest {
         P2PService p2PService = mock(P2PService.class);
         OfferBookService offerBookService = mock(OfferBookService.class);
         XmrConnectionService xmrConnectionService = mock(XmrConnectionService.class);
+        XmrKeyImageStatusService keyImageStatusService = mock(XmrKeyImageStatusService.class);
 
         when(p2PService.getPeerManager()).thenReturn(mock(PeerManager.class));
 
@@ -152,6 +158,7 @@ public class OpenOfferManagerTest {
                 null,
                 p2PService,
                 xmrConnectionService,
+                keyImageStatusService,
                 null,
                 null,
                 null,
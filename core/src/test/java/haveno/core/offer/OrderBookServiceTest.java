@@ -0,0 +1,62 @@
+/*
+ * This file is part of Haveno.
+ *
+ * Haveno is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Haveno is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Haveno. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package haveno.core.offer;
+
+import haveno.core.provider.price.PriceFeedService;
+import javafx.beans.property.SimpleIntegerProperty;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.util.List;
+import java.util.Optional;
+
+import static com.natpryce.makeiteasy.MakeItEasy.make;
+import static com.natpryce.makeiteasy.MakeItEasy.with;
+import static haveno.core.offer.OfferMaker.btcUsdOffer;
+import static haveno.core.offer.OfferMaker.id;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class OrderBookServiceTest {
+
+    @Test
+    public void onAdded_ignoresOfferRemovedFromOfferBook() {
+        OfferBookService offerBookService = mock(OfferBookService.class);
+        PriceFeedService priceFeedService = mock(PriceFeedService.class);
+        when(offerBookService.getOffers()).thenReturn(List.of());
+        when(priceFeedService.updateCounterProperty()).thenReturn(new SimpleIntegerProperty());
+        OrderBookService orderBookService = new OrderBookService(offerBookService, priceFeedService);
+        ArgumentCaptor<OfferBookService.OfferBookChangedListener> listener =
+                ArgumentCaptor.forClass(OfferBookService.OfferBookChangedListener.class);
+        verify(offerBookService).addOfferBookChangedListener(listener.capture());
+
+        Offer offer = make(btcUsdOffer.but(with(id, "1")));
+        when(offerBookService.getOfferById("1")).thenReturn(Optional.of(offer));
+        listener.getValue().onAdded(offer);
+        assertFalse(orderBookService.getOrderBook("USD").isEmpty());
+
+        // The offer gets removed from the offer book while an update of the offer is notified
+        when(offerBookService.getOfferById("1")).thenReturn(Optional.empty());
+        listener.getValue().onRemoved(offer);
+        listener.getValue().onAdded(offer);
+        assertTrue(orderBookService.getOrderBook("USD").isEmpty());
+    }
+}
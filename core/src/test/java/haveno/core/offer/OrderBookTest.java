@@ -0,0 +1,83 @@
+/*
+ * This file is part of Haveno.
+ *
+ * Haveno is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Haveno is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Haveno. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package haveno.core.offer;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static com.natpryce.makeiteasy.MakeItEasy.make;
+import static com.natpryce.makeiteasy.MakeItEasy.with;
+import static haveno.core.offer.OfferMaker.amount;
+import static haveno.core.offer.OfferMaker.btcUsdOffer;
+import static haveno.core.offer.OfferMaker.direction;
+import static haveno.core.offer.OfferMaker.id;
+import static haveno.core.offer.OfferMaker.price;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class OrderBookTest {
+
+    @Test
+    public void getLevels_aggregatesAndOrdersBestPriceFirst() {
+        OrderBook orderBook = new OrderBook("USD");
+        orderBook.add(make(btcUsdOffer.but(with(id, "1"), with(price, 100L), with(amount, 10L))));
+        orderBook.add(make(btcUsdOffer.but(with(id, "2"), with(price, 300L), with(amount, 20L))));
+        orderBook.add(make(btcUsdOffer.but(with(id, "3"), with(price, 100L), with(amount, 30L))));
+        orderBook.add(make(btcUsdOffer.but(with(id, "4"), with(price, 200L), with(amount, 40L),
+                with(direction, OfferDirection.SELL))));
+        orderBook.add(make(btcUsdOffer.but(with(id, "5"), with(price, 150L), with(amount, 50L),
+                with(direction, OfferDirection.SELL))));
+
+        List<OrderBook.PriceLevel> buyLevels = orderBook.getLevels(OfferDirection.BUY, 0);
+        assertEquals(List.of(300L, 100L), getPrices(buyLevels));
+        assertEquals(List.of(20L, 60L), getCumulativeAmounts(buyLevels));
+        assertEquals(2, buyLevels.get(1).getNumOffers());
+
+        List<OrderBook.PriceLevel> sellLevels = orderBook.getLevels(OfferDirection.SELL, 0);
+        assertEquals(List.of(150L, 200L), getPrices(sellLevels));
+        assertEquals(150L, orderBook.getTopOfBook(OfferDirection.SELL).getPrice().getValue());
+        assertEquals(1, orderBook.getLevels(OfferDirection.SELL, 1).size());
+    }
+
+    @Test
+    public void remove_updatesLevels() {
+        OrderBook orderBook = new OrderBook("USD");
+        orderBook.add(make(btcUsdOffer.but(with(id, "1"), with(price, 100L), with(amount, 10L))));
+        orderBook.add(make(btcUsdOffer.but(with(id, "2"), with(price, 100L), with(amount, 30L))));
+        assertEquals(List.of(40L), getCumulativeAmounts(orderBook.getLevels(OfferDirection.BUY, 0)));
+
+        orderBook.remove("1");
+        assertEquals(List.of(30L), getCumulativeAmounts(orderBook.getLevels(OfferDirection.BUY, 0)));
+
+        orderBook.remove("2");
+        assertTrue(orderBook.isEmpty());
+        assertNull(orderBook.getTopOfBook(OfferDirection.BUY));
+    }
+
+    private static List<Long> getPrices(List<OrderBook.PriceLevel> levels) {
+        return levels.stream().map(level -> level.getPrice().getValue()).collect(Collectors.toList());
+    }
+
+    private static List<Long> getCumulativeAmounts(List<OrderBook.PriceLevel> levels) {
+        return levels.stream().map(OrderBook.PriceLevel::getCumulativeAmount).collect(Collectors.toList());
+    }
+}
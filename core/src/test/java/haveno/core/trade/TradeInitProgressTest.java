@@ -0,0 +1,104 @@
+/*
+ * This file is part of Haveno.
+ *
+ * Haveno is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Haveno is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Haveno. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package haveno.core.trade;
+
+import haveno.core.trade.TradeInitProgress.Priority;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class TradeInitProgressTest {
+
+    @Test
+    public void priority_ordersUrgentTradesFirst() {
+        assertEquals(Priority.DISPUTED, Priority.of(mockTrade("disputed", Trade.DisputeState.DISPUTE_OPENED, true, true, false)));
+        assertEquals(Priority.PAYMENT_SENT, Priority.of(mockTrade("paymentSent", Trade.DisputeState.NO_DISPUTE, true, true, false)));
+        assertEquals(Priority.DEPOSIT_PENDING, Priority.of(mockTrade("depositPending", Trade.DisputeState.NO_DISPUTE, false, false, false)));
+        assertEquals(Priority.ACTIVE, Priority.of(mockTrade("active", Trade.DisputeState.NO_DISPUTE, false, true, false)));
+        assertEquals(Priority.IDLE, Priority.of(mockTrade("idle", Trade.DisputeState.NO_DISPUTE, false, true, true)));
+        assertEquals(Priority.IDLE, Priority.of(mockTrade("closedDispute", Trade.DisputeState.DISPUTE_CLOSED, false, true, true)));
+    }
+
+    @Test
+    public void progress_tracksTimingsAndCounts() {
+        TradeInitProgress progress = new TradeInitProgress();
+        assertEquals(0, progress.getStartTime());
+        progress.onInitStarted();
+        assertTrue(progress.getStartTime() > 0);
+        Trade trade1 = mockTrade("trade1", Trade.DisputeState.NO_DISPUTE, false, true, false);
+        Trade trade2 = mockTrade("trade2", Trade.DisputeState.NO_DISPUTE, false, true, false);
+        progress.setNumTrades(2);
+        progress.onStarted(trade1, Priority.ACTIVE);
+        progress.onStarted(trade2, Priority.ACTIVE);
+        assertEquals(-1, progress.getTimings().get(0).getDurationMs());
+
+        progress.onCompleted(trade1, null);
+        progress.onCompleted(trade2, new IllegalStateException("boom"));
+        assertFalse(progress.isComplete());
+        progress.setComplete();
+
+        assertTrue(progress.isComplete());
+        assertEquals(1, progress.getNumInitialized());
+        assertEquals(1, progress.getNumFailed());
+        assertEquals(List.of("trade1", "trade2"), progress.getTimings().stream().map(TradeInitProgress.TradeInitTiming::getTradeId).collect(Collectors.toList()));
+        assertTrue(progress.getTimings().get(0).getDurationMs() >= 0);
+        assertEquals("boom", progress.getTimings().get(1).getError());
+    }
+
+    @Test
+    public void progress_tracksTradesWithSameIdSeparately() {
+        TradeInitProgress progress = new TradeInitProgress();
+        Trade trade1 = mockTrade("trade", "uid1", Trade.DisputeState.NO_DISPUTE, false, true, false);
+        Trade trade2 = mockTrade("trade", "uid2", Trade.DisputeState.NO_DISPUTE, false, true, false);
+        progress.setNumTrades(2);
+        progress.onStarted(trade1, Priority.ACTIVE);
+        progress.onStarted(trade2, Priority.ACTIVE);
+        progress.onCompleted(trade1, null);
+        progress.onCompleted(trade2, new IllegalStateException("boom"));
+
+        assertEquals(2, progress.getTimings().size());
+        assertEquals(1, progress.getNumInitialized());
+        assertEquals(1, progress.getNumFailed());
+        assertNull(progress.getTimings().get(0).getError());
+        assertEquals("boom", progress.getTimings().get(1).getError());
+    }
+
+    private static Trade mockTrade(String id, Trade.DisputeState disputeState, boolean isPaymentSent, boolean isDepositsUnlocked, boolean isIdling) {
+        return mockTrade(id, id, disputeState, isPaymentSent, isDepositsUnlocked, isIdling);
+    }
+
+    private static Trade mockTrade(String id, String uid, Trade.DisputeState disputeState, boolean isPaymentSent, boolean isDepositsUnlocked, boolean isIdling) {
+        Trade trade = mock(Trade.class);
+        when(trade.getId()).thenReturn(id);
+        when(trade.getUid()).thenReturn(uid);
+        when(trade.getDisputeState()).thenReturn(disputeState);
+        when(trade.isPaymentSent()).thenReturn(isPaymentSent);
+        when(trade.isDepositRequested()).thenReturn(true);
+        when(trade.isDepositsUnlocked()).thenReturn(isDepositsUnlocked);
+        when(trade.isIdling()).thenReturn(isIdling);
+        return trade;
+    }
+}
@@ -0,0 +1,133 @@
+/*
+ * This file is part of Haveno.
+ *
+ * Haveno is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Haveno is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Haveno. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package haveno.core.trade.statistics;
+
+import haveno.core.monetary.Price;
+import haveno.core.monetary.TraditionalMoney;
+import haveno.core.payment.payload.PaymentMethod;
+import haveno.core.trade.HavenoUtils;
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableSet;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class TradeStatisticsCandleServiceTest {
+    private final long noon = LocalDateTime.of(2024, 6, 10, 12, 0)
+            .atZone(ZoneOffset.UTC).toInstant().toEpochMilli();
+    private final long dayStart = LocalDateTime.of(2024, 6, 10, 0, 0)
+            .atZone(ZoneOffset.UTC).toInstant().toEpochMilli();
+    private final long previousDay = noon - 24 * 60 * 60 * 1000;
+
+    private ObservableSet<TradeStatistics3> set;
+    private TradeStatisticsCandleService candleService;
+
+    @BeforeEach
+    public void setUp() {
+        set = FXCollections.observableSet();
+        set.add(tradeStatistics("520", noon));
+        set.add(tradeStatistics("500", noon + 100));
+        set.add(tradeStatistics("450", previousDay));
+
+        TradeStatisticsManager tradeStatisticsManager = mock(TradeStatisticsManager.class);
+        when(tradeStatisticsManager.getObservableTradeStatisticsSet()).thenReturn(set);
+        candleService = new TradeStatisticsCandleService(tradeStatisticsManager);
+    }
+
+    @Test
+    public void getCandles_aggregatesIncrementally() {
+        // added after the candle service was created
+        set.add(tradeStatistics("600", noon + 200));
+        set.add(tradeStatistics("580", noon + 300));
+
+        List<TradeStatisticsCandle> candles = candleService.getCandles("EUR", CandleInterval.DAY, noon, Long.MAX_VALUE);
+        assertEquals(1, candles.size());
+        TradeStatisticsCandle candle = candles.get(0);
+        assertEquals(dayStart, candle.getStartTime());
+        assertEquals(price("520"), candle.getOpen());
+        assertEquals(price("580"), candle.getClose());
+        assertEquals(price("600"), candle.getHigh());
+        assertEquals(price("500"), candle.getLow());
+        assertEquals(price("550"), candle.getAverage());
+        assertEquals(price("550"), candle.getMedian());
+        assertEquals(HavenoUtils.xmrToAtomicUnits(4).longValue(), candle.getAccumulatedAmount());
+        assertEquals(TraditionalMoney.parseTraditionalMoney("EUR", "2200").value, candle.getAccumulatedVolume());
+        assertEquals(4, candle.getNumTrades());
+    }
+
+    @Test
+    public void getCandles_updatesMedianOfRequestedCandle() {
+        assertEquals(price("510"), candleService.getCandles("EUR", CandleInterval.DAY, noon, Long.MAX_VALUE).get(0).getMedian());
+
+        // prices added out of order after the median was computed
+        set.add(tradeStatistics("400", noon + 200));
+        set.add(tradeStatistics("700", noon + 300));
+        set.add(tradeStatistics("300", noon + 400));
+        assertEquals(price("500"), candleService.getCandles("EUR", CandleInterval.DAY, noon, Long.MAX_VALUE).get(0).getMedian());
+    }
+
+    @Test
+    public void getCandles_filtersByRangeAndLimit() {
+        assertEquals(2, candleService.getCandles("EUR", CandleInterval.DAY, 0, Long.MAX_VALUE).size());
+        assertEquals(1, candleService.getCandles("EUR", CandleInterval.DAY, 0, dayStart).size());
+        assertEquals(dayStart - 24 * 60 * 60 * 1000,
+                candleService.getCandles("EUR", CandleInterval.DAY, 0, Long.MAX_VALUE, 1).get(0).getStartTime());
+        assertTrue(candleService.getCandles("USD", CandleInterval.DAY, 0, Long.MAX_VALUE).isEmpty());
+    }
+
+    @Test
+    public void getCandles_inOtherZone() {
+        // noon UTC is 22:00 of the previous day in UTC-14, so the day starts at 14:00 UTC of the previous day
+        ZoneId zoneId = ZoneOffset.ofHours(-14);
+        List<TradeStatisticsCandle> candles = candleService.getCandles("EUR", CandleInterval.DAY, 0, Long.MAX_VALUE, Integer.MAX_VALUE, zoneId);
+        assertEquals(2, candles.size());
+        assertEquals(CandleInterval.DAY.getStartTime(noon, zoneId), candles.get(1).getStartTime());
+        assertEquals(dayStart - 10 * 60 * 60 * 1000, candles.get(1).getStartTime());
+
+        // the candles of the other zone get updated as well
+        set.add(tradeStatistics("600", noon + 200));
+        assertEquals(3, candleService.getCandles("EUR", CandleInterval.DAY, 0, Long.MAX_VALUE, Integer.MAX_VALUE, zoneId)
+                .get(1).getNumTrades());
+        assertEquals(3, candleService.getCandles("EUR", CandleInterval.DAY, 0, Long.MAX_VALUE).get(1).getNumTrades());
+    }
+
+    private static TradeStatistics3 tradeStatistics(String price, long date) {
+        return new TradeStatistics3("EUR",
+                price(price),
+                HavenoUtils.xmrToAtomicUnits(1).longValue(),
+                PaymentMethod.BLOCK_CHAINS_ID,
+                date,
+                null,
+                null,
+                null);
+    }
+
+    private static long price(String price) {
+        return Price.parse("EUR", price).getValue();
+    }
+}
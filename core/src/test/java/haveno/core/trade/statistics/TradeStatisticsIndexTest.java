@@ -0,0 +1,67 @@
+/*
+ * This file is part of Haveno.
+ *
+ * Haveno is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Haveno is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Haveno. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package haveno.core.trade.statistics;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class TradeStatisticsIndexTest {
+
+    private static TradeStatistics3 tradeStatistics(String currency, long price, long amount, long date) {
+        return new TradeStatistics3(currency, price, amount, "SEPA", date, null, null, null);
+    }
+
+    @Test
+    public void hasLenientDuplicate_acrossWindowBoundary() {
+        TradeStatisticsIndex index = new TradeStatisticsIndex();
+        long windowEnd = 10 * TradeStatisticsIndex.LENIENT_DUPLICATE_WINDOW_MS;
+        index.add(tradeStatistics("EUR", 100, 1000, windowEnd - 1000));
+
+        assertTrue(index.hasLenientDuplicate(tradeStatistics("EUR", 100, 1000, windowEnd + 1000)));
+        assertFalse(index.hasLenientDuplicate(tradeStatistics("EUR", 100, 1000, windowEnd - 1000 + TradeStatisticsIndex.LENIENT_DUPLICATE_WINDOW_MS)));
+        assertFalse(index.hasLenientDuplicate(tradeStatistics("EUR", 101, 1000, windowEnd)));
+        assertFalse(index.hasLenientDuplicate(tradeStatistics("USD", 100, 1000, windowEnd)));
+    }
+
+    @Test
+    public void getTradeStatistics_rangeAndLatest() {
+        TradeStatisticsIndex index = new TradeStatisticsIndex();
+        TradeStatistics3 first = tradeStatistics("EUR", 100, 1000, 1000);
+        TradeStatistics3 second = tradeStatistics("EUR", 101, 1000, 2000);
+        TradeStatistics3 third = tradeStatistics("EUR", 102, 1000, 3000);
+        index.add(third);
+        index.add(first);
+        index.add(second);
+        index.add(tradeStatistics("USD", 100, 1000, 2000));
+        assertFalse(index.add(second));
+
+        assertEquals(4, index.size());
+        assertEquals(List.of(first, second), index.getTradeStatistics("EUR", 1000, 3000));
+        assertTrue(index.getTradeStatistics("XMR", 0, Long.MAX_VALUE).isEmpty());
+        assertSame(third, index.getLatest("EUR"));
+        assertNull(index.getLatest("XMR"));
+    }
+}
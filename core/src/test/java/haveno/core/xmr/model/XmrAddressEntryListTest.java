@@ -0,0 +1,100 @@
+/*
+ * This file is part of Haveno.
+ *
+ * Haveno is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Haveno is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Haveno. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package haveno.core.xmr.model;
+
+import haveno.common.persistence.PersistenceManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+public class XmrAddressEntryListTest {
+    private XmrAddressEntryList addressEntryList;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    public void setUp() {
+        addressEntryList = new XmrAddressEntryList(mock(PersistenceManager.class));
+    }
+
+    @Test
+    public void testIndexesFollowSwaps() {
+        XmrAddressEntry available = new XmrAddressEntry(1, "address1", XmrAddressEntry.Context.AVAILABLE);
+        addressEntryList.addAddressEntry(available);
+        assertEquals(available, addressEntryList.findAddressEntry("address1", XmrAddressEntry.Context.AVAILABLE).get());
+
+        XmrAddressEntry funding = addressEntryList.swapAvailableToAddressEntryWithOfferId(available, XmrAddressEntry.Context.OFFER_FUNDING, "offer1");
+        assertEquals(funding, addressEntryList.getAddressEntry("offer1", XmrAddressEntry.Context.OFFER_FUNDING).get());
+        assertFalse(addressEntryList.findAddressEntry("address1", XmrAddressEntry.Context.AVAILABLE).isPresent());
+        assertTrue(addressEntryList.getAddressEntries(XmrAddressEntry.Context.AVAILABLE).isEmpty());
+        assertEquals(1, addressEntryList.getAddressEntriesForSubaddress(1).size());
+
+        addressEntryList.swapToAvailable(funding);
+        assertFalse(addressEntryList.getAddressEntry("offer1", XmrAddressEntry.Context.OFFER_FUNDING).isPresent());
+        assertEquals(1, addressEntryList.getAddressEntries(XmrAddressEntry.Context.AVAILABLE).size());
+        assertTrue(addressEntryList.hasAddressEntry("address1"));
+    }
+
+    @Test
+    public void testRejectsDuplicateOfferIdAndContext() {
+        addressEntryList.addAddressEntry(new XmrAddressEntry(1, "address1", XmrAddressEntry.Context.OFFER_FUNDING, "offer1", null));
+        assertThrows(IllegalArgumentException.class, () -> addressEntryList.addAddressEntry(new XmrAddressEntry(2, "address2", XmrAddressEntry.Context.OFFER_FUNDING, "offer1", null)));
+        assertEquals(1, addressEntryList.getAddressEntriesAsListImmutable().size());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testKeepsFirstPersistedEntryOfDuplicateOfferIdAndContext() {
+        XmrAddressEntry entry1 = new XmrAddressEntry(1, "address1", XmrAddressEntry.Context.OFFER_FUNDING, "offer1", null);
+        XmrAddressEntry entry2 = new XmrAddressEntry(2, "address2", XmrAddressEntry.Context.OFFER_FUNDING, "offer1", null);
+        XmrAddressEntryList persisted = XmrAddressEntryList.fromProto(protobuf.XmrAddressEntryList.newBuilder()
+                .addXmrAddressEntry(entry1.toProtoMessage())
+                .addXmrAddressEntry(entry2.toProtoMessage())
+                .build());
+        assertEquals(1, persisted.getAddressEntriesAsListImmutable().size());
+
+        PersistenceManager<XmrAddressEntryList> persistenceManager = mock(PersistenceManager.class);
+        doAnswer(invocation -> {
+            ((Consumer<XmrAddressEntryList>) invocation.getArgument(0)).accept(persisted);
+            return null;
+        }).when(persistenceManager).readPersisted(any(Consumer.class), any(Runnable.class));
+        addressEntryList = new XmrAddressEntryList(persistenceManager);
+        addressEntryList.readPersisted(() -> {});
+
+        assertEquals(entry1, addressEntryList.getAddressEntry("offer1", XmrAddressEntry.Context.OFFER_FUNDING).get());
+        assertEquals(1, addressEntryList.getAddressEntriesAsListImmutable().size());
+        assertFalse(addressEntryList.hasAddressEntry("address2"));
+    }
+
+    @Test
+    public void testClear() {
+        addressEntryList.addAddressEntry(new XmrAddressEntry(1, "address1", XmrAddressEntry.Context.AVAILABLE));
+        addressEntryList.clear();
+        assertFalse(addressEntryList.hasAddressEntry("address1"));
+        assertTrue(addressEntryList.getAddressEntries(XmrAddressEntry.Context.AVAILABLE).isEmpty());
+    }
+}
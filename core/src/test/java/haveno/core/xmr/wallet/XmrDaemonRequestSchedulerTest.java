@@ -0,0 +1,111 @@
+/*
+ * This file is part of Haveno.
+ *
+ * Haveno is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Haveno is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Haveno. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package haveno.core.xmr.wallet;
+
+import haveno.core.xmr.wallet.XmrDaemonRequestScheduler.Priority;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class XmrDaemonRequestSchedulerTest {
+
+    @Test
+    public void acquire_grantsByPriorityThenRoundRobinAcrossCallers() throws Exception {
+        XmrDaemonRequestScheduler scheduler = new XmrDaemonRequestScheduler(1);
+        List<String> grants = Collections.synchronizedList(new ArrayList<>());
+        List<Thread> threads = new ArrayList<>();
+
+        XmrDaemonRequestScheduler.Permit blocking = scheduler.acquire(Priority.NORMAL, "blocking");
+        threads.add(enqueue(scheduler, Priority.LOW, "a", grants, 1));
+        threads.add(enqueue(scheduler, Priority.HIGH, "b", grants, 2));
+        threads.add(enqueue(scheduler, Priority.HIGH, "b", grants, 3));
+        threads.add(enqueue(scheduler, Priority.HIGH, "c", grants, 4));
+        blocking.close();
+        for (Thread thread : threads) thread.join();
+
+        assertEquals(List.of("b", "c", "b", "a"), grants);
+        assertEquals(0, scheduler.getNumActive());
+        XmrDaemonRequestScheduler.Metrics highMetrics = scheduler.getMetrics().get(Priority.HIGH.ordinal());
+        assertEquals(Priority.HIGH, highMetrics.getPriority());
+        assertEquals(3, highMetrics.getNumGranted());
+        assertEquals(0, highMetrics.getNumQueued());
+    }
+
+    @Test
+    public void acquire_isReentrantPerThread() {
+        XmrDaemonRequestScheduler scheduler = new XmrDaemonRequestScheduler(1);
+        try (XmrDaemonRequestScheduler.Permit outer = scheduler.acquire(Priority.HIGH, "trade")) {
+            try (XmrDaemonRequestScheduler.Permit inner = scheduler.acquire(Priority.NORMAL, "trade")) {
+                assertEquals(1, scheduler.getNumActive());
+            }
+            assertEquals(1, scheduler.getNumActive());
+        }
+        assertEquals(0, scheduler.getNumActive());
+    }
+
+    @Test
+    public void acquire_grantsLowPriorityUnderSustainedHighPriorityLoad() throws Exception {
+        XmrDaemonRequestScheduler scheduler = new XmrDaemonRequestScheduler(3, 20);
+        AtomicBoolean stopped = new AtomicBoolean();
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            String callerId = "trade" + i;
+            Thread thread = new Thread(() -> {
+                while (!stopped.get()) {
+                    try (XmrDaemonRequestScheduler.Permit permit = scheduler.acquire(Priority.HIGH, callerId)) {
+                        Thread.sleep(5);
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                }
+            });
+            thread.start();
+            threads.add(thread);
+        }
+        while (scheduler.getMetrics().get(Priority.HIGH.ordinal()).getNumQueued() == 0) Thread.sleep(5);
+
+        Thread lowThread = new Thread(() -> scheduler.acquire(Priority.LOW, "main").close());
+        lowThread.start();
+        lowThread.join(10000);
+        boolean lowGranted = !lowThread.isAlive();
+        stopped.set(true);
+        for (Thread thread : threads) thread.join();
+        lowThread.join();
+
+        assertTrue(lowGranted);
+        assertEquals(1, scheduler.getMetrics().get(Priority.LOW.ordinal()).getNumGranted());
+    }
+
+    // start a thread requesting a permit and wait until its request is queued
+    private Thread enqueue(XmrDaemonRequestScheduler scheduler, Priority priority, String callerId, List<String> grants, int expectedQueued) throws InterruptedException {
+        Thread thread = new Thread(() -> {
+            try (XmrDaemonRequestScheduler.Permit permit = scheduler.acquire(priority, callerId)) {
+                grants.add(callerId);
+            }
+        });
+        thread.start();
+        while (scheduler.getMetrics().stream().mapToInt(XmrDaemonRequestScheduler.Metrics::getNumQueued).sum() < expectedQueued) Thread.sleep(5);
+        return thread;
+    }
+}
@@ -0,0 +1,145 @@
+/*
+ * This file is part of Haveno.
+ *
+ * Haveno is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Haveno is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Haveno. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package haveno.core.xmr.wallet;
+
+import haveno.common.ThreadUtils;
+import monero.daemon.MoneroDaemon;
+import monero.daemon.model.MoneroKeyImageSpentStatus;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class XmrKeyImageStatusServiceTest {
+    private final Map<String, MoneroKeyImageSpentStatus> daemonStatuses = new HashMap<>();
+    private final List<List<String>> requests = new ArrayList<>();
+    private XmrKeyImageStatusService service;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    public void setUp() {
+        MoneroDaemon daemon = mock(MoneroDaemon.class);
+        when(daemon.getKeyImageSpentStatuses(anyList())).thenAnswer(invocation -> {
+            List<String> keyImages = invocation.getArgument(0);
+            synchronized (requests) {
+                requests.add(new ArrayList<>(keyImages));
+            }
+            return keyImages.stream()
+                    .map(keyImage -> daemonStatuses.getOrDefault(keyImage, MoneroKeyImageSpentStatus.NOT_SPENT))
+                    .collect(Collectors.toList());
+        });
+        service = new XmrKeyImageStatusService(() -> daemon);
+    }
+
+    @Test
+    public void poll_deduplicatesAndNotifiesOnlyChangesOfSubscribedKeyImages() {
+        RecordingListener listener1 = new RecordingListener();
+        RecordingListener listener2 = new RecordingListener();
+        service.addKeyImages(listener1, List.of("a", "b"));
+        service.addKeyImages(listener2, List.of("a", "c"));
+        awaitPendingTasks();
+
+        assertEquals(3, service.getNumKeyImages());
+        for (List<String> request : requests) assertEquals(request.size(), new HashSet<>(request).size());
+        assertEquals(Map.of("a", MoneroKeyImageSpentStatus.NOT_SPENT, "b", MoneroKeyImageSpentStatus.NOT_SPENT), listener1.merged());
+        assertEquals(Map.of("a", MoneroKeyImageSpentStatus.NOT_SPENT, "c", MoneroKeyImageSpentStatus.NOT_SPENT), listener2.merged());
+
+        // only changed statuses are announced, and only to subscribers of the key image
+        listener1.changes.clear();
+        listener2.changes.clear();
+        daemonStatuses.put("b", MoneroKeyImageSpentStatus.CONFIRMED);
+        service.poll();
+        assertEquals(List.of(Map.of("b", MoneroKeyImageSpentStatus.CONFIRMED)), listener1.changes);
+        assertTrue(listener2.changes.isEmpty());
+        assertTrue(service.isSpent("b"));
+        assertEquals(false, service.isSpent("a"));
+    }
+
+    @Test
+    public void addKeyImages_deliversKnownStatusesToNewSubscriber() {
+        RecordingListener listener1 = new RecordingListener();
+        daemonStatuses.put("a", MoneroKeyImageSpentStatus.CONFIRMED);
+        service.addKeyImages(listener1, List.of("a"));
+        awaitPendingTasks();
+
+        RecordingListener listener2 = new RecordingListener();
+        service.addKeyImages(listener2, List.of("a"));
+        awaitPendingTasks();
+        assertEquals(Map.of("a", MoneroKeyImageSpentStatus.CONFIRMED), listener2.merged());
+    }
+
+    @Test
+    public void removeKeyImages_keepsKeyImagesUsedByOtherSubscribers() {
+        RecordingListener listener1 = new RecordingListener();
+        RecordingListener listener2 = new RecordingListener();
+        service.addKeyImages(listener1, List.of("a", "b"));
+        service.addKeyImages(listener2, List.of("a"));
+        awaitPendingTasks();
+
+        service.removeListener(listener1);
+        assertEquals(1, service.getNumKeyImages());
+        assertEquals(false, service.isSpent("a"));
+        assertEquals(null, service.isSpent("b"));
+    }
+
+    @Test
+    public void poll_fetchesKeyImagesInChunks() {
+        List<String> keyImages = IntStream.range(0, XmrKeyImageStatusService.MAX_KEY_IMAGES_PER_REQUEST * 2 + 5)
+                .mapToObj(i -> "ki" + i)
+                .collect(Collectors.toList());
+        RecordingListener listener = new RecordingListener();
+        service.addKeyImages(listener, keyImages);
+        awaitPendingTasks();
+
+        assertEquals(List.of(XmrKeyImageStatusService.MAX_KEY_IMAGES_PER_REQUEST, XmrKeyImageStatusService.MAX_KEY_IMAGES_PER_REQUEST, 5),
+                requests.stream().map(List::size).collect(Collectors.toList()));
+        assertEquals(keyImages.size(), listener.merged().size());
+    }
+
+    private void awaitPendingTasks() {
+        ThreadUtils.await(() -> {}, XmrKeyImageStatusService.THREAD_ID);
+        ThreadUtils.await(() -> {}, XmrKeyImageStatusService.THREAD_ID);
+    }
+
+    private static class RecordingListener implements XmrKeyImageListener {
+        private final List<Map<String, MoneroKeyImageSpentStatus>> changes = new ArrayList<>();
+
+        @Override
+        public synchronized void onSpentStatusChanged(Map<String, MoneroKeyImageSpentStatus> spentStatuses) {
+            changes.add(spentStatuses);
+        }
+
+        private synchronized Map<String, MoneroKeyImageSpentStatus> merged() {
+            Map<String, MoneroKeyImageSpentStatus> merged = new HashMap<>();
+            changes.forEach(merged::putAll);
+            return merged;
+        }
+    }
+}
@@ -0,0 +1,89 @@
+/*
+ * This file is part of Haveno.
+ *
+ * Haveno is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Haveno is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Haveno. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package haveno.core.xmr.wallet;
+
+import monero.daemon.model.MoneroTx;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class XmrTxCacheTest {
+    private final List<List<String>> requests = new ArrayList<>();
+
+    private synchronized List<MoneroTx> fetch(List<String> txHashes) {
+        requests.add(new ArrayList<>(txHashes));
+        return txHashes.stream()
+                .filter(txHash -> !txHash.equals("unknown"))
+                .map(txHash -> new MoneroTx().setHash(txHash))
+                .collect(Collectors.toList());
+    }
+
+    @Test
+    public void getTxs_onlyFetchesMissingHashes() {
+        XmrTxCache txCache = new XmrTxCache(this::fetch, () -> 60000);
+        txCache.getTxs(List.of("a", "b"), true);
+        List<MoneroTx> txs = txCache.getTxs(List.of("c", "b", "unknown", "a"), true);
+
+        assertEquals(List.of("c", "b", "a"), txs.stream().map(MoneroTx::getHash).collect(Collectors.toList()));
+        assertEquals(List.of(List.of("a", "b"), List.of("c", "unknown")), requests.stream().map(r -> r.stream().sorted().collect(Collectors.toList())).collect(Collectors.toList()));
+        assertEquals(2, txCache.getMetrics().getNumHits());
+        assertEquals(3, txCache.getMetrics().getSize());
+    }
+
+    @Test
+    public void getTxs_withoutCacheRefetches() {
+        XmrTxCache txCache = new XmrTxCache(this::fetch, () -> 60000);
+        txCache.getTxs(List.of("a"), true);
+        txCache.getTxs(List.of("a"), false);
+        assertEquals(2, requests.size());
+    }
+
+    @Test
+    public void getTxs_coalescesInFlightRequests() throws Exception {
+        CountDownLatch fetchStarted = new CountDownLatch(1);
+        CountDownLatch releaseFetch = new CountDownLatch(1);
+        XmrTxCache txCache = new XmrTxCache(txHashes -> {
+            fetchStarted.countDown();
+            try {
+                releaseFetch.await();
+            } catch (InterruptedException e) {
+                throw new RuntimeException(e);
+            }
+            return fetch(txHashes);
+        }, () -> 60000);
+
+        CompletableFuture<List<MoneroTx>> first = CompletableFuture.supplyAsync(() -> txCache.getTxs(List.of("a"), true));
+        assertTrue(fetchStarted.await(10, TimeUnit.SECONDS));
+        CompletableFuture<List<MoneroTx>> second = CompletableFuture.supplyAsync(() -> txCache.getTxs(List.of("a"), true));
+        while (txCache.getMetrics().getNumCoalesced() == 0) Thread.sleep(10);
+        releaseFetch.countDown();
+
+        assertEquals("a", first.get(10, TimeUnit.SECONDS).get(0).getHash());
+        assertEquals("a", second.get(10, TimeUnit.SECONDS).get(0).getHash());
+        assertEquals(1, requests.size());
+    }
+}
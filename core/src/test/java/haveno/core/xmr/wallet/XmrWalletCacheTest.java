@@ -0,0 +1,84 @@
+/*
+ * This file is part of Haveno.
+ *
+ * Haveno is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Haveno is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Haveno. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package haveno.core.xmr.wallet;
+
+import monero.daemon.model.MoneroKeyImage;
+import monero.wallet.model.MoneroOutputWallet;
+import monero.wallet.model.MoneroTxWallet;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class XmrWalletCacheTest {
+
+    private static MoneroTxWallet confirmedTx(String hash, long height) {
+        return new MoneroTxWallet().setHash(hash).setIsConfirmed(true).setHeight(height);
+    }
+
+    private static MoneroTxWallet unconfirmedTx(String hash) {
+        return new MoneroTxWallet().setHash(hash).setIsConfirmed(false);
+    }
+
+    private static MoneroOutputWallet output(String keyImage) {
+        return new MoneroOutputWallet().setKeyImage(new MoneroKeyImage(keyImage)).setIsSpent(false);
+    }
+
+    @Test
+    public void testApplyTxs() {
+        XmrWalletCache cache = new XmrWalletCache();
+        cache.addTx(confirmedTx("old", 90));
+        cache.addTx(unconfirmedTx("dropped"));
+        cache.addTx(unconfirmedTx("pending"));
+
+        cache.applyTxs(List.of(unconfirmedTx("new")), List.of(confirmedTx("pending", 99)), 100);
+
+        List<String> hashes = cache.getTxs().stream().map(MoneroTxWallet::getHash).toList();
+        assertEquals(List.of("old", "pending", "new"), hashes);
+        assertEquals(10L, cache.getTxs().get(0).getNumConfirmations());
+        assertTrue(cache.getTxs().get(1).isConfirmed());
+    }
+
+    @Test
+    public void testApplyUnspentOutputs() {
+        XmrWalletCache cache = new XmrWalletCache();
+        cache.applyUnspentOutputs(List.of(output("a"), output("b")));
+        cache.applyUnspentOutputs(List.of(output("b"), output("c")));
+
+        List<MoneroOutputWallet> outputs = cache.getOutputs();
+        assertEquals(3, outputs.size());
+        assertTrue(outputs.get(0).isSpent());
+        assertFalse(outputs.get(1).isSpent());
+        assertFalse(outputs.get(2).isSpent());
+    }
+
+    @Test
+    public void testClear() {
+        XmrWalletCache cache = new XmrWalletCache();
+        cache.addTx(unconfirmedTx("tx"));
+        cache.invalidateSubaddresses();
+        cache.clear();
+        assertTrue(cache.getTxs().isEmpty());
+        assertFalse(cache.isTxsCached());
+        assertFalse(cache.isSubaddressesCached());
+    }
+}
@@ -0,0 +1,93 @@
+/*
+ * This file is part of Haveno.
+ *
+ * Haveno is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Haveno is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Haveno. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package haveno.core.xmr.wallet;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class XmrWalletSyncCoordinatorTest {
+    private final XmrWalletSyncCoordinator coordinator = new XmrWalletSyncCoordinator(() -> 3600000);
+
+    @AfterEach
+    public void tearDown() {
+        coordinator.shutDown();
+    }
+
+    @Test
+    public void getDueParticipants_onlyIncludesParticipantsWithSomethingToDo() throws InterruptedException {
+        TestParticipant active = new TestParticipant(true, false, false);
+        TestParticipant poolWatched = new TestParticipant(true, false, true);
+        TestParticipant idle = new TestParticipant(true, true, false);
+        TestParticipant notRequired = new TestParticipant(false, false, true);
+        for (TestParticipant participant : List.of(active, poolWatched, idle, notRequired)) coordinator.register(participant);
+        for (TestParticipant participant : List.of(active, poolWatched, idle)) participant.awaitPolled();
+        assertEquals(0, notRequired.numPolls.get());
+
+        long now = System.currentTimeMillis();
+        assertEquals(List.of(poolWatched), coordinator.getDueParticipants(false, now));
+        assertEquals(List.of(active, poolWatched), coordinator.getDueParticipants(true, now));
+        assertEquals(List.of(active, poolWatched, idle), coordinator.getDueParticipants(true, now + XmrWalletSyncCoordinator.IDLE_POLL_PERIOD_MS));
+
+        coordinator.unregister(poolWatched);
+        assertEquals(List.of(), coordinator.getDueParticipants(false, now));
+        assertEquals(3, coordinator.getNumParticipants());
+    }
+
+    private static class TestParticipant implements XmrWalletSyncCoordinator.Participant {
+        private final boolean isPollRequired;
+        private final boolean isIdling;
+        private final boolean isPoolWatched;
+        private final AtomicInteger numPolls = new AtomicInteger();
+
+        private TestParticipant(boolean isPollRequired, boolean isIdling, boolean isPoolWatched) {
+            this.isPollRequired = isPollRequired;
+            this.isIdling = isIdling;
+            this.isPoolWatched = isPoolWatched;
+        }
+
+        @Override
+        public boolean isPollRequired() {
+            return isPollRequired;
+        }
+
+        @Override
+        public boolean isIdling() {
+            return isIdling;
+        }
+
+        @Override
+        public boolean isPoolWatched() {
+            return isPoolWatched;
+        }
+
+        @Override
+        public void poll() {
+            numPolls.incrementAndGet();
+        }
+
+        private void awaitPolled() throws InterruptedException {
+            for (int i = 0; i < 200 && numPolls.get() == 0; i++) Thread.sleep(10);
+            assertEquals(true, numPolls.get() > 0);
+        }
+    }
+}
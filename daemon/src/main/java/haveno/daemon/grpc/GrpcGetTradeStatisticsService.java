@@ -2,17 +2,23 @@ package haveno.daemon.grpc;
 
 import com.google.inject.Inject;
 import haveno.core.api.CoreApi;
+import haveno.core.trade.statistics.CandleInterval;
 import haveno.core.trade.statistics.TradeStatistics3;
+import haveno.core.trade.statistics.TradeStatisticsCandle;
 import haveno.daemon.grpc.interceptor.CallRateMeteringInterceptor;
 import haveno.daemon.grpc.interceptor.GrpcCallRateMeter;
 import static haveno.daemon.grpc.interceptor.GrpcServiceRateMeteringConfig.getCustomRateMeteringInterceptor;
 import static haveno.proto.grpc.GetTradeStatisticsGrpc.GetTradeStatisticsImplBase;
+import static haveno.proto.grpc.GetTradeStatisticsGrpc.getGetTradeStatisticsCandlesMethod;
 import static haveno.proto.grpc.GetTradeStatisticsGrpc.getGetTradeStatisticsMethod;
+import haveno.proto.grpc.GetTradeStatisticsCandlesReply;
+import haveno.proto.grpc.GetTradeStatisticsCandlesRequest;
 import haveno.proto.grpc.GetTradeStatisticsReply;
 import haveno.proto.grpc.GetTradeStatisticsRequest;
 import io.grpc.ServerInterceptor;
 import io.grpc.stub.StreamObserver;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Optional;
 import static java.util.concurrent.TimeUnit.SECONDS;
 import java.util.stream.Collectors;
@@ -20,6 +26,7 @@ import lombok.extern.slf4j.Slf4j;
 
 @Slf4j
 class GrpcGetTradeStatisticsService extends GetTradeStatisticsImplBase {
+    private static final int MAX_CANDLES_PER_PAGE = 1000;
 
     private final CoreApi coreApi;
     private final GrpcExceptionHandler exceptionHandler;
@@ -46,6 +53,48 @@ class GrpcGetTradeStatisticsService extends GetTradeStatisticsImplBase {
         }
     }
 
+    @Override
+    public void getTradeStatisticsCandles(GetTradeStatisticsCandlesRequest req,
+                                          StreamObserver<GetTradeStatisticsCandlesReply> responseObserver) {
+        try {
+            CandleInterval interval = CandleInterval.valueOf(req.getInterval().toUpperCase());
+            long toDate = req.getToDate() == 0 ? Long.MAX_VALUE : req.getToDate();
+            int limit = req.getLimit() <= 0 ? MAX_CANDLES_PER_PAGE : Math.min(req.getLimit(), MAX_CANDLES_PER_PAGE);
+
+            // We request one more candle to know where the next page starts
+            List<TradeStatisticsCandle> candles = coreApi.getTradeStatisticsCandles(req.getCurrencyCode().toUpperCase(),
+                    interval,
+                    req.getFromDate(),
+                    toDate,
+                    limit + 1);
+            var reply = GetTradeStatisticsCandlesReply.newBuilder();
+            if (candles.size() > limit) {
+                reply.setNextFromDate(candles.get(limit).getStartTime());
+                candles = candles.subList(0, limit);
+            }
+            candles.forEach(candle -> reply.addCandles(toProtoCandle(candle)));
+            responseObserver.onNext(reply.build());
+            responseObserver.onCompleted();
+        } catch (Throwable cause) {
+            exceptionHandler.handleException(log, cause, responseObserver);
+        }
+    }
+
+    private static haveno.proto.grpc.TradeStatisticsCandle toProtoCandle(TradeStatisticsCandle candle) {
+        return haveno.proto.grpc.TradeStatisticsCandle.newBuilder()
+                .setStartDate(candle.getStartTime())
+                .setOpen(candle.getOpen())
+                .setClose(candle.getClose())
+                .setHigh(candle.getHigh())
+                .setLow(candle.getLow())
+                .setAverage(candle.getAverage())
+                .setMedian(candle.getMedian())
+                .setAccumulatedAmount(candle.getAccumulatedAmount())
+                .setAccumulatedVolume(candle.getAccumulatedVolume())
+                .setNumTrades(candle.getNumTrades())
+                .build();
+    }
+
     final ServerInterceptor[] interceptors() {
         Optional<ServerInterceptor> rateMeteringInterceptor = rateMeteringInterceptor();
         return rateMeteringInterceptor.map(serverInterceptor ->
@@ -57,6 +106,7 @@ class GrpcGetTradeStatisticsService extends GetTradeStatisticsImplBase {
                 .or(() -> Optional.of(CallRateMeteringInterceptor.valueOf(
                         new HashMap<>() {{
                             put(getGetTradeStatisticsMethod().getFullMethodName(), new GrpcCallRateMeter(1, SECONDS));
+                            put(getGetTradeStatisticsCandlesMethod().getFullMethodName(), new GrpcCallRateMeter(10, SECONDS));
                         }}
                 )));
     }
@@ -0,0 +1,146 @@
+/*
+ * This file is part of Haveno.
+ *
+ * Haveno is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Haveno is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Haveno. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package haveno.daemon.grpc;
+
+import haveno.common.ThreadUtils;
+import haveno.core.api.NotificationListener;
+import haveno.proto.grpc.NotificationMessage;
+import io.grpc.Status;
+import io.grpc.stub.ServerCallStreamObserver;
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+
+import javax.annotation.Nullable;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+/**
+ * Delivers the notifications to a single gRPC client. Notifications are queued per client and sent from a thread
+ * of the stream only as long as the transport is ready, so a slow client does not block the thread emitting the
+ * notifications or other clients. Repeated updates of the same trade, of the market prices and of the balances
+ * replace the queued update which was not sent yet. If the queue overflows the stream is closed, so the client
+ * can reconnect instead of silently missing notifications.
+ */
+@Slf4j
+class GrpcNotificationStream implements NotificationListener {
+    static final int MAX_QUEUED_NOTIFICATIONS = 1000;
+
+    private final ServerCallStreamObserver<NotificationMessage> responseObserver;
+    private final String threadId = "GrpcNotificationStream-" + UUID.randomUUID();
+    // Keyed by the coalescing key or by a unique key for notifications which must not be coalesced
+    private final Map<String, NotificationMessage> queue = new LinkedHashMap<>();
+    private long sequenceNumber;
+    private volatile boolean closed;
+
+    GrpcNotificationStream(ServerCallStreamObserver<NotificationMessage> responseObserver,
+                           Consumer<GrpcNotificationStream> onCancelHandler) {
+        this.responseObserver = responseObserver;
+        responseObserver.setOnReadyHandler(this::drain);
+        responseObserver.setOnCancelHandler(() -> {
+            close();
+            onCancelHandler.accept(this);
+        });
+    }
+
+    @Override
+    public void onMessage(@NonNull NotificationMessage message) {
+        if (closed || responseObserver.isCancelled()) {
+            close();
+            // Causes the listener to get removed
+            throw new IllegalStateException("Notification stream is closed");
+        }
+
+        synchronized (queue) {
+            String key = getCoalescingKey(message);
+            if (key == null) {
+                key = String.valueOf(sequenceNumber++);
+            }
+            // A replaced notification moves to the tail of the queue, so the notifications get sent in the order of
+            // their latest update
+            queue.remove(key);
+            queue.put(key, message);
+            if (queue.size() > MAX_QUEUED_NOTIFICATIONS) {
+                log.warn("Closing notification stream as client does not keep up with {} queued notifications", queue.size());
+                queue.clear();
+                closed = true;
+            }
+        }
+
+        if (closed) {
+            ThreadUtils.execute(() -> {
+                synchronized (responseObserver) {
+                    responseObserver.onError(Status.RESOURCE_EXHAUSTED
+                            .withDescription("Too many queued notifications")
+                            .asRuntimeException());
+                }
+                ThreadUtils.remove(threadId);
+            }, threadId);
+            // Causes the listener to get removed
+            throw new IllegalStateException("Notification stream overflowed");
+        }
+        ThreadUtils.execute(this::drain, threadId);
+    }
+
+    int getNumQueued() {
+        synchronized (queue) {
+            return queue.size();
+        }
+    }
+
+    // Called from the stream thread and from gRPC when the transport gets ready again
+    private void drain() {
+        synchronized (responseObserver) {
+            while (!closed && responseObserver.isReady()) {
+                NotificationMessage message;
+                synchronized (queue) {
+                    Iterator<NotificationMessage> iterator = queue.values().iterator();
+                    if (!iterator.hasNext()) {
+                        return;
+                    }
+                    message = iterator.next();
+                    iterator.remove();
+                }
+                responseObserver.onNext(message);
+            }
+        }
+    }
+
+    private void close() {
+        closed = true;
+        synchronized (queue) {
+            queue.clear();
+        }
+        ThreadUtils.remove(threadId);
+    }
+
+    @Nullable
+    static String getCoalescingKey(NotificationMessage message) {
+        switch (message.getType()) {
+            case TRADE_UPDATE:
+                return message.getType() + ":" + message.getTrade().getTradeId();
+            case MARKET_PRICES_UPDATE:
+            case BALANCES_UPDATE:
+                return message.getType().name();
+            default:
+                return null;
+        }
+    }
+}
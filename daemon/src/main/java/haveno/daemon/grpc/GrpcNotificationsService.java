@@ -2,7 +2,6 @@ package haveno.daemon.grpc;
 
 import com.google.inject.Inject;
 import haveno.core.api.CoreApi;
-import haveno.core.api.NotificationListener;
 import haveno.daemon.grpc.interceptor.CallRateMeteringInterceptor;
 import haveno.daemon.grpc.interceptor.GrpcCallRateMeter;
 import static haveno.daemon.grpc.interceptor.GrpcServiceRateMeteringConfig.getCustomRateMeteringInterceptor;
@@ -20,8 +19,6 @@ import io.grpc.stub.StreamObserver;
 import java.util.HashMap;
 import java.util.Optional;
 import static java.util.concurrent.TimeUnit.SECONDS;
-import lombok.NonNull;
-import lombok.Value;
 import lombok.extern.slf4j.Slf4j;
 
 @Slf4j
@@ -42,7 +39,9 @@ class GrpcNotificationsService extends NotificationsImplBase {
         Context ctx = Context.current().fork(); // context is independent for long-lived request
         ctx.run(() -> {
             try {
-                coreApi.addNotificationListener(new GrpcNotificationListener(responseObserver));
+                coreApi.addNotificationListener(new GrpcNotificationStream(
+                        (ServerCallStreamObserver<NotificationMessage>) responseObserver,
+                        coreApi::removeNotificationListener));
                 // No onNext / onCompleted, as the response observer should be kept open
             } catch (Throwable t) {
                 exceptionHandler.handleException(log, t, responseObserver);
@@ -65,20 +64,6 @@ class GrpcNotificationsService extends NotificationsImplBase {
         });
     }
 
-    @Value
-    private static class GrpcNotificationListener implements NotificationListener {
-
-        @NonNull
-        StreamObserver<NotificationMessage> responseObserver;
-
-        @Override
-        public void onMessage(@NonNull NotificationMessage message) {
-            if (!((ServerCallStreamObserver<NotificationMessage>) responseObserver).isCancelled()) {
-                responseObserver.onNext(message);
-            }
-        }
-    }
-
     final ServerInterceptor[] interceptors() {
         Optional<ServerInterceptor> rateMeteringInterceptor = rateMeteringInterceptor();
         return rateMeteringInterceptor.map(serverInterceptor ->
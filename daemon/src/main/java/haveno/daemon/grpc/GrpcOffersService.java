@@ -20,6 +20,7 @@ package haveno.daemon.grpc;
 import com.google.inject.Inject;
 import haveno.common.config.Config;
 import haveno.core.api.CoreApi;
+import haveno.core.api.CursorPage;
 import haveno.core.api.model.OfferInfo;
 import haveno.core.offer.Offer;
 import haveno.core.offer.OpenOffer;
@@ -102,13 +103,21 @@ class GrpcOffersService extends OffersImplBase {
     public void getOffers(GetOffersRequest req,
                           StreamObserver<GetOffersReply> responseObserver) {
         try {
-            List<OfferInfo> result = coreApi.getOffers(req.getDirection(), req.getCurrencyCode())
-                    .stream().map(OfferInfo::toOfferInfo)
-                    .collect(Collectors.toList());
+            CursorPage<Offer> page = coreApi.getOffers(req.getDirection(),
+                    req.getCurrencyCode(),
+                    req.getPaymentMethodId(),
+                    req.getCreatedSince(),
+                    req.getCursor(),
+                    req.getLimit());
+
+            // We only build the offers of the requested page
             var reply = GetOffersReply.newBuilder()
-                    .addAllOffers(result.stream()
-                            .map(OfferInfo::toProtoMessage)
+                    .addAllOffers(page.getItems().stream()
+                            .map(offer -> req.getCompact()
+                                    ? OfferInfo.toCompactProtoMessage(offer)
+                                    : OfferInfo.toOfferInfo(offer).toProtoMessage())
                             .collect(Collectors.toList()))
+                    .setNextCursor(page.getNextCursor())
                     .build();
             responseObserver.onNext(reply);
             responseObserver.onCompleted();
@@ -101,7 +101,7 @@ class GrpcPriceService extends PriceImplBase {
     public void getMarketDepth(MarketDepthRequest req,
                                StreamObserver<MarketDepthReply> responseObserver) {
         try {
-            responseObserver.onNext(mapMarketDepthReply(coreApi.getMarketDepth(req.getCurrencyCode())));
+            responseObserver.onNext(mapMarketDepthReply(coreApi.getMarketDepth(req.getCurrencyCode(), req.getMaxLevels())));
             responseObserver.onCompleted();
         } catch (Throwable cause) {
             exceptionHandler.handleException(log, cause, responseObserver);
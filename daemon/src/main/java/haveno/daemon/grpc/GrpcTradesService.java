@@ -37,9 +37,11 @@ package haveno.daemon.grpc;
 import com.google.inject.Inject;
 import haveno.common.config.Config;
 import haveno.core.api.CoreApi;
+import haveno.core.api.CursorPage;
 import haveno.core.api.model.TradeInfo;
 import static haveno.core.api.model.TradeInfo.toTradeInfo;
 import haveno.core.trade.Trade;
+import haveno.core.trade.TradeInitProgress;
 import haveno.daemon.grpc.interceptor.CallRateMeteringInterceptor;
 import haveno.daemon.grpc.interceptor.GrpcCallRateMeter;
 import static haveno.daemon.grpc.interceptor.GrpcServiceRateMeteringConfig.getCustomRateMeteringInterceptor;
@@ -51,6 +53,8 @@ import haveno.proto.grpc.ConfirmPaymentSentReply;
 import haveno.proto.grpc.ConfirmPaymentSentRequest;
 import haveno.proto.grpc.GetChatMessagesReply;
 import haveno.proto.grpc.GetChatMessagesRequest;
+import haveno.proto.grpc.GetTradeInitProgressReply;
+import haveno.proto.grpc.GetTradeInitProgressRequest;
 import haveno.proto.grpc.GetTradeReply;
 import haveno.proto.grpc.GetTradeRequest;
 import haveno.proto.grpc.GetTradesReply;
@@ -64,6 +68,7 @@ import static haveno.proto.grpc.TradesGrpc.getCompleteTradeMethod;
 import static haveno.proto.grpc.TradesGrpc.getConfirmPaymentReceivedMethod;
 import static haveno.proto.grpc.TradesGrpc.getConfirmPaymentSentMethod;
 import static haveno.proto.grpc.TradesGrpc.getGetChatMessagesMethod;
+import static haveno.proto.grpc.TradesGrpc.getGetTradeInitProgressMethod;
 import static haveno.proto.grpc.TradesGrpc.getGetTradeMethod;
 import static haveno.proto.grpc.TradesGrpc.getGetTradesMethod;
 import static haveno.proto.grpc.TradesGrpc.getSendChatMessageMethod;
@@ -72,7 +77,6 @@ import static haveno.proto.grpc.TradesGrpc.getWithdrawFundsMethod;
 import io.grpc.ServerInterceptor;
 import io.grpc.stub.StreamObserver;
 import java.util.HashMap;
-import java.util.List;
 import java.util.Optional;
 import static java.util.concurrent.TimeUnit.MINUTES;
 import static java.util.concurrent.TimeUnit.SECONDS;
@@ -116,13 +120,19 @@ class GrpcTradesService extends TradesImplBase {
     public void getTrades(GetTradesRequest req,
                          StreamObserver<GetTradesReply> responseObserver) {
         try {
-            List<TradeInfo> trades = coreApi.getTrades()
-                    .stream().map(TradeInfo::toTradeInfo)
-                    .collect(Collectors.toList());
+            CursorPage<Trade> page = coreApi.getTrades(req.getCurrencyCode(),
+                    req.getUpdatedSince(),
+                    req.getCursor(),
+                    req.getLimit());
+
+            // We only build the trades of the requested page
             var reply = GetTradesReply.newBuilder()
-                    .addAllTrades(trades.stream()
-                            .map(TradeInfo::toProtoMessage)
+                    .addAllTrades(page.getItems().stream()
+                            .map(trade -> req.getCompact()
+                                    ? TradeInfo.toCompactProtoMessage(trade)
+                                    : toTradeInfo(trade).toProtoMessage())
                             .collect(Collectors.toList()))
+                    .setNextCursor(page.getNextCursor())
                     .build();
             responseObserver.onNext(reply);
             responseObserver.onCompleted();
@@ -131,6 +141,38 @@ class GrpcTradesService extends TradesImplBase {
         }
     }
 
+    @Override
+    public void getTradeInitProgress(GetTradeInitProgressRequest req,
+                                     StreamObserver<GetTradeInitProgressReply> responseObserver) {
+        try {
+            TradeInitProgress progress = coreApi.getTradeInitProgress();
+            var reply = GetTradeInitProgressReply.newBuilder()
+                    .setNumTrades(progress.getNumTrades())
+                    .setNumInitialized(progress.getNumInitialized())
+                    .setNumFailed(progress.getNumFailed())
+                    .setIsComplete(progress.isComplete())
+                    .setStartTime(progress.getStartTime())
+                    .addAllTimings(progress.getTimings().stream()
+                            .map(GrpcTradesService::toProtoTradeInitTiming)
+                            .collect(Collectors.toList()))
+                    .build();
+            responseObserver.onNext(reply);
+            responseObserver.onCompleted();
+        } catch (Throwable cause) {
+            exceptionHandler.handleException(log, cause, responseObserver);
+        }
+    }
+
+    private static haveno.proto.grpc.TradeInitTiming toProtoTradeInitTiming(TradeInitProgress.TradeInitTiming timing) {
+        return haveno.proto.grpc.TradeInitTiming.newBuilder()
+                .setTradeId(timing.getTradeId())
+                .setPriority(timing.getPriority().name())
+                .setStartTime(timing.getStartTime())
+                .setDurationMs(timing.getDurationMs())
+                .setError(timing.getError() == null ? "" : timing.getError())
+                .build();
+    }
+
     @Override
     public void takeOffer(TakeOfferRequest req,
                           StreamObserver<TakeOfferReply> responseObserver) {
@@ -253,6 +295,7 @@ class GrpcTradesService extends TradesImplBase {
                         new HashMap<>() {{
                             put(getGetTradeMethod().getFullMethodName(), new GrpcCallRateMeter(Config.baseCurrencyNetwork().isTestnet() ? 30 : 1, SECONDS));
                             put(getGetTradesMethod().getFullMethodName(), new GrpcCallRateMeter(Config.baseCurrencyNetwork().isTestnet() ? 10 : 1, SECONDS));
+                            put(getGetTradeInitProgressMethod().getFullMethodName(), new GrpcCallRateMeter(Config.baseCurrencyNetwork().isTestnet() ? 10 : 1, SECONDS));
                             put(getTakeOfferMethod().getFullMethodName(), new GrpcCallRateMeter(Config.baseCurrencyNetwork().isTestnet() ? 20 : 3, Config.baseCurrencyNetwork().isTestnet() ? SECONDS : MINUTES));
                             put(getConfirmPaymentSentMethod().getFullMethodName(), new GrpcCallRateMeter(Config.baseCurrencyNetwork().isTestnet() ? 10 : 3, Config.baseCurrencyNetwork().isTestnet() ? SECONDS : MINUTES));
                             put(getConfirmPaymentReceivedMethod().getFullMethodName(), new GrpcCallRateMeter(Config.baseCurrencyNetwork().isTestnet() ? 10 : 3, Config.baseCurrencyNetwork().isTestnet() ? SECONDS : MINUTES));
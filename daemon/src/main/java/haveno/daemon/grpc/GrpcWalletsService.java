@@ -38,7 +38,9 @@ import com.google.inject.Inject;
 import haveno.common.UserThread;
 import haveno.common.config.Config;
 import haveno.core.api.CoreApi;
+import haveno.core.api.CursorPage;
 import haveno.core.api.model.AddressBalanceInfo;
+import static haveno.core.api.model.XmrTx.toCompactXmrTx;
 import static haveno.core.api.model.XmrTx.toXmrTx;
 import haveno.daemon.grpc.interceptor.CallRateMeteringInterceptor;
 import haveno.daemon.grpc.interceptor.GrpcCallRateMeter;
@@ -163,11 +165,12 @@ class GrpcWalletsService extends WalletsImplBase {
     @Override
     public void getXmrTxs(GetXmrTxsRequest req, StreamObserver<GetXmrTxsReply> responseObserver) {
         try {
-            List<MoneroTxWallet> xmrTxs = coreApi.getXmrTxs();
+            CursorPage<MoneroTxWallet> page = coreApi.getXmrTxs(req.getMinHeight(), req.getCursor(), req.getLimit());
             var reply = GetXmrTxsReply.newBuilder()
-                    .addAllTxs(xmrTxs.stream()
-                            .map(s -> toXmrTx(s).toProtoMessage())
+                    .addAllTxs(page.getItems().stream()
+                            .map(s -> (req.getCompact() ? toCompactXmrTx(s) : toXmrTx(s)).toProtoMessage())
                             .collect(Collectors.toList()))
+                    .setNextCursor(page.getNextCursor())
                     .build();
             responseObserver.onNext(reply);
             responseObserver.onCompleted();
@@ -0,0 +1,172 @@
+/*
+ * This file is part of Haveno.
+ *
+ * Haveno is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Haveno is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Haveno. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package haveno.daemon.grpc;
+
+import haveno.proto.grpc.NotificationMessage;
+import haveno.proto.grpc.NotificationMessage.NotificationType;
+import haveno.proto.grpc.TradeInfo;
+import io.grpc.StatusRuntimeException;
+import io.grpc.stub.ServerCallStreamObserver;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class GrpcNotificationStreamTest {
+
+    private static NotificationMessage tradeUpdate(String tradeId) {
+        return tradeUpdate(tradeId, 0);
+    }
+
+    private static NotificationMessage tradeUpdate(String tradeId, long date) {
+        return NotificationMessage.newBuilder()
+                .setType(NotificationType.TRADE_UPDATE)
+                .setTrade(TradeInfo.newBuilder().setTradeId(tradeId).setDate(date))
+                .build();
+    }
+
+    private static NotificationMessage chatMessage() {
+        return NotificationMessage.newBuilder()
+                .setType(NotificationType.CHAT_MESSAGE)
+                .build();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static ServerCallStreamObserver<NotificationMessage> responseObserver(AtomicBoolean isReady) {
+        ServerCallStreamObserver<NotificationMessage> responseObserver = mock(ServerCallStreamObserver.class);
+        when(responseObserver.isReady()).thenAnswer(invocation -> isReady.get());
+        return responseObserver;
+    }
+
+    @Test
+    public void getCoalescingKey_tradeUpdatesPerTrade() {
+        assertEquals(GrpcNotificationStream.getCoalescingKey(tradeUpdate("1")),
+                GrpcNotificationStream.getCoalescingKey(tradeUpdate("1")));
+        assertNotEquals(GrpcNotificationStream.getCoalescingKey(tradeUpdate("1")),
+                GrpcNotificationStream.getCoalescingKey(tradeUpdate("2")));
+    }
+
+    @Test
+    public void getCoalescingKey_keepsChatMessagesAndOffers() {
+        assertNull(GrpcNotificationStream.getCoalescingKey(NotificationMessage.newBuilder()
+                .setType(NotificationType.CHAT_MESSAGE)
+                .build()));
+        assertNull(GrpcNotificationStream.getCoalescingKey(NotificationMessage.newBuilder()
+                .setType(NotificationType.OFFER_ADDED)
+                .build()));
+        assertEquals(NotificationType.BALANCES_UPDATE.name(), GrpcNotificationStream.getCoalescingKey(NotificationMessage.newBuilder()
+                .setType(NotificationType.BALANCES_UPDATE)
+                .build()));
+    }
+
+    @Test
+    public void onMessage_coalescesQueuedUpdatesPerKey() {
+        AtomicBoolean isReady = new AtomicBoolean();
+        ServerCallStreamObserver<NotificationMessage> responseObserver = responseObserver(isReady);
+        ArgumentCaptor<Runnable> onReadyHandler = ArgumentCaptor.forClass(Runnable.class);
+        GrpcNotificationStream stream = new GrpcNotificationStream(responseObserver, s -> {});
+        verify(responseObserver).setOnReadyHandler(onReadyHandler.capture());
+
+        // many more updates than the queue can hold, but only one per trade is kept
+        for (int i = 0; i < GrpcNotificationStream.MAX_QUEUED_NOTIFICATIONS * 2; i++) {
+            stream.onMessage(tradeUpdate("1", i));
+        }
+        stream.onMessage(chatMessage());
+        stream.onMessage(tradeUpdate("2"));
+        stream.onMessage(tradeUpdate("1", -1));
+        assertEquals(3, stream.getNumQueued());
+
+        // the replaced update moves to the tail and only the latest update gets sent
+        isReady.set(true);
+        onReadyHandler.getValue().run();
+        InOrder inOrder = inOrder(responseObserver);
+        inOrder.verify(responseObserver).onNext(chatMessage());
+        inOrder.verify(responseObserver).onNext(tradeUpdate("2"));
+        inOrder.verify(responseObserver).onNext(tradeUpdate("1", -1));
+        verify(responseObserver, times(3)).onNext(any());
+        assertEquals(0, stream.getNumQueued());
+        verify(responseObserver, never()).onError(any());
+    }
+
+    @Test
+    public void onMessage_closesStreamOnOverflowOfUncoalescedNotifications() {
+        ServerCallStreamObserver<NotificationMessage> responseObserver = responseObserver(new AtomicBoolean());
+        GrpcNotificationStream stream = new GrpcNotificationStream(responseObserver, s -> {});
+
+        for (int i = 0; i < GrpcNotificationStream.MAX_QUEUED_NOTIFICATIONS; i++) {
+            stream.onMessage(chatMessage());
+        }
+        assertEquals(GrpcNotificationStream.MAX_QUEUED_NOTIFICATIONS, stream.getNumQueued());
+
+        // chat messages must not get lost, so the client gets disconnected instead
+        assertThrows(IllegalStateException.class, () -> stream.onMessage(chatMessage()));
+        verify(responseObserver, timeout(5000)).onError(any(StatusRuntimeException.class));
+        assertEquals(0, stream.getNumQueued());
+        assertThrows(IllegalStateException.class, () -> stream.onMessage(tradeUpdate("1")));
+        verify(responseObserver, never()).onNext(any());
+    }
+
+    @Test
+    public void onMessage_slowSubscriberDoesNotBlockOthers() throws Exception {
+        CountDownLatch slowSubscriberBlocked = new CountDownLatch(1);
+        CountDownLatch releaseSlowSubscriber = new CountDownLatch(1);
+        ServerCallStreamObserver<NotificationMessage> slowObserver = responseObserver(new AtomicBoolean(true));
+        doAnswer(invocation -> {
+            slowSubscriberBlocked.countDown();
+            releaseSlowSubscriber.await();
+            return null;
+        }).when(slowObserver).onNext(any());
+        ServerCallStreamObserver<NotificationMessage> fastObserver = responseObserver(new AtomicBoolean(true));
+        GrpcNotificationStream slowStream = new GrpcNotificationStream(slowObserver, s -> {});
+        GrpcNotificationStream fastStream = new GrpcNotificationStream(fastObserver, s -> {});
+
+        try {
+            slowStream.onMessage(tradeUpdate("1"));
+            assertTrue(slowSubscriberBlocked.await(5, TimeUnit.SECONDS));
+
+            // neither the emitting thread nor the other subscriber wait for the blocked one
+            slowStream.onMessage(chatMessage());
+            fastStream.onMessage(tradeUpdate("1"));
+            fastStream.onMessage(chatMessage());
+            verify(fastObserver, timeout(5000)).onNext(tradeUpdate("1"));
+            verify(fastObserver, timeout(5000)).onNext(chatMessage());
+            assertEquals(1, slowStream.getNumQueued());
+        } finally {
+            releaseSlowSubscriber.countDown();
+        }
+        verify(slowObserver, timeout(5000)).onNext(chatMessage());
+    }
+}
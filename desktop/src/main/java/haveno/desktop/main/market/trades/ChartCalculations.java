@@ -22,7 +22,11 @@ import haveno.common.util.MathUtils;
 import haveno.core.locale.CurrencyUtil;
 import haveno.core.monetary.CryptoMoney;
 import haveno.core.monetary.TraditionalMoney;
+import haveno.core.trade.statistics.CandleInterval;
 import haveno.core.trade.statistics.TradeStatistics3;
+import haveno.core.trade.statistics.TradeStatisticsCandle;
+import haveno.core.trade.statistics.TradeStatisticsCandleService;
+import haveno.core.trade.statistics.TradeStatisticsManager;
 import haveno.desktop.main.market.trades.charts.CandleData;
 import haveno.desktop.util.DisplayUtils;
 import javafx.scene.chart.XYChart;
@@ -31,7 +35,6 @@ import lombok.Getter;
 
 import java.time.LocalDateTime;
 import java.time.ZoneId;
-import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
@@ -55,41 +58,55 @@ public class ChartCalculations {
     // Async
     ///////////////////////////////////////////////////////////////////////////////////////////
 
-    static CompletableFuture<Map<TradesChartsViewModel.TickUnit, Map<Long, Long>>> getUsdAveragePriceMapsPerTickUnit(Set<TradeStatistics3> tradeStatisticsSet) {
+    static CompletableFuture<Map<TradesChartsViewModel.TickUnit, Map<Long, Long>>> getUsdAveragePriceMapsPerTickUnit(TradeStatisticsCandleService candleService) {
         return CompletableFuture.supplyAsync(() -> {
             Map<TradesChartsViewModel.TickUnit, Map<Long, Long>> usdAveragePriceMapsPerTickUnit = new HashMap<>();
-            Map<TradesChartsViewModel.TickUnit, Map<Long, List<TradeStatistics3>>> dateMapsPerTickUnit = new HashMap<>();
             for (TradesChartsViewModel.TickUnit tick : TradesChartsViewModel.TickUnit.values()) {
-                dateMapsPerTickUnit.put(tick, new HashMap<>());
-            }
-
-            tradeStatisticsSet.stream()
-                    .filter(e -> e.getCurrency().equals("USD"))
-                    .forEach(tradeStatistics -> {
-                        for (TradesChartsViewModel.TickUnit tick : TradesChartsViewModel.TickUnit.values()) {
-                            long time = roundToTick(tradeStatistics.getLocalDateTime(), tick).getTime();
-                            Map<Long, List<TradeStatistics3>> map = dateMapsPerTickUnit.get(tick);
-                            map.putIfAbsent(time, new ArrayList<>());
-                            map.get(time).add(tradeStatistics);
-                        }
-                    });
-
-            dateMapsPerTickUnit.forEach((tick, map) -> {
-                HashMap<Long, Long> priceMap = new HashMap<>();
-                map.forEach((date, tradeStatisticsList) -> priceMap.put(date, getAveragePrice(tradeStatisticsList)));
+                Map<Long, Long> priceMap = candleService.getCandles("USD", toCandleInterval(tick), 0, Long.MAX_VALUE, Integer.MAX_VALUE, ZONE_ID).stream()
+                        .collect(Collectors.toMap(TradeStatisticsCandle::getStartTime, TradeStatisticsCandle::getAverage));
                 usdAveragePriceMapsPerTickUnit.put(tick, priceMap);
-            });
+            }
             return usdAveragePriceMapsPerTickUnit;
         });
     }
 
-    static CompletableFuture<List<TradeStatistics3>> getTradeStatisticsForCurrency(Set<TradeStatistics3> tradeStatisticsSet,
+    static CompletableFuture<List<TradeStatistics3>> getTradeStatisticsForCurrency(TradeStatisticsManager tradeStatisticsManager,
                                                                                    String currencyCode,
                                                                                    boolean showAllTradeCurrencies) {
         return CompletableFuture.supplyAsync(() -> {
-            return tradeStatisticsSet.stream()
-                    .filter(e -> showAllTradeCurrencies || e.getCurrency().equals(currencyCode))
+            if (showAllTradeCurrencies) {
+                return new ArrayList<>(tradeStatisticsManager.getObservableTradeStatisticsSet());
+            }
+            return tradeStatisticsManager.getTradeStatistics(currencyCode, 0, Long.MAX_VALUE);
+        });
+    }
+
+    static CompletableFuture<UpdateChartResult> getUpdateChartResult(TradeStatisticsCandleService candleService,
+                                                                     TradesChartsViewModel.TickUnit tickUnit,
+                                                                     Map<TradesChartsViewModel.TickUnit, Map<Long, Long>> usdAveragePriceMapsPerTickUnit,
+                                                                     String currencyCode) {
+        return CompletableFuture.supplyAsync(() -> {
+            Map<Long, Pair<Date, Set<TradeStatistics3>>> itemsPerInterval = getIntervals(tickUnit);
+            Map<Long, Long> ticksByStartTime = new HashMap<>();
+            for (long i = MAX_TICKS; i > 0; --i) {
+                ticksByStartTime.put(itemsPerInterval.get(i).getKey().getTime(), i);
+            }
+
+            Map<Long, Long> usdAveragePriceMap = usdAveragePriceMapsPerTickUnit.get(tickUnit);
+            AtomicLong averageUsdPrice = new AtomicLong(0);
+
+            // The candles are sorted by start time, so we can take the previous USD price if we don't have one
+            long fromDate = itemsPerInterval.get(1L).getKey().getTime();
+            List<CandleData> candleDataList = candleService.getCandles(currencyCode, toCandleInterval(tickUnit), fromDate, Long.MAX_VALUE, Integer.MAX_VALUE, ZONE_ID).stream()
+                    .filter(candle -> ticksByStartTime.containsKey(candle.getStartTime()))
+                    .map(candle -> {
+                        if (usdAveragePriceMap.containsKey(candle.getStartTime())) {
+                            averageUsdPrice.set(usdAveragePriceMap.get(candle.getStartTime()));
+                        }
+                        return getCandleData(ticksByStartTime.get(candle.getStartTime()), candle, averageUsdPrice.get(), tickUnit, currencyCode, itemsPerInterval);
+                    })
                     .collect(Collectors.toList());
+            return toUpdateChartResult(itemsPerInterval, candleDataList);
         });
     }
 
@@ -117,21 +134,25 @@ public class ChartCalculations {
                     })
                     .sorted(Comparator.comparingLong(o -> o.tick))
                     .collect(Collectors.toList());
+            return toUpdateChartResult(itemsPerInterval, candleDataList);
+        });
+    }
 
-            List<XYChart.Data<Number, Number>> priceItems = candleDataList.stream()
-                    .map(e -> new XYChart.Data<Number, Number>(e.tick, e.open, e))
-                    .collect(Collectors.toList());
+    private static UpdateChartResult toUpdateChartResult(Map<Long, Pair<Date, Set<TradeStatistics3>>> itemsPerInterval,
+                                                         List<CandleData> candleDataList) {
+        List<XYChart.Data<Number, Number>> priceItems = candleDataList.stream()
+                .map(e -> new XYChart.Data<Number, Number>(e.tick, e.open, e))
+                .collect(Collectors.toList());
 
-            List<XYChart.Data<Number, Number>> volumeItems = candleDataList.stream()
-                    .map(candleData -> new XYChart.Data<Number, Number>(candleData.tick, candleData.accumulatedAmount, candleData))
-                    .collect(Collectors.toList());
+        List<XYChart.Data<Number, Number>> volumeItems = candleDataList.stream()
+                .map(candleData -> new XYChart.Data<Number, Number>(candleData.tick, candleData.accumulatedAmount, candleData))
+                .collect(Collectors.toList());
 
-            List<XYChart.Data<Number, Number>> volumeInUsdItems = candleDataList.stream()
-                    .map(candleData -> new XYChart.Data<Number, Number>(candleData.tick, candleData.volumeInUsd, candleData))
-                    .collect(Collectors.toList());
+        List<XYChart.Data<Number, Number>> volumeInUsdItems = candleDataList.stream()
+                .map(candleData -> new XYChart.Data<Number, Number>(candleData.tick, candleData.volumeInUsd, candleData))
+                .collect(Collectors.toList());
 
-            return new UpdateChartResult(itemsPerInterval, priceItems, volumeItems, volumeInUsdItems);
-        });
+        return new UpdateChartResult(itemsPerInterval, priceItems, volumeItems, volumeInUsdItems);
     }
 
     @Getter
@@ -161,15 +182,7 @@ public class ChartCalculations {
     static Map<Long, Pair<Date, Set<TradeStatistics3>>> getItemsPerInterval(List<TradeStatistics3> tradeStatisticsByCurrency,
                                                                             TradesChartsViewModel.TickUnit tickUnit) {
         // Generate date range and create sets for all ticks
-        Map<Long, Pair<Date, Set<TradeStatistics3>>> itemsPerInterval = new HashMap<>();
-        Date time = new Date();
-        for (long i = MAX_TICKS + 1; i >= 0; --i) {
-            Pair<Date, Set<TradeStatistics3>> pair = new Pair<>((Date) time.clone(), new HashSet<>());
-            itemsPerInterval.put(i, pair);
-            // We adjust the time for the next iteration
-            time.setTime(time.getTime() - 1);
-            time = roundToTick(time, tickUnit);
-        }
+        Map<Long, Pair<Date, Set<TradeStatistics3>>> itemsPerInterval = getIntervals(tickUnit);
 
         // Get all entries for the defined time interval
         tradeStatisticsByCurrency.forEach(tradeStatistics -> {
@@ -184,42 +197,29 @@ public class ChartCalculations {
         return itemsPerInterval;
     }
 
-
-    static Date roundToTick(LocalDateTime localDate, TradesChartsViewModel.TickUnit tickUnit) {
-        switch (tickUnit) {
-            case YEAR:
-                return Date.from(localDate.withMonth(1).withDayOfYear(1).withHour(0).withMinute(0).withSecond(0).withNano(0).atZone(ZONE_ID).toInstant());
-            case MONTH:
-                return Date.from(localDate.withDayOfMonth(1).withHour(0).withMinute(0).withSecond(0).withNano(0).atZone(ZONE_ID).toInstant());
-            case WEEK:
-                int dayOfWeek = localDate.getDayOfWeek().getValue();
-                LocalDateTime firstDayOfWeek = ChronoUnit.DAYS.addTo(localDate, 1 - dayOfWeek);
-                return Date.from(firstDayOfWeek.withHour(0).withMinute(0).withSecond(0).withNano(0).atZone(ZONE_ID).toInstant());
-            case DAY:
-                return Date.from(localDate.withHour(0).withMinute(0).withSecond(0).withNano(0).atZone(ZONE_ID).toInstant());
-            case HOUR:
-                return Date.from(localDate.withMinute(0).withSecond(0).withNano(0).atZone(ZONE_ID).toInstant());
-            case MINUTE_10:
-                return Date.from(localDate.withMinute(localDate.getMinute() - localDate.getMinute() % 10).withSecond(0).withNano(0).atZone(ZONE_ID).toInstant());
-            default:
-                return Date.from(localDate.atZone(ZONE_ID).toInstant());
+    private static Map<Long, Pair<Date, Set<TradeStatistics3>>> getIntervals(TradesChartsViewModel.TickUnit tickUnit) {
+        Map<Long, Pair<Date, Set<TradeStatistics3>>> itemsPerInterval = new HashMap<>();
+        Date time = new Date();
+        for (long i = MAX_TICKS + 1; i >= 0; --i) {
+            Pair<Date, Set<TradeStatistics3>> pair = new Pair<>((Date) time.clone(), new HashSet<>());
+            itemsPerInterval.put(i, pair);
+            // We adjust the time for the next iteration
+            time.setTime(time.getTime() - 1);
+            time = roundToTick(time, tickUnit);
         }
+        return itemsPerInterval;
     }
 
-    static Date roundToTick(Date time, TradesChartsViewModel.TickUnit tickUnit) {
-        return roundToTick(time.toInstant().atZone(ChartCalculations.ZONE_ID).toLocalDateTime(), tickUnit);
+    static CandleInterval toCandleInterval(TradesChartsViewModel.TickUnit tickUnit) {
+        return CandleInterval.valueOf(tickUnit.name());
     }
 
-    private static long getAveragePrice(List<TradeStatistics3> tradeStatisticsList) {
-        long accumulatedAmount = 0; // TODO: use BigInteger
-        long accumulatedVolume = 0;
-        for (TradeStatistics3 tradeStatistics : tradeStatisticsList) {
-            accumulatedAmount += tradeStatistics.getAmount();
-            accumulatedVolume += tradeStatistics.getTradeVolume().getValue();
-        }
+    static Date roundToTick(LocalDateTime localDate, TradesChartsViewModel.TickUnit tickUnit) {
+        return Date.from(toCandleInterval(tickUnit).getStartTime(localDate).atZone(ZONE_ID).toInstant());
+    }
 
-        double accumulatedVolumeAsDouble = MathUtils.scaleUpByPowerOf10((double) accumulatedVolume, 4 + TraditionalMoney.SMALLEST_UNIT_EXPONENT);
-        return MathUtils.roundDoubleToLong(accumulatedVolumeAsDouble / accumulatedAmount);
+    static Date roundToTick(Date time, TradesChartsViewModel.TickUnit tickUnit) {
+        return roundToTick(time.toInstant().atZone(ChartCalculations.ZONE_ID).toLocalDateTime(), tickUnit);
     }
 
     @VisibleForTesting
@@ -259,16 +259,36 @@ public class ChartCalculations {
         Long[] prices = new Long[tradePrices.size()];
         tradePrices.toArray(prices);
         long medianPrice = MathUtils.getMedian(prices);
-        boolean isBullish;
         if (CurrencyUtil.isCryptoCurrency(currencyCode)) {
-            isBullish = close < open;
             double accumulatedAmountAsDouble = MathUtils.scaleUpByPowerOf10((double) accumulatedAmount, 4 + CryptoMoney.SMALLEST_UNIT_EXPONENT);
             averagePrice = MathUtils.roundDoubleToLong(accumulatedAmountAsDouble / accumulatedVolume);
         } else {
-            isBullish = close > open;
             double accumulatedVolumeAsDouble = MathUtils.scaleUpByPowerOf10((double) accumulatedVolume, 4 + TraditionalMoney.SMALLEST_UNIT_EXPONENT);
             averagePrice = MathUtils.roundDoubleToLong(accumulatedVolumeAsDouble / accumulatedAmount);
         }
+        return getCandleData(tick, open, close, high, low, averagePrice, medianPrice, accumulatedAmount, accumulatedVolume,
+                numTrades, averageUsdPrice, tickUnit, currencyCode, itemsPerInterval);
+    }
+
+    static CandleData getCandleData(long tick,
+                                    TradeStatisticsCandle candle,
+                                    long averageUsdPrice,
+                                    TradesChartsViewModel.TickUnit tickUnit,
+                                    String currencyCode,
+                                    Map<Long, Pair<Date, Set<TradeStatistics3>>> itemsPerInterval) {
+        return getCandleData(tick, candle.getOpen(), candle.getClose(), candle.getHigh(), candle.getLow(),
+                candle.getAverage(), candle.getMedian(), candle.getAccumulatedAmount(), candle.getAccumulatedVolume(),
+                candle.getNumTrades(), averageUsdPrice, tickUnit, currencyCode, itemsPerInterval);
+    }
+
+    private static CandleData getCandleData(long tick, long open, long close, long high, long low,
+                                            long averagePrice, long medianPrice,
+                                            long accumulatedAmount, long accumulatedVolume, long numTrades,
+                                            long averageUsdPrice,
+                                            TradesChartsViewModel.TickUnit tickUnit,
+                                            String currencyCode,
+                                            Map<Long, Pair<Date, Set<TradeStatistics3>>> itemsPerInterval) {
+        boolean isBullish = CurrencyUtil.isCryptoCurrency(currencyCode) ? close < open : close > open;
 
         Date dateFrom = new Date(getTimeFromTickIndex(tick, itemsPerInterval));
         Date dateTo = new Date(getTimeFromTickIndex(tick + 1, itemsPerInterval));
@@ -26,6 +26,7 @@ import haveno.core.locale.GlobalSettings;
 import haveno.core.locale.TradeCurrency;
 import haveno.core.provider.price.PriceFeedService;
 import haveno.core.trade.statistics.TradeStatistics3;
+import haveno.core.trade.statistics.TradeStatisticsCandleService;
 import haveno.core.trade.statistics.TradeStatisticsManager;
 import haveno.core.user.Preferences;
 import haveno.desktop.Navigation;
@@ -75,6 +76,7 @@ class TradesChartsViewModel extends ActivatableViewModel {
     }
 
     private final TradeStatisticsManager tradeStatisticsManager;
+    private final TradeStatisticsCandleService candleService;
     final Preferences preferences;
     private final PriceFeedService priceFeedService;
     private final Navigation navigation;
@@ -102,9 +104,10 @@ class TradesChartsViewModel extends ActivatableViewModel {
     ///////////////////////////////////////////////////////////////////////////////////////////
 
     @Inject
-    TradesChartsViewModel(TradeStatisticsManager tradeStatisticsManager, Preferences preferences,
-                          PriceFeedService priceFeedService, Navigation navigation) {
+    TradesChartsViewModel(TradeStatisticsManager tradeStatisticsManager, TradeStatisticsCandleService candleService,
+                          Preferences preferences, PriceFeedService priceFeedService, Navigation navigation) {
         this.tradeStatisticsManager = tradeStatisticsManager;
+        this.candleService = candleService;
         this.preferences = preferences;
         this.priceFeedService = priceFeedService;
         this.navigation = navigation;
@@ -200,7 +203,7 @@ class TradesChartsViewModel extends ActivatableViewModel {
 
     private void applyAsyncUsdAveragePriceMapsPerTickUnit(CompletableFuture<Boolean> completeFuture) {
         long ts = System.currentTimeMillis();
-        ChartCalculations.getUsdAveragePriceMapsPerTickUnit(tradeStatisticsManager.getObservableTradeStatisticsSet())
+        ChartCalculations.getUsdAveragePriceMapsPerTickUnit(candleService)
                 .whenComplete((usdAveragePriceMapsPerTickUnit, throwable) -> {
                     if (deactivateCalled) {
                         return;
@@ -227,7 +230,7 @@ class TradesChartsViewModel extends ActivatableViewModel {
                                                                             @Nullable CompletableFuture<Boolean> completeFuture) {
         CompletableFuture<Boolean> future = new CompletableFuture<>();
         long ts = System.currentTimeMillis();
-        ChartCalculations.getTradeStatisticsForCurrency(tradeStatisticsManager.getObservableTradeStatisticsSet(),
+        ChartCalculations.getTradeStatisticsForCurrency(tradeStatisticsManager,
                 currencyCode,
                 showAllTradeCurrenciesProperty.get())
                 .whenComplete((list, throwable) -> {
@@ -256,10 +259,17 @@ class TradesChartsViewModel extends ActivatableViewModel {
 
     private void applyAsyncChartData() {
         long ts = System.currentTimeMillis();
-        ChartCalculations.getUpdateChartResult(new ArrayList<>(tradeStatisticsByCurrency),
-                tickUnit,
-                usdAveragePriceMapsPerTickUnit,
-                getCurrencyCode())
+        // The candles are only kept per currency, so we aggregate the trade statistics if all currencies are shown
+        CompletableFuture<ChartCalculations.UpdateChartResult> updateChartResultFuture = showAllTradeCurrenciesProperty.get() ?
+                ChartCalculations.getUpdateChartResult(new ArrayList<>(tradeStatisticsByCurrency),
+                        tickUnit,
+                        usdAveragePriceMapsPerTickUnit,
+                        getCurrencyCode()) :
+                ChartCalculations.getUpdateChartResult(candleService,
+                        tickUnit,
+                        usdAveragePriceMapsPerTickUnit,
+                        getCurrencyCode());
+        updateChartResultFuture
                 .whenComplete((updateChartResult, throwable) -> {
                     if (deactivateCalled) {
                         return;
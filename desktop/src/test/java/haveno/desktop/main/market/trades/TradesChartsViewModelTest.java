@@ -25,6 +25,7 @@ import haveno.core.payment.payload.PaymentMethod;
 import haveno.core.provider.price.PriceFeedService;
 import haveno.core.trade.HavenoUtils;
 import haveno.core.trade.statistics.TradeStatistics3;
+import haveno.core.trade.statistics.TradeStatisticsCandleService;
 import haveno.core.trade.statistics.TradeStatisticsManager;
 import haveno.core.user.Preferences;
 import haveno.desktop.Navigation;
@@ -99,8 +100,8 @@ public class TradesChartsViewModelTest {
     @BeforeEach
     public void setup() throws IOException {
         tradeStatisticsManager = mock(TradeStatisticsManager.class);
-        model = new TradesChartsViewModel(tradeStatisticsManager, mock(Preferences.class), mock(PriceFeedService.class),
-                mock(Navigation.class));
+        model = new TradesChartsViewModel(tradeStatisticsManager, mock(TradeStatisticsCandleService.class),
+                mock(Preferences.class), mock(PriceFeedService.class), mock(Navigation.class));
         dir = File.createTempFile("temp_tests1", "");
         //noinspection ResultOfMethodCallIgnored
         dir.delete();
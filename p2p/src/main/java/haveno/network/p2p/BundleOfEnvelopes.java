@@ -65,11 +65,17 @@ public final class BundleOfEnvelopes extends BroadcastMessage implements Extende
     public protobuf.NetworkEnvelope toProtoNetworkEnvelope() {
         return getNetworkEnvelopeBuilder()
                 .setBundleOfEnvelopes(protobuf.BundleOfEnvelopes.newBuilder().addAllEnvelopes(envelopes.stream()
-                        .map(NetworkEnvelope::toProtoNetworkEnvelope)
+                        .map(NetworkEnvelope::toCachedProtoNetworkEnvelope)
                         .collect(Collectors.toList())))
                 .build();
     }
 
+    // The envelopes get filtered by capabilities for each connection, so we must not cache the bundle itself
+    @Override
+    protected boolean isSerializationCacheable() {
+        return false;
+    }
+
     public static BundleOfEnvelopes fromProto(protobuf.BundleOfEnvelopes proto,
                                               NetworkProtoResolver resolver,
                                               String messageVersion) {
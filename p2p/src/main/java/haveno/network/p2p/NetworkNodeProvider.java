@@ -52,9 +52,10 @@ public class NetworkNodeProvider implements Provider<NetworkNode> {
             @Named(Config.TOR_CONTROL_PASSWORD) String password,
             @Nullable @Named(Config.TOR_CONTROL_COOKIE_FILE) File cookieFile,
             @Named(Config.TOR_STREAM_ISOLATION) boolean streamIsolation,
-            @Named(Config.TOR_CONTROL_USE_SAFE_COOKIE_AUTH) boolean useSafeCookieAuthentication) {
+            @Named(Config.TOR_CONTROL_USE_SAFE_COOKIE_AUTH) boolean useSafeCookieAuthentication,
+            @Named(Config.NETWORK_ENGINE) Config.NetworkEngine networkEngine) {
         if (useLocalhostForP2P) {
-            networkNode = new LocalhostNetworkNode(port, networkProtoResolver, banFilter, maxConnections);
+            networkNode = new LocalhostNetworkNode(port, networkProtoResolver, banFilter, maxConnections, networkEngine);
         } else {
             TorMode torMode = getTorMode(bridgeAddressProvider,
                     torDir,
@@ -65,7 +66,8 @@ public class NetworkNodeProvider implements Provider<NetworkNode> {
                     password,
                     cookieFile,
                     useSafeCookieAuthentication);
-            networkNode = new TorNetworkNode(port, networkProtoResolver, streamIsolation, torMode, banFilter, maxConnections, controlHost);
+            networkNode = new TorNetworkNode(port, networkProtoResolver, streamIsolation, torMode, banFilter, maxConnections, controlHost,
+                    networkEngine);
         }
     }
 
@@ -25,6 +25,7 @@ import haveno.common.app.AppModule;
 import haveno.common.config.Config;
 import static haveno.common.config.Config.BAN_LIST;
 import static haveno.common.config.Config.MAX_CONNECTIONS;
+import static haveno.common.config.Config.NETWORK_ENGINE;
 import static haveno.common.config.Config.NODE_PORT;
 import static haveno.common.config.Config.REPUBLISH_MAILBOX_ENTRIES;
 import static haveno.common.config.Config.SOCKS_5_PROXY_HTTP_ADDRESS;
@@ -89,6 +90,7 @@ public class P2PModule extends AppModule {
         bind(int.class).annotatedWith(named(NODE_PORT)).toInstance(config.nodePort);
 
         bindConstant().annotatedWith(named(MAX_CONNECTIONS)).to(config.maxConnections);
+        bind(Config.NetworkEngine.class).annotatedWith(named(NETWORK_ENGINE)).toInstance(config.networkEngine);
 
         bind(new TypeLiteral<List<String>>(){}).annotatedWith(named(BAN_LIST)).toInstance(config.banList);
         bindConstant().annotatedWith(named(SOCKS_5_PROXY_XMR_ADDRESS)).to(config.socks5ProxyXmrAddress);
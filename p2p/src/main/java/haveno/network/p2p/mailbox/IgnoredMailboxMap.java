@@ -26,6 +26,7 @@ import lombok.extern.slf4j.Slf4j;
 
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 @Slf4j
 @EqualsAndHashCode
@@ -34,7 +35,8 @@ public class IgnoredMailboxMap implements PersistableEnvelope {
     private final Map<String, Long> dataMap;
 
     public IgnoredMailboxMap() {
-        this.dataMap = new HashMap<>();
+        // Entries get added from the parallel decryption of mailbox messages
+        this.dataMap = new ConcurrentHashMap<>();
     }
 
     ///////////////////////////////////////////////////////////////////////////////////////////
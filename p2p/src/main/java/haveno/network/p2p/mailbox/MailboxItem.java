@@ -22,6 +22,7 @@ import haveno.common.proto.network.NetworkProtoResolver;
 import haveno.common.proto.persistable.PersistablePayload;
 import haveno.network.p2p.DecryptedMessageWithPubKey;
 import haveno.network.p2p.storage.payload.ProtectedMailboxStorageEntry;
+import lombok.EqualsAndHashCode;
 import lombok.Value;
 
 import javax.annotation.Nullable;
@@ -33,17 +34,28 @@ public class MailboxItem implements PersistablePayload {
     private final ProtectedMailboxStorageEntry protectedMailboxStorageEntry;
     @Nullable
     private final DecryptedMessageWithPubKey decryptedMessageWithPubKey;
+    // The creation date of the entry can get back dated. We persist the value taken at creation of the item, so
+    // serializing the item off the user thread gives a consistent result, see snapshot().
+    @EqualsAndHashCode.Exclude
+    private final long creationTimeStamp;
 
     public MailboxItem(ProtectedMailboxStorageEntry protectedMailboxStorageEntry,
                        @Nullable DecryptedMessageWithPubKey decryptedMessageWithPubKey) {
         this.protectedMailboxStorageEntry = protectedMailboxStorageEntry;
         this.decryptedMessageWithPubKey = decryptedMessageWithPubKey;
+        this.creationTimeStamp = protectedMailboxStorageEntry.getCreationTimeStamp();
     }
 
     @Override
     public protobuf.MailboxItem toProtoMessage() {
+        protobuf.ProtectedMailboxStorageEntry entryProto = protectedMailboxStorageEntry.toProtoMessage();
+        if (entryProto.getEntry().getCreationTimeStamp() != creationTimeStamp) {
+            entryProto = entryProto.toBuilder()
+                    .setEntry(entryProto.getEntry().toBuilder().setCreationTimeStamp(creationTimeStamp))
+                    .build();
+        }
         protobuf.MailboxItem.Builder builder = protobuf.MailboxItem.newBuilder()
-                .setProtectedMailboxStorageEntry(protectedMailboxStorageEntry.toProtoMessage());
+                .setProtectedMailboxStorageEntry(entryProto);
 
         Optional.ofNullable(decryptedMessageWithPubKey).ifPresent(decryptedMessageWithPubKey ->
                 builder.setDecryptedMessageWithPubKey(decryptedMessageWithPubKey.toProtoMessage()));
@@ -64,6 +76,15 @@ public class MailboxItem implements PersistablePayload {
                 decryptedMessageWithPubKey);
     }
 
+    /**
+     * Returns an item with the current creation date of the entry. Called on the user thread before persisting.
+     */
+    public MailboxItem snapshot() {
+        return protectedMailboxStorageEntry.getCreationTimeStamp() == creationTimeStamp ?
+                this :
+                new MailboxItem(protectedMailboxStorageEntry, decryptedMessageWithPubKey);
+    }
+
     public boolean isMine() {
         return decryptedMessageWithPubKey != null;
     }
@@ -20,6 +20,7 @@ package haveno.network.p2p.mailbox;
 import com.google.protobuf.Message;
 import haveno.common.proto.ProtobufferException;
 import haveno.common.proto.network.NetworkProtoResolver;
+import haveno.common.proto.persistable.PersistableEnvelope;
 import haveno.common.proto.persistable.PersistableList;
 import lombok.EqualsAndHashCode;
 import lombok.extern.slf4j.Slf4j;
@@ -56,6 +57,17 @@ public class MailboxMessageList extends PersistableList<MailboxItem> {
                 .build();
     }
 
+    // MailboxItems are immutable apart from the creation date of their entry, which gets taken by the item
+    // snapshot. So a copy of the list can be serialized off the user thread.
+    @Override
+    public PersistableEnvelope toPersistableSnapshot() {
+        synchronized (getList()) {
+            return new MailboxMessageList(getList().stream()
+                    .map(MailboxItem::snapshot)
+                    .collect(Collectors.toCollection(ArrayList::new)));
+        }
+    }
+
     public static MailboxMessageList fromProto(protobuf.MailboxMessageList proto,
                                                NetworkProtoResolver networkProtoResolver) {
         return new MailboxMessageList(new ArrayList<>(proto.getMailboxItemList().stream()
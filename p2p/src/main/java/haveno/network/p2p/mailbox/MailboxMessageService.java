@@ -34,6 +34,7 @@
 
 package haveno.network.p2p.mailbox;
 
+import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Joiner;
 import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkNotNull;
@@ -44,12 +45,14 @@ import com.google.common.util.concurrent.SettableFuture;
 import com.google.inject.Inject;
 import com.google.inject.Singleton;
 import com.google.inject.name.Named;
+import haveno.common.ThreadUtils;
 import haveno.common.UserThread;
 import haveno.common.config.Config;
 import haveno.common.crypto.CryptoException;
 import haveno.common.crypto.KeyRing;
 import haveno.common.crypto.PubKeyRing;
 import haveno.common.crypto.SealedAndSigned;
+import haveno.common.crypto.Sig;
 import haveno.common.persistence.PersistenceManager;
 import haveno.common.proto.ProtobufferException;
 import haveno.common.proto.network.NetworkEnvelope;
@@ -79,21 +82,23 @@ import java.security.PublicKey;
 import java.time.Clock;
 import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Comparator;
 import java.util.Date;
 import java.util.HashMap;
-import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Queue;
 import java.util.Random;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArraySet;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Collectors;
 import javax.annotation.Nullable;
+import lombok.Value;
 import lombok.extern.slf4j.Slf4j;
 import org.jetbrains.annotations.NotNull;
 
@@ -120,6 +125,7 @@ import org.jetbrains.annotations.NotNull;
 public class MailboxMessageService implements HashMapChangedListener, PersistedDataHost {
     private static final long REPUBLISH_DELAY_SEC = TimeUnit.MINUTES.toSeconds(2);
     private static final long MAX_SERIALIZED_SIZE = 50000;
+    private static final int MAX_DECRYPTION_THREADS = Math.max(1, Math.min(4, Runtime.getRuntime().availableProcessors()));
 
     private final NetworkNode networkNode;
     private final PeerManager peerManager;
@@ -133,7 +139,13 @@ public class MailboxMessageService implements HashMapChangedListener, PersistedD
 
     private final Set<DecryptedMailboxListener> decryptedMailboxListeners = new CopyOnWriteArraySet<>();
     private final MailboxMessageList mailboxMessageList = new MailboxMessageList();
-    private final Map<String, MailboxItem> mailboxItemsByUid = new HashMap<>();
+    private final Map<String, MailboxItem> mailboxItemsByUid = new ConcurrentHashMap<>();
+
+    // Metrics of the processed mailbox entries
+    private final AtomicLong numDecrypted = new AtomicLong();
+    private final AtomicLong numSkipped = new AtomicLong();
+    private final AtomicLong numIgnored = new AtomicLong();
+    private final AtomicLong numFailed = new AtomicLong();
 
     private boolean isBootstrapped;
     private boolean allServicesInitialized;
@@ -348,24 +360,24 @@ public class MailboxMessageService implements HashMapChangedListener, PersistedD
      */
     public void removeMailboxMsg(MailboxMessage mailboxMessage) {
         if (isBootstrapped) {
-            synchronized (mailboxMessageList) {
-                String uid = mailboxMessage.getUid();
-                if (!mailboxItemsByUid.containsKey(uid)) {
-                    return;
-                }
-
-                // We called removeMailboxEntryFromNetwork at processMyMailboxItem,
-                // but in case we have not been bootstrapped at that moment it did not get removed from the network.
-                // So to be sure it gets removed we try to remove it now again.
-                // In case it was removed earlier it will return early anyway inside the p2pDataStorage.
-                removeMailboxEntryFromNetwork(mailboxItemsByUid.get(uid).getProtectedMailboxStorageEntry());
-
-                // We will get called the onRemoved handler which triggers removeMailboxItemFromMap as well.
-                // But as we use the uid from the decrypted data which is not available at onRemoved we need to
-                // call removeMailboxItemFromMap here. The onRemoved only removes foreign mailBoxMessages.
-                log.trace("## removeMailboxMsg uid={}", uid);
-                removeMailboxItemFromLocalStore(uid);
+            String uid = mailboxMessage.getUid();
+            MailboxItem mailboxItem = mailboxItemsByUid.get(uid);
+            if (mailboxItem == null) {
+                return;
             }
+
+            // We called removeMailboxEntryFromNetwork at processMyMailboxItem,
+            // but in case we have not been bootstrapped at that moment it did not get removed from the network.
+            // So to be sure it gets removed we try to remove it now again.
+            // In case it was removed earlier it will return early anyway inside the p2pDataStorage.
+            // We do not hold the mailboxMessageList lock here as the storage notifies our onRemoved handler.
+            removeMailboxEntryFromNetwork(mailboxItem.getProtectedMailboxStorageEntry());
+
+            // We will get called the onRemoved handler which triggers removeMailboxItemFromMap as well.
+            // But as we use the uid from the decrypted data which is not available at onRemoved we need to
+            // call removeMailboxItemFromMap here. The onRemoved only removes foreign mailBoxMessages.
+            log.trace("## removeMailboxMsg uid={}", uid);
+            removeMailboxItemFromLocalStore(uid);
         } else {
             // In case the network was not ready yet we try again later
             UserThread.runAfter(() -> removeMailboxMsg(mailboxMessage), 30);
@@ -413,6 +425,10 @@ public class MailboxMessageService implements HashMapChangedListener, PersistedD
                 .forEach(this::removeMailboxItemFromLocalStore);
     }
 
+    public Metrics getMetrics() {
+        return new Metrics(numDecrypted.get(), numSkipped.get(), numIgnored.get(), numFailed.get());
+    }
+
     public static void setMailboxMessageComparator(Comparator<MailboxMessage> comparator) {
         mailboxMessageComparator = comparator;
     }
@@ -471,11 +487,28 @@ public class MailboxMessageService implements HashMapChangedListener, PersistedD
         }, MoreExecutors.directExecutor());
     }
 
-    private Set<MailboxItem> getMailboxItems(Collection<ProtectedMailboxStorageEntry> protectedMailboxStorageEntries) {
-        Set<MailboxItem> mailboxItems = new HashSet<>();
-        protectedMailboxStorageEntries.stream()
-                .map(this::tryDecryptProtectedMailboxStorageEntry)
-                .forEach(mailboxItems::add);
+    @VisibleForTesting
+    Set<MailboxItem> getMailboxItems(Collection<ProtectedMailboxStorageEntry> protectedMailboxStorageEntries) {
+        Set<MailboxItem> mailboxItems = ConcurrentHashMap.newKeySet();
+        List<Runnable> decryptionTasks = new ArrayList<>();
+        byte[] ourPubKeyBytes = Sig.getPublicKeyBytes(keyRing.getSignatureKeyPair().getPublic());
+        long numSkippedInBatch = 0;
+        for (ProtectedMailboxStorageEntry protectedMailboxStorageEntry : protectedMailboxStorageEntries) {
+            // The sender sets our signature pub key as receiver so we can remove the entry after processing it.
+            // Comparing it is much cheaper than trying to decrypt messages for other receivers.
+            if (Arrays.equals(protectedMailboxStorageEntry.getReceiversPubKeyBytes(), ourPubKeyBytes)) {
+                decryptionTasks.add(() -> mailboxItems.add(tryDecryptProtectedMailboxStorageEntry(protectedMailboxStorageEntry)));
+            } else {
+                mailboxItems.add(new MailboxItem(protectedMailboxStorageEntry, null));
+                numSkippedInBatch++;
+            }
+        }
+        numSkipped.addAndGet(numSkippedInBatch);
+        ThreadUtils.awaitTasks(decryptionTasks, MAX_DECRYPTION_THREADS);
+        if (!protectedMailboxStorageEntries.isEmpty()) {
+            log.debug("Processed {} mailbox entries. Skipped {} entries for other receivers. Metrics: {}",
+                    protectedMailboxStorageEntries.size(), numSkippedInBatch, getMetrics());
+        }
         return mailboxItems;
     }
 
@@ -487,20 +520,23 @@ public class MailboxMessageService implements HashMapChangedListener, PersistedD
         String uid = prefixedSealedAndSignedMessage.getUid();
         if (ignoredMailboxService.isIgnored(uid)) {
             // We had persisted a past failed decryption attempt on that message so we don't try again and return early
+            numIgnored.incrementAndGet();
             return new MailboxItem(protectedMailboxStorageEntry, null);
         }
         try {
             DecryptedMessageWithPubKey decryptedMessageWithPubKey = encryptionService.decryptAndVerify(sealedAndSigned);
             checkArgument(decryptedMessageWithPubKey.getNetworkEnvelope() instanceof MailboxMessage);
+            numDecrypted.incrementAndGet();
             return new MailboxItem(protectedMailboxStorageEntry, decryptedMessageWithPubKey);
         } catch (CryptoException ignore) {
-            // Expected if message was not intended for us
+            // Not expected as the message was addressed to us, but the sender might have used a wrong key
             // We persist those entries so at the next startup we do not need to try to decrypt it anymore
             ignoredMailboxService.ignore(uid, protectedMailboxStorageEntry.getCreationTimeStamp());
         } catch (ProtobufferException e) {
             log.error(e.toString());
             e.getStackTrace();
         }
+        numFailed.incrementAndGet();
         return new MailboxItem(protectedMailboxStorageEntry, null);
     }
 
@@ -692,9 +728,14 @@ public class MailboxMessageService implements HashMapChangedListener, PersistedD
     }
 
     private void removeMailboxItemFromLocalStore(String uid) {
-        MailboxItem mailboxItem = mailboxItemsByUid.get(uid);
-        mailboxItemsByUid.remove(uid);
-        mailboxMessageList.remove(mailboxItem);
+        MailboxItem mailboxItem;
+        synchronized (mailboxMessageList) {
+            mailboxItem = mailboxItemsByUid.remove(uid);
+            if (mailboxItem == null) {
+                return; // already removed
+            }
+            mailboxMessageList.remove(mailboxItem);
+        }
         log.trace("## removeMailboxItemFromMap uid={}\nhash={}\nmailboxItemsByUid={}",
                 uid,
                 P2PDataStorage.get32ByteHashAsByteArray(mailboxItem.getProtectedMailboxStorageEntry().getProtectedStoragePayload()),
@@ -706,4 +747,15 @@ public class MailboxMessageService implements HashMapChangedListener, PersistedD
     private void requestPersistence() {
         persistenceManager.requestPersistence();
     }
+
+    @Value
+    public static class Metrics {
+        // Entries addressed to us which got decrypted
+        long numDecrypted;
+        // Entries for other receivers which we did not try to decrypt
+        long numSkipped;
+        // Entries which failed decryption at a previous startup
+        long numIgnored;
+        long numFailed;
+    }
 }
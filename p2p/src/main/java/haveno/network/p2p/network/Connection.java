@@ -48,7 +48,6 @@ import haveno.common.config.Config;
 import haveno.common.proto.ProtobufferException;
 import haveno.common.proto.network.NetworkEnvelope;
 import haveno.common.proto.network.NetworkProtoResolver;
-import haveno.common.util.SingleThreadExecutorUtils;
 import haveno.common.util.Utilities;
 import haveno.network.p2p.BundleOfEnvelopes;
 import haveno.network.p2p.CloseConnectionMessage;
@@ -159,7 +158,7 @@ public class Connection implements HasCapabilities, Runnable, MessageListener {
     private final ObjectProperty<NodeAddress> peersNodeAddressProperty = new SimpleObjectProperty<>();
     private final List<Long> messageTimeStamps = new ArrayList<>();
     private final CopyOnWriteArraySet<MessageListener> messageListeners = new CopyOnWriteArraySet<>();
-    private volatile long lastSendTimeStamp = 0;
+    private final TokenBucket sendMsgTokenBucket;
     // We use a weak reference here to ensure that no connection causes a memory leak in case it get closed without
     // the shutDown being called.
     private final CopyOnWriteArraySet<WeakReference<SupportedCapabilitiesListener>> capabilitiesListeners = new CopyOnWriteArraySet<>();
@@ -185,7 +184,12 @@ public class Connection implements HasCapabilities, Runnable, MessageListener {
         this.banFilter = banFilter;
 
         this.uid = UUID.randomUUID().toString();
-        this.executorService = SingleThreadExecutorUtils.getSingleThreadExecutor("Executor service for connection with uid " + uid);
+        this.executorService = NetworkExecutors.newConnectionExecutor(getNetworkEngine(),
+                "Executor service for connection with uid " + uid);
+        // We permit a burst of as many messages as fit into the former throttle sleep, afterwards we send at most one
+        // message per sendMsgThrottleTrigger ms
+        this.sendMsgTokenBucket = new TokenBucket(getSendMsgThrottleTrigger(),
+                getSendMsgThrottleSleep() / Math.max(1, getSendMsgThrottleTrigger()));
 
         statistic = new Statistic();
 
@@ -253,24 +257,21 @@ public class Connection implements HasCapabilities, Runnable, MessageListener {
             log.debug("Capability for networkEnvelope is required but not supported");
             return;
         }
-        int networkEnvelopeSize = networkEnvelope.toProtoNetworkEnvelope().getSerializedSize();
+        // We serialize only once and use the bytes for writing and for the metrics
+        byte[] serializedEnvelope = networkEnvelope.toDelimitedByteArray();
+        int networkEnvelopeSize = serializedEnvelope.length;
         try {
-            // Throttle outbound network_messages
-            long now = System.currentTimeMillis();
-            long elapsed = now - lastSendTimeStamp;
-            if (elapsed < getSendMsgThrottleTrigger()) {
-                log.debug("We got 2 sendMessage requests in less than {} ms. We set the thread to sleep " +
-                                "for {} ms to avoid flooding our peer. lastSendTimeStamp={}, now={}, elapsed={}, networkEnvelope={}",
-                        getSendMsgThrottleTrigger(), getSendMsgThrottleSleep(), lastSendTimeStamp, now, elapsed,
-                        networkEnvelope.getClass().getSimpleName());
-
-                Thread.sleep(getSendMsgThrottleSleep());
+            // Throttle outbound network_messages. We only wait until the next token of our bucket is available.
+            long delayNanos = sendMsgTokenBucket.reserve();
+            if (delayNanos > 0) {
+                log.debug("We got too many sendMessage requests in short succession. We wait for {} ms " +
+                                "to avoid flooding our peer. networkEnvelope={}",
+                        TimeUnit.NANOSECONDS.toMillis(delayNanos), networkEnvelope.getClass().getSimpleName());
+                TimeUnit.NANOSECONDS.sleep(delayNanos);
             }
 
-            lastSendTimeStamp = now;
-
             if (!stopped) {
-                protoOutputStream.writeEnvelope(networkEnvelope);
+                protoOutputStream.writeEnvelope(networkEnvelope, serializedEnvelope);
                 ThreadUtils.execute(() -> messageListeners.forEach(e -> e.onMessageSent(networkEnvelope, this)), THREAD_ID);
                 ThreadUtils.execute(() -> connectionStatistics.addSendMsgMetrics(System.currentTimeMillis() - ts, networkEnvelopeSize), THREAD_ID);
             }
@@ -373,6 +374,10 @@ public class Connection implements HasCapabilities, Runnable, MessageListener {
         return config != null ? config.sendMsgThrottleTrigger : 20;
     }
 
+    private static Config.NetworkEngine getNetworkEngine() {
+        return config != null ? config.networkEngine : Config.NetworkEngine.PLATFORM_THREADS;
+    }
+
     private boolean violatesThrottleLimit(long now, int seconds, int messageCountLimit) {
         if (messageTimeStamps.size() >= messageCountLimit) {
 
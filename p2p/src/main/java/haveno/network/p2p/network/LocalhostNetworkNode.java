@@ -20,6 +20,7 @@ package haveno.network.p2p.network;
 import haveno.network.p2p.NodeAddress;
 
 import haveno.common.UserThread;
+import haveno.common.config.Config;
 import haveno.common.proto.network.NetworkProtoResolver;
 
 import java.net.ServerSocket;
@@ -56,8 +57,9 @@ public class LocalhostNetworkNode extends NetworkNode {
     public LocalhostNetworkNode(int port,
             NetworkProtoResolver networkProtoResolver,
             @Nullable BanFilter banFilter,
-            int maxConnections) {
-        super(port, networkProtoResolver, banFilter, maxConnections);
+            int maxConnections,
+            Config.NetworkEngine networkEngine) {
+        super(port, networkProtoResolver, banFilter, maxConnections, networkEngine);
     }
 
     @Override
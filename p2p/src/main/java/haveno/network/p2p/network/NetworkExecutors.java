@@ -0,0 +1,60 @@
+/*
+ * This file is part of Haveno.
+ *
+ * Haveno is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Haveno is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Haveno. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package haveno.network.p2p.network;
+
+import com.google.common.util.concurrent.ListeningExecutorService;
+import com.google.common.util.concurrent.MoreExecutors;
+import haveno.common.config.Config;
+import haveno.common.util.SingleThreadExecutorUtils;
+import haveno.common.util.Utilities;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Creates the executors used for the network I/O depending on the configured Config.NetworkEngine.
+ * With PLATFORM_THREADS each connection blocks a platform thread on reading its socket and the NetworkNode uses
+ * bounded thread pools. With VIRTUAL_THREADS the blocking socket I/O runs on virtual threads, so idle connections
+ * do not hold a platform thread. This allows seed nodes to serve many peers with a small number of carrier threads.
+ */
+final class NetworkExecutors {
+
+    private NetworkExecutors() {
+    }
+
+    static ExecutorService newConnectionExecutor(Config.NetworkEngine networkEngine, String name) {
+        if (networkEngine == Config.NetworkEngine.VIRTUAL_THREADS) {
+            return Executors.newSingleThreadExecutor(Thread.ofVirtual().name(name).factory());
+        }
+        return SingleThreadExecutorUtils.getSingleThreadExecutor(name);
+    }
+
+    static ListeningExecutorService newListeningExecutorService(Config.NetworkEngine networkEngine,
+                                                                String name,
+                                                                int corePoolSize,
+                                                                int maximumPoolSize,
+                                                                int queueCapacity,
+                                                                long keepAliveTimeInSec) {
+        if (networkEngine == Config.NetworkEngine.VIRTUAL_THREADS) {
+            // Virtual threads are cheap, so we do not pool them but use one per task
+            return MoreExecutors.listeningDecorator(Executors.newThreadPerTaskExecutor(
+                    Thread.ofVirtual().name(name + "-", 0).factory()));
+        }
+        return Utilities.getListeningExecutorService(name, corePoolSize, maximumPoolSize, queueCapacity, keepAliveTimeInSec);
+    }
+}
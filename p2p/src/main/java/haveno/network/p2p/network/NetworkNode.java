@@ -22,6 +22,7 @@ import haveno.network.p2p.NodeAddress;
 import haveno.common.Timer;
 import haveno.common.UserThread;
 import haveno.common.app.Capabilities;
+import haveno.common.config.Config;
 import haveno.common.proto.network.NetworkEnvelope;
 import haveno.common.proto.network.NetworkProtoResolver;
 import haveno.common.util.Utilities;
@@ -94,17 +95,20 @@ public abstract class NetworkNode implements MessageListener {
     NetworkNode(int servicePort,
             NetworkProtoResolver networkProtoResolver,
             @Nullable BanFilter banFilter,
-            int maxConnections) {
+            int maxConnections,
+            Config.NetworkEngine networkEngine) {
         this.servicePort = servicePort;
         this.networkProtoResolver = networkProtoResolver;
         this.banFilter = banFilter;
 
-        connectionExecutor = Utilities.getListeningExecutorService("NetworkNode.connection",
+        connectionExecutor = NetworkExecutors.newListeningExecutorService(networkEngine,
+                "NetworkNode.connection",
                 maxConnections * 2,
                 maxConnections * 3,
                 30,
                 30);
-        sendMessageExecutor = Utilities.getListeningExecutorService("NetworkNode.sendMessage",
+        sendMessageExecutor = NetworkExecutors.newListeningExecutorService(networkEngine,
+                "NetworkNode.sendMessage",
                 maxConnections * 2,
                 maxConnections * 3,
                 30,
@@ -49,11 +49,15 @@ class ProtoOutputStream {
         this.statistic = statistic;
     }
 
-    void writeEnvelope(NetworkEnvelope envelope) {
+    /**
+     * @param serializedEnvelope The length delimited serialized envelope as created by
+     *                           NetworkEnvelope.toDelimitedByteArray
+     */
+    void writeEnvelope(NetworkEnvelope envelope, byte[] serializedEnvelope) {
         lock.lock();
 
         try {
-            writeEnvelopeOrThrow(envelope);
+            writeEnvelopeOrThrow(envelope, serializedEnvelope);
         } catch (IOException e) {
             if (!isConnectionActive.get()) {
                 // Connection was closed by us.
@@ -86,16 +90,15 @@ class ProtoOutputStream {
         }
     }
 
-    private void writeEnvelopeOrThrow(NetworkEnvelope envelope) throws IOException {
+    private void writeEnvelopeOrThrow(NetworkEnvelope envelope, byte[] serializedEnvelope) throws IOException {
         long ts = System.currentTimeMillis();
-        protobuf.NetworkEnvelope proto = envelope.toProtoNetworkEnvelope();
-        proto.writeDelimitedTo(outputStream);
+        outputStream.write(serializedEnvelope);
         outputStream.flush();
         long duration = System.currentTimeMillis() - ts;
         if (duration > 10000) {
             log.info("Sending {} to peer took {} sec.", envelope.getClass().getSimpleName(), duration / 1000d);
         }
-        statistic.addSentBytes(proto.getSerializedSize());
+        statistic.addSentBytes(serializedEnvelope.length);
         statistic.addSentMessage(envelope);
 
         if (!(envelope instanceof KeepAliveMessage)) {
@@ -0,0 +1,55 @@
+/*
+ * This file is part of Haveno.
+ *
+ * Haveno is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Haveno is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Haveno. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package haveno.network.p2p.network;
+
+import javax.annotation.concurrent.ThreadSafe;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token bucket used for pacing the outbound messages of a connection. Tokens are refilled at a constant rate and up to
+ * capacity tokens can be used as a burst. Instead of sleeping a fixed time if messages are sent in short succession,
+ * a sender reserves a token and only waits the time until the token becomes available.
+ * Implemented as generic cell rate algorithm, so we only need to keep the theoretical arrival time of the next message.
+ */
+@ThreadSafe
+final class TokenBucket {
+    private final long nanosPerToken;
+    private final long burstToleranceNanos;
+    private long theoreticalArrivalTime = Long.MIN_VALUE;
+
+    TokenBucket(long refillIntervalMs, int capacity) {
+        this.nanosPerToken = TimeUnit.MILLISECONDS.toNanos(Math.max(0, refillIntervalMs));
+        this.burstToleranceNanos = nanosPerToken * (Math.max(1, capacity) - 1);
+    }
+
+    /**
+     * Reserves a token.
+     *
+     * @return The time in nanoseconds the caller has to wait until the reserved token is available.
+     */
+    long reserve() {
+        return reserve(System.nanoTime());
+    }
+
+    synchronized long reserve(long now) {
+        long arrivalTime = theoreticalArrivalTime == Long.MIN_VALUE ? now : Math.max(theoreticalArrivalTime, now);
+        theoreticalArrivalTime = arrivalTime + nanosPerToken;
+        return Math.max(0, arrivalTime - burstToleranceNanos - now);
+    }
+}
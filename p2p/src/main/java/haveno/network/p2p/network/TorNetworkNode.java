@@ -22,6 +22,7 @@ import haveno.network.utils.Utils;
 
 import haveno.common.Timer;
 import haveno.common.UserThread;
+import haveno.common.config.Config;
 import haveno.common.proto.network.NetworkProtoResolver;
 import haveno.common.util.SingleThreadExecutorUtils;
 
@@ -72,8 +73,9 @@ public class TorNetworkNode extends NetworkNode {
             boolean useStreamIsolation,
             TorMode torMode,
             @Nullable BanFilter banFilter,
-            int maxConnections, String torControlHost) {
-        super(servicePort, networkProtoResolver, banFilter, maxConnections);
+            int maxConnections, String torControlHost,
+            Config.NetworkEngine networkEngine) {
+        super(servicePort, networkProtoResolver, banFilter, maxConnections, networkEngine);
         this.torMode = torMode;
         this.streamIsolation = useStreamIsolation;
         this.torControlHost = torControlHost;
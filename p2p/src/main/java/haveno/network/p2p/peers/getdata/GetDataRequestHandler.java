@@ -61,6 +61,7 @@ public class GetDataRequestHandler {
     private final Listener listener;
     private Timer timeoutTimer;
     private boolean stopped;
+    private volatile boolean sendingResponse;
 
 
     ///////////////////////////////////////////////////////////////////////////////////////////
@@ -115,6 +116,7 @@ public class GetDataRequestHandler {
                     TIMEOUT, TimeUnit.SECONDS);
         }
 
+        sendingResponse = true;
         SettableFuture<Connection> future = networkNode.sendMessage(connection, getDataResponse);
         Futures.addCallback(future, new FutureCallback<>() {
             @Override
@@ -148,6 +150,14 @@ public class GetDataRequestHandler {
         cleanup();
     }
 
+    /**
+     * @return true if the response was built and handed over for sending. Requests of the peer arriving after that
+     * are follow-up requests which must not wait for the send callback of this handler.
+     */
+    public boolean isSendingResponse() {
+        return sendingResponse;
+    }
+
 
     ///////////////////////////////////////////////////////////////////////////////////////////
     // Private
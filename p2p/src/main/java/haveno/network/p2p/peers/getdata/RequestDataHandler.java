@@ -23,6 +23,8 @@ import com.google.common.util.concurrent.MoreExecutors;
 import com.google.common.util.concurrent.SettableFuture;
 import haveno.common.Timer;
 import haveno.common.UserThread;
+import haveno.common.app.Capabilities;
+import haveno.common.app.Capability;
 import haveno.common.proto.network.NetworkEnvelope;
 import haveno.common.proto.network.NetworkPayload;
 import haveno.common.util.Tuple2;
@@ -43,6 +45,7 @@ import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Random;
 import java.util.Set;
@@ -51,6 +54,8 @@ import java.util.concurrent.atomic.AtomicInteger;
 @Slf4j
 class RequestDataHandler implements MessageListener {
     private static final long TIMEOUT = 240;
+    // Each follow-up request narrows down the mismatched DataSketch buckets, so a few rounds are enough
+    private static final int MAX_FOLLOW_UP_REQUESTS = 8;
 
     private NodeAddress peersNodeAddress;
     private String getDataRequestType;
@@ -87,6 +92,9 @@ class RequestDataHandler implements MessageListener {
     private Timer timeoutTimer;
     private final int nonce = new Random().nextInt();
     private boolean stopped;
+    private boolean isPreliminaryDataRequest;
+    private boolean wasTruncated;
+    private int numFollowUpRequests;
 
 
     ///////////////////////////////////////////////////////////////////////////////////////////
@@ -114,14 +122,40 @@ class RequestDataHandler implements MessageListener {
 
     void requestData(NodeAddress nodeAddress, boolean isPreliminaryDataRequest) {
         peersNodeAddress = nodeAddress;
+        this.isPreliminaryDataRequest = isPreliminaryDataRequest;
         if (!stopped) {
+            // We send a DataSketch instead of all our known keys if the peer supports it. For peers we have not been
+            // connected to yet we do not know the capabilities, so we use the full excluded keys request.
+            boolean useDataSketch = Capabilities.app.containsAll(Capability.DATA_SKETCH) &&
+                    peerManager.findPeersCapabilities(nodeAddress)
+                            .map(capabilities -> capabilities.containsAll(Capability.DATA_SKETCH))
+                            .orElse(false);
             GetDataRequest getDataRequest;
+            if (isPreliminaryDataRequest) {
+                getDataRequest = useDataSketch ?
+                        dataStorage.buildPreliminaryGetDataSketchRequest(nonce) :
+                        dataStorage.buildPreliminaryGetDataRequest(nonce);
+            } else {
+                getDataRequest = useDataSketch ?
+                        dataStorage.buildGetUpdatedDataSketchRequest(networkNode.getNodeAddress(), nonce) :
+                        dataStorage.buildGetUpdatedDataRequest(networkNode.getNodeAddress(), nonce);
+            }
+            sendGetDataRequest(nodeAddress, getDataRequest);
+        } else {
+            log.warn("We have stopped already. We ignore that requestData call.");
+        }
+    }
 
-            if (isPreliminaryDataRequest)
-                getDataRequest = dataStorage.buildPreliminaryGetDataRequest(nonce);
-            else
-                getDataRequest = dataStorage.buildGetUpdatedDataRequest(networkNode.getNodeAddress(), nonce);
+    private void requestMismatchedBuckets(NodeAddress nodeAddress, List<Integer> mismatchedBuckets) {
+        numFollowUpRequests++;
+        GetDataRequest getDataRequest = isPreliminaryDataRequest ?
+                dataStorage.buildPreliminaryGetDataRequest(nonce, mismatchedBuckets) :
+                dataStorage.buildGetUpdatedDataRequest(networkNode.getNodeAddress(), nonce, mismatchedBuckets);
+        sendGetDataRequest(nodeAddress, getDataRequest);
+    }
 
+    private void sendGetDataRequest(NodeAddress nodeAddress, GetDataRequest getDataRequest) {
+        if (!stopped) {
             if (timeoutTimer == null) {
                 timeoutTimer = UserThread.runAfter(() -> {  // setup before sending to avoid race conditions
                             if (!stopped) {
@@ -196,8 +230,20 @@ class RequestDataHandler implements MessageListener {
                         dataStorage.processGetDataResponse(getDataResponse,
                                 connection.getPeersNodeAddressOptional().get());
 
-                        cleanup();
-                        listener.onComplete(getDataResponse.isWasTruncated());
+                        wasTruncated = wasTruncated || getDataResponse.isWasTruncated();
+                        if (getDataResponse.requiresFollowUpRequest() && numFollowUpRequests < MAX_FOLLOW_UP_REQUESTS) {
+                            log.info("Our DataSketch differs in {} buckets from peer {}. We request the data of those buckets.",
+                                    getDataResponse.getMismatchedBuckets().size(), peersNodeAddress);
+                            requestMismatchedBuckets(peersNodeAddress, getDataResponse.getMismatchedBuckets());
+                        } else {
+                            if (getDataResponse.requiresFollowUpRequest()) {
+                                log.warn("Our DataSketch still differs in {} buckets from peer {} after {} follow-up requests. " +
+                                        "We do not request those buckets anymore.",
+                                        getDataResponse.getMismatchedBuckets().size(), peersNodeAddress, numFollowUpRequests);
+                            }
+                            cleanup();
+                            listener.onComplete(wasTruncated);
+                        }
                     } else {
                         log.warn("Nonce not matching. That can happen rarely if we get a response after a canceled " +
                                         "handshake (timeout causes connection close but peer might have sent a msg before " +
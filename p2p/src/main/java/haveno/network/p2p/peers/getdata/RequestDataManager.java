@@ -44,6 +44,7 @@ import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.stream.Collectors;
 import lombok.extern.slf4j.Slf4j;
 import org.jetbrains.annotations.Nullable;
@@ -278,33 +279,11 @@ public class RequestDataManager implements MessageListener, ConnectionListener,
                     return;
                 }
                 final String uid = connection.getUid();
-                if (!getDataRequestHandlers.containsKey(uid)) {
-                    GetDataRequestHandler getDataRequestHandler = new GetDataRequestHandler(networkNode, dataStorage,
-                            new GetDataRequestHandler.Listener() {
-                                @Override
-                                public void onComplete(int serializedSize) {
-                                    getDataRequestHandlers.remove(uid);
-                                    log.trace("requestDataHandshake completed.\n\tConnection={}", connection);
-
-                                    responseListeners.forEach(listener -> listener.onSuccess(serializedSize));
-                                }
-
-                                @Override
-                                public void onFault(String errorMessage, @Nullable Connection connection) {
-                                    getDataRequestHandlers.remove(uid);
-                                    if (!stopped) {
-                                        log.trace("GetDataRequestHandler failed.\n\tConnection={}\n\t" +
-                                                "ErrorMessage={}", connection, errorMessage);
-                                        peerManager.handleConnectionFault(connection);
-
-                                        responseListeners.forEach(ResponseListener::onFault);
-                                    } else {
-                                        log.warn("We have stopped already. We ignore that getDataRequestHandler.handle.onFault call.");
-                                    }
-                                }
-                            });
-                    getDataRequestHandlers.put(uid, getDataRequestHandler);
-                    getDataRequestHandler.handle(getDataRequest, connection);
+                GetDataRequestHandler existingHandler = getDataRequestHandlers.get(uid);
+                // The peer sends a follow-up request after it received our response to a DataSketch, which can be
+                // before the send callback of the existing handler got called
+                if (existingHandler == null || existingHandler.isSendingResponse()) {
+                    handleGetDataRequest(getDataRequest, connection, uid);
                 } else {
                     log.warn("We have already a GetDataRequestHandler for that connection started. " +
                             "We start a cleanup timer if the handler has not closed by itself in between 2 minutes.");
@@ -323,6 +302,38 @@ public class RequestDataManager implements MessageListener, ConnectionListener,
         }
     }
 
+    private void handleGetDataRequest(GetDataRequest getDataRequest, Connection connection, String uid) {
+        AtomicReference<GetDataRequestHandler> handlerReference = new AtomicReference<>();
+        GetDataRequestHandler getDataRequestHandler = new GetDataRequestHandler(networkNode, dataStorage,
+                new GetDataRequestHandler.Listener() {
+                    @Override
+                    public void onComplete(int serializedSize) {
+                        getDataRequestHandlers.remove(uid, handlerReference.get());
+                        log.trace("requestDataHandshake completed.\n\tConnection={}", connection);
+
+                        responseListeners.forEach(listener -> listener.onSuccess(serializedSize));
+                    }
+
+                    @Override
+                    public void onFault(String errorMessage, @Nullable Connection connection) {
+                        getDataRequestHandlers.remove(uid, handlerReference.get());
+                        if (!stopped) {
+                            log.trace("GetDataRequestHandler failed.\n\tConnection={}\n\t" +
+                                    "ErrorMessage={}", connection, errorMessage);
+                            peerManager.handleConnectionFault(connection);
+
+                            responseListeners.forEach(ResponseListener::onFault);
+                        } else {
+                            log.warn("We have stopped already. We ignore that getDataRequestHandler.handle.onFault call.");
+                        }
+                    }
+                });
+        handlerReference.set(getDataRequestHandler);
+        getDataRequestHandlers.put(uid, getDataRequestHandler);
+        getDataRequestHandler.handle(getDataRequest, connection);
+    }
+
+
     ///////////////////////////////////////////////////////////////////////////////////////////
     // RequestData
     ///////////////////////////////////////////////////////////////////////////////////////////
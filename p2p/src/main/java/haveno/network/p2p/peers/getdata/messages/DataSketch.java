@@ -0,0 +1,266 @@
+/*
+ * This file is part of Haveno.
+ *
+ * Haveno is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Haveno is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Haveno. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package haveno.network.p2p.peers.getdata.messages;
+
+import haveno.common.proto.network.NetworkPayload;
+import haveno.network.p2p.storage.P2PDataStorage;
+import lombok.EqualsAndHashCode;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Compact summary of a set of payload hashes used for reconciling the data of two peers.
+ * The hashes are distributed into buckets by their leading bits. For each bucket we keep the number of hashes and
+ * the XOR of their leading 8 bytes. The first sketch covers all buckets of the top level. Buckets which differ
+ * between the peers are split into sub-buckets for the next sketch until the requester has only a few keys in a
+ * bucket, which it sends as excluded keys. So the size of the exchanged data grows with the difference of the data
+ * sets instead of their size.
+ *
+ * A bucket id consists of a marker bit followed by the leading bits of the hashes in the bucket, so the position of
+ * the highest set bit gives the number of leading bits and the id of a sub-bucket is the id of its parent followed by
+ * the additional bits.
+ */
+@Slf4j
+@EqualsAndHashCode
+public final class DataSketch implements NetworkPayload {
+    private static final int TOP_LEVEL_BITS = 8;
+    private static final int SPLIT_BITS = 4;
+    private static final int MAX_BITS = 24;
+    private static final int MAX_BUCKETS = 1 << 16;
+
+    // Mismatched buckets in which the requester has at most that many keys are not split anymore but requested with
+    // the excluded keys of the bucket
+    public static final int MAX_KEYS_TO_EXCLUDE = 32;
+
+    private final int[] buckets;
+    private final long[] digests;
+    private final int[] counts;
+    @EqualsAndHashCode.Exclude
+    private final Map<Integer, Integer> indexByBucket = new HashMap<>();
+
+    /**
+     * Creates an empty sketch over all buckets of the top level.
+     */
+    public DataSketch() {
+        this(IntStream.range(0, 1 << TOP_LEVEL_BITS).map(prefix -> (1 << TOP_LEVEL_BITS) | prefix).toArray());
+    }
+
+    private DataSketch(int[] buckets) {
+        this(buckets, new long[buckets.length], new int[buckets.length]);
+    }
+
+    public static DataSketch fromKeys(Collection<P2PDataStorage.ByteArray> keys) {
+        DataSketch dataSketch = new DataSketch();
+        keys.forEach(dataSketch::add);
+        return dataSketch;
+    }
+
+    /**
+     * Returns the sketch of the given keys over the given buckets. Keys outside of those buckets are ignored, as are
+     * invalid buckets.
+     */
+    public static DataSketch fromKeys(Collection<P2PDataStorage.ByteArray> keys, Collection<Integer> buckets) {
+        DataSketch dataSketch = forBuckets(buckets);
+        keys.forEach(dataSketch::add);
+        return dataSketch;
+    }
+
+    /**
+     * Returns an empty sketch over the given buckets. Invalid buckets are ignored.
+     */
+    public static DataSketch forBuckets(Collection<Integer> buckets) {
+        return new DataSketch(buckets.stream()
+                .filter(DataSketch::isValidBucket)
+                .mapToInt(Integer::intValue)
+                .distinct()
+                .sorted()
+                .limit(MAX_BUCKETS)
+                .toArray());
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // PROTO BUFFER
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    private DataSketch(int[] buckets, long[] digests, int[] counts) {
+        this.buckets = buckets;
+        this.digests = digests;
+        this.counts = counts;
+        for (int i = 0; i < buckets.length; i++) {
+            indexByBucket.put(buckets[i], i);
+        }
+    }
+
+    @Override
+    public protobuf.DataSketch toProtoMessage() {
+        protobuf.DataSketch.Builder builder = protobuf.DataSketch.newBuilder();
+        for (int i = 0; i < buckets.length; i++) {
+            builder.addBuckets(buckets[i]);
+            builder.addDigests(digests[i]);
+            builder.addCounts(counts[i]);
+        }
+        return builder.build();
+    }
+
+    public static DataSketch fromProto(protobuf.DataSketch proto) {
+        int numBuckets = proto.getBucketsCount();
+        boolean isValid = numBuckets <= MAX_BUCKETS &&
+                proto.getDigestsCount() == numBuckets &&
+                proto.getCountsCount() == numBuckets &&
+                proto.getBucketsList().stream().allMatch(DataSketch::isValidBucket) &&
+                proto.getBucketsList().stream().distinct().count() == numBuckets;
+        if (!isValid) {
+            log.warn("Received an invalid DataSketch. buckets={}, digests={}, counts={}",
+                    numBuckets, proto.getDigestsCount(), proto.getCountsCount());
+            // We treat it as an empty sketch so the peer gets served as if it had no data
+            return new DataSketch();
+        }
+        int[] buckets = new int[numBuckets];
+        long[] digests = new long[numBuckets];
+        int[] counts = new int[numBuckets];
+        for (int i = 0; i < numBuckets; i++) {
+            buckets[i] = proto.getBuckets(i);
+            digests[i] = proto.getDigests(i);
+            counts[i] = proto.getCounts(i);
+        }
+        return new DataSketch(buckets, digests, counts);
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // API
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    public void add(P2PDataStorage.ByteArray key) {
+        for (int bits = TOP_LEVEL_BITS; bits <= MAX_BITS; bits += SPLIT_BITS) {
+            Integer index = indexByBucket.get(getBucket(key.bytes, bits));
+            if (index != null) {
+                digests[index] ^= getDigest(key.bytes);
+                counts[index]++;
+                return;
+            }
+        }
+    }
+
+    public List<Integer> getBuckets() {
+        return Arrays.stream(buckets).boxed().collect(Collectors.toList());
+    }
+
+    public int getCount(int bucket) {
+        Integer index = indexByBucket.get(bucket);
+        return index == null ? 0 : counts[index];
+    }
+
+    /**
+     * Returns the buckets of this sketch in which the given sketch differs from this sketch.
+     */
+    public List<Integer> getMismatchedBuckets(DataSketch other) {
+        List<Integer> mismatchedBuckets = new ArrayList<>();
+        for (int i = 0; i < buckets.length; i++) {
+            Integer otherIndex = other.indexByBucket.get(buckets[i]);
+            if (otherIndex == null || counts[i] != other.counts[otherIndex] || digests[i] != other.digests[otherIndex]) {
+                mismatchedBuckets.add(buckets[i]);
+            }
+        }
+        return mismatchedBuckets;
+    }
+
+    /**
+     * Returns the top level bucket of the key.
+     */
+    public static int getBucket(byte[] key) {
+        return getBucket(key, TOP_LEVEL_BITS);
+    }
+
+    public static boolean isInBuckets(byte[] key, Set<Integer> buckets) {
+        if (buckets.isEmpty()) {
+            return false;
+        }
+        for (int bits = TOP_LEVEL_BITS; bits <= MAX_BITS; bits += SPLIT_BITS) {
+            if (buckets.contains(getBucket(key, bits))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public static boolean canSplit(int bucket) {
+        return getBits(bucket) + SPLIT_BITS <= MAX_BITS;
+    }
+
+    /**
+     * Returns the sub-buckets of the given buckets.
+     */
+    public static List<Integer> split(Collection<Integer> buckets) {
+        List<Integer> subBuckets = new ArrayList<>();
+        buckets.stream()
+                .filter(DataSketch::canSplit)
+                .forEach(bucket -> {
+                    for (int i = 0; i < 1 << SPLIT_BITS; i++) {
+                        subBuckets.add((bucket << SPLIT_BITS) | i);
+                    }
+                });
+        return subBuckets;
+    }
+
+    public static boolean isValidBucket(int bucket) {
+        if (bucket <= 0) {
+            return false;
+        }
+        int bits = getBits(bucket);
+        return bits >= TOP_LEVEL_BITS && bits <= MAX_BITS && (bits - TOP_LEVEL_BITS) % SPLIT_BITS == 0;
+    }
+
+    static int getBucket(byte[] key, int bits) {
+        int prefix = 0;
+        for (int i = 0; i < 4; i++) {
+            prefix = (prefix << 8) | (i < key.length ? key[i] & 0xff : 0);
+        }
+        return (1 << bits) | (prefix >>> (32 - bits));
+    }
+
+    private static int getBits(int bucket) {
+        return 31 - Integer.numberOfLeadingZeros(bucket);
+    }
+
+    private static long getDigest(byte[] key) {
+        long digest = 0;
+        for (int i = 0; i < 8; i++) {
+            digest = (digest << 8) | (i < key.length ? key[i] & 0xff : 0);
+        }
+        return digest;
+    }
+
+    @Override
+    public String toString() {
+        return "DataSketch{" +
+                "\n     numBuckets=" + buckets.length +
+                ",\n     numKeys=" + Arrays.stream(counts).sum() +
+                "\n}";
+    }
+}
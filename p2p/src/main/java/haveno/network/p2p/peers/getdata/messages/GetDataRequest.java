@@ -41,13 +41,26 @@ public abstract class GetDataRequest extends NetworkEnvelope implements Extended
     @Nullable
     protected final String version;
 
+    // Sketch of the keys the requester knows. Only set if the peer supports Capability.DATA_SKETCH.
+    @Nullable
+    protected final DataSketch dataSketch;
+
+    // If not empty data in those DataSketch buckets is requested. Used for the follow-up request after a
+    // DataSketch was sent, in which case the excludedKeys only contain the keys of those buckets. A follow-up request
+    // can carry a DataSketch of the sub-buckets of other mismatched buckets as well.
+    protected final Set<Integer> bucketFilter;
+
     public GetDataRequest(String messageVersion,
                           int nonce,
                           Set<byte[]> excludedKeys,
-                          @Nullable String version) {
+                          @Nullable String version,
+                          @Nullable DataSketch dataSketch,
+                          Set<Integer> bucketFilter) {
         super(messageVersion);
         this.nonce = nonce;
         this.excludedKeys = excludedKeys;
         this.version = version;
+        this.dataSketch = dataSketch;
+        this.bucketFilter = bucketFilter;
     }
 }
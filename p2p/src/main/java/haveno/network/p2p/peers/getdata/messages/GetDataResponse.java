@@ -34,6 +34,8 @@ import lombok.Value;
 import lombok.extern.slf4j.Slf4j;
 import org.jetbrains.annotations.NotNull;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Set;
 import java.util.stream.Collectors;
 
@@ -56,6 +58,11 @@ public final class GetDataResponse extends NetworkEnvelope implements SupportedC
     // Added at v1.9.6
     private final boolean wasTruncated;
 
+    // DataSketch buckets which differ between requester and responder and contain data on both sides. If not empty
+    // the requester has to send a follow-up request with a DataSketch of their sub-buckets or the excluded keys for
+    // those buckets.
+    private final List<Integer> mismatchedBuckets;
+
     public GetDataResponse(@NotNull Set<ProtectedStorageEntry> dataSet,
                            @NotNull Set<PersistableNetworkPayload> persistableNetworkPayloadSet,
                            int requestNonce,
@@ -66,6 +73,21 @@ public final class GetDataResponse extends NetworkEnvelope implements SupportedC
                 requestNonce,
                 isGetUpdatedDataResponse,
                 wasTruncated,
+                new ArrayList<>());
+    }
+
+    public GetDataResponse(@NotNull Set<ProtectedStorageEntry> dataSet,
+                           @NotNull Set<PersistableNetworkPayload> persistableNetworkPayloadSet,
+                           int requestNonce,
+                           boolean isGetUpdatedDataResponse,
+                           boolean wasTruncated,
+                           @NotNull List<Integer> mismatchedBuckets) {
+        this(dataSet,
+                persistableNetworkPayloadSet,
+                requestNonce,
+                isGetUpdatedDataResponse,
+                wasTruncated,
+                mismatchedBuckets,
                 Capabilities.app,
                 Version.getP2PMessageVersion());
     }
@@ -79,6 +101,7 @@ public final class GetDataResponse extends NetworkEnvelope implements SupportedC
                             int requestNonce,
                             boolean isGetUpdatedDataResponse,
                             boolean wasTruncated,
+                            @NotNull List<Integer> mismatchedBuckets,
                             @NotNull Capabilities supportedCapabilities,
                             String messageVersion) {
         super(messageVersion);
@@ -88,6 +111,7 @@ public final class GetDataResponse extends NetworkEnvelope implements SupportedC
         this.requestNonce = requestNonce;
         this.isGetUpdatedDataResponse = isGetUpdatedDataResponse;
         this.wasTruncated = wasTruncated;
+        this.mismatchedBuckets = mismatchedBuckets;
         this.supportedCapabilities = supportedCapabilities;
     }
 
@@ -110,6 +134,7 @@ public final class GetDataResponse extends NetworkEnvelope implements SupportedC
                 .setRequestNonce(requestNonce)
                 .setIsGetUpdatedDataResponse(isGetUpdatedDataResponse)
                 .setWasTruncated(wasTruncated)
+                .addAllMismatchedBuckets(mismatchedBuckets)
                 .addAllSupportedCapabilities(Capabilities.toIntList(supportedCapabilities));
 
         protobuf.NetworkEnvelope proto = getNetworkEnvelopeBuilder()
@@ -135,10 +160,15 @@ public final class GetDataResponse extends NetworkEnvelope implements SupportedC
                 proto.getRequestNonce(),
                 proto.getIsGetUpdatedDataResponse(),
                 wasTruncated,
+                new ArrayList<>(proto.getMismatchedBucketsList()),
                 Capabilities.fromIntList(proto.getSupportedCapabilitiesList()),
                 messageVersion);
     }
 
+    public boolean requiresFollowUpRequest() {
+        return !mismatchedBuckets.isEmpty();
+    }
+
     @Override
     public Class<? extends InitialDataRequest> associatedRequest() {
         return isGetUpdatedDataResponse ? GetUpdatedDataRequest.class : PreliminaryGetDataRequest.class;
@@ -28,6 +28,7 @@ import lombok.extern.slf4j.Slf4j;
 import protobuf.NetworkEnvelope;
 
 import javax.annotation.Nullable;
+import java.util.HashSet;
 import java.util.Optional;
 import java.util.Set;
 import java.util.stream.Collectors;
@@ -41,10 +42,20 @@ public final class GetUpdatedDataRequest extends GetDataRequest implements Sende
     public GetUpdatedDataRequest(NodeAddress senderNodeAddress,
                                  int nonce,
                                  Set<byte[]> excludedKeys) {
+        this(senderNodeAddress, nonce, excludedKeys, null, new HashSet<>());
+    }
+
+    public GetUpdatedDataRequest(NodeAddress senderNodeAddress,
+                                 int nonce,
+                                 Set<byte[]> excludedKeys,
+                                 @Nullable DataSketch dataSketch,
+                                 Set<Integer> bucketFilter) {
         this(senderNodeAddress,
                 nonce,
                 excludedKeys,
                 Version.VERSION,
+                dataSketch,
+                bucketFilter,
                 Version.getP2PMessageVersion());
     }
 
@@ -57,11 +68,15 @@ public final class GetUpdatedDataRequest extends GetDataRequest implements Sende
                                   int nonce,
                                   Set<byte[]> excludedKeys,
                                   @Nullable String version,
+                                  @Nullable DataSketch dataSketch,
+                                  Set<Integer> bucketFilter,
                                   String messageVersion) {
         super(messageVersion,
                 nonce,
                 excludedKeys,
-                version);
+                version,
+                dataSketch,
+                bucketFilter);
         this.senderNodeAddress = senderNodeAddress;
     }
 
@@ -72,25 +87,33 @@ public final class GetUpdatedDataRequest extends GetDataRequest implements Sende
                 .setNonce(nonce)
                 .addAllExcludedKeys(excludedKeys.stream()
                         .map(ByteString::copyFrom)
-                        .collect(Collectors.toList()));
+                        .collect(Collectors.toList()))
+                .addAllBucketFilter(bucketFilter);
         Optional.ofNullable(version).ifPresent(builder::setVersion);
+        Optional.ofNullable(dataSketch).ifPresent(e -> builder.setDataSketch(e.toProtoMessage()));
         NetworkEnvelope proto = getNetworkEnvelopeBuilder()
                 .setGetUpdatedDataRequest(builder)
                 .build();
-        log.info("Sending a GetUpdatedDataRequest with {} kB and {} excluded key entries. Requesters version={}",
-                proto.getSerializedSize() / 1000d, excludedKeys.size(), version);
+        log.info("Sending a GetUpdatedDataRequest with {} kB, {} excluded key entries and {} bucket filter entries. " +
+                        "Has dataSketch={}. Requesters version={}",
+                proto.getSerializedSize() / 1000d, excludedKeys.size(), bucketFilter.size(), dataSketch != null, version);
         return proto;
     }
 
     public static GetUpdatedDataRequest fromProto(protobuf.GetUpdatedDataRequest proto, String messageVersion) {
         Set<byte[]> excludedKeys = ProtoUtil.byteSetFromProtoByteStringList(proto.getExcludedKeysList());
         String requestersVersion = ProtoUtil.stringOrNullFromProto(proto.getVersion());
-        log.info("Received a GetUpdatedDataRequest with {} kB and {} excluded key entries. Requesters version={}",
-                proto.getSerializedSize() / 1000d, excludedKeys.size(), requestersVersion);
+        DataSketch dataSketch = proto.hasDataSketch() ? DataSketch.fromProto(proto.getDataSketch()) : null;
+        Set<Integer> bucketFilter = new HashSet<>(proto.getBucketFilterList());
+        log.info("Received a GetUpdatedDataRequest with {} kB, {} excluded key entries and {} bucket filter entries. " +
+                        "Has dataSketch={}. Requesters version={}",
+                proto.getSerializedSize() / 1000d, excludedKeys.size(), bucketFilter.size(), dataSketch != null, requestersVersion);
         return new GetUpdatedDataRequest(NodeAddress.fromProto(proto.getSenderNodeAddress()),
                 proto.getNonce(),
                 excludedKeys,
                 requestersVersion,
+                dataSketch,
+                bucketFilter,
                 messageVersion);
     }
 }
@@ -29,6 +29,7 @@ import lombok.extern.slf4j.Slf4j;
 import protobuf.NetworkEnvelope;
 
 import javax.annotation.Nullable;
+import java.util.HashSet;
 import java.util.Optional;
 import java.util.Set;
 import java.util.stream.Collectors;
@@ -40,9 +41,18 @@ public final class PreliminaryGetDataRequest extends GetDataRequest implements A
     private final Capabilities supportedCapabilities;
 
     public PreliminaryGetDataRequest(int nonce, Set<byte[]> excludedKeys) {
+        this(nonce, excludedKeys, null, new HashSet<>());
+    }
+
+    public PreliminaryGetDataRequest(int nonce,
+                                     Set<byte[]> excludedKeys,
+                                     @Nullable DataSketch dataSketch,
+                                     Set<Integer> bucketFilter) {
         this(nonce,
                 excludedKeys,
                 Version.VERSION,
+                dataSketch,
+                bucketFilter,
                 Capabilities.app,
                 Version.getP2PMessageVersion());
     }
@@ -55,9 +65,11 @@ public final class PreliminaryGetDataRequest extends GetDataRequest implements A
     private PreliminaryGetDataRequest(int nonce,
                                       Set<byte[]> excludedKeys,
                                       @Nullable String version,
+                                      @Nullable DataSketch dataSketch,
+                                      Set<Integer> bucketFilter,
                                       Capabilities supportedCapabilities,
                                       String messageVersion) {
-        super(messageVersion, nonce, excludedKeys, version);
+        super(messageVersion, nonce, excludedKeys, version, dataSketch, bucketFilter);
 
         this.supportedCapabilities = supportedCapabilities;
     }
@@ -69,24 +81,32 @@ public final class PreliminaryGetDataRequest extends GetDataRequest implements A
                 .setNonce(nonce)
                 .addAllExcludedKeys(excludedKeys.stream()
                         .map(ByteString::copyFrom)
-                        .collect(Collectors.toList()));
+                        .collect(Collectors.toList()))
+                .addAllBucketFilter(bucketFilter);
         Optional.ofNullable(version).ifPresent(builder::setVersion);
+        Optional.ofNullable(dataSketch).ifPresent(e -> builder.setDataSketch(e.toProtoMessage()));
         NetworkEnvelope proto = getNetworkEnvelopeBuilder()
                 .setPreliminaryGetDataRequest(builder)
                 .build();
-        log.info("Sending a PreliminaryGetDataRequest with {} kB and {} excluded key entries. Requesters version={}",
-                proto.getSerializedSize() / 1000d, excludedKeys.size(), version);
+        log.info("Sending a PreliminaryGetDataRequest with {} kB, {} excluded key entries and {} bucket filter entries. " +
+                        "Has dataSketch={}. Requesters version={}",
+                proto.getSerializedSize() / 1000d, excludedKeys.size(), bucketFilter.size(), dataSketch != null, version);
         return proto;
     }
 
     public static PreliminaryGetDataRequest fromProto(protobuf.PreliminaryGetDataRequest proto, String messageVersion) {
         Set<byte[]> excludedKeys = ProtoUtil.byteSetFromProtoByteStringList(proto.getExcludedKeysList());
         String requestersVersion = ProtoUtil.stringOrNullFromProto(proto.getVersion());
-        log.info("Received a PreliminaryGetDataRequest with {} kB and {} excluded key entries. Requesters version={}",
-                proto.getSerializedSize() / 1000d, excludedKeys.size(), requestersVersion);
+        DataSketch dataSketch = proto.hasDataSketch() ? DataSketch.fromProto(proto.getDataSketch()) : null;
+        Set<Integer> bucketFilter = new HashSet<>(proto.getBucketFilterList());
+        log.info("Received a PreliminaryGetDataRequest with {} kB, {} excluded key entries and {} bucket filter entries. " +
+                        "Has dataSketch={}. Requesters version={}",
+                proto.getSerializedSize() / 1000d, excludedKeys.size(), bucketFilter.size(), dataSketch != null, requestersVersion);
         return new PreliminaryGetDataRequest(proto.getNonce(),
                 excludedKeys,
                 requestersVersion,
+                dataSketch,
+                bucketFilter,
                 Capabilities.fromIntList(proto.getSupportedCapabilitiesList()),
                 messageVersion);
     }
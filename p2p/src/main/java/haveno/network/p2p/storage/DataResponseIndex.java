@@ -0,0 +1,207 @@
+/*
+ * This file is part of Haveno.
+ *
+ * Haveno is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Haveno is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Haveno. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package haveno.network.p2p.storage;
+
+import haveno.common.proto.network.GetDataResponsePriority;
+import haveno.common.proto.network.NetworkPayload;
+import haveno.network.p2p.storage.payload.CapabilityRequiringPayload;
+import haveno.network.p2p.storage.payload.DateSortedTruncatablePayload;
+import lombok.AccessLevel;
+import lombok.Getter;
+
+import javax.annotation.Nullable;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.function.Function;
+
+/**
+ * Index of the data we deliver in GetDataResponses. It is kept up to date at add and remove so that building a
+ * response does not require copying the data maps. For each item we keep the GetDataResponsePriority, the store
+ * version in case of historical data and the lazily calculated serialized size. Items with
+ * GetDataResponsePriority.LOW implementing DateSortedTruncatablePayload are additionally kept sorted by date.
+ *
+ * Items of memory-mapped historical stores only keep the hash and the data needed for filtering and resolve their
+ * value from the store when it is accessed, so the historical payloads are not held on the heap.
+ */
+class DataResponseIndex<T extends NetworkPayload> {
+    private static final Comparator<Item<?>> DATE_COMPARATOR = Comparator.<Item<?>>comparingLong(item -> item.date)
+            .thenComparing((item1, item2) -> Arrays.compare(item1.key.bytes, item2.key.bytes));
+
+    private final Function<T, ? extends NetworkPayload> asPayload;
+    private final Map<P2PDataStorage.ByteArray, Item<T>> items = new ConcurrentHashMap<>();
+    private final NavigableSet<Item<T>> dateSortedItems = new ConcurrentSkipListSet<>(DATE_COMPARATOR);
+
+    DataResponseIndex(Function<T, ? extends NetworkPayload> asPayload) {
+        this.asPayload = asPayload;
+    }
+
+    void put(P2PDataStorage.ByteArray key, T value) {
+        remove(key);
+        add(new Item<>(key, value, asPayload, null));
+    }
+
+    // We do not overwrite existing items as a historical item must not become live data
+    void putIfAbsent(P2PDataStorage.ByteArray key, T value, @Nullable String storeVersion) {
+        putIfAbsent(new Item<>(key, value, asPayload, storeVersion));
+    }
+
+    /**
+     * Adds an item which resolves its value from the source map when accessed.
+     *
+     * @param template a value of the same type as the source values, used for the type specific data of the item
+     */
+    void putLazyIfAbsent(P2PDataStorage.ByteArray key,
+                         Map<P2PDataStorage.ByteArray, ? extends T> source,
+                         T template,
+                         String storeVersion,
+                         long date,
+                         int serializedSize) {
+        putIfAbsent(new Item<>(key, source, template, asPayload, storeVersion, date, serializedSize));
+    }
+
+    void remove(P2PDataStorage.ByteArray key) {
+        Item<T> item = items.remove(key);
+        if (item != null && item.dateSorted) {
+            dateSortedItems.remove(item);
+        }
+    }
+
+    int size() {
+        return items.size();
+    }
+
+    Collection<Item<T>> getItems() {
+        return items.values();
+    }
+
+    // Newest items first
+    Collection<Item<T>> getDateSortedItems() {
+        return dateSortedItems.descendingSet();
+    }
+
+    private void putIfAbsent(Item<T> item) {
+        if (items.putIfAbsent(item.key, item) == null && item.dateSorted) {
+            dateSortedItems.add(item);
+        }
+    }
+
+    private void add(Item<T> item) {
+        items.put(item.key, item);
+        if (item.dateSorted) {
+            dateSortedItems.add(item);
+        }
+    }
+
+    @Getter
+    static final class Item<T extends NetworkPayload> {
+        private final P2PDataStorage.ByteArray key;
+        // Either the value or the source map to resolve it from is set
+        @Nullable
+        @Getter(AccessLevel.NONE)
+        private final T value;
+        @Nullable
+        @Getter(AccessLevel.NONE)
+        private final Map<P2PDataStorage.ByteArray, ? extends T> source;
+        @Getter(AccessLevel.NONE)
+        private final Function<T, ? extends NetworkPayload> asPayload;
+        private final Class<? extends NetworkPayload> payloadClass;
+        @Nullable
+        private final GetDataResponsePriority priority;
+        // Version of the historical store the item is from, null for live data
+        @Nullable
+        private final String storeVersion;
+        private final boolean capabilityRequiring;
+        private final boolean dateSorted;
+        private final long date;
+        // Only set for date sorted items
+        private final int maxItems;
+        private volatile int serializedSize;
+
+        private Item(P2PDataStorage.ByteArray key,
+                     T value,
+                     Function<T, ? extends NetworkPayload> asPayload,
+                     @Nullable String storeVersion) {
+            this(key, value, null, value, asPayload, storeVersion, null, -1);
+        }
+
+        private Item(P2PDataStorage.ByteArray key,
+                     Map<P2PDataStorage.ByteArray, ? extends T> source,
+                     T template,
+                     Function<T, ? extends NetworkPayload> asPayload,
+                     String storeVersion,
+                     long date,
+                     int serializedSize) {
+            this(key, null, source, template, asPayload, storeVersion, date, serializedSize);
+        }
+
+        private Item(P2PDataStorage.ByteArray key,
+                     @Nullable T value,
+                     @Nullable Map<P2PDataStorage.ByteArray, ? extends T> source,
+                     T template,
+                     Function<T, ? extends NetworkPayload> asPayload,
+                     @Nullable String storeVersion,
+                     @Nullable Long date,
+                     int serializedSize) {
+            NetworkPayload payload = asPayload.apply(template);
+            this.key = key;
+            this.value = value;
+            this.source = source;
+            this.asPayload = asPayload;
+            this.payloadClass = payload.getClass();
+            this.priority = template.getGetDataResponsePriority();
+            this.storeVersion = storeVersion;
+            this.capabilityRequiring = payload instanceof CapabilityRequiringPayload;
+            this.dateSorted = priority == GetDataResponsePriority.LOW && payload instanceof DateSortedTruncatablePayload;
+            if (dateSorted) {
+                this.date = date != null ? date : ((DateSortedTruncatablePayload) payload).getDate().getTime();
+                this.maxItems = ((DateSortedTruncatablePayload) payload).maxItems();
+            } else {
+                this.date = 0;
+                this.maxItems = 0;
+            }
+            this.serializedSize = serializedSize;
+        }
+
+        T getValue() {
+            if (value != null) {
+                return value;
+            }
+            T resolved = source.get(key);
+            if (resolved == null) {
+                throw new IllegalStateException("Item " + key + " is missing in its source");
+            }
+            return resolved;
+        }
+
+        NetworkPayload getPayload() {
+            return asPayload.apply(getValue());
+        }
+
+        int getSerializedSize() {
+            if (serializedSize < 0) {
+                serializedSize = getValue().toProtoMessage().getSerializedSize();
+            }
+            return serializedSize;
+        }
+    }
+}
@@ -0,0 +1,89 @@
+/*
+ * This file is part of Haveno.
+ *
+ * Haveno is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Haveno is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Haveno. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package haveno.network.p2p.storage;
+
+import haveno.network.p2p.storage.payload.ProtectedStorageEntry;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.TreeSet;
+
+/**
+ * Index of the expirable ProtectedStorageEntries ordered by the time they expire, so finding the expired entries
+ * only needs to visit those instead of all entries. It needs to be updated whenever an entry is added, replaced,
+ * removed or back dated.
+ */
+class ExpiryIndex {
+    private static final Comparator<Deadline> COMPARATOR = Comparator.<Deadline>comparingLong(deadline -> deadline.expirationTimeStamp)
+            .thenComparing((deadline1, deadline2) -> Arrays.compare(deadline1.key.bytes, deadline2.key.bytes));
+
+    private final NavigableSet<Deadline> deadlines = new TreeSet<>(COMPARATOR);
+    private final Map<P2PDataStorage.ByteArray, Deadline> deadlinesByKey = new HashMap<>();
+
+    synchronized void put(P2PDataStorage.ByteArray key, ProtectedStorageEntry protectedStorageEntry) {
+        remove(key);
+        long expirationTimeStamp = protectedStorageEntry.getExpirationTimeStamp();
+        if (expirationTimeStamp != Long.MAX_VALUE) {
+            Deadline deadline = new Deadline(key, expirationTimeStamp);
+            deadlines.add(deadline);
+            deadlinesByKey.put(key, deadline);
+        }
+    }
+
+    synchronized void remove(P2PDataStorage.ByteArray key) {
+        Deadline deadline = deadlinesByKey.remove(key);
+        if (deadline != null) {
+            deadlines.remove(deadline);
+        }
+    }
+
+    /**
+     * Returns the keys of the entries which expired before the given time, oldest first. The entries are not
+     * removed from the index.
+     */
+    synchronized List<P2PDataStorage.ByteArray> getExpiredKeys(long now) {
+        List<P2PDataStorage.ByteArray> expiredKeys = new ArrayList<>();
+        for (Deadline deadline : deadlines) {
+            if (deadline.expirationTimeStamp >= now) {
+                break;
+            }
+            expiredKeys.add(deadline.key);
+        }
+        return expiredKeys;
+    }
+
+    synchronized int size() {
+        return deadlinesByKey.size();
+    }
+
+    private static final class Deadline {
+        private final P2PDataStorage.ByteArray key;
+        private final long expirationTimeStamp;
+
+        private Deadline(P2PDataStorage.ByteArray key, long expirationTimeStamp) {
+            this.key = key;
+            this.expirationTimeStamp = expirationTimeStamp;
+        }
+    }
+}
@@ -25,6 +25,7 @@ import com.google.protobuf.ByteString;
 import haveno.common.Timer;
 import haveno.common.UserThread;
 import haveno.common.app.Capabilities;
+import haveno.common.app.Version;
 import haveno.common.crypto.CryptoException;
 import haveno.common.crypto.Hash;
 import haveno.common.crypto.Sig;
@@ -45,6 +46,7 @@ import haveno.network.p2p.network.MessageListener;
 import haveno.network.p2p.network.NetworkNode;
 import haveno.network.p2p.peers.BroadcastHandler;
 import haveno.network.p2p.peers.Broadcaster;
+import haveno.network.p2p.peers.getdata.messages.DataSketch;
 import haveno.network.p2p.peers.getdata.messages.GetDataRequest;
 import haveno.network.p2p.peers.getdata.messages.GetDataResponse;
 import haveno.network.p2p.peers.getdata.messages.GetUpdatedDataRequest;
@@ -57,7 +59,6 @@ import haveno.network.p2p.storage.messages.RefreshOfferMessage;
 import haveno.network.p2p.storage.messages.RemoveDataMessage;
 import haveno.network.p2p.storage.messages.RemoveMailboxDataMessage;
 import haveno.network.p2p.storage.payload.CapabilityRequiringPayload;
-import haveno.network.p2p.storage.payload.DateSortedTruncatablePayload;
 import haveno.network.p2p.storage.payload.DateTolerantPayload;
 import haveno.network.p2p.storage.payload.MailboxStoragePayload;
 import haveno.network.p2p.storage.payload.PersistableNetworkPayload;
@@ -66,9 +67,11 @@ import haveno.network.p2p.storage.payload.ProtectedMailboxStorageEntry;
 import haveno.network.p2p.storage.payload.ProtectedStorageEntry;
 import haveno.network.p2p.storage.payload.ProtectedStoragePayload;
 import haveno.network.p2p.storage.payload.RequiresOwnerIsOnlinePayload;
+import haveno.network.p2p.storage.payload.SignatureVerifier;
 import haveno.network.p2p.storage.persistence.AppendOnlyDataStoreListener;
 import haveno.network.p2p.storage.persistence.AppendOnlyDataStoreService;
 import haveno.network.p2p.storage.persistence.HistoricalDataStoreService;
+import haveno.network.p2p.storage.persistence.MappedPayloadStore;
 import haveno.network.p2p.storage.persistence.PersistableNetworkPayloadStore;
 import haveno.network.p2p.storage.persistence.ProtectedDataStoreService;
 import haveno.network.p2p.storage.persistence.RemovedPayloadsService;
@@ -87,13 +90,15 @@ import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Queue;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.CopyOnWriteArraySet;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
-import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
 import java.util.function.Function;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
@@ -104,6 +109,7 @@ import lombok.EqualsAndHashCode;
 import lombok.Getter;
 import lombok.Setter;
 import lombok.ToString;
+import lombok.Value;
 import lombok.extern.slf4j.Slf4j;
 import org.fxmisc.easybind.EasyBind;
 import org.fxmisc.easybind.monadic.MonadicBinding;
@@ -129,7 +135,17 @@ public class P2PDataStorage implements MessageListener, ConnectionListener, Pers
 
     @Getter
     private final Map<ByteArray, ProtectedStorageEntry> map = new ConcurrentHashMap<>();
+    // Guards the mutations of the map, the sequenceNumberMap and the indexes
+    private final PayloadLocks payloadLocks = new PayloadLocks();
     private final Set<HashMapChangedListener> hashMapChangedListeners = new CopyOnWriteArraySet<>();
+    private final Queue<Runnable> pendingListenerNotifications = new ConcurrentLinkedQueue<>();
+    private final ReentrantLock listenerLock = new ReentrantLock();
+    // Indexes of the data we deliver in GetDataResponses
+    private final ExpiryIndex expiryIndex = new ExpiryIndex();
+    private final DataResponseIndex<PersistableNetworkPayload> persistableNetworkPayloadIndex =
+            new DataResponseIndex<>(Function.identity());
+    private final DataResponseIndex<ProtectedStorageEntry> protectedStorageEntryIndex =
+            new DataResponseIndex<>(ProtectedStorageEntry::getProtectedStoragePayload);
     private Timer removeExpiredEntriesTimer;
 
     private final PersistenceManager<SequenceNumberMap> persistenceManager;
@@ -218,11 +234,20 @@ public class P2PDataStorage implements MessageListener, ConnectionListener, Pers
             }
         });
 
-        appendOnlyDataStoreService.readFromResources(postFix, () -> appendOnlyDataStoreServiceReady.set(true));
+        appendOnlyDataStoreService.readFromResources(postFix, () -> {
+            indexPersistableNetworkPayloads();
+            appendOnlyDataStoreServiceReady.set(true);
+        });
         protectedDataStoreService.readFromResources(postFix, () -> {
-            synchronized (map) {
+            payloadLocks.lockAll();
+            try {
                 map.putAll(protectedDataStoreService.getMap());
+                protectedDataStoreService.getMap().forEach(protectedStorageEntryIndex::put);
+                protectedDataStoreService.getMap().forEach(expiryIndex::put);
                 protectedDataStoreServiceReady.set(true);
+            } finally {
+                payloadLocks.unlockAll();
+                dispatchListenerNotifications();
             }
         });
         resourceDataStoreService.readFromResources(postFix, () -> resourceDataStoreServiceReady.set(true));
@@ -231,23 +256,69 @@ public class P2PDataStorage implements MessageListener, ConnectionListener, Pers
     // Uses synchronous execution on the userThread. Only used by tests. The async methods should be used by app code.
     @VisibleForTesting
     public void readFromResourcesSync(String postFix) {
-        synchronized (map) {
+        payloadLocks.lockAll();
+        try {
             appendOnlyDataStoreService.readFromResourcesSync(postFix);
             protectedDataStoreService.readFromResourcesSync(postFix);
             resourceDataStoreService.readFromResourcesSync(postFix);
 
             map.putAll(protectedDataStoreService.getMap());
+            protectedDataStoreService.getMap().forEach(protectedStorageEntryIndex::put);
+            protectedDataStoreService.getMap().forEach(expiryIndex::put);
+            indexPersistableNetworkPayloads();
+        } finally {
+            payloadLocks.unlockAll();
+            dispatchListenerNotifications();
         }
     }
 
+    // We add the data read from the appendOnlyDataStoreServices to the index. Data added before from the network is
+    // already indexed. Memory-mapped historical data is indexed by hash without decoding the payloads.
+    private void indexPersistableNetworkPayloads() {
+        long ts = System.currentTimeMillis();
+        appendOnlyDataStoreService.getServices().forEach(service -> {
+            if (service instanceof HistoricalDataStoreService) {
+                var historicalDataStoreService = (HistoricalDataStoreService<? extends PersistableNetworkPayloadStore>) service;
+                historicalDataStoreService.getHistoricalMapsByVersion().forEach((version, map) -> {
+                    if (map instanceof MappedPayloadStore && !map.isEmpty()) {
+                        // All payloads of a historical store are of the same type, so one decoded payload serves as
+                        // template for the type specific data of the index items
+                        MappedPayloadStore mappedPayloadStore = (MappedPayloadStore) map;
+                        PersistableNetworkPayload template = mappedPayloadStore.values().iterator().next();
+                        mappedPayloadStore.forEachIndexEntry((hash, date, serializedSize) ->
+                                persistableNetworkPayloadIndex.putLazyIfAbsent(hash, mappedPayloadStore, template,
+                                        version, date, serializedSize));
+                    } else {
+                        map.forEach((hash, payload) ->
+                                persistableNetworkPayloadIndex.putIfAbsent(hash, payload, version));
+                    }
+                });
+                historicalDataStoreService.getMapOfLiveData().forEach((hash, payload) ->
+                        persistableNetworkPayloadIndex.putIfAbsent(hash, payload, null));
+            } else {
+                service.getMap().forEach((hash, payload) ->
+                        persistableNetworkPayloadIndex.putIfAbsent(hash, payload, null));
+            }
+        });
+        log.info("Indexing {} PersistableNetworkPayloads took {} ms",
+                persistableNetworkPayloadIndex.size(), System.currentTimeMillis() - ts);
+    }
+
     // We get added mailbox message data from MailboxMessageService. We want to add those early so we can get it added
     // to our excluded keys to reduce initial data response data size.
     public void addProtectedMailboxStorageEntryToMap(ProtectedStorageEntry protectedStorageEntry) {
-        synchronized (map) {
-            ProtectedStoragePayload protectedStoragePayload = protectedStorageEntry.getProtectedStoragePayload();
-            ByteArray hashOfPayload = get32ByteHashAsByteArray(protectedStoragePayload);
+        ProtectedStoragePayload protectedStoragePayload = protectedStorageEntry.getProtectedStoragePayload();
+        ByteArray hashOfPayload = get32ByteHashAsByteArray(protectedStoragePayload);
+
+        payloadLocks.lock(hashOfPayload);
+        try {
             map.put(hashOfPayload, protectedStorageEntry);
+            protectedStorageEntryIndex.put(hashOfPayload, protectedStorageEntry);
+            expiryIndex.put(hashOfPayload, protectedStorageEntry);
             //log.trace("## addProtectedMailboxStorageEntryToMap hashOfPayload={}, map={}", hashOfPayload, printMap());
+        } finally {
+            payloadLocks.unlock(hashOfPayload);
+            dispatchListenerNotifications();
         }
     }
 
@@ -262,6 +333,23 @@ public class P2PDataStorage implements MessageListener, ConnectionListener, Pers
         return new PreliminaryGetDataRequest(nonce, getKnownPayloadHashes());
     }
 
+    /**
+     * Returns a PreliminaryGetDataRequest carrying a DataSketch of our data instead of the excluded keys. Must only be
+     * sent to peers supporting Capability.DATA_SKETCH.
+     */
+    public PreliminaryGetDataRequest buildPreliminaryGetDataSketchRequest(int nonce) {
+        return new PreliminaryGetDataRequest(nonce, new HashSet<>(), DataSketch.fromKeys(getKnownPayloadKeys()), new HashSet<>());
+    }
+
+    /**
+     * Returns a PreliminaryGetDataRequest for the data in the given DataSketch buckets. Used as follow-up request if
+     * the response to a DataSketch request reported mismatched buckets.
+     */
+    public PreliminaryGetDataRequest buildPreliminaryGetDataRequest(int nonce, Collection<Integer> mismatchedBuckets) {
+        FollowUpScope scope = getFollowUpScope(mismatchedBuckets);
+        return new PreliminaryGetDataRequest(nonce, scope.getExcludedKeys(), scope.getDataSketch(), scope.getBucketFilter());
+    }
+
     /**
      * Returns a GetUpdatedDataRequest that can be sent to a peer node to request missing Payload data.
      */
@@ -269,6 +357,61 @@ public class P2PDataStorage implements MessageListener, ConnectionListener, Pers
         return new GetUpdatedDataRequest(senderNodeAddress, nonce, getKnownPayloadHashes());
     }
 
+    /**
+     * Returns a GetUpdatedDataRequest carrying a DataSketch of our data instead of the excluded keys. Must only be
+     * sent to peers supporting Capability.DATA_SKETCH.
+     */
+    public GetUpdatedDataRequest buildGetUpdatedDataSketchRequest(NodeAddress senderNodeAddress, int nonce) {
+        return new GetUpdatedDataRequest(senderNodeAddress, nonce, new HashSet<>(),
+                DataSketch.fromKeys(getKnownPayloadKeys()), new HashSet<>());
+    }
+
+    /**
+     * Returns a GetUpdatedDataRequest for the data in the given DataSketch buckets. Used as follow-up request if
+     * the response to a DataSketch request reported mismatched buckets.
+     */
+    public GetUpdatedDataRequest buildGetUpdatedDataRequest(NodeAddress senderNodeAddress,
+                                                            int nonce,
+                                                            Collection<Integer> mismatchedBuckets) {
+        FollowUpScope scope = getFollowUpScope(mismatchedBuckets);
+        return new GetUpdatedDataRequest(senderNodeAddress, nonce, scope.getExcludedKeys(), scope.getDataSketch(),
+                scope.getBucketFilter());
+    }
+
+    /**
+     * Mismatched buckets in which we have only a few keys are requested with our keys of those buckets as excluded
+     * keys. The others are split and sent as a new DataSketch, so the peer can narrow down the difference.
+     */
+    private FollowUpScope getFollowUpScope(Collection<Integer> mismatchedBuckets) {
+        List<ByteArray> knownPayloadKeys = getKnownPayloadKeys();
+        DataSketch mismatchedDataSketch = DataSketch.fromKeys(knownPayloadKeys, mismatchedBuckets);
+        Set<Integer> bucketsToSplit = new HashSet<>();
+        Set<Integer> bucketFilter = new HashSet<>();
+        mismatchedDataSketch.getBuckets().forEach(bucket -> {
+            if (mismatchedDataSketch.getCount(bucket) > DataSketch.MAX_KEYS_TO_EXCLUDE && DataSketch.canSplit(bucket)) {
+                bucketsToSplit.add(bucket);
+            } else {
+                bucketFilter.add(bucket);
+            }
+        });
+        Set<byte[]> excludedKeys = knownPayloadKeys.stream()
+                .map(e -> e.bytes)
+                .filter(bytes -> DataSketch.isInBuckets(bytes, bucketFilter))
+                .collect(Collectors.toSet());
+        DataSketch dataSketch = bucketsToSplit.isEmpty() ?
+                null :
+                DataSketch.fromKeys(knownPayloadKeys, DataSketch.split(bucketsToSplit));
+        return new FollowUpScope(excludedKeys, dataSketch, bucketFilter);
+    }
+
+    @Value
+    private static class FollowUpScope {
+        Set<byte[]> excludedKeys;
+        @Nullable
+        DataSketch dataSketch;
+        Set<Integer> bucketFilter;
+    }
+
     /**
      * Returns the set of known payload hashes. This is used in the GetData path to request missing data from peer nodes
      */
@@ -284,6 +427,12 @@ public class P2PDataStorage implements MessageListener, ConnectionListener, Pers
         return excludedKeys;
     }
 
+    private List<ByteArray> getKnownPayloadKeys() {
+        List<ByteArray> knownPayloadKeys = new ArrayList<>(getMapForDataRequest().keySet());
+        knownPayloadKeys.addAll(map.keySet());
+        return knownPayloadKeys;
+    }
+
     /**
      * Returns a GetDataResponse object that contains the Payloads known locally, but not remotely.
      */
@@ -297,20 +446,53 @@ public class P2PDataStorage implements MessageListener, ConnectionListener, Pers
         Set<P2PDataStorage.ByteArray> excludedKeysAsByteArray =
                 P2PDataStorage.ByteArray.convertBytesSetToByteArraySet(getDataRequest.getExcludedKeys());
 
-        // Pre v 1.4.0 requests do not have set the requesters version field so it is null.
-        // The methods in HistoricalDataStoreService will return all historical data in that case.
-        // mapForDataResponse contains the filtered by version data from HistoricalDataStoreService as well as all other
-        // maps of the remaining appendOnlyDataStoreServices.
-        Map<ByteArray, PersistableNetworkPayload> mapForDataResponse = getMapForDataResponse(getDataRequest.getVersion());
+        // Pre v 1.4.0 requests do not have set the requesters version field so it is null. We deliver all historical
+        // data in that case. Otherwise we only deliver the historical data of stores newer than the requesters version
+        // as well as the live data of all appendOnlyDataStoreServices.
+        Predicate<DataResponseIndex.Item<PersistableNetworkPayload>> isInRequestersVersion =
+                getIsInRequestersVersionPredicate(getDataRequest.getVersion());
+
+        // If the requester sent a DataSketch we compare it with the sketch of our data. We send all data of the buckets
+        // the requester has no data in. Buckets which differ but where the requester has data are reported back
+        // so the requester can send a follow-up request with a finer DataSketch or the excluded keys of those buckets.
+        // A follow-up request can carry both, so we send the data of the bucket filter as well.
+        Predicate<ByteArray> isInScope = key -> true;
+        List<Integer> mismatchedBuckets = new ArrayList<>();
+        DataSketch requestersDataSketch = getDataRequest.getDataSketch();
+        Set<Integer> bucketFilter = getDataRequest.getBucketFilter();
+        if (requestersDataSketch != null) {
+            DataSketch dataSketch = DataSketch.forBuckets(requestersDataSketch.getBuckets());
+            persistableNetworkPayloadIndex.getItems().stream()
+                    .filter(isInRequestersVersion)
+                    .forEach(item -> dataSketch.add(item.getKey()));
+            protectedStorageEntryIndex.getItems().forEach(item -> dataSketch.add(item.getKey()));
+            Set<Integer> bucketsToSend = new HashSet<>();
+            dataSketch.getMismatchedBuckets(requestersDataSketch).stream()
+                    .filter(bucket -> dataSketch.getCount(bucket) > 0)
+                    .forEach(bucket -> {
+                        if (requestersDataSketch.getCount(bucket) == 0) {
+                            bucketsToSend.add(bucket);
+                        } else {
+                            mismatchedBuckets.add(bucket);
+                        }
+                    });
+            log.info("DataSketch comparison resulted in {} buckets to send and {} mismatched buckets",
+                    bucketsToSend.size(), mismatchedBuckets.size());
+            isInScope = key -> DataSketch.isInBuckets(key.bytes, bucketsToSend) ||
+                    DataSketch.isInBuckets(key.bytes, bucketFilter);
+        } else if (!bucketFilter.isEmpty()) {
+            isInScope = key -> DataSketch.isInBuckets(key.bytes, bucketFilter);
+        }
 
         // Give a bit of tolerance for message overhead
         double maxSize = Connection.getMaxPermittedMessageSize() * 0.6;
 
         // 25% of space is allocated for PersistableNetworkPayloads
         long limit = Math.round(maxSize * 0.25);
+        Predicate<ByteArray> isPersistableNetworkPayloadInScope = isInScope;
         Set<PersistableNetworkPayload> filteredPersistableNetworkPayloads = filterKnownHashes(
-                mapForDataResponse,
-                Function.identity(),
+                persistableNetworkPayloadIndex,
+                item -> isInRequestersVersion.test(item) && isPersistableNetworkPayloadInScope.test(item.getKey()),
                 excludedKeysAsByteArray,
                 peerCapabilities,
                 maxEntriesPerType,
@@ -318,8 +500,8 @@ public class P2PDataStorage implements MessageListener, ConnectionListener, Pers
                 wasPersistableNetworkPayloadsTruncated,
                 true);
         log.info("{} PersistableNetworkPayload entries remained after filtered by excluded keys. " +
-                "Original map had {} entries.",
-                filteredPersistableNetworkPayloads.size(), mapForDataResponse.size());
+                "Original index had {} entries.",
+                filteredPersistableNetworkPayloads.size(), persistableNetworkPayloadIndex.size());
         log.trace("## buildGetDataResponse filteredPersistableNetworkPayloadHashes={}",
                 filteredPersistableNetworkPayloads.stream()
                         .map(e -> Utilities.encodeToHex(e.getHash()))
@@ -327,9 +509,10 @@ public class P2PDataStorage implements MessageListener, ConnectionListener, Pers
 
         // We give 75% space to ProtectedStorageEntries as they contain MailBoxMessages and those can be larger.
         limit = Math.round(maxSize * 0.75);
+        Predicate<ByteArray> isProtectedStorageEntryInScope = isInScope;
         Set<ProtectedStorageEntry> filteredProtectedStorageEntries = filterKnownHashes(
-                map,
-                ProtectedStorageEntry::getProtectedStoragePayload,
+                protectedStorageEntryIndex,
+                item -> isProtectedStorageEntryInScope.test(item.getKey()),
                 excludedKeysAsByteArray,
                 peerCapabilities,
                 maxEntriesPerType,
@@ -337,8 +520,8 @@ public class P2PDataStorage implements MessageListener, ConnectionListener, Pers
                 wasProtectedStorageEntriesTruncated,
                 false);
         log.info("{} ProtectedStorageEntry entries remained after filtered by excluded keys. " +
-                        "Original map had {} entries.",
-                filteredProtectedStorageEntries.size(), map.size());
+                        "Original index had {} entries.",
+                filteredProtectedStorageEntries.size(), protectedStorageEntryIndex.size());
         log.trace("## buildGetDataResponse filteredProtectedStorageEntryHashes={}",
                 filteredProtectedStorageEntries.stream()
                         .map(e -> get32ByteHashAsByteArray((e.getProtectedStoragePayload())))
@@ -350,7 +533,8 @@ public class P2PDataStorage implements MessageListener, ConnectionListener, Pers
                 filteredPersistableNetworkPayloads,
                 getDataRequest.getNonce(),
                 getDataRequest instanceof GetUpdatedDataRequest,
-                wasTruncated);
+                wasTruncated,
+                mismatchedBuckets);
     }
 
     ///////////////////////////////////////////////////////////////////////////////////////////
@@ -395,13 +579,30 @@ public class P2PDataStorage implements MessageListener, ConnectionListener, Pers
         return map;
     }
 
+    private Predicate<DataResponseIndex.Item<PersistableNetworkPayload>> getIsInRequestersVersionPredicate(
+            @Nullable String requestersVersion) {
+        // Old nodes not sending the version will get delivered all data
+        if (requestersVersion == null) {
+            log.info("The requester did not send a version. This is expected for not updated nodes.");
+            return item -> true;
+        }
+
+        // Otherwise we only add historical data if the requesters version is older then the version of the
+        // particular store. We cache the result per store version as we call it for each item.
+        Map<String, Boolean> isNewVersionByStoreVersion = new HashMap<>();
+        return item -> item.getStoreVersion() == null ||
+                isNewVersionByStoreVersion.computeIfAbsent(item.getStoreVersion(),
+                        storeVersion -> Version.isNewVersion(storeVersion, requestersVersion));
+    }
+
     /**
-     * Generic function that can be used to filter a Map<ByteArray, ProtectedStorageEntry || PersistableNetworkPayload>
-     * by a given set of keys and peer capabilities.
+     * Generic function that can be used to filter a DataResponseIndex<ProtectedStorageEntry || PersistableNetworkPayload>
+     * by a given predicate, a set of keys and peer capabilities. We iterate the index only once and use the cached
+     * serialized sizes and the date sorting of the index.
      */
     static private <T extends NetworkPayload> Set<T> filterKnownHashes(
-            Map<ByteArray, T> toFilter,
-            Function<T, ? extends NetworkPayload> asPayload,
+            DataResponseIndex<T> index,
+            Predicate<DataResponseIndex.Item<T>> isRequested,
             Set<ByteArray> knownHashes,
             Capabilities peerCapabilities,
             int maxEntries,
@@ -412,95 +613,73 @@ public class P2PDataStorage implements MessageListener, ConnectionListener, Pers
                 isPersistableNetworkPayload ? "PersistableNetworkPayload" : "ProtectedStorageEntry",
                 knownHashes.size());
 
-        AtomicLong totalSize = new AtomicLong();
-        AtomicBoolean exceededSizeLimit = new AtomicBoolean();
-
-        Set<Map.Entry<ByteArray, T>> entries = toFilter.entrySet();
-        Map<String, AtomicInteger> numItemsByClassName = new HashMap<>();
-        entries.forEach(entry -> {
-            String name = asPayload.apply(entry.getValue()).getClass().getSimpleName();
-            numItemsByClassName.putIfAbsent(name, new AtomicInteger());
-            numItemsByClassName.get(name).incrementAndGet();
-        });
-        log.info("numItemsByClassName: {}", numItemsByClassName);
-
-        // Map.Entry.value can be ProtectedStorageEntry or PersistableNetworkPayload. We call it item in the steam iterations.
-        List<T> filteredItems = entries.stream()
-                .filter(entry -> !knownHashes.contains(entry.getKey()))
-                .map(Map.Entry::getValue)
-                .filter(item -> shouldTransmitPayloadToPeer(peerCapabilities, asPayload.apply(item)))
-                .collect(Collectors.toList());
-        List<T> resultItems = new ArrayList<>();
+        long totalSize = 0;
+        boolean exceededSizeLimit = false;
 
         // Truncation follows this rules
         // 1. Add all payloads with GetDataResponsePriority.MID
         // 2. Add all payloads with GetDataResponsePriority.LOW && !DateSortedTruncatablePayload until exceededSizeLimit is reached
-        // 3. if(!exceededSizeLimit) Add all payloads with GetDataResponsePriority.LOW && DateSortedTruncatablePayload until
-        //    exceededSizeLimit is reached and truncate by maxItems (sorted by date). We add the sublist to our resultItems in
-        //    reverse order so in case we cut off at next step we cut off oldest items.
+        // 3. if(!exceededSizeLimit) Add all payloads with GetDataResponsePriority.LOW && DateSortedTruncatablePayload
+        //    starting with the most recent ones until exceededSizeLimit or maxItems is reached. So in case we cut off
+        //    we cut off the oldest items.
         // 4. We truncate list if resultList size > maxEntries
         // 5. Add all payloads with GetDataResponsePriority.HIGH
+        Map<String, AtomicInteger> numItemsByClassName = new HashMap<>();
+        List<T> midPrioItems = new ArrayList<>();
+        List<T> lowPrioItems = new ArrayList<>();
+        List<T> highPrioItems = new ArrayList<>();
+        for (DataResponseIndex.Item<T> item : index.getItems()) {
+            numItemsByClassName.computeIfAbsent(item.getPayloadClass().getSimpleName(), e -> new AtomicInteger())
+                    .incrementAndGet();
+            if (item.isDateSorted() || !isToTransmit(item, isRequested, knownHashes, peerCapabilities)) {
+                continue;
+            }
+
+            if (item.getPriority() == GetDataResponsePriority.MID) {
+                midPrioItems.add(item.getValue());
+            } else if (item.getPriority() == GetDataResponsePriority.HIGH) {
+                highPrioItems.add(item.getValue());
+            } else if (item.getPriority() == GetDataResponsePriority.LOW && !exceededSizeLimit) {
+                totalSize += item.getSerializedSize();
+                if (totalSize > limit) {
+                    exceededSizeLimit = true;
+                } else {
+                    lowPrioItems.add(item.getValue());
+                }
+            }
+        }
+        log.info("numItemsByClassName: {}", numItemsByClassName);
 
         // 1. Add all payloads with GetDataResponsePriority.MID
-        List<T> midPrioItems = filteredItems.stream()
-                .filter(item -> item.getGetDataResponsePriority() == GetDataResponsePriority.MID)
-                .collect(Collectors.toList());
-        resultItems.addAll(midPrioItems);
+        List<T> resultItems = new ArrayList<>(midPrioItems);
         log.info("Number of items with GetDataResponsePriority.MID: {}", midPrioItems.size());
 
         // 2. Add all payloads with GetDataResponsePriority.LOW && !DateSortedTruncatablePayload until exceededSizeLimit is reached
-        List<T> lowPrioItems = filteredItems.stream()
-                .filter(item -> item.getGetDataResponsePriority() == GetDataResponsePriority.LOW)
-                .filter(item -> !(asPayload.apply(item) instanceof DateSortedTruncatablePayload))
-                .filter(item -> {
-                    if (exceededSizeLimit.get()) {
-                        return false;
-                    }
-                    if (totalSize.addAndGet(item.toProtoMessage().getSerializedSize()) > limit) {
-                        exceededSizeLimit.set(true);
-                        return false;
-                    }
-                    return true;
-                })
-                .collect(Collectors.toList());
         resultItems.addAll(lowPrioItems);
-        log.info("Number of items with GetDataResponsePriority.LOW and !DateSortedTruncatablePayload: {}. Exceeded size limit: {}", lowPrioItems.size(), exceededSizeLimit.get());
-
-        // 3. if(!exceededSizeLimit) Add all payloads with GetDataResponsePriority.LOW && DateSortedTruncatablePayload until
-        //    exceededSizeLimit is reached and truncate by maxItems (sorted by date). We add the sublist to our resultItems in
-        //    reverse order so in case we cut off at next step we cut off oldest items.
-        if (!exceededSizeLimit.get()) {
-            List<T> dateSortedItems = filteredItems.stream()
-                    .filter(item -> item.getGetDataResponsePriority() == GetDataResponsePriority.LOW)
-                    .filter(item -> asPayload.apply(item) instanceof DateSortedTruncatablePayload)
-                    .filter(item -> {
-                        if (exceededSizeLimit.get()) {
-                            return false;
-                        }
-                        if (totalSize.addAndGet(item.toProtoMessage().getSerializedSize()) > limit) {
-                            exceededSizeLimit.set(true);
-                            return false;
-                        }
-                        return true;
-                    })
-                    .sorted(Comparator.comparing(item -> ((DateSortedTruncatablePayload) asPayload.apply(item)).getDate()))
-                    .collect(Collectors.toList());
-            if (!dateSortedItems.isEmpty()) {
-                int maxItems = ((DateSortedTruncatablePayload) asPayload.apply(dateSortedItems.get(0))).maxItems();
-                int size = dateSortedItems.size();
-                if (size > maxItems) {
-                    int fromIndex = size - maxItems;
-                    dateSortedItems = dateSortedItems.subList(fromIndex, size);
+        log.info("Number of items with GetDataResponsePriority.LOW and !DateSortedTruncatablePayload: {}. Exceeded size limit: {}", lowPrioItems.size(), exceededSizeLimit);
+
+        // 3. if(!exceededSizeLimit) Add all payloads with GetDataResponsePriority.LOW && DateSortedTruncatablePayload
+        //    starting with the most recent ones until exceededSizeLimit or maxItems is reached.
+        if (!exceededSizeLimit) {
+            List<T> dateSortedItems = new ArrayList<>();
+            for (DataResponseIndex.Item<T> item : index.getDateSortedItems()) {
+                if (!isToTransmit(item, isRequested, knownHashes, peerCapabilities)) {
+                    continue;
+                }
+                int maxItems = item.getMaxItems();
+                if (dateSortedItems.size() >= maxItems) {
                     outTruncated.set(true);
-                    log.info("Num truncated dateSortedItems {}", size);
-                    log.info("Removed oldest {} dateSortedItems as we exceeded {}", fromIndex, maxItems);
+                    log.info("Removed oldest dateSortedItems as we exceeded {}", maxItems);
+                    break;
                 }
+                totalSize += item.getSerializedSize();
+                if (totalSize > limit) {
+                    exceededSizeLimit = true;
+                    break;
+                }
+                dateSortedItems.add(item.getValue());
             }
             log.info("Number of items with GetDataResponsePriority.LOW and DateSortedTruncatablePayload: {}. Was truncated: {}", dateSortedItems.size(), outTruncated.get());
-
-            // We reverse sorting so in case we get truncated we cut off the older items
-            Comparator<T> comparator = Comparator.comparing(item -> ((DateSortedTruncatablePayload) asPayload.apply(item)).getDate());
-            dateSortedItems.sort(comparator.reversed());
             resultItems.addAll(dateSortedItems);
         } else {
             log.info("No dateSortedItems added as we exceeded already the exceededSizeLimit of {}", limit);
@@ -514,18 +693,25 @@ public class P2PDataStorage implements MessageListener, ConnectionListener, Pers
             log.info("Removed last {} items as we exceeded {}", size - maxEntries, maxEntries);
         }
 
-        outTruncated.set(outTruncated.get() || exceededSizeLimit.get());
+        outTruncated.set(outTruncated.get() || exceededSizeLimit);
 
         // 5. Add all payloads with GetDataResponsePriority.HIGH
-        List<T> highPrioItems = filteredItems.stream()
-                .filter(item -> item.getGetDataResponsePriority() == GetDataResponsePriority.HIGH)
-                .collect(Collectors.toList());
         resultItems.addAll(highPrioItems);
         log.info("Number of items with GetDataResponsePriority.HIGH: {}", highPrioItems.size());
         log.info("Number of result items we send to requester: {}", resultItems.size());
         return new HashSet<>(resultItems);
     }
 
+    private static <T extends NetworkPayload> boolean isToTransmit(DataResponseIndex.Item<T> item,
+                                                                   Predicate<DataResponseIndex.Item<T>> isRequested,
+                                                                   Set<ByteArray> knownHashes,
+                                                                   Capabilities peerCapabilities) {
+        // Only payloads requiring capabilities need to be resolved for the capability check
+        return isRequested.test(item) &&
+                !knownHashes.contains(item.getKey()) &&
+                (!item.isCapabilityRequiring() || shouldTransmitPayloadToPeer(peerCapabilities, item.getPayload()));
+    }
+
     public Collection<PersistableNetworkPayload> getPersistableNetworkPayloadCollection() {
         return getMapForDataRequest().values();
     }
@@ -568,6 +754,8 @@ public class P2PDataStorage implements MessageListener, ConnectionListener, Pers
         Set<ProtectedStorageEntry> protectedStorageEntries = getDataResponse.getDataSet();
         Set<PersistableNetworkPayload> persistableNetworkPayloadSet = getDataResponse.getPersistableNetworkPayloadSet();
         long ts = System.currentTimeMillis();
+        // We verify the signatures in parallel upfront instead of one by one when adding the entries
+        SignatureVerifier.verifyAll(protectedStorageEntries);
         protectedStorageEntries.forEach(protectedStorageEntry -> {
             // We rebroadcast high priority data after a delay for better resilience
             if (protectedStorageEntry.getProtectedStoragePayload().getGetDataResponsePriority() == GetDataResponsePriority.HIGH) {
@@ -606,8 +794,10 @@ public class P2PDataStorage implements MessageListener, ConnectionListener, Pers
 
         // We only process PersistableNetworkPayloads implementing ProcessOncePersistableNetworkPayload once. It can cause performance
         // issues and since the data is rarely out of sync it is not worth it to apply them from multiple peers during
-        // startup.
-        initialRequestApplied = true;
+        // startup. If the response requires a follow-up request the data is not complete yet.
+        if (!getDataResponse.requiresFollowUpRequest()) {
+            initialRequestApplied = true;
+        }
     }
 
     ///////////////////////////////////////////////////////////////////////////////////////////
@@ -621,15 +811,26 @@ public class P2PDataStorage implements MessageListener, ConnectionListener, Pers
 
     @VisibleForTesting
     void removeExpiredEntries() {
-        synchronized (map) {
+        payloadLocks.lockAll();
+        try {
             // The moment when an object becomes expired will not be synchronous in the network and we could
             // get add network_messages after the object has expired. To avoid repeated additions of already expired
             // object when we get it sent from new peers, we don’t remove the sequence number from the map.
             // That way an ADD message for an already expired data will fail because the sequence number
             // is equal and not larger as expected.
-            ArrayList<Map.Entry<ByteArray, ProtectedStorageEntry>> toRemoveList = map.entrySet().stream()
-                    .filter(entry -> entry.getValue().isExpired(this.clock))
-                    .collect(Collectors.toCollection(ArrayList::new));
+            // We only visit the entries the expiry index reports as expired instead of scanning the whole map.
+            ArrayList<Map.Entry<ByteArray, ProtectedStorageEntry>> toRemoveList = new ArrayList<>();
+            expiryIndex.getExpiredKeys(this.clock.millis()).forEach(hashOfPayload -> {
+                ProtectedStorageEntry protectedStorageEntry = map.get(hashOfPayload);
+                if (protectedStorageEntry == null) {
+                    expiryIndex.remove(hashOfPayload);
+                } else if (protectedStorageEntry.isExpired(this.clock)) {
+                    toRemoveList.add(Maps.immutableEntry(hashOfPayload, protectedStorageEntry));
+                } else {
+                    // Should not happen but in case the TTL of the payload changed we index it again
+                    expiryIndex.put(hashOfPayload, protectedStorageEntry);
+                }
+            });
 
             // Batch processing can cause performance issues, so do all of the removes first, then update the listeners
             // to let them know about the removes.
@@ -645,6 +846,9 @@ public class P2PDataStorage implements MessageListener, ConnectionListener, Pers
                 sequenceNumberMap.setMap(getPurgedSequenceNumberMap(sequenceNumberMap.getMap()));
                 requestPersistence();
             }
+        } finally {
+            payloadLocks.unlockAll();
+            dispatchListenerNotifications();
         }
     }
 
@@ -695,11 +899,19 @@ public class P2PDataStorage implements MessageListener, ConnectionListener, Pers
         NodeAddress peersNodeAddress = connection.getPeersNodeAddressOptional().get();
 
         // Backdate all the eligible payloads based on the node that disconnected
-        synchronized (map) {
-            map.values().stream()
-            .filter(protectedStorageEntry -> protectedStorageEntry.getProtectedStoragePayload() instanceof RequiresOwnerIsOnlinePayload)
-            .filter(protectedStorageEntry -> ((RequiresOwnerIsOnlinePayload) protectedStorageEntry.getProtectedStoragePayload()).getOwnerNodeAddress().equals(peersNodeAddress))
-            .forEach(protectedStorageEntry -> {
+        map.forEach((hashOfPayload, protectedStorageEntry) -> {
+            if (!(protectedStorageEntry.getProtectedStoragePayload() instanceof RequiresOwnerIsOnlinePayload) ||
+                    !((RequiresOwnerIsOnlinePayload) protectedStorageEntry.getProtectedStoragePayload()).getOwnerNodeAddress().equals(peersNodeAddress)) {
+                return;
+            }
+
+            payloadLocks.lock(hashOfPayload);
+            try {
+                // The entry might have been removed or replaced in the meantime
+                if (map.get(hashOfPayload) != protectedStorageEntry) {
+                    return;
+                }
+
                 // We only set the data back by half of the TTL and remove the data only if is has
                 // expired after that back dating.
                 // We might get connection drops which are not caused by the node going offline, so
@@ -711,8 +923,12 @@ public class P2PDataStorage implements MessageListener, ConnectionListener, Pers
                 // Usually the are: SOCKET_TIMEOUT ,TERMINATED (EOFException)
                 log.debug("Backdating {} due to closeConnectionReason={}", protectedStorageEntry, closeConnectionReason);
                 protectedStorageEntry.backDate();
-            });
-        }
+                expiryIndex.put(hashOfPayload, protectedStorageEntry);
+            } finally {
+                payloadLocks.unlock(hashOfPayload);
+                dispatchListenerNotifications();
+            }
+        });
     }
 
     ///////////////////////////////////////////////////////////////////////////////////////////
@@ -771,6 +987,7 @@ public class P2PDataStorage implements MessageListener, ConnectionListener, Pers
         if (!payloadHashAlreadyInStore) {
             wasAdded = appendOnlyDataStoreService.put(hashAsByteArray, payload);
             if (wasAdded) {
+                persistableNetworkPayloadIndex.putIfAbsent(hashAsByteArray, payload, null);
                 appendOnlyDataStoreListeners.forEach(e -> e.onAdded(payload));
             }
         }
@@ -791,7 +1008,9 @@ public class P2PDataStorage implements MessageListener, ConnectionListener, Pers
         byte[] hash = payload.getHash();
         if (payload.verifyHashSize()) {
             ByteArray hashAsByteArray = new ByteArray(hash);
-            appendOnlyDataStoreService.put(hashAsByteArray, payload);
+            if (appendOnlyDataStoreService.put(hashAsByteArray, payload)) {
+                persistableNetworkPayloadIndex.putIfAbsent(hashAsByteArray, payload, null);
+            }
         } else {
             log.warn("We got a hash exceeding our permitted size");
         }
@@ -816,10 +1035,11 @@ public class P2PDataStorage implements MessageListener, ConnectionListener, Pers
                                              @Nullable NodeAddress sender,
                                              @Nullable BroadcastHandler.Listener listener,
                                              boolean allowBroadcast) {
-        synchronized (map) {
-            ProtectedStoragePayload protectedStoragePayload = protectedStorageEntry.getProtectedStoragePayload();
-            ByteArray hashOfPayload = get32ByteHashAsByteArray(protectedStoragePayload);
+        ProtectedStoragePayload protectedStoragePayload = protectedStorageEntry.getProtectedStoragePayload();
+        ByteArray hashOfPayload = get32ByteHashAsByteArray(protectedStoragePayload);
 
+        payloadLocks.lock(hashOfPayload);
+        try {
             //log.trace("## call addProtectedStorageEntry hash={}, map={}", hashOfPayload, printMap());
 
             // We do that check early as it is a very common case for returning, so we return early
@@ -874,7 +1094,9 @@ public class P2PDataStorage implements MessageListener, ConnectionListener, Pers
 
             // This is an updated entry. Record it and signal listeners.
             map.put(hashOfPayload, protectedStorageEntry);
-            hashMapChangedListeners.forEach(e -> e.onAdded(Collections.singletonList(protectedStorageEntry)));
+            protectedStorageEntryIndex.put(hashOfPayload, protectedStorageEntry);
+            expiryIndex.put(hashOfPayload, protectedStorageEntry);
+            notifyAdded(Collections.singletonList(protectedStorageEntry));
 
             // Record the updated sequence number and persist it. Higher delay so we can batch more items.
             sequenceNumberMap.put(hashOfPayload, new MapValue(protectedStorageEntry.getSequenceNumber(), this.clock.millis()));
@@ -892,6 +1114,9 @@ public class P2PDataStorage implements MessageListener, ConnectionListener, Pers
                 protectedDataStoreService.put(hashOfPayload, protectedStorageEntry);
 
             return true;
+        } finally {
+            payloadLocks.unlock(hashOfPayload);
+            dispatchListenerNotifications();
         }
     }
 
@@ -935,9 +1160,11 @@ public class P2PDataStorage implements MessageListener, ConnectionListener, Pers
      */
     public boolean refreshTTL(RefreshOfferMessage refreshTTLMessage,
                               @Nullable NodeAddress sender) {
-        synchronized (map) {
+        ByteArray hashOfPayload = new ByteArray(refreshTTLMessage.getHashOfPayload());
+
+        payloadLocks.lock(hashOfPayload);
+        try {
             try {
-                ByteArray hashOfPayload = new ByteArray(refreshTTLMessage.getHashOfPayload());
                 ProtectedStorageEntry storedData = map.get(hashOfPayload);
 
                 if (storedData == null) {
@@ -965,6 +1192,8 @@ public class P2PDataStorage implements MessageListener, ConnectionListener, Pers
 
                 // Update the hash map with the updated entry
                 map.put(hashOfPayload, updatedEntry);
+                protectedStorageEntryIndex.put(hashOfPayload, updatedEntry);
+                expiryIndex.put(hashOfPayload, updatedEntry);
 
                 // Record the latest sequence number and persist it
                 sequenceNumberMap.put(hashOfPayload, new MapValue(updatedEntry.getSequenceNumber(), this.clock.millis()));
@@ -979,6 +1208,9 @@ public class P2PDataStorage implements MessageListener, ConnectionListener, Pers
                 return false;
             }
             return true;
+        } finally {
+            payloadLocks.unlock(hashOfPayload);
+            dispatchListenerNotifications();
         }
     }
 
@@ -992,10 +1224,11 @@ public class P2PDataStorage implements MessageListener, ConnectionListener, Pers
      */
     public boolean remove(ProtectedStorageEntry protectedStorageEntry,
                           @Nullable NodeAddress sender) {
-        synchronized (map) {
-            ProtectedStoragePayload protectedStoragePayload = protectedStorageEntry.getProtectedStoragePayload();
-            ByteArray hashOfPayload = get32ByteHashAsByteArray(protectedStoragePayload);
+        ProtectedStoragePayload protectedStoragePayload = protectedStorageEntry.getProtectedStoragePayload();
+        ByteArray hashOfPayload = get32ByteHashAsByteArray(protectedStoragePayload);
 
+        payloadLocks.lock(hashOfPayload);
+        try {
             // If we have seen a more recent operation for this payload, ignore this one
             if (!hasSequenceNrIncreased(protectedStorageEntry.getSequenceNumber(), hashOfPayload))
                 return false;
@@ -1035,6 +1268,9 @@ public class P2PDataStorage implements MessageListener, ConnectionListener, Pers
             }
 
             return true;
+        } finally {
+            payloadLocks.unlock(hashOfPayload);
+            dispatchListenerNotifications();
         }
     }
 
@@ -1109,32 +1345,63 @@ public class P2PDataStorage implements MessageListener, ConnectionListener, Pers
         removeFromMapAndDataStore(Collections.singletonList(Maps.immutableEntry(hashOfPayload, protectedStorageEntry)));
     }
 
+    // The caller needs to hold the payloadLocks of the entries or the exclusive lock
     private void removeFromMapAndDataStore(Collection<Map.Entry<ByteArray, ProtectedStorageEntry>> entriesToRemove) {
-        synchronized (map) {
-            if (entriesToRemove.isEmpty())
-                return;
+        if (entriesToRemove.isEmpty())
+            return;
 
-            List<ProtectedStorageEntry> removedProtectedStorageEntries = new ArrayList<>(entriesToRemove.size());
-            entriesToRemove.forEach(entry -> {
-                ByteArray hashOfPayload = entry.getKey();
-                ProtectedStorageEntry protectedStorageEntry = entry.getValue();
+        List<ProtectedStorageEntry> removedProtectedStorageEntries = new ArrayList<>(entriesToRemove.size());
+        entriesToRemove.forEach(entry -> {
+            ByteArray hashOfPayload = entry.getKey();
+            ProtectedStorageEntry protectedStorageEntry = entry.getValue();
 
-                //log.trace("## removeFromMapAndDataStore: hashOfPayload={}, map before remove={}", hashOfPayload, printMap());
-                map.remove(hashOfPayload);
-                //log.trace("## removeFromMapAndDataStore: map after remove={}", printMap());
+            //log.trace("## removeFromMapAndDataStore: hashOfPayload={}, map before remove={}", hashOfPayload, printMap());
+            map.remove(hashOfPayload);
+            protectedStorageEntryIndex.remove(hashOfPayload);
+            expiryIndex.remove(hashOfPayload);
+            //log.trace("## removeFromMapAndDataStore: map after remove={}", printMap());
 
-                // We inform listeners even the entry was not found in our map
-                removedProtectedStorageEntries.add(protectedStorageEntry);
+            // We inform listeners even the entry was not found in our map
+            removedProtectedStorageEntries.add(protectedStorageEntry);
 
-                ProtectedStoragePayload protectedStoragePayload = protectedStorageEntry.getProtectedStoragePayload();
-                if (protectedStoragePayload instanceof PersistablePayload) {
-                    ProtectedStorageEntry previous = protectedDataStoreService.remove(hashOfPayload, protectedStorageEntry);
-                    if (previous == null)
-                        log.warn("We cannot remove the protectedStorageEntry from the protectedDataStoreService as it does not exist.");
-                }
-            });
+            ProtectedStoragePayload protectedStoragePayload = protectedStorageEntry.getProtectedStoragePayload();
+            if (protectedStoragePayload instanceof PersistablePayload) {
+                ProtectedStorageEntry previous = protectedDataStoreService.remove(hashOfPayload, protectedStorageEntry);
+                if (previous == null)
+                    log.warn("We cannot remove the protectedStorageEntry from the protectedDataStoreService as it does not exist.");
+            }
+        });
+
+        notifyRemoved(removedProtectedStorageEntries);
+    }
 
-            hashMapChangedListeners.forEach(e -> e.onRemoved(removedProtectedStorageEntries));
+    // Listeners are not written to be called concurrently. Notifications are queued in the order of the changes,
+    // which happen under the payload locks, and are delivered one at a time once the locks are released. Delivering
+    // them outside the payload locks keeps listeners which call back into the storage from deadlocking.
+    private void notifyAdded(Collection<ProtectedStorageEntry> protectedStorageEntries) {
+        pendingListenerNotifications.add(() -> hashMapChangedListeners.forEach(e -> e.onAdded(protectedStorageEntries)));
+        dispatchListenerNotifications();
+    }
+
+    private void notifyRemoved(Collection<ProtectedStorageEntry> protectedStorageEntries) {
+        pendingListenerNotifications.add(() -> hashMapChangedListeners.forEach(e -> e.onRemoved(protectedStorageEntries)));
+        dispatchListenerNotifications();
+    }
+
+    private void dispatchListenerNotifications() {
+        if (payloadLocks.isHeldByCurrentThread()) return; // dispatched when the outermost lock is released
+        listenerLock.lock();
+        try {
+            Runnable notification;
+            while ((notification = pendingListenerNotifications.poll()) != null) {
+                try {
+                    notification.run();
+                } catch (Exception e) {
+                    log.error("Error notifying HashMapChangedListeners", e);
+                }
+            }
+        } finally {
+            listenerLock.unlock();
         }
     }
 
@@ -1175,7 +1442,7 @@ public class P2PDataStorage implements MessageListener, ConnectionListener, Pers
 
     // Get a new map with entries older than PURGE_AGE_DAYS purged from the given map.
     private Map<ByteArray, MapValue> getPurgedSequenceNumberMap(Map<ByteArray, MapValue> persisted) {
-        Map<ByteArray, MapValue> purged = new HashMap<>();
+        Map<ByteArray, MapValue> purged = new ConcurrentHashMap<>();
         long maxAgeTs = this.clock.millis() - TimeUnit.DAYS.toMillis(PURGE_AGE_DAYS);
         persisted.forEach((key, value) -> {
             if (value.timeStamp > maxAgeTs)
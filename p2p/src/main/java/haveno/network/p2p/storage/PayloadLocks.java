@@ -0,0 +1,76 @@
+/*
+ * This file is part of Haveno.
+ *
+ * Haveno is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Haveno is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Haveno. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package haveno.network.p2p.storage;
+
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Lock striping for the mutations of the P2PDataStorage. Operations on a single payload hash only lock the stripe
+ * the hash maps to, so unrelated payloads can be processed in parallel. Operations spanning the whole data set
+ * (e.g. removing expired entries) take the exclusive lock, which waits for all ongoing key operations.
+ * Both kinds of locks are reentrant and a thread holding the exclusive lock can take key locks as well.
+ * A thread holding a key lock must not take the exclusive lock.
+ */
+class PayloadLocks {
+    private static final int NUM_STRIPES = 64;
+
+    private final ReentrantReadWriteLock exclusiveLock = new ReentrantReadWriteLock();
+    private final ReentrantLock[] stripes = new ReentrantLock[NUM_STRIPES];
+
+    PayloadLocks() {
+        for (int i = 0; i < NUM_STRIPES; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+    }
+
+    void lock(P2PDataStorage.ByteArray key) {
+        exclusiveLock.readLock().lock();
+        try {
+            getStripe(key).lock();
+        } catch (RuntimeException e) {
+            exclusiveLock.readLock().unlock();
+            throw e;
+        }
+    }
+
+    void unlock(P2PDataStorage.ByteArray key) {
+        getStripe(key).unlock();
+        exclusiveLock.readLock().unlock();
+    }
+
+    void lockAll() {
+        // Upgrading from the shared to the exclusive lock would deadlock
+        if (exclusiveLock.getReadHoldCount() > 0 && !exclusiveLock.isWriteLockedByCurrentThread()) {
+            throw new IllegalStateException("The exclusive lock must not be taken while holding a key lock");
+        }
+        exclusiveLock.writeLock().lock();
+    }
+
+    void unlockAll() {
+        exclusiveLock.writeLock().unlock();
+    }
+
+    boolean isHeldByCurrentThread() {
+        return exclusiveLock.getReadHoldCount() > 0 || exclusiveLock.isWriteLockedByCurrentThread();
+    }
+
+    private ReentrantLock getStripe(P2PDataStorage.ByteArray key) {
+        return stripes[Math.floorMod(key.hashCode(), NUM_STRIPES)];
+    }
+}
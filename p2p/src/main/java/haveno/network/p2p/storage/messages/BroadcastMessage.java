@@ -25,4 +25,10 @@ public abstract class BroadcastMessage extends NetworkEnvelope {
     protected BroadcastMessage(String messageVersion) {
         super(messageVersion);
     }
+
+    // Broadcast messages are sent unchanged to multiple peers, so we serialize them only once
+    @Override
+    protected boolean isSerializationCacheable() {
+        return true;
+    }
 }
@@ -27,7 +27,7 @@ import haveno.common.proto.network.NetworkPayload;
 import haveno.common.proto.network.NetworkProtoResolver;
 import haveno.common.proto.persistable.PersistablePayload;
 import haveno.common.util.Utilities;
-import haveno.network.p2p.storage.P2PDataStorage;
+import lombok.AccessLevel;
 import lombok.EqualsAndHashCode;
 import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
@@ -45,7 +45,11 @@ public class ProtectedStorageEntry implements NetworkPayload, PersistablePayload
     transient private final PublicKey ownerPubKey;
     private final int sequenceNumber;
     private final byte[] signature;
-    private long creationTimeStamp;
+    // Gets back dated on a network thread, so we need visibility and atomic writes
+    private volatile long creationTimeStamp;
+    // The signed data is immutable so we only need to verify the signature once
+    @Getter(AccessLevel.NONE)
+    transient private volatile Boolean signatureValid;
 
     public ProtectedStorageEntry(@NotNull ProtectedStoragePayload protectedStoragePayload,
                                  @NotNull PublicKey ownerPubKey,
@@ -137,6 +141,15 @@ public class ProtectedStorageEntry implements NetworkPayload, PersistablePayload
             creationTimeStamp -= ((ExpirablePayload) protectedStoragePayload).getTTL() / 2;
     }
 
+    // Returns the time after which the entry is expired or Long.MAX_VALUE if it does not expire
+    public long getExpirationTimeStamp() {
+        if (!(protectedStoragePayload instanceof ExpirablePayload))
+            return Long.MAX_VALUE;
+
+        long ttl = ((ExpirablePayload) protectedStoragePayload).getTTL();
+        return ttl > Long.MAX_VALUE - creationTimeStamp ? Long.MAX_VALUE : creationTimeStamp + ttl;
+    }
+
     public boolean isExpired(Clock clock) {
         return protectedStoragePayload instanceof ExpirablePayload &&
                 (clock.millis() - creationTimeStamp) > ((ExpirablePayload) protectedStoragePayload).getTTL();
@@ -202,15 +215,17 @@ public class ProtectedStorageEntry implements NetworkPayload, PersistablePayload
      * Returns true if the signature for the Entry is valid for the payload, sequence number, and ownerPubKey
      */
     boolean isSignatureValid() {
-        try {
-            byte[] hashOfDataAndSeqNr = P2PDataStorage.get32ByteHash(
-                    new P2PDataStorage.DataAndSeqNrPair(this.protectedStoragePayload, this.sequenceNumber));
+        Boolean signatureValid = this.signatureValid;
+        if (signatureValid != null)
+            return signatureValid;
 
-            boolean result = Sig.verify(this.ownerPubKey, hashOfDataAndSeqNr, this.signature);
+        try {
+            boolean result = SignatureVerifier.verify(this);
 
             if (!result)
                 log.warn("ProtectedStorageEntry::isSignatureValid() failed.\n{}}", this);
 
+            this.signatureValid = result;
             return result;
         } catch (CryptoException e) {
             log.error("ProtectedStorageEntry::isSignatureValid() exception {}", e.toString());
@@ -0,0 +1,91 @@
+/*
+ * This file is part of Haveno.
+ *
+ * Haveno is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Haveno is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Haveno. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package haveno.network.p2p.storage.payload;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.Lists;
+import com.google.common.primitives.Bytes;
+import haveno.common.ThreadUtils;
+import haveno.common.crypto.CryptoException;
+import haveno.common.crypto.Hash;
+import haveno.common.crypto.Sig;
+import haveno.network.p2p.storage.P2PDataStorage;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Verifies the signatures of ProtectedStorageEntries. Results are cached by the hash of the signed data, the owner
+ * key and the signature, so entries we receive repeatedly from different peers are only verified once.
+ * Large sets of entries (e.g. from a GetDataResponse) can be verified in parallel before they get added to the
+ * P2PDataStorage, so the signature checks do not run one by one while holding the storage locks.
+ */
+@Slf4j
+public class SignatureVerifier {
+    private static final int MAX_CACHE_SIZE = 100_000;
+    private static final int BATCH_SIZE = 100;
+    private static final int MAX_CONCURRENCY = Math.max(1, Runtime.getRuntime().availableProcessors());
+
+    private static final Cache<P2PDataStorage.ByteArray, Boolean> VERIFIED_SIGNATURES = CacheBuilder.newBuilder()
+            .maximumSize(MAX_CACHE_SIZE)
+            .build();
+
+    /**
+     * Verifies the signatures of the given entries in parallel batches. The results are kept at the entries and in
+     * the cache, so the following isValidForAddOperation calls do not need to verify them again.
+     */
+    public static void verifyAll(Collection<? extends ProtectedStorageEntry> protectedStorageEntries) {
+        if (protectedStorageEntries.size() < 2 * BATCH_SIZE) {
+            // Not worth the overhead of the thread pool, the entries get verified when added
+            return;
+        }
+
+        long ts = System.currentTimeMillis();
+        List<Runnable> tasks = new ArrayList<>();
+        Lists.partition(new ArrayList<>(protectedStorageEntries), BATCH_SIZE).forEach(batch ->
+                tasks.add(() -> batch.forEach(ProtectedStorageEntry::isSignatureValid)));
+        try {
+            ThreadUtils.awaitTasks(tasks, MAX_CONCURRENCY);
+        } catch (Exception e) {
+            // Entries not verified here get verified when added to the P2PDataStorage
+            log.warn("Verifying signatures in parallel failed: {}", e.toString());
+        }
+        log.info("Verifying {} signatures with {} threads took {} ms",
+                protectedStorageEntries.size(), Math.min(MAX_CONCURRENCY, tasks.size()), System.currentTimeMillis() - ts);
+    }
+
+    static boolean verify(ProtectedStorageEntry protectedStorageEntry) throws CryptoException {
+        byte[] hashOfDataAndSeqNr = P2PDataStorage.get32ByteHash(
+                new P2PDataStorage.DataAndSeqNrPair(protectedStorageEntry.getProtectedStoragePayload(),
+                        protectedStorageEntry.getSequenceNumber()));
+        P2PDataStorage.ByteArray key = new P2PDataStorage.ByteArray(Hash.getSha256Hash(Bytes.concat(hashOfDataAndSeqNr,
+                protectedStorageEntry.getOwnerPubKeyBytes(),
+                protectedStorageEntry.getSignature())));
+        Boolean cachedResult = VERIFIED_SIGNATURES.getIfPresent(key);
+        if (cachedResult != null) {
+            return cachedResult;
+        }
+
+        boolean result = Sig.verify(protectedStorageEntry.getOwnerPubKey(), hashOfDataAndSeqNr, protectedStorageEntry.getSignature());
+        VERIFIED_SIGNATURES.put(key, result);
+        return result;
+    }
+}
@@ -18,6 +18,7 @@
 package haveno.network.p2p.storage.persistence;
 
 import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Iterators;
 import haveno.common.app.DevEnv;
 import haveno.common.app.Version;
 import haveno.common.persistence.PersistenceManager;
@@ -26,21 +27,31 @@ import haveno.network.p2p.storage.payload.PersistableNetworkPayload;
 import lombok.extern.slf4j.Slf4j;
 
 import java.io.File;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
 
 /**
  * Manages historical data stores tagged with the release versions.
  * New data is added to the default map in the store (live data). Historical data is created from resource files.
  * For initial data requests we only use the live data as the users version is sent with the
  * request so the responding (seed)node can figure out if we miss any of the historical data.
+ *
+ * The historical data is accessed through a {@link MappedPayloadStore} which is created once from the resource file,
+ * so at later startups we do not need to parse the historical data and only decode the payloads when accessed.
  */
 @Slf4j
 public abstract class HistoricalDataStoreService<T extends PersistableNetworkPayloadStore<? extends PersistableNetworkPayload>> extends MapStoreService<T, PersistableNetworkPayload> {
-    private ImmutableMap<String, PersistableNetworkPayloadStore<? extends PersistableNetworkPayload>> storesByVersion;
-    // Cache to avoid that we have to recreate the historical data at each request
-    private ImmutableMap<P2PDataStorage.ByteArray, PersistableNetworkPayload> allHistoricalPayloads;
+    private ImmutableMap<String, Map<P2PDataStorage.ByteArray, PersistableNetworkPayload>> historicalMapsByVersion =
+            ImmutableMap.of();
 
 
     ///////////////////////////////////////////////////////////////////////////////////////////
@@ -56,14 +67,15 @@ public abstract class HistoricalDataStoreService<T extends PersistableNetworkPay
     // API
     ///////////////////////////////////////////////////////////////////////////////////////////
 
-    // We give back a map of our live map and all historical maps newer than the requested version.
+    // We give back a read-only view of our live map and all historical maps newer than the requested version.
     // If requestersVersion is null we return all historical data.
     public Map<P2PDataStorage.ByteArray, PersistableNetworkPayload> getMapSinceVersion(String requestersVersion) {
         // We add all our live data
-        Map<P2PDataStorage.ByteArray, PersistableNetworkPayload> result = new HashMap<>(store.getMap());
+        List<Map<P2PDataStorage.ByteArray, PersistableNetworkPayload>> maps = new ArrayList<>();
+        maps.add(getMapOfLiveData());
 
         // If we have a store with a newer version than the requesters version we will add those as well.
-        storesByVersion.entrySet().stream()
+        historicalMapsByVersion.entrySet().stream()
                 .filter(entry -> {
                     // Old nodes not sending the version will get delivered all data
                     if (requestersVersion == null) {
@@ -83,9 +95,10 @@ public abstract class HistoricalDataStoreService<T extends PersistableNetworkPay
                             requestersVersion, storeVersion, details);
                     return newVersion;
                 })
-                .map(e -> e.getValue().getMap())
-                .forEach(result::putAll);
+                .map(Map.Entry::getValue)
+                .forEach(maps::add);
 
+        Map<P2PDataStorage.ByteArray, PersistableNetworkPayload> result = new ConcatenatedMap(maps);
         log.info("We found {} entries since requesters version {}",
                 result.size(), requestersVersion);
         return result;
@@ -95,10 +108,17 @@ public abstract class HistoricalDataStoreService<T extends PersistableNetworkPay
         return store.getMap();
     }
 
+    // Historical data by the version tag of its store. Empty if the historical data has not been read yet.
+    public Map<String, Map<P2PDataStorage.ByteArray, PersistableNetworkPayload>> getHistoricalMapsByVersion() {
+        return historicalMapsByVersion;
+    }
+
+    // Returns a read-only view of the live and historical data
     public Map<P2PDataStorage.ByteArray, PersistableNetworkPayload> getMapOfAllData() {
-        Map<P2PDataStorage.ByteArray, PersistableNetworkPayload> result = new HashMap<>(getMapOfLiveData());
-        result.putAll(allHistoricalPayloads);
-        return result;
+        List<Map<P2PDataStorage.ByteArray, PersistableNetworkPayload>> maps = new ArrayList<>();
+        maps.add(getMapOfLiveData());
+        maps.addAll(historicalMapsByVersion.values());
+        return new ConcatenatedMap(maps);
     }
 
 
@@ -145,18 +165,15 @@ public abstract class HistoricalDataStoreService<T extends PersistableNetworkPay
                     getFileName(), getMapOfLiveData().size());
 
             // Now we add our historical data stores.
-            Map<P2PDataStorage.ByteArray, PersistableNetworkPayload> allHistoricalPayloads = new HashMap<>();
-            Map<String, PersistableNetworkPayloadStore<? extends PersistableNetworkPayload>> storesByVersion = new HashMap<>();
+            Map<String, Map<P2PDataStorage.ByteArray, PersistableNetworkPayload>> historicalMapsByVersion = new HashMap<>();
             AtomicInteger numFiles = new AtomicInteger(Version.HISTORICAL_RESOURCE_FILE_VERSION_TAGS.size());
             Version.HISTORICAL_RESOURCE_FILE_VERSION_TAGS.forEach(version -> readHistoricalStoreFromResources(version,
                     postFix,
-                    allHistoricalPayloads,
-                    storesByVersion,
+                    historicalMapsByVersion,
                     () -> {
                         if (numFiles.decrementAndGet() == 0) {
                             // At last iteration we set the immutable map
-                            this.allHistoricalPayloads = ImmutableMap.copyOf(allHistoricalPayloads);
-                            this.storesByVersion = ImmutableMap.copyOf(storesByVersion);
+                            this.historicalMapsByVersion = ImmutableMap.copyOf(historicalMapsByVersion);
                             completeHandler.run();
                         }
                     }));
@@ -170,29 +187,55 @@ public abstract class HistoricalDataStoreService<T extends PersistableNetworkPay
 
     private void readHistoricalStoreFromResources(String version,
                                                   String postFix,
-                                                  Map<P2PDataStorage.ByteArray, PersistableNetworkPayload> allHistoricalPayloads,
-                                                  Map<String, PersistableNetworkPayloadStore<? extends PersistableNetworkPayload>> storesByVersion,
+                                                  Map<String, Map<P2PDataStorage.ByteArray, PersistableNetworkPayload>> historicalMapsByVersion,
                                                   Runnable completeHandler) {
 
         String fileName = getFileName() + "_" + version;
-        boolean wasCreatedFromResources = makeFileFromResourceFile(fileName, postFix);
+        makeFileFromResourceFile(fileName, postFix);
+
+        File sourceFile = new File(absolutePathOfStorageDir, fileName);
+        File mappedFile = new File(absolutePathOfStorageDir, fileName + MappedPayloadStore.FILE_SUFFIX);
+        Function<protobuf.PersistableNetworkPayload, PersistableNetworkPayload> decoder = proto ->
+                PersistableNetworkPayload.fromProto(proto, persistenceManager.getPersistenceProtoResolver());
+        MappedPayloadStore mappedPayloadStore = sourceFile.exists() ?
+                MappedPayloadStore.open(mappedFile, sourceFile, decoder) :
+                null;
+        if (mappedPayloadStore != null) {
+            onHistoricalMapRead(version, mappedPayloadStore, historicalMapsByVersion);
+            completeHandler.run();
+            return;
+        }
 
         // If resource file does not exist we do not create a new store as it would never get filled.
         persistenceManager.readPersisted(fileName, persisted -> {
-                    storesByVersion.put(version, persisted);
-                    allHistoricalPayloads.putAll(persisted.getMap());
-                    log.debug("We have read from {} {} historical items.", fileName, persisted.getMap().size());
-                    pruneStore(persisted, version);
+                    Map<P2PDataStorage.ByteArray, PersistableNetworkPayload> map = persisted.getMap();
+                    try {
+                        map = MappedPayloadStore.create(mappedFile, sourceFile, map.values(), decoder);
+                        log.info("We have created {} with {} historical items.", mappedFile.getName(), map.size());
+                    } catch (Throwable t) {
+                        // We keep the parsed data in memory and try again at next startup
+                        log.warn("Creating {} failed. {}", mappedFile.getName(), t.toString());
+                    }
+                    onHistoricalMapRead(version, map, historicalMapsByVersion);
                     completeHandler.run();
                 },
                 completeHandler::run);
     }
 
-    private void pruneStore(PersistableNetworkPayloadStore<? extends PersistableNetworkPayload> historicalStore,
+    private void onHistoricalMapRead(String version,
+                                     Map<P2PDataStorage.ByteArray, PersistableNetworkPayload> map,
+                                     Map<String, Map<P2PDataStorage.ByteArray, PersistableNetworkPayload>> historicalMapsByVersion) {
+        historicalMapsByVersion.put(version, map);
+        log.debug("We have read {} historical items of version {}.", map.size(), version);
+        pruneStore(map, version);
+    }
+
+    private void pruneStore(Map<P2PDataStorage.ByteArray, PersistableNetworkPayload> historicalMap,
                             String version) {
         Map<P2PDataStorage.ByteArray, PersistableNetworkPayload> mapOfLiveData = getMapOfLiveData();
         int preLive = mapOfLiveData.size();
-        mapOfLiveData.keySet().removeAll(historicalStore.getMap().keySet());
+        // We iterate the live data as it is usually much smaller than the historical data
+        mapOfLiveData.keySet().removeIf(historicalMap::containsKey);
         int postLive = mapOfLiveData.size();
         if (preLive > postLive) {
             log.debug("We pruned data from our live data store which are already contained in the historical data store with version {}. " +
@@ -205,6 +248,74 @@ public abstract class HistoricalDataStoreService<T extends PersistableNetworkPay
     }
 
     private boolean anyMapContainsKey(P2PDataStorage.ByteArray hash) {
-        return getMapOfLiveData().containsKey(hash) || allHistoricalPayloads.containsKey(hash);
+        return getMapOfLiveData().containsKey(hash) ||
+                historicalMapsByVersion.values().stream().anyMatch(map -> map.containsKey(hash));
+    }
+
+    // Read-only view of maps with distinct keys, so we do not need to copy the data at each request
+    private static class ConcatenatedMap extends AbstractMap<P2PDataStorage.ByteArray, PersistableNetworkPayload> {
+        private final List<Map<P2PDataStorage.ByteArray, PersistableNetworkPayload>> maps;
+
+        ConcatenatedMap(List<Map<P2PDataStorage.ByteArray, PersistableNetworkPayload>> maps) {
+            this.maps = maps;
+        }
+
+        @Override
+        public int size() {
+            return maps.stream().mapToInt(Map::size).sum();
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            return maps.stream().anyMatch(map -> map.containsKey(key));
+        }
+
+        @Override
+        public PersistableNetworkPayload get(Object key) {
+            for (Map<P2PDataStorage.ByteArray, PersistableNetworkPayload> map : maps) {
+                PersistableNetworkPayload payload = map.get(key);
+                if (payload != null) {
+                    return payload;
+                }
+            }
+            return null;
+        }
+
+        @Override
+        public Set<P2PDataStorage.ByteArray> keySet() {
+            return Collections.unmodifiableSet(new AbstractSet<>() {
+                @Override
+                public Iterator<P2PDataStorage.ByteArray> iterator() {
+                    return Iterators.concat(maps.stream().map(map -> map.keySet().iterator()).iterator());
+                }
+
+                @Override
+                public int size() {
+                    return ConcatenatedMap.this.size();
+                }
+
+                @Override
+                public boolean contains(Object key) {
+                    return containsKey(key);
+                }
+            });
+        }
+
+        @Override
+        public Set<Map.Entry<P2PDataStorage.ByteArray, PersistableNetworkPayload>> entrySet() {
+            return new AbstractSet<>() {
+                @Override
+                public Iterator<Map.Entry<P2PDataStorage.ByteArray, PersistableNetworkPayload>> iterator() {
+                    return Iterators.unmodifiableIterator(Iterators.concat(maps.stream()
+                            .map(map -> map.entrySet().iterator())
+                            .iterator()));
+                }
+
+                @Override
+                public int size() {
+                    return ConcatenatedMap.this.size();
+                }
+            };
+        }
     }
 }
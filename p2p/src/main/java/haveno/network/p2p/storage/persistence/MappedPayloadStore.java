@@ -0,0 +1,328 @@
+/*
+ * This file is part of Haveno.
+ *
+ * Haveno is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Haveno is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Haveno. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package haveno.network.p2p.storage.persistence;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.protobuf.InvalidProtocolBufferException;
+import haveno.common.file.FileUtil;
+import haveno.network.p2p.storage.P2PDataStorage;
+import haveno.network.p2p.storage.payload.DateSortedTruncatablePayload;
+import haveno.network.p2p.storage.payload.PersistableNetworkPayload;
+import lombok.extern.slf4j.Slf4j;
+
+import javax.annotation.Nullable;
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.IntFunction;
+
+/**
+ * Read-only map of the payloads of a historical data store backed by a memory-mapped file. The file contains the
+ * hashes sorted in unsigned lexicographic order, each with the offset and length of its serialized payload and the
+ * date of DateSortedTruncatablePayloads, followed by the serialized payloads. Lookups use a binary search on the mapped
+ * hashes and payloads are only decoded when they are accessed, so we neither parse the whole store at startup nor keep
+ * it on the heap. The payloads looked up by hash are kept in a bounded cache, so repeated lookups of the same payloads
+ * do not parse them again.
+ *
+ * The file is created once from the protobuf store file it was derived from. The size and last modified date of
+ * that source file are stored in the header, so we detect if the source file got replaced and recreate it.
+ */
+@Slf4j
+public final class MappedPayloadStore extends AbstractMap<P2PDataStorage.ByteArray, PersistableNetworkPayload> {
+    static final String FILE_SUFFIX = "_mapped";
+
+    private static final int MAGIC = 0x48445332;
+    // magic, sourceSize, sourceLastModified, hashLength, numEntries
+    private static final int HEADER_SIZE = 4 + 8 + 8 + 4 + 4;
+    // offset and length of the payload, date
+    private static final int INDEX_ENTRY_OVERHEAD = 4 + 4 + 8;
+    private static final int MAX_DECODED_CACHE_SIZE = 1000;
+
+    public interface IndexEntryConsumer {
+        void accept(P2PDataStorage.ByteArray hash, long date, int serializedSize);
+    }
+
+    private final ByteBuffer buffer;
+    private final Function<protobuf.PersistableNetworkPayload, PersistableNetworkPayload> decoder;
+    private final int hashLength;
+    private final int size;
+    private final int indexEntrySize;
+    private final Cache<Integer, PersistableNetworkPayload> decodedPayloads = CacheBuilder.newBuilder()
+            .maximumSize(MAX_DECODED_CACHE_SIZE)
+            .build();
+
+    /**
+     * @return The store or null if the file does not exist, is invalid or was created from a different source file.
+     */
+    @Nullable
+    static MappedPayloadStore open(File file,
+                                   File sourceFile,
+                                   Function<protobuf.PersistableNetworkPayload, PersistableNetworkPayload> decoder) {
+        if (!file.exists()) {
+            return null;
+        }
+        try (RandomAccessFile randomAccessFile = new RandomAccessFile(file, "r");
+             FileChannel channel = randomAccessFile.getChannel()) {
+            // The mapping stays valid after the channel is closed
+            ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.capacity() < HEADER_SIZE ||
+                    buffer.getInt(0) != MAGIC ||
+                    buffer.getLong(4) != sourceFile.length() ||
+                    buffer.getLong(12) != sourceFile.lastModified()) {
+                log.info("{} does not match {}. We will recreate it.", file.getName(), sourceFile.getName());
+                return null;
+            }
+            MappedPayloadStore store = new MappedPayloadStore(buffer, decoder);
+            long indexEnd = HEADER_SIZE + (long) store.size * store.indexEntrySize;
+            if (store.hashLength <= 0 || store.size < 0 || indexEnd > buffer.capacity()) {
+                log.warn("{} is corrupted. We will recreate it.", file.getName());
+                return null;
+            }
+            return store;
+        } catch (IOException e) {
+            log.warn("Could not open {}. {}", file.getName(), e.toString());
+            return null;
+        }
+    }
+
+    /**
+     * Writes the payloads to the file and opens it.
+     *
+     * @throws IOException If writing failed or the payloads do not have the same hash length.
+     */
+    static MappedPayloadStore create(File file,
+                                     File sourceFile,
+                                     Collection<PersistableNetworkPayload> payloads,
+                                     Function<protobuf.PersistableNetworkPayload, PersistableNetworkPayload> decoder)
+            throws IOException {
+        PersistableNetworkPayload[] sorted = payloads.toArray(new PersistableNetworkPayload[0]);
+        Arrays.sort(sorted, (payload1, payload2) -> Arrays.compareUnsigned(payload1.getHash(), payload2.getHash()));
+        int hashLength = sorted.length > 0 ? sorted[0].getHash().length : 1;
+        byte[][] serialized = new byte[sorted.length][];
+        for (int i = 0; i < sorted.length; i++) {
+            if (sorted[i].getHash().length != hashLength) {
+                throw new IOException("Payloads with different hash lengths are not supported");
+            }
+            serialized[i] = sorted[i].toProtoMessage().toByteArray();
+        }
+
+        File tempFile = new File(file.getParentFile(), file.getName() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tempFile)))) {
+            out.writeInt(MAGIC);
+            out.writeLong(sourceFile.length());
+            out.writeLong(sourceFile.lastModified());
+            out.writeInt(hashLength);
+            out.writeInt(sorted.length);
+            long offset = HEADER_SIZE + (long) sorted.length * (hashLength + INDEX_ENTRY_OVERHEAD);
+            for (int i = 0; i < sorted.length; i++) {
+                if (offset + serialized[i].length > Integer.MAX_VALUE) {
+                    throw new IOException("Store is too large to be mapped");
+                }
+                out.write(sorted[i].getHash());
+                out.writeInt((int) offset);
+                out.writeInt(serialized[i].length);
+                out.writeLong(sorted[i] instanceof DateSortedTruncatablePayload ?
+                        ((DateSortedTruncatablePayload) sorted[i]).getDate().getTime() :
+                        0);
+                offset += serialized[i].length;
+            }
+            for (byte[] bytes : serialized) {
+                out.write(bytes);
+            }
+        }
+        FileUtil.renameFile(tempFile, file);
+
+        MappedPayloadStore store = open(file, sourceFile, decoder);
+        if (store == null) {
+            throw new IOException("Could not open " + file.getName() + " after creating it");
+        }
+        return store;
+    }
+
+    private MappedPayloadStore(ByteBuffer buffer,
+                               Function<protobuf.PersistableNetworkPayload, PersistableNetworkPayload> decoder) {
+        this.buffer = buffer;
+        this.decoder = decoder;
+        hashLength = buffer.getInt(20);
+        size = buffer.getInt(24);
+        indexEntrySize = hashLength + INDEX_ENTRY_OVERHEAD;
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Map
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return indexOf(key) >= 0;
+    }
+
+    @Override
+    public PersistableNetworkPayload get(Object key) {
+        int index = indexOf(key);
+        if (index < 0) {
+            return null;
+        }
+        PersistableNetworkPayload payload = decodedPayloads.getIfPresent(index);
+        if (payload == null) {
+            payload = getPayload(index);
+            decodedPayloads.put(index, payload);
+        }
+        return payload;
+    }
+
+    // We override keySet so that iterating the keys does not decode the payloads
+    @Override
+    public Set<P2PDataStorage.ByteArray> keySet() {
+        return new IndexedSet<>(this::getKey) {
+            @Override
+            public boolean contains(Object key) {
+                return containsKey(key);
+            }
+        };
+    }
+
+    // Iterating decodes each payload without caching it, as the cache would only get flushed by the iteration
+    @Override
+    public Set<Map.Entry<P2PDataStorage.ByteArray, PersistableNetworkPayload>> entrySet() {
+        return new IndexedSet<>(index -> new SimpleImmutableEntry<>(getKey(index), getPayload(index)));
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // API
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Iterates the hashes with the date (0 if the payload is not a DateSortedTruncatablePayload) and serialized size
+     * of their payloads without decoding the payloads.
+     */
+    public void forEachIndexEntry(IndexEntryConsumer consumer) {
+        for (int index = 0; index < size; index++) {
+            int position = getIndexEntryPosition(index) + hashLength;
+            consumer.accept(getKey(index), buffer.getLong(position + 8), buffer.getInt(position + 4));
+        }
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Private
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    private int indexOf(Object key) {
+        if (!(key instanceof P2PDataStorage.ByteArray)) {
+            return -1;
+        }
+        byte[] hash = ((P2PDataStorage.ByteArray) key).bytes;
+        if (hash.length != hashLength) {
+            return -1;
+        }
+        byte[] candidate = new byte[hashLength];
+        int low = 0;
+        int high = size - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            buffer.get(getIndexEntryPosition(mid), candidate);
+            int comparison = Arrays.compareUnsigned(candidate, hash);
+            if (comparison < 0) {
+                low = mid + 1;
+            } else if (comparison > 0) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -1;
+    }
+
+    private P2PDataStorage.ByteArray getKey(int index) {
+        byte[] hash = new byte[hashLength];
+        buffer.get(getIndexEntryPosition(index), hash);
+        return new P2PDataStorage.ByteArray(hash);
+    }
+
+    private PersistableNetworkPayload getPayload(int index) {
+        int position = getIndexEntryPosition(index) + hashLength;
+        byte[] bytes = new byte[buffer.getInt(position + 4)];
+        buffer.get(buffer.getInt(position), bytes);
+        try {
+            return decoder.apply(protobuf.PersistableNetworkPayload.parseFrom(bytes));
+        } catch (InvalidProtocolBufferException e) {
+            throw new IllegalStateException("Could not decode payload at index " + index, e);
+        }
+    }
+
+    private int getIndexEntryPosition(int index) {
+        return HEADER_SIZE + index * indexEntrySize;
+    }
+
+    private class IndexedSet<E> extends AbstractSet<E> {
+        private final IntFunction<E> elementAtIndex;
+
+        IndexedSet(IntFunction<E> elementAtIndex) {
+            this.elementAtIndex = elementAtIndex;
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public Iterator<E> iterator() {
+            return new Iterator<>() {
+                private int index;
+
+                @Override
+                public boolean hasNext() {
+                    return index < size;
+                }
+
+                @Override
+                public E next() {
+                    if (!hasNext()) {
+                        throw new NoSuchElementException();
+                    }
+                    return elementAtIndex.apply(index++);
+                }
+            };
+        }
+    }
+}
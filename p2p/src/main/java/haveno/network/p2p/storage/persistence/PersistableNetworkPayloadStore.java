@@ -43,6 +43,13 @@ public abstract class PersistableNetworkPayloadStore<T extends PersistableNetwor
         collection.forEach(item -> map.put(new P2PDataStorage.ByteArray(item.getHash()), item));
     }
 
+    // The payloads are immutable and the map is a ConcurrentHashMap, so we can serialize the store itself off the user
+    // thread. Entries added while serializing might not be included but those trigger another persistence request.
+    @Override
+    public PersistableEnvelope toPersistableSnapshot() {
+        return this;
+    }
+
     public boolean containsKey(P2PDataStorage.ByteArray hash) {
         return map.containsKey(hash);
     }
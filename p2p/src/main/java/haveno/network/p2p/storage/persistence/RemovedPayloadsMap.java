@@ -24,8 +24,8 @@ import haveno.network.p2p.storage.P2PDataStorage;
 import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 
-import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
 @Slf4j
@@ -34,7 +34,7 @@ public class RemovedPayloadsMap implements PersistableEnvelope {
     private final Map<P2PDataStorage.ByteArray, Long> dateByHashes;
 
     public RemovedPayloadsMap() {
-        this.dateByHashes = new HashMap<>();
+        this.dateByHashes = new ConcurrentHashMap<>();
     }
 
     ///////////////////////////////////////////////////////////////////////////////////////////
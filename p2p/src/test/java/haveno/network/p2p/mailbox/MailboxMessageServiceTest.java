@@ -0,0 +1,121 @@
+/*
+ * This file is part of Haveno.
+ *
+ * Haveno is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Haveno is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Haveno. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package haveno.network.p2p.mailbox;
+
+import haveno.common.crypto.KeyRing;
+import haveno.common.crypto.SealedAndSigned;
+import haveno.common.crypto.Sig;
+import haveno.common.persistence.PersistenceManager;
+import haveno.network.crypto.EncryptionService;
+import haveno.network.p2p.DecryptedMessageWithPubKey;
+import haveno.network.p2p.PrefixedSealedAndSignedMessage;
+import haveno.network.p2p.network.NetworkNode;
+import haveno.network.p2p.peers.PeerManager;
+import haveno.network.p2p.storage.P2PDataStorage;
+import haveno.network.p2p.storage.payload.MailboxStoragePayload;
+import haveno.network.p2p.storage.payload.ProtectedMailboxStorageEntry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.security.KeyPair;
+import java.time.Clock;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class MailboxMessageServiceTest {
+    private final KeyPair ourKeyPair = Sig.generateKeyPair();
+    private final KeyPair otherKeyPair = Sig.generateKeyPair();
+    private EncryptionService encryptionService;
+    private IgnoredMailboxService ignoredMailboxService;
+    private MailboxMessageService mailboxMessageService;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    public void setUp() {
+        KeyRing keyRing = mock(KeyRing.class);
+        when(keyRing.getSignatureKeyPair()).thenReturn(ourKeyPair);
+        encryptionService = mock(EncryptionService.class);
+        ignoredMailboxService = mock(IgnoredMailboxService.class);
+        mailboxMessageService = new MailboxMessageService(mock(NetworkNode.class),
+                mock(PeerManager.class),
+                mock(P2PDataStorage.class),
+                encryptionService,
+                ignoredMailboxService,
+                mock(PersistenceManager.class),
+                keyRing,
+                Clock.systemDefaultZone(),
+                false);
+    }
+
+    @Test
+    public void getMailboxItems_skipsEntriesForOtherReceivers() throws Exception {
+        ProtectedMailboxStorageEntry ourEntry = mailboxEntry(ourKeyPair, "our");
+        ProtectedMailboxStorageEntry otherEntry = mailboxEntry(otherKeyPair, "other");
+        SealedAndSigned ourSealedAndSigned = ourEntry.getMailboxStoragePayload().getPrefixedSealedAndSignedMessage().getSealedAndSigned();
+        DecryptedMessageWithPubKey decrypted = new DecryptedMessageWithPubKey(mock(MailboxMessage.class), otherKeyPair.getPublic());
+        when(encryptionService.decryptAndVerify(ourSealedAndSigned)).thenReturn(decrypted);
+
+        Set<MailboxItem> mailboxItems = mailboxMessageService.getMailboxItems(List.of(ourEntry, otherEntry));
+
+        assertEquals(2, mailboxItems.size());
+        for (MailboxItem mailboxItem : mailboxItems) {
+            if (mailboxItem.getProtectedMailboxStorageEntry() == ourEntry) {
+                assertNotNull(mailboxItem.getDecryptedMessageWithPubKey());
+            } else {
+                assertNull(mailboxItem.getDecryptedMessageWithPubKey());
+            }
+        }
+        // Only the entry addressed to us was decrypted, the other one was not even looked at
+        verify(encryptionService, times(1)).decryptAndVerify(any());
+        verify(otherEntry, never()).getMailboxStoragePayload();
+        verify(ignoredMailboxService, never()).isIgnored("other");
+
+        MailboxMessageService.Metrics metrics = mailboxMessageService.getMetrics();
+        assertEquals(1, metrics.getNumDecrypted());
+        assertEquals(1, metrics.getNumSkipped());
+        assertEquals(0, metrics.getNumIgnored());
+        assertEquals(0, metrics.getNumFailed());
+
+        mailboxMessageService.getMailboxItems(List.of(otherEntry));
+        assertEquals(2, mailboxMessageService.getMetrics().getNumSkipped());
+        assertEquals(1, mailboxMessageService.getMetrics().getNumDecrypted());
+    }
+
+    private static ProtectedMailboxStorageEntry mailboxEntry(KeyPair receiverKeyPair, String uid) {
+        PrefixedSealedAndSignedMessage message = mock(PrefixedSealedAndSignedMessage.class);
+        when(message.getUid()).thenReturn(uid);
+        when(message.getSealedAndSigned()).thenReturn(mock(SealedAndSigned.class));
+        MailboxStoragePayload payload = mock(MailboxStoragePayload.class);
+        when(payload.getPrefixedSealedAndSignedMessage()).thenReturn(message);
+        ProtectedMailboxStorageEntry entry = mock(ProtectedMailboxStorageEntry.class);
+        when(entry.getReceiversPubKeyBytes()).thenReturn(Sig.getPublicKeyBytes(receiverKeyPair.getPublic()));
+        when(entry.getMailboxStoragePayload()).thenReturn(payload);
+        return entry;
+    }
+}
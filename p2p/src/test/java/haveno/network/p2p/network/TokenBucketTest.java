@@ -0,0 +1,56 @@
+/*
+ * This file is part of Haveno.
+ *
+ * Haveno is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Haveno is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Haveno. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package haveno.network.p2p.network;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class TokenBucketTest {
+    private static final long INTERVAL_NANOS = TimeUnit.MILLISECONDS.toNanos(20);
+
+    @Test
+    public void reserve_burstThenPaced() {
+        TokenBucket tokenBucket = new TokenBucket(20, 2);
+        long now = 1000;
+
+        // The burst is sent without delay
+        assertEquals(0, tokenBucket.reserve(now));
+        assertEquals(0, tokenBucket.reserve(now));
+
+        // Afterwards each message has to wait for its own token
+        assertEquals(INTERVAL_NANOS, tokenBucket.reserve(now));
+        assertEquals(2 * INTERVAL_NANOS, tokenBucket.reserve(now));
+    }
+
+    @Test
+    public void reserve_refillsOverTime() {
+        TokenBucket tokenBucket = new TokenBucket(20, 1);
+        long now = 1000;
+
+        assertEquals(0, tokenBucket.reserve(now));
+        assertEquals(INTERVAL_NANOS / 2, tokenBucket.reserve(now + INTERVAL_NANOS / 2));
+
+        // After a long idle period the bucket is full again but does not exceed its capacity
+        now += 10 * INTERVAL_NANOS;
+        assertEquals(0, tokenBucket.reserve(now));
+        assertEquals(INTERVAL_NANOS, tokenBucket.reserve(now));
+    }
+}
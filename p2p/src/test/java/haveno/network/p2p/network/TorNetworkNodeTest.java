@@ -21,6 +21,7 @@ import com.google.common.util.concurrent.FutureCallback;
 import com.google.common.util.concurrent.Futures;
 import com.google.common.util.concurrent.MoreExecutors;
 import com.google.common.util.concurrent.SettableFuture;
+import haveno.common.config.Config;
 import haveno.network.p2p.TestUtils;
 import haveno.network.p2p.mocks.MockPayload;
 import org.jetbrains.annotations.NotNull;
@@ -51,7 +52,8 @@ public class TorNetworkNodeTest {
         latch = new CountDownLatch(1);
         int port = 9001;
         TorNetworkNode node1 = new TorNetworkNode(port, TestUtils.getNetworkProtoResolver(), false,
-                new NewTor(new File("torNode_" + port), null, "", this::getBridgeAddresses), null, 12, "127.0.0.1");
+                new NewTor(new File("torNode_" + port), null, "", this::getBridgeAddresses), null, 12, "127.0.0.1",
+                Config.NetworkEngine.PLATFORM_THREADS);
         node1.start(new SetupListener() {
             @Override
             public void onTorNodeReady() {
@@ -78,7 +80,8 @@ public class TorNetworkNodeTest {
         latch = new CountDownLatch(1);
         int port2 = 9002;
         TorNetworkNode node2 = new TorNetworkNode(port2, TestUtils.getNetworkProtoResolver(), false,
-                new NewTor(new File("torNode_" + port), null, "", this::getBridgeAddresses), null, 12, "127.0.0.1");
+                new NewTor(new File("torNode_" + port), null, "", this::getBridgeAddresses), null, 12, "127.0.0.1",
+                Config.NetworkEngine.PLATFORM_THREADS);
         node2.start(new SetupListener() {
             @Override
             public void onTorNodeReady() {
@@ -136,7 +139,8 @@ public class TorNetworkNodeTest {
         latch = new CountDownLatch(2);
         int port = 9001;
         TorNetworkNode node1 = new TorNetworkNode(port, TestUtils.getNetworkProtoResolver(), false,
-                new NewTor(new File("torNode_" + port), null, "", this::getBridgeAddresses), null, 12, "127.0.0.1");
+                new NewTor(new File("torNode_" + port), null, "", this::getBridgeAddresses), null, 12, "127.0.0.1",
+                Config.NetworkEngine.PLATFORM_THREADS);
         node1.start(new SetupListener() {
             @Override
             public void onTorNodeReady() {
@@ -162,7 +166,8 @@ public class TorNetworkNodeTest {
 
         int port2 = 9002;
         TorNetworkNode node2 = new TorNetworkNode(port2, TestUtils.getNetworkProtoResolver(), false,
-                new NewTor(new File("torNode_" + port), null, "", this::getBridgeAddresses), null, 12, "127.0.0.1");
+                new NewTor(new File("torNode_" + port), null, "", this::getBridgeAddresses), null, 12, "127.0.0.1",
+                Config.NetworkEngine.PLATFORM_THREADS);
         node2.start(new SetupListener() {
             @Override
             public void onTorNodeReady() {
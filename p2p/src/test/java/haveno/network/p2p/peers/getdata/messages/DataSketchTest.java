@@ -0,0 +1,99 @@
+/*
+ * This file is part of Haveno.
+ *
+ * Haveno is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Haveno is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Haveno. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package haveno.network.p2p.peers.getdata.messages;
+
+import haveno.network.p2p.storage.P2PDataStorage;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class DataSketchTest {
+
+    @Test
+    public void getMismatchedBuckets_narrowsDownDifferenceBySplitting() {
+        List<P2PDataStorage.ByteArray> keys = new ArrayList<>();
+        for (int i = 0; i < 256; i++) {
+            keys.add(key(7, i, 0));
+        }
+        List<P2PDataStorage.ByteArray> otherKeys = new ArrayList<>(keys);
+        otherKeys.add(key(7, 200, 1));
+
+        List<Integer> mismatchedBuckets = DataSketch.fromKeys(otherKeys).getMismatchedBuckets(DataSketch.fromKeys(keys));
+        assertEquals(Collections.singletonList(DataSketch.getBucket(key(7, 0, 0).bytes)), mismatchedBuckets);
+
+        List<Integer> subBuckets = DataSketch.split(mismatchedBuckets);
+        assertEquals(16, subBuckets.size());
+        DataSketch subSketch = DataSketch.fromKeys(keys, subBuckets);
+        List<Integer> mismatchedSubBuckets = DataSketch.fromKeys(otherKeys, subBuckets).getMismatchedBuckets(subSketch);
+        assertEquals(1, mismatchedSubBuckets.size());
+        assertEquals(16, subSketch.getCount(mismatchedSubBuckets.get(0)));
+
+        assertTrue(DataSketch.isInBuckets(key(7, 200, 1).bytes, Collections.singleton(mismatchedSubBuckets.get(0))));
+        assertFalse(DataSketch.isInBuckets(key(7, 0, 0).bytes, Collections.singleton(mismatchedSubBuckets.get(0))));
+    }
+
+    @Test
+    public void split_stopsAtMaxDepth() {
+        List<Integer> buckets = Collections.singletonList(DataSketch.getBucket(key(1, 2, 3).bytes));
+        int depth = 0;
+        while (!buckets.isEmpty()) {
+            buckets.forEach(bucket -> assertTrue(DataSketch.isValidBucket(bucket)));
+            buckets = DataSketch.split(buckets.subList(0, 1));
+            depth++;
+        }
+        assertEquals(5, depth);
+    }
+
+    @Test
+    public void fromProto_roundTrip() {
+        List<P2PDataStorage.ByteArray> keys = List.of(key(1, 2, 3), key(1, 2, 4), key(200, 0, 0));
+        DataSketch dataSketch = DataSketch.fromKeys(keys, DataSketch.split(List.of(DataSketch.getBucket(keys.get(0).bytes))));
+
+        DataSketch fromProto = DataSketch.fromProto(dataSketch.toProtoMessage());
+
+        assertEquals(dataSketch, fromProto);
+        assertEquals(dataSketch.getBuckets(), fromProto.getBuckets());
+        assertTrue(dataSketch.getMismatchedBuckets(fromProto).isEmpty());
+    }
+
+    @Test
+    public void fromProto_treatsInvalidSketchAsEmpty() {
+        protobuf.DataSketch proto = protobuf.DataSketch.newBuilder()
+                .addBuckets(3)
+                .addDigests(1)
+                .addCounts(1)
+                .build();
+
+        assertEquals(new DataSketch(), DataSketch.fromProto(proto));
+    }
+
+    private static P2PDataStorage.ByteArray key(int byte0, int byte1, int byte2) {
+        byte[] bytes = new byte[32];
+        bytes[0] = (byte) byte0;
+        bytes[1] = (byte) byte1;
+        bytes[2] = (byte) byte2;
+        return new P2PDataStorage.ByteArray(bytes);
+    }
+}
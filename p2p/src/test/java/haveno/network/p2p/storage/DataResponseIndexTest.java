@@ -0,0 +1,121 @@
+/*
+ * This file is part of Haveno.
+ *
+ * Haveno is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Haveno is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Haveno. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package haveno.network.p2p.storage;
+
+import haveno.network.p2p.storage.mocks.PersistableNetworkPayloadStub;
+import haveno.network.p2p.storage.payload.DateSortedTruncatablePayload;
+import haveno.network.p2p.storage.payload.PersistableNetworkPayload;
+import org.junit.jupiter.api.Test;
+
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class DataResponseIndexTest {
+
+    static class DateSortedPayloadStub extends PersistableNetworkPayloadStub implements DateSortedTruncatablePayload {
+        private final Date date;
+
+        DateSortedPayloadStub(byte[] hash, long date) {
+            super(hash);
+            this.date = new Date(date);
+        }
+
+        @Override
+        public Date getDate() {
+            return date;
+        }
+
+        @Override
+        public int maxItems() {
+            return 10;
+        }
+    }
+
+    @Test
+    public void getDateSortedItems_newestFirst() {
+        DataResponseIndex<PersistableNetworkPayload> index = new DataResponseIndex<>(Function.identity());
+        DateSortedPayloadStub oldest = new DateSortedPayloadStub(new byte[]{1}, 1000);
+        DateSortedPayloadStub newest = new DateSortedPayloadStub(new byte[]{2}, 3000);
+        DateSortedPayloadStub middle = new DateSortedPayloadStub(new byte[]{3}, 2000);
+        index.putIfAbsent(new P2PDataStorage.ByteArray(oldest.getHash()), oldest, null);
+        index.putIfAbsent(new P2PDataStorage.ByteArray(newest.getHash()), newest, null);
+        index.putIfAbsent(new P2PDataStorage.ByteArray(middle.getHash()), middle, null);
+
+        List<PersistableNetworkPayload> values = index.getDateSortedItems().stream()
+                .map(DataResponseIndex.Item::getValue)
+                .collect(Collectors.toList());
+        assertEquals(List.of(newest, middle, oldest), values);
+
+        index.remove(new P2PDataStorage.ByteArray(middle.getHash()));
+        assertEquals(2, index.size());
+        assertEquals(2, index.getDateSortedItems().size());
+    }
+
+    @Test
+    public void putIfAbsent_keepsHistoricalStoreVersion() {
+        DataResponseIndex<PersistableNetworkPayload> index = new DataResponseIndex<>(Function.identity());
+        PersistableNetworkPayload payload = new PersistableNetworkPayloadStub(new byte[]{1});
+        P2PDataStorage.ByteArray key = new P2PDataStorage.ByteArray(payload.getHash());
+        index.putIfAbsent(key, payload, "1.0.0");
+        index.putIfAbsent(key, payload, null);
+
+        assertEquals(1, index.size());
+        assertEquals("1.0.0", index.getItems().iterator().next().getStoreVersion());
+        assertTrue(index.getDateSortedItems().isEmpty());
+
+        index.remove(key);
+        index.putIfAbsent(key, payload, null);
+        assertNull(index.getItems().iterator().next().getStoreVersion());
+    }
+
+    @Test
+    public void putLazyIfAbsent_resolvesValueFromSourceWhenAccessed() {
+        DataResponseIndex<PersistableNetworkPayload> index = new DataResponseIndex<>(Function.identity());
+        DateSortedPayloadStub older = new DateSortedPayloadStub(new byte[]{1}, 1000);
+        DateSortedPayloadStub newer = new DateSortedPayloadStub(new byte[]{2}, 2000);
+        AtomicInteger numLookups = new AtomicInteger();
+        HashMap<P2PDataStorage.ByteArray, PersistableNetworkPayload> source = new HashMap<>() {
+            @Override
+            public PersistableNetworkPayload get(Object key) {
+                numLookups.incrementAndGet();
+                return super.get(key);
+            }
+        };
+        source.put(new P2PDataStorage.ByteArray(older.getHash()), older);
+        source.put(new P2PDataStorage.ByteArray(newer.getHash()), newer);
+        index.putLazyIfAbsent(new P2PDataStorage.ByteArray(older.getHash()), source, older, "1.0.0", 1000, 10);
+        index.putLazyIfAbsent(new P2PDataStorage.ByteArray(newer.getHash()), source, older, "1.0.0", 2000, 20);
+
+        DataResponseIndex.Item<PersistableNetworkPayload> newest = index.getDateSortedItems().iterator().next();
+        assertEquals(20, newest.getSerializedSize());
+        assertEquals(10, newest.getMaxItems());
+        assertEquals("1.0.0", newest.getStoreVersion());
+        assertEquals(0, numLookups.get());
+
+        assertEquals(newer, newest.getValue());
+        assertEquals(1, numLookups.get());
+    }
+}
@@ -0,0 +1,84 @@
+/*
+ * This file is part of Haveno.
+ *
+ * Haveno is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Haveno is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Haveno. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package haveno.network.p2p.storage;
+
+import haveno.network.p2p.TestUtils;
+import haveno.network.p2p.storage.mocks.ClockFake;
+import haveno.network.p2p.storage.mocks.ExpirableProtectedStoragePayloadStub;
+import haveno.network.p2p.storage.mocks.ProtectedStoragePayloadStub;
+import haveno.network.p2p.storage.payload.ProtectedStorageEntry;
+import haveno.network.p2p.storage.payload.ProtectedStoragePayload;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.security.KeyPair;
+import java.security.NoSuchAlgorithmException;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ExpiryIndexTest {
+    private KeyPair ownerKeys;
+    private ClockFake clock;
+    private ExpiryIndex expiryIndex;
+
+    @BeforeEach
+    public void setUp() throws NoSuchAlgorithmException {
+        ownerKeys = TestUtils.generateKeyPair();
+        clock = new ClockFake();
+        expiryIndex = new ExpiryIndex();
+    }
+
+    private ProtectedStorageEntry createEntry(ProtectedStoragePayload protectedStoragePayload) {
+        return new ProtectedStorageEntry(protectedStoragePayload, ownerKeys.getPublic(), 1, new byte[]{0}, clock);
+    }
+
+    @Test
+    public void getExpiredKeys_oldestFirst() {
+        P2PDataStorage.ByteArray longLived = new P2PDataStorage.ByteArray(new byte[]{1});
+        P2PDataStorage.ByteArray shortLived = new P2PDataStorage.ByteArray(new byte[]{2});
+        expiryIndex.put(longLived, createEntry(new ExpirableProtectedStoragePayloadStub(ownerKeys.getPublic(), 2000)));
+        expiryIndex.put(shortLived, createEntry(new ExpirableProtectedStoragePayloadStub(ownerKeys.getPublic(), 1000)));
+
+        assertTrue(expiryIndex.getExpiredKeys(clock.millis()).isEmpty());
+
+        clock.increment(1001);
+        assertEquals(List.of(shortLived), expiryIndex.getExpiredKeys(clock.millis()));
+
+        clock.increment(1000);
+        assertEquals(List.of(shortLived, longLived), expiryIndex.getExpiredKeys(clock.millis()));
+
+        expiryIndex.remove(shortLived);
+        assertEquals(List.of(longLived), expiryIndex.getExpiredKeys(clock.millis()));
+    }
+
+    @Test
+    public void put_replacesDeadlineAndSkipsNonExpirable() {
+        P2PDataStorage.ByteArray key = new P2PDataStorage.ByteArray(new byte[]{1});
+        expiryIndex.put(key, createEntry(new ExpirableProtectedStoragePayloadStub(ownerKeys.getPublic(), 1000)));
+        clock.increment(1001);
+        // Refreshed entry gets a new deadline
+        expiryIndex.put(key, createEntry(new ExpirableProtectedStoragePayloadStub(ownerKeys.getPublic(), 1000)));
+        assertEquals(1, expiryIndex.size());
+        assertTrue(expiryIndex.getExpiredKeys(clock.millis()).isEmpty());
+
+        expiryIndex.put(key, createEntry(new ProtectedStoragePayloadStub(ownerKeys.getPublic())));
+        assertEquals(0, expiryIndex.size());
+    }
+}
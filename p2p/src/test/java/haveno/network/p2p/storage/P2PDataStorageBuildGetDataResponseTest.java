@@ -24,6 +24,7 @@ import haveno.common.crypto.Sig;
 import haveno.network.p2p.NodeAddress;
 import haveno.network.p2p.TestUtils;
 import haveno.network.p2p.network.NetworkNode;
+import haveno.network.p2p.peers.getdata.messages.DataSketch;
 import haveno.network.p2p.peers.getdata.messages.GetDataRequest;
 import haveno.network.p2p.peers.getdata.messages.GetDataResponse;
 import haveno.network.p2p.peers.getdata.messages.GetUpdatedDataRequest;
@@ -42,6 +43,7 @@ import java.security.KeyPair;
 import java.security.NoSuchAlgorithmException;
 import java.util.Collections;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
 import java.util.concurrent.atomic.AtomicBoolean;
 
@@ -66,6 +68,11 @@ public class P2PDataStorageBuildGetDataResponseTest {
 
         abstract GetDataRequest buildGetDataRequest(int nonce, Set<byte[]> knownKeys);
 
+        abstract GetDataRequest buildGetDataRequest(int nonce,
+                                                    Set<byte[]> knownKeys,
+                                                    DataSketch dataSketch,
+                                                    Set<Integer> bucketFilter);
+
         @Mock
         NetworkNode networkNode;
 
@@ -464,6 +471,121 @@ public class P2PDataStorageBuildGetDataResponseTest {
             assertTrue(getDataResponse.getPersistableNetworkPayloadSet().isEmpty());
             assertTrue(getDataResponse.getDataSet().contains(onlyLocal));
         }
+
+        // TESTCASE: Given a GetDataRequest w/ empty DataSketch, send back all data and report no mismatched buckets
+        @Test
+        public void buildGetDataResponse_emptyDataSketchSendBack() {
+            PersistableNetworkPayload onlyLocal = new PersistableNetworkPayloadStub(new byte[]{1});
+
+            this.testState.mockedStorage.addPersistableNetworkPayload(
+                    onlyLocal, this.localNodeAddress, false);
+
+            GetDataRequest getDataRequest =
+                    this.buildGetDataRequest(1, new HashSet<>(), new DataSketch(), new HashSet<>());
+
+            AtomicBoolean outPNPTruncated = new AtomicBoolean(false);
+            AtomicBoolean outPSETruncated = new AtomicBoolean(false);
+            Capabilities peerCapabilities = new Capabilities();
+            GetDataResponse getDataResponse = this.testState.mockedStorage.buildGetDataResponse(
+                    getDataRequest, 2, outPNPTruncated, outPSETruncated, peerCapabilities);
+
+            assertFalse(getDataResponse.requiresFollowUpRequest());
+            assertTrue(getDataResponse.getPersistableNetworkPayloadSet().contains(onlyLocal));
+            assertTrue(getDataResponse.getDataSet().isEmpty());
+        }
+
+        // TESTCASE: Given a GetDataRequest w/ matching DataSketch, nothing is sent back
+        @Test
+        public void buildGetDataResponse_matchingDataSketchDoNothing() {
+            PersistableNetworkPayload fromPeerAndLocal = new PersistableNetworkPayloadStub(new byte[]{1});
+
+            this.testState.mockedStorage.addPersistableNetworkPayload(
+                    fromPeerAndLocal, this.localNodeAddress, false);
+
+            DataSketch dataSketch = DataSketch.fromKeys(
+                    Collections.singletonList(new P2PDataStorage.ByteArray(fromPeerAndLocal.getHash())));
+            GetDataRequest getDataRequest =
+                    this.buildGetDataRequest(1, new HashSet<>(), dataSketch, new HashSet<>());
+
+            AtomicBoolean outPNPTruncated = new AtomicBoolean(false);
+            AtomicBoolean outPSETruncated = new AtomicBoolean(false);
+            Capabilities peerCapabilities = new Capabilities();
+            GetDataResponse getDataResponse = this.testState.mockedStorage.buildGetDataResponse(
+                    getDataRequest, 2, outPNPTruncated, outPSETruncated, peerCapabilities);
+
+            assertFalse(getDataResponse.requiresFollowUpRequest());
+            assertTrue(getDataResponse.getPersistableNetworkPayloadSet().isEmpty());
+            assertTrue(getDataResponse.getDataSet().isEmpty());
+        }
+
+        // TESTCASE: Given a GetDataRequest w/ DataSketch differing in a bucket both sides have data in, report the
+        // bucket and send the missing data on the follow-up request
+        @Test
+        public void buildGetDataResponse_mismatchedDataSketchBucketFollowUp() {
+            PersistableNetworkPayload fromPeerAndLocal = new PersistableNetworkPayloadStub(new byte[]{1});
+            PersistableNetworkPayload onlyLocal = new PersistableNetworkPayloadStub(new byte[]{1, 1});
+            int bucket = DataSketch.getBucket(onlyLocal.getHash());
+            assertEquals(bucket, DataSketch.getBucket(fromPeerAndLocal.getHash()));
+
+            this.testState.mockedStorage.addPersistableNetworkPayload(
+                    fromPeerAndLocal, this.localNodeAddress, false);
+            this.testState.mockedStorage.addPersistableNetworkPayload(
+                    onlyLocal, this.localNodeAddress, false);
+
+            DataSketch dataSketch = DataSketch.fromKeys(
+                    Collections.singletonList(new P2PDataStorage.ByteArray(fromPeerAndLocal.getHash())));
+            GetDataRequest getDataRequest =
+                    this.buildGetDataRequest(1, new HashSet<>(), dataSketch, new HashSet<>());
+
+            Capabilities peerCapabilities = new Capabilities();
+            GetDataResponse getDataResponse = this.testState.mockedStorage.buildGetDataResponse(
+                    getDataRequest, 2, new AtomicBoolean(false), new AtomicBoolean(false), peerCapabilities);
+
+            assertTrue(getDataResponse.requiresFollowUpRequest());
+            assertEquals(Collections.singletonList(bucket), getDataResponse.getMismatchedBuckets());
+            assertTrue(getDataResponse.getPersistableNetworkPayloadSet().isEmpty());
+
+            GetDataRequest followUpRequest = this.buildGetDataRequest(1,
+                    new HashSet<>(Collections.singletonList(fromPeerAndLocal.getHash())),
+                    null,
+                    new HashSet<>(getDataResponse.getMismatchedBuckets()));
+            GetDataResponse followUpResponse = this.testState.mockedStorage.buildGetDataResponse(
+                    followUpRequest, 2, new AtomicBoolean(false), new AtomicBoolean(false), peerCapabilities);
+
+            assertFalse(followUpResponse.requiresFollowUpRequest());
+            assertEquals(1, followUpResponse.getPersistableNetworkPayloadSet().size());
+            assertTrue(followUpResponse.getPersistableNetworkPayloadSet().contains(onlyLocal));
+        }
+
+        // TESTCASE: Given a follow-up GetDataRequest w/ DataSketch of sub-buckets, send the data of the sub-buckets
+        // the peer has no data in and report only the mismatched sub-buckets
+        @Test
+        public void buildGetDataResponse_subBucketDataSketchFollowUp() {
+            PersistableNetworkPayload fromPeerAndLocal = new PersistableNetworkPayloadStub(new byte[]{1});
+            PersistableNetworkPayload onlyLocalInSameSubBucket = new PersistableNetworkPayloadStub(new byte[]{1, 1});
+            PersistableNetworkPayload onlyLocalInOtherSubBucket = new PersistableNetworkPayloadStub(new byte[]{1, 0x20});
+            List<Integer> subBuckets = DataSketch.split(Collections.singletonList(DataSketch.getBucket(new byte[]{1})));
+
+            this.testState.mockedStorage.addPersistableNetworkPayload(
+                    fromPeerAndLocal, this.localNodeAddress, false);
+            this.testState.mockedStorage.addPersistableNetworkPayload(
+                    onlyLocalInSameSubBucket, this.localNodeAddress, false);
+            this.testState.mockedStorage.addPersistableNetworkPayload(
+                    onlyLocalInOtherSubBucket, this.localNodeAddress, false);
+
+            DataSketch dataSketch = DataSketch.fromKeys(
+                    Collections.singletonList(new P2PDataStorage.ByteArray(fromPeerAndLocal.getHash())), subBuckets);
+            GetDataRequest getDataRequest =
+                    this.buildGetDataRequest(1, new HashSet<>(), dataSketch, new HashSet<>());
+
+            Capabilities peerCapabilities = new Capabilities();
+            GetDataResponse getDataResponse = this.testState.mockedStorage.buildGetDataResponse(
+                    getDataRequest, 2, new AtomicBoolean(false), new AtomicBoolean(false), peerCapabilities);
+
+            assertEquals(Collections.singletonList(subBuckets.get(0)), getDataResponse.getMismatchedBuckets());
+            assertEquals(1, getDataResponse.getPersistableNetworkPayloadSet().size());
+            assertTrue(getDataResponse.getPersistableNetworkPayloadSet().contains(onlyLocalInOtherSubBucket));
+        }
     }
 
     public static class P2PDataStorageBuildGetDataResponseTestPreliminary extends P2PDataStorageBuildGetDataResponseTestBase {
@@ -472,6 +594,14 @@ public class P2PDataStorageBuildGetDataResponseTest {
         GetDataRequest buildGetDataRequest(int nonce, Set<byte[]> knownKeys) {
             return new PreliminaryGetDataRequest(nonce, knownKeys);
         }
+
+        @Override
+        GetDataRequest buildGetDataRequest(int nonce,
+                                           Set<byte[]> knownKeys,
+                                           DataSketch dataSketch,
+                                           Set<Integer> bucketFilter) {
+            return new PreliminaryGetDataRequest(nonce, knownKeys, dataSketch, bucketFilter);
+        }
     }
 
     public static class P2PDataStorageBuildGetDataResponseTestUpdated extends P2PDataStorageBuildGetDataResponseTestBase {
@@ -480,5 +610,13 @@ public class P2PDataStorageBuildGetDataResponseTest {
         GetDataRequest buildGetDataRequest(int nonce, Set<byte[]> knownKeys) {
             return new GetUpdatedDataRequest(new NodeAddress("peer", 10), nonce, knownKeys);
         }
+
+        @Override
+        GetDataRequest buildGetDataRequest(int nonce,
+                                           Set<byte[]> knownKeys,
+                                           DataSketch dataSketch,
+                                           Set<Integer> bucketFilter) {
+            return new GetUpdatedDataRequest(new NodeAddress("peer", 10), nonce, knownKeys, dataSketch, bucketFilter);
+        }
     }
 }
@@ -0,0 +1,120 @@
+/*
+ * This file is part of Haveno.
+ *
+ * Haveno is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Haveno is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Haveno. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package haveno.network.p2p.storage;
+
+import haveno.network.p2p.TestUtils;
+import haveno.network.p2p.storage.mocks.ExpirableProtectedStoragePayloadStub;
+import haveno.network.p2p.storage.payload.ProtectedStorageEntry;
+import haveno.network.p2p.storage.payload.ProtectedStoragePayload;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.security.KeyPair;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * HashMapChangedListeners are not written to be called concurrently, so concurrent adds and removes on different
+ * payload lock stripes must still notify them one at a time.
+ */
+public class P2PDataStorageListenerConcurrencyTest {
+    private static final int NUM_ENTRIES = 32;
+
+    private TestState testState;
+    private ExecutorService executor;
+
+    @BeforeEach
+    public void setUp() {
+        testState = new TestState();
+        executor = Executors.newFixedThreadPool(8);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void concurrentAddAndRemove_notifiesListenersSerially() throws Exception {
+        SerialListener listener = new SerialListener();
+        testState.mockedStorage.addHashMapChangedListener(listener);
+
+        List<KeyPair> ownerKeys = new ArrayList<>();
+        for (int i = 0; i < NUM_ENTRIES; i++) ownerKeys.add(TestUtils.generateKeyPair());
+
+        List<Future<?>> futures = new ArrayList<>();
+        for (KeyPair keys : ownerKeys) {
+            futures.add(executor.submit(() -> {
+                ProtectedStoragePayload payload = new ExpirableProtectedStoragePayloadStub(keys.getPublic());
+                ProtectedStorageEntry entry = testState.mockedStorage.getProtectedStorageEntry(payload, keys);
+                assertTrue(testState.mockedStorage.addProtectedStorageEntry(entry, TestState.getTestNodeAddress(), null));
+                ProtectedStorageEntry removeEntry = testState.mockedStorage.getProtectedStorageEntry(payload, keys);
+                assertTrue(testState.mockedStorage.remove(removeEntry, TestState.getTestNodeAddress()));
+                return null;
+            }));
+        }
+        for (Future<?> future : futures) future.get(30, TimeUnit.SECONDS);
+
+        assertFalse(listener.overlapped.get());
+        assertEquals(NUM_ENTRIES, listener.numAdded.get());
+        assertEquals(NUM_ENTRIES, listener.numRemoved.get());
+        assertTrue(testState.mockedStorage.getMap().isEmpty());
+    }
+
+    private static class SerialListener implements HashMapChangedListener {
+        private final AtomicInteger numActive = new AtomicInteger();
+        private final AtomicBoolean overlapped = new AtomicBoolean();
+        private final AtomicInteger numAdded = new AtomicInteger();
+        private final AtomicInteger numRemoved = new AtomicInteger();
+
+        @Override
+        public void onAdded(Collection<ProtectedStorageEntry> protectedStorageEntries) {
+            run(() -> numAdded.addAndGet(protectedStorageEntries.size()));
+        }
+
+        @Override
+        public void onRemoved(Collection<ProtectedStorageEntry> protectedStorageEntries) {
+            run(() -> numRemoved.addAndGet(protectedStorageEntries.size()));
+        }
+
+        private void run(Runnable runnable) {
+            if (numActive.incrementAndGet() > 1) overlapped.set(true);
+            try {
+                Thread.sleep(2); // widen the window for overlapping calls
+                runnable.run();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                numActive.decrementAndGet();
+            }
+        }
+    }
+}
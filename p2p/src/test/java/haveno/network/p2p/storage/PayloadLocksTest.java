@@ -0,0 +1,92 @@
+/*
+ * This file is part of Haveno.
+ *
+ * Haveno is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Haveno is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Haveno. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package haveno.network.p2p.storage;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class PayloadLocksTest {
+    private final P2PDataStorage.ByteArray key1 = new P2PDataStorage.ByteArray(new byte[]{1});
+    private final P2PDataStorage.ByteArray key2 = new P2PDataStorage.ByteArray(new byte[]{2});
+    private PayloadLocks payloadLocks;
+    private ExecutorService executor;
+
+    @BeforeEach
+    public void setUp() {
+        payloadLocks = new PayloadLocks();
+        executor = Executors.newSingleThreadExecutor();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void lock_unrelatedKeysDoNotBlock() throws Exception {
+        payloadLocks.lock(key1);
+        try {
+            executor.submit(() -> {
+                payloadLocks.lock(key2);
+                payloadLocks.unlock(key2);
+            }).get(5, TimeUnit.SECONDS);
+        } finally {
+            payloadLocks.unlock(key1);
+        }
+    }
+
+    @Test
+    public void lockAll_waitsForKeyLocks() throws Exception {
+        payloadLocks.lock(key1);
+        Future<?> future = executor.submit(() -> {
+            payloadLocks.lockAll();
+            payloadLocks.unlockAll();
+        });
+        assertThrows(TimeoutException.class, () -> future.get(200, TimeUnit.MILLISECONDS));
+
+        payloadLocks.unlock(key1);
+        future.get(5, TimeUnit.SECONDS);
+    }
+
+    @Test
+    public void lockAll_allowsKeyLocksOfSameThread() {
+        payloadLocks.lockAll();
+        payloadLocks.lock(key1);
+        payloadLocks.unlock(key1);
+        payloadLocks.unlockAll();
+    }
+
+    @Test
+    public void lockAll_failsWhileHoldingKeyLock() {
+        payloadLocks.lock(key1);
+        try {
+            assertThrows(IllegalStateException.class, payloadLocks::lockAll);
+        } finally {
+            payloadLocks.unlock(key1);
+        }
+    }
+}
@@ -32,6 +32,7 @@ import org.apache.commons.lang3.RandomUtils;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.IOException;
 import java.security.InvalidKeyException;
@@ -41,6 +42,9 @@ import java.security.SignatureException;
 import java.security.cert.CertificateException;
 import java.time.Clock;
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
 @SuppressWarnings("UnusedAssignment")
 @Slf4j
 public class AddDataMessageTest {
@@ -61,13 +65,7 @@ public class AddDataMessageTest {
 
     @Test
     public void toProtoBuf() throws Exception {
-        SealedAndSigned sealedAndSigned = new SealedAndSigned(RandomUtils.nextBytes(10), RandomUtils.nextBytes(10), RandomUtils.nextBytes(10), keyRing1.getPubKeyRing().getSignaturePubKey());
-        PrefixedSealedAndSignedMessage prefixedSealedAndSignedMessage = new PrefixedSealedAndSignedMessage(new NodeAddress("host", 1000), sealedAndSigned);
-        MailboxStoragePayload mailboxStoragePayload = new MailboxStoragePayload(prefixedSealedAndSignedMessage,
-                keyRing1.getPubKeyRing().getSignaturePubKey(), keyRing1.getPubKeyRing().getSignaturePubKey(), MailboxStoragePayload.TTL);
-        ProtectedStorageEntry protectedStorageEntry = new ProtectedMailboxStorageEntry(mailboxStoragePayload,
-                keyRing1.getSignatureKeyPair().getPublic(), 1, RandomUtils.nextBytes(10), keyRing1.getPubKeyRing().getSignaturePubKey(), Clock.systemDefaultZone());
-        AddDataMessage dataMessage1 = new AddDataMessage(protectedStorageEntry);
+        AddDataMessage dataMessage1 = new AddDataMessage(createProtectedStorageEntry());
         protobuf.NetworkEnvelope envelope = dataMessage1.toProtoNetworkEnvelope();
 
         //TODO Use NetworkProtoResolver, PersistenceProtoResolver or ProtoResolver which are all in io.haveno.common.
@@ -78,4 +76,25 @@ public class AddDataMessageTest {
         assertTrue(dataMessage1.equals(dataMessage2));*/
     }
 
+    @Test
+    public void toDelimitedByteArray() throws Exception {
+        AddDataMessage dataMessage = new AddDataMessage(createProtectedStorageEntry());
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        dataMessage.toProtoNetworkEnvelope().writeDelimitedTo(outputStream);
+
+        byte[] serialized = dataMessage.toDelimitedByteArray();
+        assertArrayEquals(outputStream.toByteArray(), serialized);
+        // Broadcast messages get serialized only once
+        assertSame(serialized, dataMessage.toDelimitedByteArray());
+    }
+
+    private ProtectedStorageEntry createProtectedStorageEntry() throws Exception {
+        SealedAndSigned sealedAndSigned = new SealedAndSigned(RandomUtils.nextBytes(10), RandomUtils.nextBytes(10), RandomUtils.nextBytes(10), keyRing1.getPubKeyRing().getSignaturePubKey());
+        PrefixedSealedAndSignedMessage prefixedSealedAndSignedMessage = new PrefixedSealedAndSignedMessage(new NodeAddress("host", 1000), sealedAndSigned);
+        MailboxStoragePayload mailboxStoragePayload = new MailboxStoragePayload(prefixedSealedAndSignedMessage,
+                keyRing1.getPubKeyRing().getSignaturePubKey(), keyRing1.getPubKeyRing().getSignaturePubKey(), MailboxStoragePayload.TTL);
+        return new ProtectedMailboxStorageEntry(mailboxStoragePayload,
+                keyRing1.getSignatureKeyPair().getPublic(), 1, RandomUtils.nextBytes(10), keyRing1.getPubKeyRing().getSignaturePubKey(), Clock.systemDefaultZone());
+    }
+
 }
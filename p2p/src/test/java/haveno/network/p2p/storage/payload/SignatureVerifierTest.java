@@ -0,0 +1,78 @@
+/*
+ * This file is part of Haveno.
+ *
+ * Haveno is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Haveno is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Haveno. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package haveno.network.p2p.storage.payload;
+
+import haveno.common.crypto.CryptoException;
+import haveno.common.crypto.Sig;
+import haveno.network.p2p.TestUtils;
+import haveno.network.p2p.storage.P2PDataStorage;
+import haveno.network.p2p.storage.mocks.ProtectedStoragePayloadStub;
+import org.junit.jupiter.api.Test;
+
+import java.security.KeyPair;
+import java.security.NoSuchAlgorithmException;
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class SignatureVerifierTest {
+
+    private static ProtectedStorageEntry buildProtectedStorageEntry(KeyPair owner, KeyPair signer, int sequenceNumber)
+            throws CryptoException {
+        ProtectedStoragePayload protectedStoragePayload = new ProtectedStoragePayloadStub(owner.getPublic());
+        byte[] hashOfDataAndSeqNr = P2PDataStorage.get32ByteHash(new P2PDataStorage.DataAndSeqNrPair(protectedStoragePayload, sequenceNumber));
+        byte[] signature = Sig.sign(signer.getPrivate(), hashOfDataAndSeqNr);
+        return new ProtectedStorageEntry(protectedStoragePayload, owner.getPublic(), sequenceNumber, signature,
+                Clock.systemDefaultZone());
+    }
+
+    @Test
+    public void verifyAll_detectsInvalidSignatures() throws NoSuchAlgorithmException, CryptoException {
+        KeyPair ownerKeys = TestUtils.generateKeyPair();
+        KeyPair notOwnerKeys = TestUtils.generateKeyPair();
+        List<ProtectedStorageEntry> entries = new ArrayList<>();
+        for (int i = 1; i <= 250; i++) {
+            entries.add(buildProtectedStorageEntry(ownerKeys, ownerKeys, i));
+        }
+        ProtectedStorageEntry invalidEntry = buildProtectedStorageEntry(ownerKeys, notOwnerKeys, 251);
+        entries.add(invalidEntry);
+
+        SignatureVerifier.verifyAll(entries);
+
+        entries.stream()
+                .filter(entry -> entry != invalidEntry)
+                .forEach(entry -> assertTrue(entry.isValidForAddOperation()));
+        assertFalse(invalidEntry.isValidForAddOperation());
+    }
+
+    @Test
+    public void isSignatureValid_sameResultForEqualEntries() throws NoSuchAlgorithmException, CryptoException {
+        KeyPair ownerKeys = TestUtils.generateKeyPair();
+        KeyPair notOwnerKeys = TestUtils.generateKeyPair();
+        ProtectedStorageEntry entry = buildProtectedStorageEntry(ownerKeys, notOwnerKeys, 1);
+        assertFalse(entry.isSignatureValid());
+
+        // A new instance of the same entry, e.g. received from another peer
+        ProtectedStorageEntry sameEntry = new ProtectedStorageEntry(entry.getProtectedStoragePayload(),
+                entry.getOwnerPubKey(), entry.getSequenceNumber(), entry.getSignature(), Clock.systemDefaultZone());
+        assertFalse(sameEntry.isSignatureValid());
+    }
+}
@@ -0,0 +1,149 @@
+/*
+ * This file is part of Haveno.
+ *
+ * Haveno is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Haveno is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Haveno. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package haveno.network.p2p.storage.persistence;
+
+import com.google.protobuf.ByteString;
+import haveno.network.p2p.storage.P2PDataStorage;
+import haveno.network.p2p.storage.payload.PersistableNetworkPayload;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class MappedPayloadStoreTest {
+    private static final Function<protobuf.PersistableNetworkPayload, PersistableNetworkPayload> DECODER = proto ->
+            new PayloadStub(proto.getAccountAgeWitness().getHash().toByteArray(), proto.getAccountAgeWitness().getDate());
+
+    @TempDir
+    File dir;
+
+    private static class PayloadStub implements PersistableNetworkPayload {
+        private final byte[] hash;
+        private final long date;
+
+        PayloadStub(byte[] hash, long date) {
+            this.hash = hash;
+            this.date = date;
+        }
+
+        @Override
+        public protobuf.PersistableNetworkPayload toProtoMessage() {
+            return protobuf.PersistableNetworkPayload.newBuilder()
+                    .setAccountAgeWitness(protobuf.AccountAgeWitness.newBuilder()
+                            .setHash(ByteString.copyFrom(hash))
+                            .setDate(date))
+                    .build();
+        }
+
+        @Override
+        public byte[] getHash() {
+            return hash;
+        }
+
+        @Override
+        public boolean verifyHashSize() {
+            return true;
+        }
+    }
+
+    @Test
+    public void create_lookupAndIterate() throws Exception {
+        File sourceFile = createSourceFile();
+        List<PersistableNetworkPayload> payloads = List.of(
+                new PayloadStub(new byte[]{(byte) 0xff, 1}, 3),
+                new PayloadStub(new byte[]{0, 2}, 1),
+                new PayloadStub(new byte[]{(byte) 0x80, 0}, 2));
+        MappedPayloadStore store = MappedPayloadStore.create(new File(dir, "store_mapped"), sourceFile, payloads, DECODER);
+
+        assertEquals(3, store.size());
+        for (PersistableNetworkPayload payload : payloads) {
+            P2PDataStorage.ByteArray key = new P2PDataStorage.ByteArray(payload.getHash());
+            assertTrue(store.containsKey(key));
+            assertEquals(payload.toProtoMessage(), store.get(key).toProtoMessage());
+        }
+        assertFalse(store.containsKey(new P2PDataStorage.ByteArray(new byte[]{0, 3})));
+        assertNull(store.get(new P2PDataStorage.ByteArray(new byte[]{0})));
+
+        Set<P2PDataStorage.ByteArray> keys = new HashSet<>(store.keySet());
+        assertEquals(3, keys.size());
+        assertEquals(3, store.values().size());
+
+        Set<P2PDataStorage.ByteArray> indexedKeys = new HashSet<>();
+        store.forEachIndexEntry((hash, date, serializedSize) -> {
+            indexedKeys.add(hash);
+            assertEquals(0, date);
+            assertEquals(store.get(hash).toProtoMessage().getSerializedSize(), serializedSize);
+        });
+        assertEquals(keys, indexedKeys);
+    }
+
+    @Test
+    public void get_reusesDecodedPayloads() throws Exception {
+        AtomicInteger numDecoded = new AtomicInteger();
+        Function<protobuf.PersistableNetworkPayload, PersistableNetworkPayload> countingDecoder = proto -> {
+            numDecoded.incrementAndGet();
+            return DECODER.apply(proto);
+        };
+        List<PersistableNetworkPayload> payloads = List.of(
+                new PayloadStub(new byte[]{0, 1}, 1),
+                new PayloadStub(new byte[]{0, 2}, 2));
+        MappedPayloadStore store = MappedPayloadStore.create(new File(dir, "store_mapped"), createSourceFile(), payloads,
+                countingDecoder);
+        P2PDataStorage.ByteArray key = new P2PDataStorage.ByteArray(payloads.get(0).getHash());
+
+        assertSame(store.get(key), store.get(key));
+        assertEquals(1, numDecoded.get());
+
+        // Iterating does not use the cache
+        assertEquals(2, store.values().size());
+        store.values().forEach(payload -> assertNotNull(payload.getHash()));
+        assertEquals(3, numDecoded.get());
+    }
+
+    @Test
+    public void open_requiresMatchingSourceFile() throws Exception {
+        File sourceFile = createSourceFile();
+        File file = new File(dir, "store_mapped");
+        MappedPayloadStore.create(file, sourceFile, List.of(new PayloadStub(new byte[]{1}, 1)), DECODER);
+        assertNotNull(MappedPayloadStore.open(file, sourceFile, DECODER));
+
+        Files.write(sourceFile.toPath(), new byte[]{1, 2, 3, 4});
+        assertNull(MappedPayloadStore.open(file, sourceFile, DECODER));
+        assertNull(MappedPayloadStore.open(new File(dir, "missing"), sourceFile, DECODER));
+    }
+
+    private File createSourceFile() throws Exception {
+        File sourceFile = new File(dir, "store");
+        Files.write(sourceFile.toPath(), new byte[]{1, 2, 3});
+        return sourceFile;
+    }
+}